@@ -0,0 +1,70 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.benchmarks;
+
+import software.amazon.awssdk.crt.http.HttpRequestBodyStream;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Request body of a given length, filled from a small repeating buffer so that uploads cost no memory
+ * and little CPU on the Java side.
+ */
+final class PatternBodyStream implements HttpRequestBodyStream {
+
+    private static final ByteBuffer PATTERN;
+    static {
+        byte[] pattern = new byte[64 * 1024];
+        for (int i = 0; i < pattern.length; i++) {
+            pattern[i] = (byte) i;
+        }
+        PATTERN = ByteBuffer.wrap(pattern).asReadOnlyBuffer();
+    }
+
+    private final long length;
+    private final int preferredFillSize;
+    private long position;
+    private long calls;
+
+    PatternBodyStream(long length, int preferredFillSize) {
+        this.length = length;
+        this.preferredFillSize = preferredFillSize;
+    }
+
+    @Override
+    public synchronized boolean sendRequestBody(ByteBuffer bodyBytesOut) {
+        calls++;
+        while (bodyBytesOut.hasRemaining() && position < length) {
+            ByteBuffer chunk = PATTERN.duplicate();
+            chunk.limit((int) Math.min(chunk.capacity(), Math.min(bodyBytesOut.remaining(), length - position)));
+            bodyBytesOut.put(chunk);
+            position += chunk.limit();
+        }
+        return position == length;
+    }
+
+    @Override
+    public synchronized boolean resetPosition() {
+        position = 0;
+        return true;
+    }
+
+    @Override
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public int getPreferredFillSize() {
+        return preferredFillSize;
+    }
+
+    /**
+     * @return number of sendRequestBody calls so far
+     */
+    synchronized long getCalls() {
+        return calls;
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import software.amazon.awssdk.crt.CRT;
+import software.amazon.awssdk.crt.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.crt.auth.signing.AwsSigningConfig;
+import software.amazon.awssdk.crt.http.HttpHeader;
+import software.amazon.awssdk.crt.http.HttpRequest;
+import software.amazon.awssdk.crt.http.HttpRequestBodyStream;
+import software.amazon.awssdk.crt.io.ClientBootstrap;
+import software.amazon.awssdk.crt.io.EventLoopGroup;
+import software.amazon.awssdk.crt.io.HostResolver;
+import software.amazon.awssdk.crt.s3.S3Client;
+import software.amazon.awssdk.crt.s3.S3ClientOptions;
+import software.amazon.awssdk.crt.s3.S3FinishedResponseContext;
+import software.amazon.awssdk.crt.s3.S3MetaRequest;
+import software.amazon.awssdk.crt.s3.S3MetaRequestOptions;
+import software.amazon.awssdk.crt.s3.S3MetaRequestProgress;
+import software.amazon.awssdk.crt.s3.S3MetaRequestResponseHandler;
+import software.amazon.awssdk.crt.s3.S3ResponseBodyLease;
+import software.amazon.awssdk.crt.test.MockS3Server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs an S3Client against a {@link MockS3Server} for the lifetime of a benchmark trial.
+ * Subclasses set up the objects they need in {@link #setUpObjects} and may adjust the client in
+ * {@link #configure}.
+ */
+@State(Scope.Benchmark)
+public abstract class S3BenchmarkBase {
+
+    static final String REGION = "us-east-1";
+
+    /** Delay of the mock server before each response, in milliseconds. */
+    @Param("0")
+    public int latencyMillis;
+
+    /** Bandwidth of each connection to the mock server, in bytes per second, 0 for no limit. */
+    @Param("0")
+    public long bandwidthBytesPerSecond;
+
+    /** Share of requests failed with 503 SlowDown. */
+    @Param("0")
+    public double errorRate;
+
+    protected MockS3Server server;
+    protected S3Client client;
+
+    private EventLoopGroup eventLoopGroup;
+    private HostResolver hostResolver;
+    private ClientBootstrap clientBootstrap;
+    private StaticCredentialsProvider credentialsProvider;
+    private AwsSigningConfig signingConfig;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new MockS3Server()
+                .withLatencyMillis(latencyMillis)
+                .withBandwidthBytesPerSecond(bandwidthBytesPerSecond)
+                .withErrorRate(errorRate)
+                .start();
+        setUpObjects();
+
+        eventLoopGroup = new EventLoopGroup(0, 0);
+        hostResolver = new HostResolver(eventLoopGroup);
+        clientBootstrap = new ClientBootstrap(eventLoopGroup, hostResolver);
+        credentialsProvider = new StaticCredentialsProvider.StaticCredentialsProviderBuilder()
+                .withAccessKeyId("AKIDEXAMPLE".getBytes(StandardCharsets.UTF_8))
+                .withSecretAccessKey("wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY".getBytes(StandardCharsets.UTF_8))
+                .build();
+        signingConfig = AwsSigningConfig.getDefaultS3SigningConfig(REGION, credentialsProvider);
+        S3ClientOptions options = new S3ClientOptions()
+                .withRegion(REGION)
+                .withClientBootstrap(clientBootstrap)
+                .withSigningConfig(signingConfig)
+                .withThroughputTargetGbps(100);
+        configure(options);
+        client = new S3Client(options);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        client.close();
+        client.getShutdownCompleteFuture().get();
+        signingConfig.close();
+        credentialsProvider.close();
+        clientBootstrap.close();
+        hostResolver.close();
+        eventLoopGroup.close();
+        server.close();
+    }
+
+    /**
+     * Create the objects the benchmark reads, with {@link MockS3Server#putObject}.
+     */
+    protected void setUpObjects() {
+    }
+
+    /**
+     * Adjust the options of the client before it is created.
+     *
+     * @param options client options, with region, bootstrap and signing already set
+     */
+    protected void configure(S3ClientOptions options) {
+    }
+
+    /**
+     * @param method HTTP method
+     * @param path path of the object
+     * @param body body of the request, or null for none
+     * @return request for the mock server
+     */
+    protected HttpRequest request(String method, String path, HttpRequestBodyStream body) {
+        HttpHeader[] headers;
+        if (body != null) {
+            headers = new HttpHeader[] { new HttpHeader("Host", server.getHost()),
+                    new HttpHeader("Content-Length", Long.toString(body.getLength())) };
+        } else {
+            headers = new HttpHeader[] { new HttpHeader("Host", server.getHost()) };
+        }
+        return new HttpRequest(method, path, headers, body);
+    }
+
+    /**
+     * Start a meta request against the mock server.
+     *
+     * @param options meta request options, with request, type and response handler set
+     * @return the meta request
+     */
+    protected S3MetaRequest start(S3MetaRequestOptions options) {
+        return client.makeMetaRequest(options.withEndpoint(server.getEndpoint()));
+    }
+
+    /**
+     * Run a meta request against the mock server and wait for it to finish.
+     *
+     * @param options meta request options, with request and type set
+     * @param responseHandler handler of the response, notified before the meta request is reported finished
+     */
+    protected void run(S3MetaRequestOptions options, S3MetaRequestResponseHandler responseHandler) throws Exception {
+        CompletableFuture<Void> finished = new CompletableFuture<>();
+        try (S3MetaRequest metaRequest = start(options.withResponseHandler(finishedFuture(responseHandler, finished)))) {
+            finished.get();
+        }
+    }
+
+    /**
+     * Wrap a response handler so that it completes a future when the meta request finishes.
+     *
+     * @param responseHandler handler to forward headers, body and progress to
+     * @param finished completed when the meta request finishes, exceptionally if it fails
+     * @return the wrapping handler
+     */
+    protected static S3MetaRequestResponseHandler finishedFuture(S3MetaRequestResponseHandler responseHandler,
+            CompletableFuture<Void> finished) {
+        return new S3MetaRequestResponseHandler() {
+            @Override
+            public void onResponseHeaders(int statusCode, HttpHeader[] headers) {
+                responseHandler.onResponseHeaders(statusCode, headers);
+            }
+
+            @Override
+            public int onResponseBody(ByteBuffer bodyBytesIn, long objectRangeStart, long objectRangeEnd) {
+                return responseHandler.onResponseBody(bodyBytesIn, objectRangeStart, objectRangeEnd);
+            }
+
+            @Override
+            public int onResponseBody(S3ResponseBodyLease lease) {
+                return responseHandler.onResponseBody(lease);
+            }
+
+            @Override
+            public void onProgress(S3MetaRequestProgress progress) {
+                responseHandler.onProgress(progress);
+            }
+
+            @Override
+            public void onFinished(S3FinishedResponseContext context) {
+                if (context.getErrorCode() != 0) {
+                    finished.completeExceptionally(new IllegalStateException("Meta request failed: "
+                            + CRT.awsErrorName(context.getErrorCode()) + ", status " + context.getResponseStatus()));
+                } else {
+                    finished.complete(null);
+                }
+            }
+        };
+    }
+}
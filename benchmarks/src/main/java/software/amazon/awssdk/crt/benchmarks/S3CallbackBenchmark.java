@@ -0,0 +1,103 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.crt.s3.S3MetaRequestOptions;
+import software.amazon.awssdk.crt.s3.S3MetaRequestResponseHandler;
+import software.amazon.awssdk.crt.s3.S3MetaRequestProgress;
+import software.amazon.awssdk.crt.s3.S3ResponseBodyLease;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of the native-to-Java callbacks of a download, with an unthrottled server so that the callbacks,
+ * not the transfer, bound the time. The callback counters give the cost per callback.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class S3CallbackBenchmark extends S3BenchmarkBase {
+
+    private static final String PATH = "/benchmark/callback-object";
+
+    @Param({"134217728"})
+    public long objectSize;
+
+    /** Whether bodies are lent as direct buffers rather than copied into Java arrays. */
+    @Param({"false", "true"})
+    public boolean directResponseBody;
+
+    /**
+     * Number of callbacks per benchmark invocation, reported next to the score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Callbacks {
+        public long bodyCallbacks;
+        public long progressCallbacks;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bodyCallbacks = 0;
+            progressCallbacks = 0;
+        }
+    }
+
+    @Override
+    protected void setUpObjects() {
+        server.putObject(PATH, objectSize);
+    }
+
+    @Benchmark
+    public long getObject(Callbacks callbacks) throws Exception {
+        AtomicLong received = new AtomicLong();
+        AtomicLong bodyCallbacks = new AtomicLong();
+        AtomicLong progressCallbacks = new AtomicLong();
+        run(new S3MetaRequestOptions()
+                .withMetaRequestType(S3MetaRequestOptions.MetaRequestType.GET_OBJECT)
+                .withHttpRequest(request("GET", PATH, null))
+                .withDirectResponseBody(directResponseBody),
+                new S3MetaRequestResponseHandler() {
+                    @Override
+                    public int onResponseBody(ByteBuffer bodyBytesIn, long objectRangeStart, long objectRangeEnd) {
+                        bodyCallbacks.incrementAndGet();
+                        received.addAndGet(bodyBytesIn.remaining());
+                        return 0;
+                    }
+
+                    @Override
+                    public int onResponseBody(S3ResponseBodyLease lease) {
+                        bodyCallbacks.incrementAndGet();
+                        received.addAndGet(lease.getLength());
+                        return 0;
+                    }
+
+                    @Override
+                    public void onProgress(S3MetaRequestProgress progress) {
+                        progressCallbacks.incrementAndGet();
+                    }
+                });
+        callbacks.bodyCallbacks += bodyCallbacks.get();
+        callbacks.progressCallbacks += progressCallbacks.get();
+        return received.get();
+    }
+}
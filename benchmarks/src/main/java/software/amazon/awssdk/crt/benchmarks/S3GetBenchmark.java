@@ -0,0 +1,69 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.crt.s3.S3ClientOptions;
+import software.amazon.awssdk.crt.s3.S3MetaRequestOptions;
+import software.amazon.awssdk.crt.s3.S3MetaRequestResponseHandler;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time to download one large object with a multipart GET. Throughput is objectSize divided by the score.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class S3GetBenchmark extends S3BenchmarkBase {
+
+    private static final String PATH = "/benchmark/get-object";
+
+    @Param({"268435456"})
+    public long objectSize;
+
+    @Param({"8388608"})
+    public long partSize;
+
+    @Override
+    protected void setUpObjects() {
+        server.putObject(PATH, objectSize);
+    }
+
+    @Override
+    protected void configure(S3ClientOptions options) {
+        options.withPartSize(partSize);
+    }
+
+    @Benchmark
+    public long getObject() throws Exception {
+        AtomicLong received = new AtomicLong();
+        run(new S3MetaRequestOptions()
+                .withMetaRequestType(S3MetaRequestOptions.MetaRequestType.GET_OBJECT)
+                .withHttpRequest(request("GET", PATH, null)),
+                new S3MetaRequestResponseHandler() {
+                    @Override
+                    public int onResponseBody(ByteBuffer bodyBytesIn, long objectRangeStart, long objectRangeEnd) {
+                        received.addAndGet(bodyBytesIn.remaining());
+                        return 0;
+                    }
+                });
+        if (received.get() != objectSize) {
+            throw new IllegalStateException("Received " + received.get() + " bytes of " + objectSize);
+        }
+        return received.get();
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.crt.s3.S3ClientOptions;
+import software.amazon.awssdk.crt.s3.S3MetaRequestOptions;
+import software.amazon.awssdk.crt.s3.S3MetaRequestResponseHandler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to upload one large object with a multipart PUT from a Java body stream.
+ * Throughput is objectSize divided by the score.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class S3PutBenchmark extends S3BenchmarkBase {
+
+    private static final String PATH = "/benchmark/put-object";
+
+    @Param({"268435456"})
+    public long objectSize;
+
+    @Param({"8388608"})
+    public long partSize;
+
+    /** Preferred fill size of the body stream, 0 for one upcall per native read. */
+    @Param({"0", "1048576"})
+    public int preferredFillSize;
+
+    @Override
+    protected void configure(S3ClientOptions options) {
+        options.withPartSize(partSize).withMultipartUploadThreshold(partSize);
+    }
+
+    @Benchmark
+    public long putObject() throws Exception {
+        PatternBodyStream body = new PatternBodyStream(objectSize, preferredFillSize);
+        run(new S3MetaRequestOptions()
+                .withMetaRequestType(S3MetaRequestOptions.MetaRequestType.PUT_OBJECT)
+                .withHttpRequest(request("PUT", PATH, body)),
+                new S3MetaRequestResponseHandler() {
+                });
+        if (server.getObjectSize(PATH) != objectSize) {
+            throw new IllegalStateException("Uploaded " + server.getObjectSize(PATH) + " bytes of " + objectSize);
+        }
+        return body.getCalls();
+    }
+}
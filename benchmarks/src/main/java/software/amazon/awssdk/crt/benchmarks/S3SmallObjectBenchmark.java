@@ -0,0 +1,85 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.crt.s3.S3MetaRequest;
+import software.amazon.awssdk.crt.s3.S3MetaRequestOptions;
+import software.amazon.awssdk.crt.s3.S3MetaRequestResponseHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate of small-object GETs and PUTs, with BATCH meta requests in flight at once, which is dominated by
+ * per meta request overhead rather than by bandwidth.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class S3SmallObjectBenchmark extends S3BenchmarkBase {
+
+    private static final int BATCH = 256;
+
+    @Param({"4096", "65536"})
+    public long objectSize;
+
+    @Override
+    protected void setUpObjects() {
+        for (int i = 0; i < BATCH; i++) {
+            server.putObject(path(i), objectSize);
+        }
+    }
+
+    private static String path(int index) {
+        return "/benchmark/small-object-" + index;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void getObjects() throws Exception {
+        runBatch("GET", S3MetaRequestOptions.MetaRequestType.GET_OBJECT);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void putObjects() throws Exception {
+        runBatch("PUT", S3MetaRequestOptions.MetaRequestType.PUT_OBJECT);
+    }
+
+    private void runBatch(String method, S3MetaRequestOptions.MetaRequestType type) throws Exception {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(BATCH);
+        List<S3MetaRequest> metaRequests = new ArrayList<>(BATCH);
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                CompletableFuture<Void> finished = new CompletableFuture<>();
+                futures.add(finished);
+                metaRequests.add(start(new S3MetaRequestOptions()
+                        .withMetaRequestType(type)
+                        .withHttpRequest(request(method, path(i),
+                                "PUT".equals(method) ? new PatternBodyStream(objectSize, 0) : null))
+                        .withResponseHandler(finishedFuture(new S3MetaRequestResponseHandler() {
+                        }, finished))));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+        } finally {
+            for (S3MetaRequest metaRequest : metaRequests) {
+                metaRequest.close();
+            }
+        }
+    }
+}
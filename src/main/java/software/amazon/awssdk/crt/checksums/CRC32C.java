@@ -5,6 +5,7 @@
 package software.amazon.awssdk.crt.checksums;
 
 import software.amazon.awssdk.crt.CRT;
+import java.nio.ByteBuffer;
 import java.util.zip.Checksum;
 
 /**
@@ -80,8 +81,52 @@ public class CRC32C implements Checksum, Cloneable {
         this.update(buf);
     }
 
+    /**
+     * Updates the current checksum with the remaining bytes of a buffer, and moves its position to its limit.
+     * Direct buffers are read in place, without a copy to the Java heap.
+     *
+     * @param buffer the buffer to update the checksum with
+     */
+    public void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        int length = buffer.limit() - position;
+        if (length <= 0) {
+            return;
+        }
+        if (buffer.hasArray()) {
+            update(buffer.array(), buffer.arrayOffset() + position, length);
+        } else if (buffer.isDirect()) {
+            value = crc32cDirect(buffer, value, position, length);
+        } else {
+            /* Read-only heap buffer */
+            ByteBuffer view = buffer.duplicate();
+            byte[] copy = new byte[Math.min(length, 64 * 1024)];
+            while (view.hasRemaining()) {
+                int chunk = Math.min(copy.length, view.remaining());
+                view.get(copy, 0, chunk);
+                update(copy, 0, chunk);
+            }
+        }
+        buffer.position(buffer.limit());
+    }
+
+    /**
+     * Combines the checksums of two adjacent blocks of data into the checksum of their concatenation,
+     * without reading the data again. Use it to merge checksums computed in parallel, or to compute the
+     * full-object checksum of a multipart object from the checksums of its parts.
+     *
+     * @param crcA checksum of the first block, as returned by {@link #getValue()}
+     * @param crcB checksum of the second block
+     * @param lengthB length of the second block, in bytes
+     * @return checksum of the first block followed by the second block
+     */
+    public static long combine(long crcA, long crcB, long lengthB) {
+        return CrcCombine.CRC32C.combine(crcA, crcB, lengthB);
+    }
+
     /*******************************************************************************
      * native methods
      ******************************************************************************/
     private static native int crc32c(byte[] input, int previous, int offset, int length);
+    private static native int crc32cDirect(ByteBuffer input, int previous, int offset, int length);
 }
@@ -0,0 +1,77 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.checksums;
+
+/**
+ * Combines the CRCs of two adjacent blocks of data into the CRC of their concatenation,
+ * for reflected CRCs whose initial value and final xor are both all ones (CRC32, CRC32C, CRC64NVME).
+ * <p>
+ * For such CRCs, crc(A || B) = crc(A) * x^(8 * len(B)) mod P xor crc(B), computed in O(log(len(B)))
+ * polynomial multiplications, without touching the data (same approach as zlib's crc32_combine).
+ * Polynomials are held in reflected bit order in the low {@code width} bits of a long.
+ */
+final class CrcCombine {
+
+    static final CrcCombine CRC32 = new CrcCombine(32, 0xEDB88320L);
+    static final CrcCombine CRC32C = new CrcCombine(32, 0x82F63B78L);
+    static final CrcCombine CRC64NVME = new CrcCombine(64, 0x9A6C9329AC4BC9B5L);
+
+    private final long poly;
+    private final long mask;
+    /* x^0, the multiplicative identity, in reflected order */
+    private final long one;
+    /* powerOfTwoTable[k] = x^(2^k) mod P, for every k a non-negative length in bits can need */
+    private final long[] powerOfTwoTable;
+
+    private CrcCombine(int width, long poly) {
+        this.poly = poly;
+        this.mask = width == 64 ? -1L : (1L << width) - 1;
+        this.one = 1L << (width - 1);
+        this.powerOfTwoTable = new long[67];
+        long p = one >>> 1;
+        for (int k = 0; k < powerOfTwoTable.length; k++) {
+            powerOfTwoTable[k] = p;
+            p = multiplyModP(p, p);
+        }
+    }
+
+    long combine(long crcA, long crcB, long lengthB) {
+        if (lengthB < 0) {
+            throw new IllegalArgumentException("CRC combine: length must not be negative.");
+        }
+        /* lengthB bytes is 8 * lengthB bits, so start from x^(2^3) */
+        return (multiplyModP(xPowerModP(lengthB, 3), crcA & mask) ^ crcB) & mask;
+    }
+
+    /* a * b mod P */
+    private long multiplyModP(long a, long b) {
+        long m = one;
+        long product = 0;
+        while (m != 0) {
+            if ((a & m) != 0) {
+                product ^= b;
+                if ((a & (m - 1)) == 0) {
+                    break;
+                }
+            }
+            m >>>= 1;
+            b = (b & 1) != 0 ? (b >>> 1) ^ poly : b >>> 1;
+        }
+        return product;
+    }
+
+    /* x^(n * 2^k) mod P */
+    private long xPowerModP(long n, int k) {
+        long p = one;
+        while (n != 0) {
+            if ((n & 1) != 0) {
+                p = multiplyModP(powerOfTwoTable[k], p);
+            }
+            n >>>= 1;
+            k++;
+        }
+        return p;
+    }
+}
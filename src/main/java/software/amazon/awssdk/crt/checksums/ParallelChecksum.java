@@ -0,0 +1,282 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.checksums;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.Checksum;
+
+/**
+ * Computes the CRC of a large buffer or file in parallel.
+ * <p>
+ * The data is split into chunks, each chunk is checksummed by a task of a ForkJoinPool, and the partial
+ * checksums are merged with {@link CRC32#combine}, {@link CRC32C#combine} or {@link CRC64NVME#combine}.
+ * The result is identical to a sequential {@code update()} over the whole data.
+ */
+public final class ParallelChecksum {
+
+    /**
+     * Default size of the chunks checksummed by a single task, in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    /* Size of the reads of file chunks */
+    private static final int IO_BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * Checksum algorithms that can be computed in parallel.
+     */
+    public enum Algorithm {
+        CRC32,
+        CRC32C,
+        CRC64NVME;
+
+        Checksum newChecksum() {
+            switch (this) {
+                case CRC32:
+                    return new software.amazon.awssdk.crt.checksums.CRC32();
+                case CRC32C:
+                    return new software.amazon.awssdk.crt.checksums.CRC32C();
+                default:
+                    return new software.amazon.awssdk.crt.checksums.CRC64NVME();
+            }
+        }
+
+        /* Checksum of the remaining bytes of a buffer, read in place when it is direct */
+        long checksum(ByteBuffer data) {
+            switch (this) {
+                case CRC32: {
+                    software.amazon.awssdk.crt.checksums.CRC32 checksum =
+                            new software.amazon.awssdk.crt.checksums.CRC32();
+                    checksum.update(data);
+                    return checksum.getValue();
+                }
+                case CRC32C: {
+                    software.amazon.awssdk.crt.checksums.CRC32C checksum =
+                            new software.amazon.awssdk.crt.checksums.CRC32C();
+                    checksum.update(data);
+                    return checksum.getValue();
+                }
+                default: {
+                    software.amazon.awssdk.crt.checksums.CRC64NVME checksum =
+                            new software.amazon.awssdk.crt.checksums.CRC64NVME();
+                    checksum.update(data);
+                    return checksum.getValue();
+                }
+            }
+        }
+
+        long combine(long crcA, long crcB, long lengthB) {
+            switch (this) {
+                case CRC32:
+                    return CrcCombine.CRC32.combine(crcA, crcB, lengthB);
+                case CRC32C:
+                    return CrcCombine.CRC32C.combine(crcA, crcB, lengthB);
+                default:
+                    return CrcCombine.CRC64NVME.combine(crcA, crcB, lengthB);
+            }
+        }
+    }
+
+    private ParallelChecksum() {
+    }
+
+    /**
+     * Checksum the remaining bytes of a buffer, with the default chunk size.
+     *
+     * @param algorithm checksum algorithm
+     * @param data data to checksum, from its position to its limit. The position is not changed.
+     * @param pool pool that runs the tasks, or null for the common pool
+     * @return the checksum
+     */
+    public static long compute(Algorithm algorithm, ByteBuffer data, ForkJoinPool pool) {
+        return compute(algorithm, data, pool, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Checksum the remaining bytes of a buffer.
+     *
+     * @param algorithm checksum algorithm
+     * @param data data to checksum, from its position to its limit. The position is not changed.
+     * @param pool pool that runs the tasks, or null for the common pool
+     * @param chunkSize size of the chunk checksummed by each task, in bytes
+     * @return the checksum
+     */
+    public static long compute(Algorithm algorithm, ByteBuffer data, ForkJoinPool pool, int chunkSize) {
+        validate(algorithm, chunkSize);
+        ByteBuffer view = data.duplicate();
+        return poolOrCommon(pool).invoke(new BufferTask(algorithm, view, view.position(), view.limit(), chunkSize));
+    }
+
+    /**
+     * Checksum a whole file, with the default chunk size.
+     *
+     * @param algorithm checksum algorithm
+     * @param file file to checksum
+     * @param pool pool that runs the tasks, or null for the common pool
+     * @return the checksum
+     * @throws IOException if the file cannot be read
+     */
+    public static long compute(Algorithm algorithm, Path file, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return compute(algorithm, channel, 0, channel.size(), pool, DEFAULT_CHUNK_SIZE);
+        }
+    }
+
+    /**
+     * Checksum a region of a file. The region is read with positional reads, so the channel's position is
+     * not used, and the channel may be shared.
+     *
+     * @param algorithm checksum algorithm
+     * @param channel channel to read from
+     * @param position offset of the region in the file
+     * @param length length of the region, in bytes
+     * @param pool pool that runs the tasks, or null for the common pool
+     * @param chunkSize size of the chunk checksummed by each task, in bytes
+     * @return the checksum
+     * @throws IOException if the region cannot be read
+     */
+    public static long compute(Algorithm algorithm, FileChannel channel, long position, long length,
+            ForkJoinPool pool, int chunkSize) throws IOException {
+        validate(algorithm, chunkSize);
+        if (position < 0 || length < 0) {
+            throw new IllegalArgumentException("ParallelChecksum: position and length must not be negative.");
+        }
+        try {
+            return poolOrCommon(pool).invoke(new FileTask(algorithm, channel, position, position + length, chunkSize));
+        } catch (UncheckedIOException ex) {
+            /* ForkJoinTask may rethrow a copy of the exception, with the original as its cause */
+            Throwable cause = ex;
+            while (cause instanceof UncheckedIOException) {
+                cause = cause.getCause();
+            }
+            throw (IOException) cause;
+        }
+    }
+
+    private static void validate(Algorithm algorithm, int chunkSize) {
+        if (algorithm == null) {
+            throw new IllegalArgumentException("ParallelChecksum: algorithm must not be null.");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("ParallelChecksum: chunk size must be positive.");
+        }
+    }
+
+    private static ForkJoinPool poolOrCommon(ForkJoinPool pool) {
+        return pool != null ? pool : ForkJoinPool.commonPool();
+    }
+
+    /* Split point of [start, end), on a chunk boundary so that every leaf but the last is a whole chunk */
+    private static long splitPoint(long start, long end, int chunkSize) {
+        long chunks = (end - start + chunkSize - 1) / chunkSize;
+        return start + (chunks / 2) * chunkSize;
+    }
+
+    /**
+     * Checksums [start, end) of the data, combining the checksums of its two halves.
+     */
+    private abstract static class RangeTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 0;
+
+        final Algorithm algorithm;
+        final long start;
+        final long end;
+        final int chunkSize;
+
+        RangeTask(Algorithm algorithm, long start, long end, int chunkSize) {
+            this.algorithm = algorithm;
+            this.start = start;
+            this.end = end;
+            this.chunkSize = chunkSize;
+        }
+
+        abstract RangeTask subTask(long subStart, long subEnd);
+
+        abstract long checksumChunk();
+
+        @Override
+        protected Long compute() {
+            if (end - start <= chunkSize) {
+                return checksumChunk();
+            }
+            long middle = splitPoint(start, end, chunkSize);
+            RangeTask left = subTask(start, middle);
+            RangeTask right = subTask(middle, end);
+            left.fork();
+            long rightCrc = right.compute();
+            long leftCrc = left.join();
+            return algorithm.combine(leftCrc, rightCrc, end - middle);
+        }
+    }
+
+    private static final class BufferTask extends RangeTask {
+        private static final long serialVersionUID = 0;
+
+        private final ByteBuffer data;
+
+        BufferTask(Algorithm algorithm, ByteBuffer data, long start, long end, int chunkSize) {
+            super(algorithm, start, end, chunkSize);
+            this.data = data;
+        }
+
+        @Override
+        RangeTask subTask(long subStart, long subEnd) {
+            return new BufferTask(algorithm, data, subStart, subEnd, chunkSize);
+        }
+
+        @Override
+        long checksumChunk() {
+            ByteBuffer chunk = data.duplicate();
+            chunk.limit((int) end).position((int) start);
+            return algorithm.checksum(chunk);
+        }
+    }
+
+    private static final class FileTask extends RangeTask {
+        private static final long serialVersionUID = 0;
+
+        private final FileChannel channel;
+
+        FileTask(Algorithm algorithm, FileChannel channel, long start, long end, int chunkSize) {
+            super(algorithm, start, end, chunkSize);
+            this.channel = channel;
+        }
+
+        @Override
+        RangeTask subTask(long subStart, long subEnd) {
+            return new FileTask(algorithm, channel, subStart, subEnd, chunkSize);
+        }
+
+        @Override
+        long checksumChunk() {
+            Checksum checksum = algorithm.newChecksum();
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(IO_BUFFER_SIZE, Math.max(1, end - start)));
+            long position = start;
+            try {
+                while (position < end) {
+                    buffer.clear();
+                    buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new EOFException("ParallelChecksum: file ended before the region did.");
+                    }
+                    checksum.update(buffer.array(), 0, read);
+                    position += read;
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return checksum.getValue();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.http;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Request body made of several ByteBuffers, sent one after the other without concatenating them.
+ *
+ * If every buffer is direct, native reads the body straight from their memory (see {@link #getGatherBuffers}),
+ * with no call into Java per chunk. Otherwise the buffers are copied out by {@link #sendRequestBody}.
+ * The body of each buffer is its content between position and limit when the stream is created; the stream
+ * works on views, so it does not move the positions of the buffers given to it. The content must not change
+ * until the request completes.
+ */
+public class ByteBufferListRequestBodyStream implements HttpRequestBodyStream {
+
+    private final ByteBuffer[] buffers;
+    private final boolean allDirect;
+    private final long length;
+    private int index = 0;
+    private int offset = 0;
+
+    /**
+     * @param buffers buffers holding the body, in order
+     */
+    public ByteBufferListRequestBodyStream(List<ByteBuffer> buffers) {
+        if (buffers == null) {
+            throw new IllegalArgumentException("ByteBufferListRequestBodyStream: buffers must not be null");
+        }
+        this.buffers = new ByteBuffer[buffers.size()];
+        boolean direct = true;
+        long total = 0;
+        for (int i = 0; i < this.buffers.length; i++) {
+            ByteBuffer buffer = buffers.get(i);
+            if (buffer == null) {
+                throw new IllegalArgumentException("ByteBufferListRequestBodyStream: buffers must not contain null");
+            }
+            this.buffers[i] = buffer.slice();
+            direct &= buffer.isDirect();
+            total += buffer.remaining();
+        }
+        this.allDirect = direct;
+        this.length = total;
+    }
+
+    @Override
+    public boolean sendRequestBody(ByteBuffer bodyBytesOut) {
+        while (index < buffers.length && bodyBytesOut.hasRemaining()) {
+            ByteBuffer source = buffers[index].duplicate();
+            source.position(offset);
+            int amount = Math.min(source.remaining(), bodyBytesOut.remaining());
+            source.limit(offset + amount);
+            bodyBytesOut.put(source);
+            offset += amount;
+            if (offset == buffers[index].capacity()) {
+                index++;
+                offset = 0;
+            }
+        }
+        return index == buffers.length;
+    }
+
+    @Override
+    public boolean resetPosition() {
+        index = 0;
+        offset = 0;
+        return true;
+    }
+
+    @Override
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public ByteBuffer[] getGatherBuffers() {
+        if (!allDirect) {
+            return null;
+        }
+        return buffers.clone();
+    }
+}
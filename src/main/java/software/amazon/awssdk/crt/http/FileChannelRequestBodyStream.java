@@ -0,0 +1,101 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.http;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Request body read from a region of a {@link FileChannel}.
+ *
+ * Every call to {@link #sendRequestBody} fills the whole buffer with positional reads, and the stream asks
+ * native for large fills (see {@link #getPreferredFillSize}), so the body is sent with few upcalls.
+ * The stream can be rewound, which signing and retries require. The channel is not closed by the stream.
+ */
+public class FileChannelRequestBodyStream implements HttpRequestBodyStream {
+
+    /**
+     * Fill size used when none is given.
+     */
+    public static final int DEFAULT_FILL_SIZE = 256 * 1024;
+
+    private final FileChannel channel;
+    private final long offset;
+    private final long length;
+    private final int fillSize;
+    private long position = 0;
+
+    /**
+     * @param channel channel to read the body from
+     * @param offset position in the channel of the first byte of the body
+     * @param length number of bytes in the body
+     */
+    public FileChannelRequestBodyStream(FileChannel channel, long offset, long length) {
+        this(channel, offset, length, DEFAULT_FILL_SIZE);
+    }
+
+    /**
+     * @param channel channel to read the body from
+     * @param offset position in the channel of the first byte of the body
+     * @param length number of bytes in the body
+     * @param fillSize bytes native should pull per call, or 0 to let native choose per read
+     */
+    public FileChannelRequestBodyStream(FileChannel channel, long offset, long length, int fillSize) {
+        if (channel == null) {
+            throw new IllegalArgumentException("FileChannelRequestBodyStream: channel must not be null");
+        }
+        if (offset < 0 || length < 0 || fillSize < 0) {
+            throw new IllegalArgumentException("FileChannelRequestBodyStream: offset, length and fillSize must not be negative");
+        }
+        this.channel = channel;
+        this.offset = offset;
+        this.length = length;
+        this.fillSize = fillSize;
+    }
+
+    @Override
+    public boolean sendRequestBody(ByteBuffer bodyBytesOut) {
+        try {
+            while (position < length && bodyBytesOut.hasRemaining()) {
+                ByteBuffer target = bodyBytesOut;
+                if (bodyBytesOut.remaining() > length - position) {
+                    target = bodyBytesOut.duplicate();
+                    target.limit(target.position() + (int) (length - position));
+                }
+                int read = channel.read(target, offset + position);
+                if (read < 0) {
+                    throw new IOException("FileChannelRequestBodyStream: file is shorter than the body length");
+                }
+                if (target != bodyBytesOut) {
+                    bodyBytesOut.position(target.position());
+                }
+                position += read;
+            }
+        } catch (IOException ex) {
+            /* Surfaces in native as a callback failure, which fails the request */
+            throw new UncheckedIOException(ex);
+        }
+        return position == length;
+    }
+
+    @Override
+    public boolean resetPosition() {
+        position = 0;
+        return true;
+    }
+
+    @Override
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public int getPreferredFillSize() {
+        return fillSize;
+    }
+}
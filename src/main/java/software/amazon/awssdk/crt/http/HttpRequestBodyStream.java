@@ -21,6 +21,9 @@ public interface HttpRequestBodyStream {
      * Do NOT keep a reference to this ByteBuffer past the lifetime of this function call. The CommonRuntime reserves
      * the right to use DirectByteBuffers pointing to memory that only lives as long as the function call.
      *
+     * Each call is a native-to-Java upcall, so fill as much of the buffer as is available: the amount written
+     * is taken from the buffer's position once this returns, and returning early just costs another call.
+     *
      * @param bodyBytesOut The Buffer to write the Request Body Bytes to.
      * @return True if Request body is complete, false otherwise.
      */
@@ -48,4 +51,32 @@ public interface HttpRequestBodyStream {
      * @return Stream length, or 0 if unknown stream or length is unsupported
      */
     default long getLength() { return 0; }
+
+    /**
+     * Called once from native when the stream is created, to choose how the body is pulled.
+     *
+     * By default, each native read makes one call to {@link #sendRequestBody} with whatever room the reader
+     * has, which for HTTP requests is often a small chunk per call. If this returns a positive size, native
+     * allocates a direct buffer of that size and fills it with a single {@link #sendRequestBody} call whenever
+     * a read has less room than that. The following small reads are then served from the buffer without calling
+     * into Java, cutting the number of upcalls by up to size / chunk. Reads with more room are still passed through
+     * directly. Streams that can fill large buffers cheaply, e.g. from a FileChannel or a queue of buffers,
+     * benefit most.
+     *
+     * @return size in bytes of each fill, or 0 to call {@link #sendRequestBody} once per native read
+     */
+    default int getPreferredFillSize() { return 0; }
+
+    /**
+     * Called once from native when the stream is created, to check whether the body is already in memory.
+     *
+     * If this returns an array of direct buffers, native reads the body straight out of them, one after the
+     * other, from position 0 to the capacity of each. {@link #sendRequestBody}, {@link #resetPosition} and
+     * {@link #getLength} are then never called, and the stream can be read from any offset, which lets parts
+     * of a body be read without rewinding. The buffers must not change until the request completes. If any
+     * element is null or not direct, native falls back to calling {@link #sendRequestBody}.
+     *
+     * @return the buffers holding the body, or null to pull the body through {@link #sendRequestBody}
+     */
+    default ByteBuffer[] getGatherBuffers() { return null; }
 }
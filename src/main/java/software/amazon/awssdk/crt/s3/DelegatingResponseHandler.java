@@ -0,0 +1,62 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import software.amazon.awssdk.crt.http.HttpHeader;
+
+/**
+ * Base for response handlers that consume the response body themselves,
+ * and forward every other callback to an optional user handler.
+ */
+abstract class DelegatingResponseHandler implements S3MetaRequestResponseHandler {
+
+    private final S3MetaRequestResponseHandler delegate;
+
+    DelegatingResponseHandler(S3MetaRequestResponseHandler delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void onResponseHeaders(final int statusCode, final HttpHeader[] headers) {
+        if (delegate != null) {
+            delegate.onResponseHeaders(statusCode, headers);
+        }
+    }
+
+    @Override
+    public void onFinished(S3FinishedResponseContext context) {
+        if (delegate != null) {
+            delegate.onFinished(context);
+        }
+    }
+
+    @Override
+    public void onProgress(final S3MetaRequestProgress progress) {
+        if (delegate != null) {
+            delegate.onProgress(progress);
+        }
+    }
+
+    @Override
+    public void onTelemetry(S3RequestMetrics requestMetrics) {
+        if (delegate != null) {
+            delegate.onTelemetry(requestMetrics);
+        }
+    }
+
+    @Override
+    public void onTelemetryBatch(S3RequestMetricsBatch batch) {
+        if (delegate != null) {
+            delegate.onTelemetryBatch(batch);
+        }
+    }
+
+    @Override
+    public void onErrorResumeToken(final int errorCode, final ResumeToken resumeToken) {
+        if (delegate != null) {
+            delegate.onErrorResumeToken(errorCode, resumeToken);
+        }
+    }
+}
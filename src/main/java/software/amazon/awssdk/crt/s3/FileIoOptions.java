@@ -18,7 +18,9 @@ public class FileIoOptions {
 
     /**
      * The estimated disk throughput in gigabits per second (Gbps).
-     * Only applied when {@code shouldStream} is true.
+     * For uploads, only applied when {@code shouldStream} is true.
+     * For downloads to a response file, caps the connections of the meta request so that data is not
+     * received faster than the disk can write it.
      *
      * Note: There are possibilities that cannot reach all available disk throughput:
      * 1. Disk is busy with other applications
@@ -36,7 +38,8 @@ public class FileIoOptions {
      * - Supported for both upload (send_filepath) and download (recv_filepath).
      * - This is a BEST-EFFORT optimization. The request transparently falls back to
      *   buffered I/O (logging a warning) if any of the following preconditions are not met:
-     *     - part_size is not page-aligned
+     *     - part_size is not page-aligned (for downloads to a response file, S3Client rounds the part size
+     *       up to a multiple of 4096 bytes)
      *     - For WRITE_TO_POSITION, recv_file_position is not page-aligned
      *     - For CREATE_OR_APPEND, the existing file size is not page-aligned
      *     - The last part of the download has an unaligned length
@@ -90,7 +93,8 @@ public class FileIoOptions {
 
     /**
      * Sets the estimated disk throughput in gigabits per second (Gbps).
-     * Only applied when {@code shouldStream} is true.
+     * For uploads, only applied when {@code shouldStream} is true. For downloads to a response file,
+     * caps the connections of the meta request to match.
      *
      * @param diskThroughputGbps the estimated disk throughput in Gbps
      */
@@ -4,8 +4,18 @@
  */
 package software.amazon.awssdk.crt.s3;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
 public class ResumeToken {
 
+    /* Leading byte of the serialized form, bumped whenever the layout changes */
+    private static final byte SERIALIZATION_VERSION = 1;
+    private static final int CHECKSUM_SIZE = 4;
+
     static public class PutResumeTokenBuilder {
         private long partSize;
         private long totalNumParts;
@@ -87,6 +97,163 @@ public class ResumeToken {
      */
     private ResumeToken() {}
 
+    /*
+     * Download token built by the binding itself, for downloads resumed with a ranged GET
+     */
+    static ResumeToken newDownloadToken(long partSize, String etag, long objectSize, long continuesDownloadedBytes) {
+        ResumeToken token = new ResumeToken();
+        token.nativeType = S3MetaRequestOptions.MetaRequestType.GET_OBJECT.getNativeValue();
+        token.partSize = partSize;
+        token.etag = etag;
+        token.objectSize = objectSize;
+        token.objectRangeEnd = objectSize > 0 ? objectSize - 1 : 0;
+        token.continuesDownloadedBytes = continuesDownloadedBytes;
+        token.totalDownloadedBytes = continuesDownloadedBytes;
+        return token;
+    }
+
+    /**
+     * Serialize the token to a compact binary form, suitable for persisting it and resuming the
+     * transfer from another process with {@link #fromBytes}.
+     * Numbers are stored as variable-length integers, and the data ends with a CRC32 of everything
+     * before it, so that a truncated or corrupted token is detected when it is read back.
+     *
+     * @return the serialized token
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write(SERIALIZATION_VERSION);
+        writeVarLong(out, nativeType);
+        writeVarLong(out, partSize);
+        writeVarLong(out, totalNumParts);
+        writeVarLong(out, numPartsCompleted);
+        if (getType() == S3MetaRequestOptions.MetaRequestType.PUT_OBJECT) {
+            writeString(out, uploadId);
+        } else {
+            writeString(out, etag);
+            writeString(out, versionId);
+            writeString(out, s3ObjectLastModified);
+            writeVarLong(out, objectSize);
+            writeVarLong(out, objectRangeStart);
+            writeVarLong(out, objectRangeEnd);
+            writeVarLong(out, continuesDownloadedBytes);
+            writeVarLong(out, totalDownloadedBytes);
+            writeVarLong(out, fileLastModifiedEpochNs);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out.toByteArray(), 0, out.size());
+        long checksum = crc.getValue();
+        for (int i = CHECKSUM_SIZE - 1; i >= 0; i--) {
+            out.write((int) (checksum >>> (8 * i)));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Read back a token serialized by {@link #toBytes}.
+     *
+     * @param data the serialized token
+     * @return the token
+     * @throws IllegalArgumentException if the data is truncated, corrupted, or from an unknown version
+     */
+    public static ResumeToken fromBytes(byte[] data) {
+        if (data == null || data.length < 1 + CHECKSUM_SIZE) {
+            throw new IllegalArgumentException("ResumeToken: serialized token is too short.");
+        }
+        int payloadLength = data.length - CHECKSUM_SIZE;
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, payloadLength);
+        long checksum = ByteBuffer.wrap(data, payloadLength, CHECKSUM_SIZE).getInt() & 0xFFFFFFFFL;
+        if (checksum != crc.getValue()) {
+            throw new IllegalArgumentException("ResumeToken: serialized token failed checksum validation.");
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(data, 0, payloadLength);
+        if (in.get() != SERIALIZATION_VERSION) {
+            throw new IllegalArgumentException("ResumeToken: unsupported serialization version.");
+        }
+        try {
+            ResumeToken token = new ResumeToken();
+            token.nativeType = (int) readVarLong(in);
+            S3MetaRequestOptions.MetaRequestType type = token.getType();
+            token.partSize = readVarLong(in);
+            token.totalNumParts = readVarLong(in);
+            token.numPartsCompleted = readVarLong(in);
+            if (type == S3MetaRequestOptions.MetaRequestType.PUT_OBJECT) {
+                token.uploadId = readString(in);
+            } else if (type == S3MetaRequestOptions.MetaRequestType.GET_OBJECT) {
+                token.etag = readString(in);
+                token.versionId = readString(in);
+                token.s3ObjectLastModified = readString(in);
+                token.objectSize = readVarLong(in);
+                token.objectRangeStart = readVarLong(in);
+                token.objectRangeEnd = readVarLong(in);
+                token.continuesDownloadedBytes = readVarLong(in);
+                token.totalDownloadedBytes = readVarLong(in);
+                token.fileLastModifiedEpochNs = readVarLong(in);
+            } else {
+                throw new IllegalArgumentException("ResumeToken: serialized token has unsupported type " + type + ".");
+            }
+            if (in.hasRemaining()) {
+                throw new IllegalArgumentException("ResumeToken: serialized token has trailing data.");
+            }
+            return token;
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalArgumentException("ResumeToken: serialized token is truncated.");
+        } catch (RuntimeException ex) {
+            if (ex instanceof IllegalArgumentException) {
+                throw ex;
+            }
+            /* Unknown native type */
+            throw new IllegalArgumentException("ResumeToken: serialized token is invalid: " + ex.getMessage());
+        }
+    }
+
+    /* Unsigned LEB128, so small non-negative values take a single byte */
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("ResumeToken: serialized token has a malformed number.");
+    }
+
+    /* Length + 1 prefix, so that 0 stands for null */
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        long length = readVarLong(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[(int) length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
     /******
      * Common Fields.
      ******/
@@ -0,0 +1,243 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import software.amazon.awssdk.crt.CRT;
+
+/**
+ * Adjusts the part size and number of in-flight requests of an S3Client's meta requests while it runs.
+ * <p>
+ * Enabled with {@link S3ClientOptions#withAdaptiveTuning}. The tuner watches the throughput the client achieves
+ * (from progress callbacks) and the latency and throttling rate of its requests (from request metrics),
+ * once per second:
+ * <ul>
+ * <li>If more than 2% of requests were throttled (503 SlowDown or 500 InternalError), it cuts concurrency by a
+ * quarter and doubles the part size, so that the same throughput needs fewer requests per second.</li>
+ * <li>Otherwise, while throughput is below the target: if waiting for the first byte takes more than a third of
+ * each request, requests are too small to amortize their latency and the part size is doubled; if not,
+ * concurrency grows by an eighth. Once the memory limit stops concurrency from growing, and latency is well
+ * amortized, the part size is halved to make room for more requests.</li>
+ * </ul>
+ * Requests failing for other reasons, such as a missing object or a cancellation, are not counted.
+ * Part size times concurrency is always kept within the client's memory limit.
+ * <p>
+ * Each new meta request takes the current values, unless its options set
+ * {@link S3MetaRequestOptions#withPartSize} or {@link S3MetaRequestOptions#withMaxActiveConnections} explicitly.
+ * Meta requests already running keep the values they started with.
+ */
+public class S3AdaptiveTuner {
+
+    static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    static final long DEFAULT_PART_SIZE = 8L * 1024 * 1024;
+    static final long MAX_PART_SIZE = 128L * 1024 * 1024;
+    static final long DEFAULT_MEMORY_LIMIT = 2L * 1024 * 1024 * 1024;
+    static final double DEFAULT_THROUGHPUT_TARGET_GBPS = 10.0;
+    static final int MIN_CONCURRENCY = 2;
+
+    /* Error codes of aws-c-s3, whose package id is 14 */
+    private static final int S3_ERROR_CODE_BEGIN = 14 * 1024;
+    private static final int S3_ERROR_CODE_END = 15 * 1024;
+    /* Errors S3 can report with a 200 status. The native client does not export them, so they are looked up by
+     * name. -1 if this build of the native library does not know one of them */
+    private static final int AWS_ERROR_S3_INTERNAL_ERROR;
+    private static final int AWS_ERROR_S3_SLOW_DOWN;
+
+    static {
+        int internalError = -1;
+        int slowDown = -1;
+        for (int errorCode = S3_ERROR_CODE_BEGIN; errorCode < S3_ERROR_CODE_END; errorCode++) {
+            String name = CRT.awsErrorName(errorCode);
+            if ("AWS_ERROR_S3_INTERNAL_ERROR".equals(name)) {
+                internalError = errorCode;
+            } else if ("AWS_ERROR_S3_SLOW_DOWN".equals(name)) {
+                slowDown = errorCode;
+            }
+        }
+        AWS_ERROR_S3_INTERNAL_ERROR = internalError;
+        AWS_ERROR_S3_SLOW_DOWN = slowDown;
+    }
+
+    /* Rough throughput of a single connection to S3, used to pick the starting concurrency */
+    private static final double ESTIMATED_CONNECTION_GBPS = 0.5;
+    private static final long WINDOW_NS = 1_000_000_000L;
+    private static final int MIN_WINDOW_REQUESTS = 4;
+    private static final double MAX_THROTTLED_FRACTION = 0.02;
+    private static final double MAX_FIRST_BYTE_FRACTION = 1.0 / 3;
+    private static final double MIN_FIRST_BYTE_FRACTION = 1.0 / 6;
+    private static final double TARGET_TOLERANCE = 0.95;
+
+    private final double targetGbps;
+    private final long memoryLimit;
+    private final int maxConcurrency;
+    private final LongSupplier clock;
+
+    private volatile long partSize;
+    private volatile int concurrency;
+    private volatile double achievedGbps;
+
+    /* Observations of the current window */
+    private final LongAdder windowBytes = new LongAdder();
+    private final LongAdder windowRequests = new LongAdder();
+    private final LongAdder windowThrottled = new LongAdder();
+    private final LongAdder windowFirstByteNs = new LongAdder();
+    private final LongAdder windowLastByteNs = new LongAdder();
+    private volatile long windowStartNs;
+
+    S3AdaptiveTuner(S3ClientOptions options) {
+        this(options.getThroughputTargetGbps(), options.getMemoryLimitInBytes(), options.getPartSize(),
+                options.getMaxConnections(), System::nanoTime);
+    }
+
+    S3AdaptiveTuner(double targetGbps, long memoryLimit, long initialPartSize, int maxConnections,
+            LongSupplier clock) {
+        this.targetGbps = targetGbps > 0 ? targetGbps : DEFAULT_THROUGHPUT_TARGET_GBPS;
+        this.memoryLimit = memoryLimit > 0 ? memoryLimit : DEFAULT_MEMORY_LIMIT;
+        int ideal = estimatedConnections(this.targetGbps);
+        int memoryBound = (int) Math.max(MIN_CONCURRENCY, Math.min(Integer.MAX_VALUE, this.memoryLimit / MIN_PART_SIZE));
+        this.maxConcurrency = maxConnections > 0 ? Math.max(MIN_CONCURRENCY, maxConnections)
+                : Math.min(memoryBound, Math.max(MIN_CONCURRENCY, ideal * 4));
+        this.clock = clock;
+        this.partSize = Math.min(MAX_PART_SIZE, Math.max(MIN_PART_SIZE,
+                initialPartSize > 0 ? initialPartSize : DEFAULT_PART_SIZE));
+        this.concurrency = Math.min(this.maxConcurrency, Math.max(MIN_CONCURRENCY, ideal));
+        fitToMemoryLimit();
+        this.windowStartNs = clock.getAsLong();
+    }
+
+    /*
+     * Rough number of connections needed to reach a throughput target, 0 for the default target
+     */
+    static int estimatedConnections(double targetGbps) {
+        return (int) Math.ceil((targetGbps > 0 ? targetGbps : DEFAULT_THROUGHPUT_TARGET_GBPS) / ESTIMATED_CONNECTION_GBPS);
+    }
+
+    /**
+     * @return part size, in bytes, that new meta requests will use
+     */
+    public long getPartSize() {
+        return partSize;
+    }
+
+    /**
+     * @return number of requests each new meta request may have in flight
+     */
+    public int getMaxActiveConnections() {
+        return concurrency;
+    }
+
+    /**
+     * @return throughput achieved by the client over the last completed window, in gigabits per second
+     */
+    public double getAchievedThroughputGbps() {
+        return achievedGbps;
+    }
+
+    /*
+     * Upper bound on concurrency, handed to the native client as its connection limit so that per meta request
+     * overrides are free to grow up to it.
+     */
+    int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    void recordProgress(long bytesTransferred) {
+        windowBytes.add(bytesTransferred);
+        maybeAdjust();
+    }
+
+    /*
+     * Each attempt of a request is recorded on its own, so a throttled attempt counts once, and its retry counts
+     * by its own outcome.
+     */
+    void recordRequest(S3RequestMetrics metrics) {
+        if (isThrottled(metrics)) {
+            windowRequests.increment();
+            windowThrottled.increment();
+        } else if (metrics.getErrorCode() == 0) {
+            windowRequests.increment();
+            long firstByte = metrics.timeToFirstByteDurationNs();
+            long lastByte = metrics.timeToLastByteDurationNs();
+            if (firstByte >= 0 && lastByte > 0) {
+                windowFirstByteNs.add(firstByte);
+                windowLastByteNs.add(lastByte);
+            }
+        }
+        /*
+         * Other failures (missing objects, cancellation, checksum mismatches, broken connections) say nothing about
+         * the request rate S3 accepts, nor about latency, so they are left out of the window.
+         */
+        maybeAdjust();
+    }
+
+    /* 503 SlowDown and 500 InternalError are S3's ways of asking for fewer requests */
+    static boolean isThrottled(S3RequestMetrics metrics) {
+        int status = metrics.responseStatusOrUnavailable();
+        if (status == 503 || status == 500) {
+            return true;
+        }
+        int errorCode = metrics.getErrorCode();
+        return errorCode == AWS_ERROR_S3_SLOW_DOWN || errorCode == AWS_ERROR_S3_INTERNAL_ERROR;
+    }
+
+    private void maybeAdjust() {
+        if (clock.getAsLong() - windowStartNs >= WINDOW_NS) {
+            adjust();
+        }
+    }
+
+    private synchronized void adjust() {
+        long now = clock.getAsLong();
+        long elapsed = now - windowStartNs;
+        long requests = windowRequests.sum();
+        if (elapsed < WINDOW_NS || requests < MIN_WINDOW_REQUESTS) {
+            return;
+        }
+
+        /* bytes * 8 / ns is gigabits per second */
+        double achieved = windowBytes.sumThenReset() * 8.0 / elapsed;
+        double throttledFraction = (double) windowThrottled.sumThenReset() / requests;
+        long firstByteNs = windowFirstByteNs.sumThenReset();
+        long lastByteNs = windowLastByteNs.sumThenReset();
+        double firstByteFraction = lastByteNs == 0 ? 0 : (double) firstByteNs / lastByteNs;
+        windowRequests.add(-requests);
+        windowStartNs = now;
+        achievedGbps = achieved;
+
+        long newPartSize = partSize;
+        int newConcurrency = concurrency;
+        if (throttledFraction > MAX_THROTTLED_FRACTION) {
+            newConcurrency = Math.max(MIN_CONCURRENCY, newConcurrency * 3 / 4);
+            newPartSize = Math.min(MAX_PART_SIZE, newPartSize * 2);
+        } else if (achieved < targetGbps * TARGET_TOLERANCE) {
+            int grownConcurrency = Math.min(maxConcurrency, newConcurrency + Math.max(1, newConcurrency / 8));
+            if (firstByteFraction > MAX_FIRST_BYTE_FRACTION && newPartSize < MAX_PART_SIZE) {
+                newPartSize = Math.min(MAX_PART_SIZE, newPartSize * 2);
+            } else if (newPartSize * grownConcurrency > memoryLimit && firstByteFraction < MIN_FIRST_BYTE_FRACTION) {
+                /* Out of memory for more parts, and latency is well amortized: trade part size for concurrency */
+                newPartSize = Math.max(MIN_PART_SIZE, newPartSize / 2);
+                newConcurrency = Math.min(maxConcurrency, (int) Math.min(Integer.MAX_VALUE, memoryLimit / newPartSize));
+            } else {
+                newConcurrency = grownConcurrency;
+            }
+        }
+        partSize = newPartSize;
+        concurrency = newConcurrency;
+        fitToMemoryLimit();
+    }
+
+    /* Shed concurrency first, then part size, until the buffered parts fit in memory */
+    private void fitToMemoryLimit() {
+        if (partSize * concurrency <= memoryLimit) {
+            return;
+        }
+        concurrency = (int) Math.max(MIN_CONCURRENCY, memoryLimit / partSize);
+        if (partSize * concurrency > memoryLimit) {
+            partSize = Math.max(MIN_PART_SIZE, memoryLimit / concurrency);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import software.amazon.awssdk.crt.CrtRuntimeException;
+import software.amazon.awssdk.crt.Log;
+import software.amazon.awssdk.crt.http.HttpHeader;
+import software.amazon.awssdk.crt.http.HttpRequest;
+import software.amazon.awssdk.crt.io.Uri;
+
+/**
+ * Implementation of {@link S3Client#copyObjects}: runs a COPY_OBJECT meta request per object on an
+ * {@link S3TransferBatch}. Each meta request copies its object with a single CopyObject, or with
+ * UploadPartCopy requests for large objects, and all of them share the connections of the client.
+ */
+final class S3BatchCopy {
+
+    private S3BatchCopy() {
+    }
+
+    static CompletableFuture<S3TransferBatchResult> run(S3Client client, List<S3CopyObjectRequest> requests,
+            S3CopyObjectListener listener, int maxConcurrentCopies) {
+        return run(client::makeMetaRequest, requests, listener, maxConcurrentCopies);
+    }
+
+    /**
+     * @param metaRequestFactory makes the meta request of a copy, {@link S3Client#makeMetaRequest} outside of tests
+     */
+    static CompletableFuture<S3TransferBatchResult> run(Function<S3MetaRequestOptions, S3MetaRequest> metaRequestFactory,
+            List<S3CopyObjectRequest> requests, S3CopyObjectListener listener, int maxConcurrentCopies) {
+        if (listener == null) {
+            throw new IllegalArgumentException("S3Client.copyObjects: listener must not be null.");
+        }
+        List<S3TransferBatch.Item> items = new ArrayList<>(requests.size());
+        for (S3CopyObjectRequest request : requests) {
+            if (request.getSourceBucket() == null || request.getSourceKey() == null
+                    || request.getDestinationHost() == null || request.getDestinationKey() == null) {
+                throw new IllegalArgumentException(
+                        "S3Client.copyObjects: every request needs a source bucket and key, and a destination host and key.");
+            }
+            HttpHeader[] headers = { new HttpHeader("Host", request.getDestinationHost()),
+                    new HttpHeader("x-amz-copy-source",
+                            Uri.encodeUriPath(request.getSourceBucket() + "/" + request.getSourceKey())) };
+            HttpRequest httpRequest = new HttpRequest("PUT", S3ObjectFetcher.encodedPath(request.getDestinationKey()),
+                    headers, null);
+            S3MetaRequestOptions options = new S3MetaRequestOptions()
+                    .withMetaRequestType(S3MetaRequestOptions.MetaRequestType.COPY_OBJECT)
+                    .withHttpRequest(httpRequest)
+                    .withResponseHandler(new Reporter(request, listener));
+            long size = request.getObjectSizeHint() != null ? request.getObjectSizeHint() : 0;
+            /* The data never passes through the client, so copies hold none of the byte budget */
+            items.add(new S3TransferBatch.Item(request.getDestinationKey(), size, 0, options));
+        }
+        return new S3TransferBatch(metaRequestFactory, maxConcurrentCopies, Long.MAX_VALUE, listener::onProgress)
+                .run(items);
+    }
+
+    /**
+     * Reports the outcome of one copy to the listener.
+     */
+    private static final class Reporter implements S3MetaRequestResponseHandler {
+        private final S3CopyObjectRequest request;
+        private final S3CopyObjectListener listener;
+
+        Reporter(S3CopyObjectRequest request, S3CopyObjectListener listener) {
+            this.request = request;
+            this.listener = listener;
+        }
+
+        @Override
+        public void onFinished(S3FinishedResponseContext context) {
+            try {
+                if (context.getErrorCode() != 0) {
+                    listener.onFailure(request, context.getCause() != null
+                            ? context.getCause() : new CrtRuntimeException(context.getErrorCode()));
+                } else {
+                    listener.onCopied(request);
+                }
+            } catch (RuntimeException ex) {
+                Log.log(Log.LogLevel.Error, Log.LogSubject.JavaCrtS3,
+                        "S3Client.copyObjects: listener threw for key " + request.getDestinationKey() + ": " + ex);
+            }
+        }
+    }
+}
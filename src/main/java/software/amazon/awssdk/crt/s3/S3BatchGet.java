@@ -0,0 +1,146 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import software.amazon.awssdk.crt.CrtRuntimeException;
+import software.amazon.awssdk.crt.Log;
+import software.amazon.awssdk.crt.http.HttpHeader;
+import software.amazon.awssdk.crt.http.HttpRequest;
+
+/**
+ * Implementation of {@link S3Client#getObjects}: runs a GET_OBJECT meta request per object on an
+ * {@link S3TransferBatch}, collects each body into a heap buffer and hands it to the sink.
+ */
+final class S3BatchGet {
+
+    /* Initial buffer size, and share of the memory budget, for an object of unknown size. The buffer grows past it
+     * as the body arrives, while the object still holds only this much of the budget */
+    static final int UNKNOWN_SIZE_RESERVATION = 64 * 1024;
+
+    private S3BatchGet() {
+    }
+
+    static CompletableFuture<S3TransferBatchResult> run(S3Client client, List<S3GetObjectRequest> requests,
+            S3ObjectSink sink, int maxConcurrentRequests, long maxInFlightBytes) {
+        if (sink == null) {
+            throw new IllegalArgumentException("S3Client.getObjects: sink must not be null.");
+        }
+        List<S3TransferBatch.Item> items = new ArrayList<>(requests.size());
+        for (S3GetObjectRequest request : requests) {
+            if (request.getHost() == null || request.getKey() == null) {
+                throw new IllegalArgumentException("S3Client.getObjects: every request needs a host and key.");
+            }
+            Long sizeHint = request.getObjectSizeHint();
+            HttpRequest httpRequest = new HttpRequest("GET", S3ObjectFetcher.encodedPath(request.getKey()),
+                    new HttpHeader[] { new HttpHeader("Host", request.getHost()) }, null);
+            /* Direct delivery: chunks are copied straight from native memory into the object's buffer */
+            S3MetaRequestOptions options = new S3MetaRequestOptions()
+                    .withMetaRequestType(S3MetaRequestOptions.MetaRequestType.GET_OBJECT)
+                    .withHttpRequest(httpRequest)
+                    .withObjectSizeHint(sizeHint)
+                    .withDirectResponseBody(true)
+                    .withResponseHandler(new Collector(request, sink));
+            long size = sizeHint != null ? sizeHint : 0;
+            long reservation = sizeHint != null ? Math.max(1, sizeHint) : UNKNOWN_SIZE_RESERVATION;
+            items.add(new S3TransferBatch.Item(request.getKey(), size, reservation, options));
+        }
+        return new S3TransferBatch(client, maxConcurrentRequests, maxInFlightBytes, null).run(items);
+    }
+
+    /**
+     * Collects the body of one object. Chunks arrive in order, each is copied to its offset in the object.
+     * The buffer is only allocated once the response arrives, so waiting items of a large batch hold no memory,
+     * and it is handed to the sink when the object finishes.
+     */
+    private static final class Collector implements S3MetaRequestResponseHandler {
+        private final S3GetObjectRequest request;
+        private final S3ObjectSink sink;
+        private ByteBuffer body;
+        private long length = 0;
+
+        Collector(S3GetObjectRequest request, S3ObjectSink sink) {
+            this.request = request;
+            this.sink = sink;
+        }
+
+        @Override
+        public synchronized void onResponseHeaders(final int statusCode, final HttpHeader[] headers) {
+            if (statusCode >= 200 && statusCode < 300) {
+                long size = S3MappedFileSink.objectSizeFromHeaders(headers);
+                if (size >= 0 && body == null) {
+                    /* The actual size wins over a possibly stale size hint */
+                    body = ByteBuffer.allocate(checkedCapacity(size));
+                } else if (size >= 0) {
+                    ensureCapacity(size);
+                }
+            }
+        }
+
+        @Override
+        public synchronized int onResponseBody(ByteBuffer bodyBytesIn, long objectRangeStart, long objectRangeEnd) {
+            ensureCapacity(objectRangeEnd);
+            ByteBuffer target = body.duplicate();
+            target.clear();
+            target.position((int) objectRangeStart);
+            target.put(bodyBytesIn);
+            length = Math.max(length, objectRangeEnd);
+            return 0;
+        }
+
+        @Override
+        public void onFinished(S3FinishedResponseContext context) {
+            ByteBuffer result;
+            synchronized (this) {
+                result = body;
+                body = null;
+            }
+            if (result == null) {
+                /* Empty object: no headers with a size nor any body chunk allocated the buffer */
+                result = ByteBuffer.allocate(0);
+            }
+            try {
+                if (context.getErrorCode() != 0) {
+                    sink.onFailure(request, context.getCause() != null
+                            ? context.getCause() : new CrtRuntimeException(context.getErrorCode()));
+                } else {
+                    result.limit((int) length);
+                    result.position(0);
+                    sink.onObject(request, result);
+                }
+            } catch (RuntimeException ex) {
+                Log.log(Log.LogLevel.Error, Log.LogSubject.JavaCrtS3,
+                        "S3Client.getObjects: sink threw for key " + request.getKey() + ": " + ex);
+            }
+        }
+
+        private void ensureCapacity(long needed) {
+            if (body == null) {
+                Long sizeHint = request.getObjectSizeHint();
+                long initial = sizeHint != null ? sizeHint : UNKNOWN_SIZE_RESERVATION;
+                body = ByteBuffer.allocate(checkedCapacity(Math.max(needed, initial)));
+            } else if (needed > body.capacity()) {
+                ByteBuffer grown = ByteBuffer.allocate(checkedCapacity(Math.max(needed, body.capacity() * 2L)));
+                ByteBuffer old = body.duplicate();
+                old.clear();
+                old.limit((int) length);
+                grown.put(old);
+                grown.clear();
+                body = grown;
+            }
+        }
+
+        private static int checkedCapacity(long capacity) {
+            if (capacity > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("S3Client.getObjects: object too large to collect in memory.");
+            }
+            return (int) capacity;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache of fixed-size object blocks held in off-heap memory, shared by the ranged readers of an S3Client.
+ * <p>
+ * A block is identified by host (which names the bucket), key, ETag and block index. Since the ETag is part
+ * of the identity, a block of an overwritten object is never served for the new version. Only readers that
+ * know the ETag of the object use the cache.
+ * <p>
+ * The cache holds at most capacityBytes / blockSize blocks. Each block lives in its own direct ByteBuffer
+ * slot, allocated on first use and then reused, so the cache causes no garbage collection work once it is
+ * warm. When it is full, a block is evicted with the CLOCK algorithm: blocks read since the hand last passed
+ * them get a second chance.
+ * <p>
+ * A hit is served without a copy, as a read-only view of the slot. The slot stays pinned until the reader
+ * unpins it: a pinned block is neither evicted nor overwritten. When every slot is pinned, new blocks are
+ * not cached.
+ * <p>
+ * Attach a cache with {@link S3ClientOptions#withBlockCache}, it is used by {@link S3SeekableByteChannel}.
+ * One cache may be shared by several clients. All methods are thread-safe.
+ */
+public class S3BlockCache {
+
+    /**
+     * A cached block handed to a reader. The data stays valid until the block is unpinned.
+     */
+    static final class PinnedBlock {
+        /** Read-only view of the block data, from position 0 to capacity */
+        final ByteBuffer data;
+        private final int slot;
+        private boolean unpinned = false;
+
+        private PinnedBlock(ByteBuffer data, int slot) {
+            this.data = data;
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Identity of one block.
+     */
+    static final class BlockKey {
+        final String host;
+        final String key;
+        final String eTag;
+        final long blockIndex;
+
+        BlockKey(String host, String key, String eTag, long blockIndex) {
+            this.host = host;
+            this.key = key;
+            this.eTag = eTag;
+            this.blockIndex = blockIndex;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BlockKey)) {
+                return false;
+            }
+            BlockKey other = (BlockKey) o;
+            return blockIndex == other.blockIndex && host.equals(other.host) && key.equals(other.key)
+                    && eTag.equals(other.eTag);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(host, key, eTag, blockIndex);
+        }
+    }
+
+    private final int blockSize;
+    private final ByteBuffer[] slots;
+    private final BlockKey[] slotKeys;
+    private final int[] slotLengths;
+    private final boolean[] referenced;
+    private final int[] pinCounts;
+    private final Map<BlockKey, Integer> index = new HashMap<>();
+    private int clockHand = 0;
+    private int usedSlots = 0;
+
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * @param blockSize size of each cached block, in bytes. Readers using the cache fetch blocks of this size
+     * @param capacityBytes most bytes of block data the cache holds
+     */
+    public S3BlockCache(int blockSize, long capacityBytes) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("S3BlockCache: blockSize must be positive.");
+        }
+        long slotCount = capacityBytes / blockSize;
+        if (slotCount <= 0 || slotCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("S3BlockCache: capacityBytes must hold between 1 and 2^31-1 blocks.");
+        }
+        this.blockSize = blockSize;
+        this.slots = new ByteBuffer[(int) slotCount];
+        this.slotKeys = new BlockKey[(int) slotCount];
+        this.slotLengths = new int[(int) slotCount];
+        this.referenced = new boolean[(int) slotCount];
+        this.pinCounts = new int[(int) slotCount];
+    }
+
+    /**
+     * @return size of each cached block, in bytes
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * @return most bytes of block data the cache holds
+     */
+    public long getCapacityBytes() {
+        return (long) slots.length * blockSize;
+    }
+
+    /**
+     * @return number of lookups that found their block
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return number of lookups that did not find their block
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return number of blocks evicted to make room for others
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Drop every cached block. The off-heap slots are kept for reuse, pinned ones once they are unpinned.
+     */
+    public synchronized void clear() {
+        index.clear();
+        for (int i = 0; i < slotKeys.length; i++) {
+            slotKeys[i] = null;
+            referenced[i] = false;
+        }
+    }
+
+    /**
+     * Look a block up and pin it. The caller must pass the result to {@link #unpin} once it is done with the data.
+     *
+     * @return the pinned block, or null if the block is not cached
+     */
+    synchronized PinnedBlock get(BlockKey blockKey) {
+        Integer slot = index.get(blockKey);
+        if (slot == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        referenced[slot] = true;
+        pinCounts[slot]++;
+        ByteBuffer view = slots[slot].duplicate();
+        view.limit(slotLengths[slot]);
+        view.position(0);
+        return new PinnedBlock(view.slice().asReadOnlyBuffer(), slot);
+    }
+
+    /**
+     * Let the slot of a block be reused. Unpinning a block more than once has no effect.
+     *
+     * @param block block returned by {@link #get}
+     */
+    synchronized void unpin(PinnedBlock block) {
+        if (!block.unpinned) {
+            block.unpinned = true;
+            pinCounts[block.slot]--;
+        }
+    }
+
+    /**
+     * Copy a block into the cache, evicting another block if the cache is full.
+     * The block is not cached if every slot is pinned.
+     *
+     * @param data block data from position 0 to capacity. Shorter than blockSize only for the last block
+     */
+    synchronized void put(BlockKey blockKey, ByteBuffer data) {
+        if (data.capacity() > blockSize || index.containsKey(blockKey)) {
+            return;
+        }
+        int slot = usedSlots < slots.length ? usedSlots++ : evict();
+        if (slot < 0) {
+            return;
+        }
+        if (slots[slot] == null) {
+            slots[slot] = ByteBuffer.allocateDirect(blockSize);
+        }
+        ByteBuffer source = data.duplicate();
+        source.clear();
+        ByteBuffer target = slots[slot].duplicate();
+        target.clear();
+        target.put(source);
+        slotKeys[slot] = blockKey;
+        slotLengths[slot] = data.capacity();
+        referenced[slot] = false;
+        index.put(blockKey, slot);
+    }
+
+    /*
+     * Advance the clock hand to the first unpinned slot that is empty or holds a block not referenced since the
+     * last pass, and free it. Two passes clear every reference bit, so -1 after them means every slot is pinned.
+     */
+    private int evict() {
+        for (int step = 0; step < 2 * slots.length; step++) {
+            int slot = clockHand;
+            clockHand = (clockHand + 1) % slots.length;
+            if (pinCounts[slot] > 0) {
+                continue;
+            }
+            if (slotKeys[slot] == null) {
+                return slot;
+            }
+            if (referenced[slot]) {
+                referenced[slot] = false;
+            } else {
+                index.remove(slotKeys[slot]);
+                slotKeys[slot] = null;
+                evictionCount++;
+                return slot;
+            }
+        }
+        return -1;
+    }
+}
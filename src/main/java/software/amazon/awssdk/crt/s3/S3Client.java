@@ -5,13 +5,17 @@
  */
 package software.amazon.awssdk.crt.s3;
 
+import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import software.amazon.awssdk.crt.CrtResource;
 import software.amazon.awssdk.crt.CrtRuntimeException;
+import software.amazon.awssdk.crt.http.HttpHeader;
 import software.amazon.awssdk.crt.http.HttpMonitoringOptions;
 import software.amazon.awssdk.crt.http.HttpProxyEnvironmentVariableSetting;
 import software.amazon.awssdk.crt.http.HttpProxyOptions;
+import software.amazon.awssdk.crt.http.HttpRequest;
 import software.amazon.awssdk.crt.http.HttpRequestBodyStream;
 import software.amazon.awssdk.crt.io.TlsConnectionOptions;
 import software.amazon.awssdk.crt.io.TlsContext;
@@ -24,12 +28,59 @@ import java.net.URI;
 public class S3Client extends CrtResource {
 
     private final static Charset UTF8 = java.nio.charset.StandardCharsets.UTF_8;
+    /* Page size that O_DIRECT needs part buffers, part sizes and file offsets aligned to */
+    static final long DIRECT_IO_ALIGNMENT = 4096;
     private final CompletableFuture<Void> shutdownComplete = new CompletableFuture<>();
     private final String region;
+    private final boolean readBackpressureEnabled;
+    private final S3BlockCache blockCache;
+    private final S3ObjectMetadataCache objectMetadataCache;
+    private final FileIoOptions clientFileIoOptions;
+    private final S3TelemetryAggregator telemetryAggregator;
+    private final S3AdaptiveTuner adaptiveTuner;
+    private final S3PriorityScheduler priorityScheduler;
+    private final S3MemoryBudgets memoryBudgets;
+    private final S3RetainedBodyMemory retainedBodyMemory;
+    private final long defaultPartSize;
+    private final int defaultConnections;
 
     public S3Client(S3ClientOptions options) throws CrtRuntimeException {
         TlsContext tlsCtx = options.getTlsContext();
         region = options.getRegion();
+        readBackpressureEnabled = options.getReadBackpressureEnabled();
+        blockCache = options.getBlockCache();
+        objectMetadataCache = options.getObjectMetadataCache();
+        clientFileIoOptions = options.getFileIoOptions();
+        telemetryAggregator = options.getTelemetryAggregator();
+        adaptiveTuner = options.getAdaptiveTuning() ? new S3AdaptiveTuner(options) : null;
+
+        int maxConnections = options.getMaxConnections();
+        if (maxConnections == 0 && adaptiveTuner != null) {
+            maxConnections = adaptiveTuner.getMaxConcurrency();
+        }
+        if (options.getBackgroundConnectionShare() > 0) {
+            /* Without a connection limit, the native client keeps its own default, and the shares are of an estimate */
+            priorityScheduler = new S3PriorityScheduler(maxConnections > 0 ? maxConnections
+                    : S3AdaptiveTuner.estimatedConnections(options.getThroughputTargetGbps()),
+                    options.getBackgroundConnectionShare());
+            if (maxConnections > 0) {
+                maxConnections = priorityScheduler.getConnections();
+            }
+        } else {
+            priorityScheduler = null;
+        }
+
+        long memoryLimit = options.getMemoryLimitInBytes() > 0 ? options.getMemoryLimitInBytes()
+                : S3AdaptiveTuner.DEFAULT_MEMORY_LIMIT;
+        retainedBodyMemory = new S3RetainedBodyMemory(memoryLimit);
+        if (!options.getMemoryBudgetGroups().isEmpty()) {
+            memoryBudgets = new S3MemoryBudgets(memoryLimit, options.getMemoryBudgetGroups());
+        } else {
+            memoryBudgets = null;
+        }
+        defaultPartSize = options.getPartSize() > 0 ? options.getPartSize() : S3AdaptiveTuner.DEFAULT_PART_SIZE;
+        defaultConnections = maxConnections > 0 ? maxConnections
+                : S3AdaptiveTuner.estimatedConnections(options.getThroughputTargetGbps());
 
         int proxyConnectionType = 0;
         String proxyHost = null;
@@ -100,7 +151,7 @@ public class S3Client extends CrtResource {
                 options.getThroughputTargetGbps(),
                 options.getReadBackpressureEnabled(),
                 options.getInitialReadWindowSize(),
-                options.getMaxConnections(),
+                maxConnections,
                 options.getStandardRetryOptions(),
                 options.getComputeContentMd5(),
                 proxyConnectionType,
@@ -174,59 +225,210 @@ public class S3Client extends CrtResource {
             throw new IllegalArgumentException("S3Client.makeMetaRequest has invalid options; MD5 not supported as checksum algorithm.");
         }
 
-        S3MetaRequest metaRequest = new S3MetaRequest();
-        S3MetaRequestResponseHandlerNativeAdapter responseHandlerNativeAdapter = new S3MetaRequestResponseHandlerNativeAdapter(
-                options.getResponseHandler());
+        S3MetaRequestResponseHandler responseHandler = options.getResponseHandler();
+        boolean directResponseBody = options.getDirectResponseBody();
+        S3MetaRequestOptions.ResponseFileOption responseFileOption = options.getResponseFileOption();
+        S3MappedFileSink mappedFileSink = null;
+
+        Long objectSizeHint = options.getObjectSizeHint();
+        if (objectMetadataCache != null && options.getMetaRequestType() == S3MetaRequestOptions.MetaRequestType.GET_OBJECT
+                && options.getResumeToken() == null) {
+            HttpRequest httpRequest = options.getHttpRequest();
+            String host = null;
+            boolean ranged = false;
+            for (HttpHeader header : httpRequest.getHeaders()) {
+                if ("Host".equalsIgnoreCase(header.getName())) {
+                    host = header.getValue();
+                } else if ("Range".equalsIgnoreCase(header.getName())) {
+                    ranged = true;
+                }
+            }
+            if (host != null && !ranged) {
+                if (objectSizeHint == null) {
+                    S3ObjectMetadataCache.ObjectMetadata cached = objectMetadataCache.get(host,
+                            httpRequest.getEncodedPath());
+                    if (cached != null) {
+                        objectSizeHint = cached.getSize();
+                    }
+                }
+                responseHandler = new S3ObjectMetadataRecorder(objectMetadataCache, host,
+                        httpRequest.getEncodedPath(), responseHandler);
+            }
+        }
 
         byte[] httpRequestBytes = options.getHttpRequest().marshalForJni();
         byte[] requestFilePath = null;
+        if (options.getRequestFileLength() >= 0 && options.getRequestFilePath() == null) {
+            throw new IllegalArgumentException(
+                    "S3Client.makeMetaRequest has invalid options; a request file region needs a request file path.");
+        }
         if (options.getRequestFilePath() != null) {
             requestFilePath = options.getRequestFilePath().toString().getBytes(UTF8);
         }
+        if (responseFileOption == S3MetaRequestOptions.ResponseFileOption.MEMORY_MAPPED
+                && options.getResponseFilePath() == null) {
+            Log.log(Log.LogLevel.Error, Log.LogSubject.S3Client,
+                    "S3Client.makeMetaRequest has invalid options; MEMORY_MAPPED needs a response file path.");
+            throw new IllegalArgumentException(
+                    "S3Client.makeMetaRequest has invalid options; MEMORY_MAPPED needs a response file path.");
+        }
+        boolean mapResponseFile = responseFileOption == S3MetaRequestOptions.ResponseFileOption.MEMORY_MAPPED;
         byte[] responseFilePath = null;
-        if (options.getResponseFilePath() != null) {
+        if (options.getResponseFilePath() != null && !mapResponseFile) {
             responseFilePath = options.getResponseFilePath().toString().getBytes(UTF8);
         }
 
-        AwsSigningConfig signingConfig = options.getSigningConfig();
-        boolean didCreateSigningConfig = false;
-        if(signingConfig == null && options.getCredentialsProvider()!= null) {
-            signingConfig = AwsSigningConfig.getDefaultS3SigningConfig(region, options.getCredentialsProvider());
-            didCreateSigningConfig = true;
+        long partSize = options.getPartSize();
+        int maxActiveConnections = options.getMaxActiveConnections();
+        if (adaptiveTuner != null) {
+            if (partSize == 0) {
+                partSize = adaptiveTuner.getPartSize();
+            }
+            if (maxActiveConnections == 0) {
+                maxActiveConnections = adaptiveTuner.getMaxActiveConnections();
+            }
         }
-        URI endpoint = options.getEndpoint();
 
-        ChecksumConfig checksumConfig = options.getChecksumConfig() != null ? options.getChecksumConfig()
-                : new ChecksumConfig();
-        // Handle FileIoOptions from S3MetaRequestOptions
-        boolean fioOptionsSet = false;
-        boolean shouldStream = false;
-        double diskThroughputGbps = 0.0;
-        boolean directIo = false;
+        FileIoOptions downloadFileIoOptions = options.getFileIoOptions() != null ? options.getFileIoOptions()
+                : clientFileIoOptions;
+        if (responseFilePath != null && downloadFileIoOptions != null
+                && options.getMetaRequestType() == S3MetaRequestOptions.MetaRequestType.GET_OBJECT) {
+            if (downloadFileIoOptions.getDirectIo()) {
+                /* Native falls back to buffered writes unless every part starts on a page boundary */
+                long effectivePartSize = partSize > 0 ? partSize : defaultPartSize;
+                if (effectivePartSize % DIRECT_IO_ALIGNMENT != 0) {
+                    partSize = (effectivePartSize / DIRECT_IO_ALIGNMENT + 1) * DIRECT_IO_ALIGNMENT;
+                }
+                if (responseFileOption == S3MetaRequestOptions.ResponseFileOption.WRITE_TO_POSITION
+                        && options.getResponseFilePosition() % DIRECT_IO_ALIGNMENT != 0) {
+                    Log.log(Log.LogLevel.Warn, Log.LogSubject.S3Client,
+                            "S3Client.makeMetaRequest: response file position is not page-aligned, the download will not use direct I/O.");
+                }
+            }
+            if (downloadFileIoOptions.getDiskThroughputGbps() > 0) {
+                /* Receive no faster than the disk can write, so parts do not pile up in memory waiting for it */
+                int diskConnections = S3AdaptiveTuner.estimatedConnections(downloadFileIoOptions.getDiskThroughputGbps());
+                maxActiveConnections = maxActiveConnections > 0 ? Math.min(maxActiveConnections, diskConnections)
+                        : diskConnections;
+            }
+        }
 
-        FileIoOptions fileIoOptions = options.getFileIoOptions();
-        if (fileIoOptions != null) {
-            fioOptionsSet = true;
-            shouldStream = fileIoOptions.getShouldStream();
-            diskThroughputGbps = fileIoOptions.getDiskThroughputGbps();
-            directIo = fileIoOptions.getDirectIo();
+        final S3MetaRequestOptions.Priority priority = options.getPriority();
+        if (memoryBudgets == null && options.getMemoryBudgetGroup() != null) {
+            throw new IllegalArgumentException(
+                    "S3Client.makeMetaRequest has invalid options; the client has no memory budget groups.");
+        }
+        final S3MemoryBudgets.Lease memoryLease = memoryBudgets != null
+                ? memoryBudgets.acquire(options.getMemoryBudgetGroup(), partSize > 0 ? partSize : defaultPartSize,
+                        maxActiveConnections > 0 ? maxActiveConnections : defaultConnections)
+                : null;
+        int scheduledConnections = priorityScheduler != null ? priorityScheduler.admit(priority) : 0;
+        Runnable finishListener = null;
+        if (priorityScheduler != null || memoryLease != null) {
+            finishListener = () -> {
+                if (priorityScheduler != null) {
+                    priorityScheduler.release(priority);
+                }
+                if (memoryLease != null) {
+                    memoryBudgets.release(memoryLease);
+                }
+            };
+        }
+        if (scheduledConnections > 0 && options.getMaxActiveConnections() == 0) {
+            maxActiveConnections = maxActiveConnections > 0 ? Math.min(maxActiveConnections, scheduledConnections)
+                    : scheduledConnections;
+        }
+        if (memoryLease != null) {
+            /* The memory budget is a hard cap, it applies even over an explicit per meta request value */
+            maxActiveConnections = maxActiveConnections > 0
+                    ? Math.min(maxActiveConnections, memoryLease.getConnections())
+                    : memoryLease.getConnections();
         }
 
-        long metaRequestNativeHandle = s3ClientMakeMetaRequest(getNativeHandle(), metaRequest, region.getBytes(UTF8),
-                options.getMetaRequestType().getNativeValue(),
-                operationName == null ? null : operationName.getBytes(UTF8),
-                checksumConfig.getChecksumLocation().getNativeValue(),
-                checksumConfig.getChecksumAlgorithm().getNativeValue(), checksumConfig.getValidateChecksum(),
-                ChecksumAlgorithm.marshallAlgorithmsForJNI(checksumConfig.getValidateChecksumAlgorithmList()),
-                httpRequestBytes, options.getHttpRequest().getBodyStream(), requestFilePath, signingConfig,
-                responseHandlerNativeAdapter, endpoint == null ? null : endpoint.toString().getBytes(UTF8),
-                options.getResumeToken(), options.getObjectSizeHint(), responseFilePath,
-                options.getResponseFileOption().getNativeValue(), options.getResponseFilePosition(),
-                options.getResponseFileDeleteOnFailure(),
-                fioOptionsSet,
-                shouldStream,
-                diskThroughputGbps,
-                directIo);
+        /* From here on, a failure must give back the lease and the scheduler slot, and drop the mapped file */
+        S3MetaRequest metaRequest;
+        AwsSigningConfig signingConfig = options.getSigningConfig();
+        boolean didCreateSigningConfig = false;
+        long metaRequestNativeHandle;
+        try {
+            if (mapResponseFile) {
+                /* Memory-mapped downloads are written by the binding, the native client sees a plain GET */
+                try {
+                    mappedFileSink = S3MappedFileSink.open(options.getResponseFilePath(), objectSizeHint,
+                            options.getResponseFileDeleteOnFailure(), responseHandler);
+                } catch (IOException ex) {
+                    throw new CrtRuntimeException("S3Client.makeMetaRequest failed to map response file: " + ex);
+                }
+                responseHandler = mappedFileSink;
+                directResponseBody = true;
+                responseFileOption = S3MetaRequestOptions.ResponseFileOption.CREATE_OR_REPLACE;
+            }
+
+            metaRequest = new S3MetaRequest(readBackpressureEnabled);
+            S3MetaRequestResponseHandlerNativeAdapter responseHandlerNativeAdapter = new S3MetaRequestResponseHandlerNativeAdapter(
+                    responseHandler, metaRequest, readBackpressureEnabled, telemetryAggregator, adaptiveTuner,
+                    finishListener, retainedBodyMemory);
+
+            if(signingConfig == null && options.getCredentialsProvider()!= null) {
+                signingConfig = AwsSigningConfig.getDefaultS3SigningConfig(region, options.getCredentialsProvider());
+                didCreateSigningConfig = true;
+            }
+            URI endpoint = options.getEndpoint();
+
+            ChecksumConfig checksumConfig = options.getChecksumConfig() != null ? options.getChecksumConfig()
+                    : new ChecksumConfig();
+            // Handle FileIoOptions from S3MetaRequestOptions
+            boolean fioOptionsSet = false;
+            boolean shouldStream = false;
+            double diskThroughputGbps = 0.0;
+            boolean directIo = false;
+
+            FileIoOptions fileIoOptions = options.getFileIoOptions();
+            if (fileIoOptions != null) {
+                fioOptionsSet = true;
+                shouldStream = fileIoOptions.getShouldStream();
+                diskThroughputGbps = fileIoOptions.getDiskThroughputGbps();
+                directIo = fileIoOptions.getDirectIo();
+            }
+
+            metaRequestNativeHandle = s3ClientMakeMetaRequest(getNativeHandle(), metaRequest, region.getBytes(UTF8),
+                    options.getMetaRequestType().getNativeValue(),
+                    operationName == null ? null : operationName.getBytes(UTF8),
+                    checksumConfig.getChecksumLocation().getNativeValue(),
+                    checksumConfig.getChecksumAlgorithm().getNativeValue(), checksumConfig.getValidateChecksum(),
+                    ChecksumAlgorithm.marshallAlgorithmsForJNI(checksumConfig.getValidateChecksumAlgorithmList()),
+                    httpRequestBytes, options.getHttpRequest().getBodyStream(), requestFilePath,
+                    options.getRequestFileOffset(), options.getRequestFileLength(), signingConfig,
+                    responseHandlerNativeAdapter, endpoint == null ? null : endpoint.toString().getBytes(UTF8),
+                    options.getResumeToken(), objectSizeHint, responseFilePath,
+                    responseFileOption.getNativeValue(), options.getResponseFilePosition(),
+                    options.getResponseFileDeleteOnFailure(),
+                    fioOptionsSet,
+                    shouldStream,
+                    diskThroughputGbps,
+                    directIo,
+                    directResponseBody,
+                    partSize,
+                    maxActiveConnections,
+                    options.getProgressIntervalMs(),
+                    options.getProgressIntervalBytes(),
+                    options.getTelemetryBatchSize());
+        } catch (RuntimeException ex) {
+            if (finishListener != null) {
+                finishListener.run();
+            }
+            if (didCreateSigningConfig) {
+                signingConfig.close();
+            }
+            if (mappedFileSink != null) {
+                try {
+                    mappedFileSink.discard();
+                } catch (IOException closeException) {
+                    ex.addSuppressed(closeException);
+                }
+            }
+            throw ex;
+        }
 
         metaRequest.setMetaRequestNativeHandle(metaRequestNativeHandle);
 
@@ -237,6 +439,61 @@ public class S3Client extends CrtResource {
         return metaRequest;
     }
 
+    /**
+     * Download many objects as one batch, each into memory, and hand every object to a sink.
+     * Meant for large numbers of small objects: the batch keeps at most maxConcurrentRequests GETs in flight
+     * and at most maxInFlightBytes of object data buffered, starts the largest known objects first, and
+     * completes a single future once every object has been attempted. One failed object does not stop the rest.
+     * Set {@link S3GetObjectRequest#withObjectSizeHint} when sizes are known, so each small object takes a single GET.
+     *
+     * @param requests objects to download
+     * @param sink receives each object's body, or its failure
+     * @param maxConcurrentRequests most GETs in flight at once
+     * @param maxInFlightBytes most bytes of object data reserved by GETs in flight. An object without a size hint
+     *                         reserves only 64 KiB, so this bounds the memory held only when every size is known
+     * @return future completed with the result once every object has been attempted.
+     *         Failures are keyed by object key. Cancelling it cancels the GETs in flight and skips the rest
+     */
+    public CompletableFuture<S3TransferBatchResult> getObjects(List<S3GetObjectRequest> requests, S3ObjectSink sink,
+            int maxConcurrentRequests, long maxInFlightBytes) {
+        return S3BatchGet.run(this, requests, sink, maxConcurrentRequests, maxInFlightBytes);
+    }
+
+    /**
+     * Copy many objects server-side as one batch, from a manifest of source and destination pairs.
+     * Meant for bucket migrations: the batch keeps at most maxConcurrentCopies COPY_OBJECT meta requests in flight,
+     * starting the next as soon as one finishes, and starts the largest known objects first. Each meta request
+     * copies large objects with UploadPartCopy requests, and all of them share the client's connections.
+     * One failed copy does not stop the rest. The result reports the bytes copied and the elapsed time,
+     * see {@link S3TransferBatchResult#getBytesPerSecond}.
+     *
+     * @param requests objects to copy
+     * @param listener receives each object's outcome and the progress of the batch
+     * @param maxConcurrentCopies most COPY_OBJECT meta requests in flight at once
+     * @return future completed with the result once every object has been attempted.
+     *         Failures are keyed by destination key. Cancelling it cancels the copies in flight and skips the rest
+     */
+    public CompletableFuture<S3TransferBatchResult> copyObjects(List<S3CopyObjectRequest> requests,
+            S3CopyObjectListener listener, int maxConcurrentCopies) {
+        return S3BatchCopy.run(this, requests, listener, maxConcurrentCopies);
+    }
+
+    /**
+     * Enumerate every key under a prefix with ListObjectsV2, listing partitions of the keyspace concurrently.
+     * The keyspace is split at the delimiter of the options down to their partition depth, and each common prefix
+     * found is listed as a partition of its own, see {@link S3ListObjectsOptions}. All requests share the
+     * client's connections. Keys are streamed to the listener one page at a time, as compact
+     * {@link S3ListObjectsBatch} records.
+     *
+     * @param options bucket, prefix and partitioning of the listing
+     * @param listener receives the keys of each page
+     * @return future completed with the number of keys listed. It completes exceptionally as soon as a request
+     *         fails, a page cannot be parsed or the listener throws. Cancelling it cancels the requests in flight
+     */
+    public CompletableFuture<Long> listObjects(S3ListObjectsOptions options, S3ListObjectsListener listener) {
+        return S3ObjectLister.run(this, options, listener);
+    }
+
     /**
      * Determines whether a resource releases its dependencies at the same time the
      * native handle is released or if it waits. Resources that wait are responsible
@@ -262,6 +519,20 @@ public class S3Client extends CrtResource {
         return shutdownComplete;
     }
 
+    /**
+     * @return the adaptive tuner of the client, or null if adaptive tuning is not enabled
+     */
+    public S3AdaptiveTuner getAdaptiveTuner() {
+        return adaptiveTuner;
+    }
+
+    /**
+     * @return the block cache from the client options, or null
+     */
+    S3BlockCache getBlockCache() {
+        return blockCache;
+    }
+
     /*******************************************************************************
      * native methods
      ******************************************************************************/
@@ -298,12 +569,19 @@ public class S3Client extends CrtResource {
             int metaRequestType, byte[] operationName,
             int checksumLocation, int checksumAlgorithm, boolean validateChecksum,
             int[] validateAlgorithms, byte[] httpRequestBytes,
-            HttpRequestBodyStream httpRequestBodyStream, byte[] requestFilePath,
+            HttpRequestBodyStream httpRequestBodyStream, byte[] requestFilePath, long requestFileOffset,
+            long requestFileLength,
             AwsSigningConfig signingConfig, S3MetaRequestResponseHandlerNativeAdapter responseHandlerNativeAdapter,
             byte[] endpoint, ResumeToken resumeToken, Long objectSizeHint, byte[] responseFilePath,
             int responseFileOption, long responseFilePosition, boolean responseFileDeleteOnFailure,
             boolean fioOptionsSet,
             boolean shouldStream,
             double diskThroughputGbps,
-            boolean directIo);
+            boolean directIo,
+            boolean directResponseBody,
+            long partSize,
+            int maxActiveConnections,
+            long progressIntervalMs,
+            long progressIntervalBytes,
+            int telemetryBatchSize);
 }
@@ -15,6 +15,9 @@ import software.amazon.awssdk.crt.auth.credentials.CredentialsProvider;
 import software.amazon.awssdk.crt.auth.signing.AwsSigningConfig;
 import software.amazon.awssdk.crt.auth.signing.AwsSigningConfig.AwsSigningAlgorithm;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class S3ClientOptions {
 
     private String endpoint;
@@ -81,6 +84,37 @@ public class S3ClientOptions {
      */
     private FileIoOptions fileIoOptions;
 
+    /**
+     * Optional.
+     * Off-heap cache of object blocks shared by the ranged readers of the client.
+     */
+    private S3BlockCache blockCache;
+    private S3ObjectMetadataCache objectMetadataCache;
+
+    /**
+     * Optional.
+     * Records the metrics of every request made by the client.
+     */
+    private S3TelemetryAggregator telemetryAggregator;
+
+    /**
+     * Optional.
+     * Adjust part size and concurrency while the client runs, see S3AdaptiveTuner.
+     */
+    private boolean adaptiveTuning;
+
+    /**
+     * Optional.
+     * Share of connections for BACKGROUND meta requests, 0 to treat all meta requests alike.
+     */
+    private double backgroundConnectionShare;
+
+    /**
+     * Optional.
+     * Named shares of the memory limit, for meta requests that pick one with their memory budget group.
+     */
+    private List<S3MemoryBudgetGroup> memoryBudgetGroups = new ArrayList<>();
+
     public S3ClientOptions() {
         this.computeContentMd5 = false;
     }
@@ -410,4 +444,148 @@ public class S3ClientOptions {
     public FileIoOptions getFileIoOptions() {
         return fileIoOptions;
     }
+
+    /**
+     * Sets a cache of object blocks for ranged reads made through {@link S3SeekableByteChannel}.
+     * Reads of objects with a known ETag are served from the cache where possible,
+     * and only the missing blocks are fetched from S3.
+     *
+     * @param blockCache the cache to use, may be shared with other clients
+     * @return this
+     */
+    public S3ClientOptions withBlockCache(S3BlockCache blockCache) {
+        this.blockCache = blockCache;
+        return this;
+    }
+
+    /**
+     * @return the block cache, or null if not set
+     */
+    public S3BlockCache getBlockCache() {
+        return blockCache;
+    }
+
+    /**
+     * Sets a cache of object sizes and ETags. GET_OBJECT meta requests without a Range header, a size hint or a
+     * resume token take their size hint from the cache, so a repeated download of an object skips the request
+     * that discovers its size. Every such download records what its first response says about the object.
+     *
+     * @param objectMetadataCache the cache to use, may be shared with other clients
+     * @return this
+     */
+    public S3ClientOptions withObjectMetadataCache(S3ObjectMetadataCache objectMetadataCache) {
+        this.objectMetadataCache = objectMetadataCache;
+        return this;
+    }
+
+    /**
+     * @return the object metadata cache, or null if not set
+     */
+    public S3ObjectMetadataCache getObjectMetadataCache() {
+        return objectMetadataCache;
+    }
+
+    /**
+     * Sets an aggregator that records the metrics of every request made by the client's meta requests,
+     * broken down by operation and endpoint IP. The metrics are still passed to each meta request's
+     * {@link S3MetaRequestResponseHandler#onTelemetry} as well.
+     *
+     * @param telemetryAggregator the aggregator to record into, may be shared with other clients
+     * @return this
+     */
+    public S3ClientOptions withTelemetryAggregator(S3TelemetryAggregator telemetryAggregator) {
+        this.telemetryAggregator = telemetryAggregator;
+        return this;
+    }
+
+    /**
+     * @return the telemetry aggregator, or null if not set
+     */
+    public S3TelemetryAggregator getTelemetryAggregator() {
+        return telemetryAggregator;
+    }
+
+    /**
+     * Set whether the client tunes part size and the number of in-flight requests of each meta request while it
+     * runs (false by default), instead of using fixed values for its whole lifetime.
+     * <p>
+     * The client watches the throughput it achieves and the error and throttling rates of its requests, and moves
+     * part size and concurrency toward {@link #withThroughputTargetGbps}, backing off when S3 throttles,
+     * without letting part size times concurrency exceed {@link #withMemoryLimitInBytes}.
+     * {@link #withPartSize} is the starting part size, and {@link #withMaxConnections}, if set, caps concurrency.
+     * See {@link S3AdaptiveTuner}.
+     *
+     * @param adaptiveTuning whether to enable adaptive tuning
+     * @return this
+     */
+    public S3ClientOptions withAdaptiveTuning(boolean adaptiveTuning) {
+        this.adaptiveTuning = adaptiveTuning;
+        return this;
+    }
+
+    /**
+     * @return whether adaptive tuning is enabled
+     */
+    public boolean getAdaptiveTuning() {
+        return adaptiveTuning;
+    }
+
+    /**
+     * Enable priority scheduling of meta requests, see {@link S3MetaRequestOptions#withPriority}.
+     * <p>
+     * BACKGROUND meta requests together are limited to this share of the client's connections, and while any of
+     * them is active, each FOREGROUND meta request is limited to the rest. This lets one client serve
+     * latency-sensitive GETs ahead of bulk uploads, while bulk uploads keep progressing, instead of running a
+     * separate client for each. As the limit of a meta request cannot change once it has started, BACKGROUND meta
+     * requests stay within their share even while no FOREGROUND meta request is active.
+     * {@link #withMaxConnections} sets the number of connections shared; if not set, the native client keeps its
+     * default connection limit, and the shares are taken of an estimate derived from
+     * {@link #withThroughputTargetGbps}.
+     *
+     * @param backgroundConnectionShare share of connections for BACKGROUND meta requests, between 0 and 1 exclusive
+     * @return this
+     */
+    public S3ClientOptions withBackgroundConnectionShare(double backgroundConnectionShare) {
+        if (!(backgroundConnectionShare > 0 && backgroundConnectionShare < 1)) {
+            throw new IllegalArgumentException("S3ClientOptions: background connection share must be between 0 and 1.");
+        }
+        this.backgroundConnectionShare = backgroundConnectionShare;
+        return this;
+    }
+
+    /**
+     * @return share of connections for BACKGROUND meta requests, or 0 if priority scheduling is not enabled
+     */
+    public double getBackgroundConnectionShare() {
+        return backgroundConnectionShare;
+    }
+
+    /**
+     * Add a memory budget group, see {@link S3MemoryBudgetGroup}. Meta requests join it with
+     * {@link S3MetaRequestOptions#withMemoryBudgetGroup}.
+     * <p>
+     * Groups split {@link #withMemoryLimitInBytes} (2 GiB if not set) between tenants of a shared client, so that a
+     * tenant downloading huge objects cannot take all of the memory and starve the others. The guaranteed bytes of
+     * all groups together must not exceed the memory limit. A meta request whose group is short of memory runs with
+     * fewer requests in flight. If the group cannot afford a single part while other meta requests of the group are
+     * in flight, {@link S3Client#makeMetaRequest} throws IllegalStateException instead, and the meta request may be
+     * retried once one of them has finished.
+     *
+     * @param memoryBudgetGroup group to add
+     * @return this
+     */
+    public S3ClientOptions withMemoryBudgetGroup(S3MemoryBudgetGroup memoryBudgetGroup) {
+        if (memoryBudgetGroup == null) {
+            throw new IllegalArgumentException("S3ClientOptions: memory budget group must not be null.");
+        }
+        this.memoryBudgetGroups.add(memoryBudgetGroup);
+        return this;
+    }
+
+    /**
+     * @return memory budget groups of the client, empty if there are none
+     */
+    public List<S3MemoryBudgetGroup> getMemoryBudgetGroups() {
+        return memoryBudgetGroups;
+    }
 }
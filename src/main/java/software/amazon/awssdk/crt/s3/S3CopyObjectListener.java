@@ -0,0 +1,38 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+/**
+ * Receives the per-object results and the overall progress of a {@link S3Client#copyObjects} batch.
+ * Methods are invoked from the client's event-loop threads, possibly concurrently for different objects,
+ * and should return quickly.
+ */
+public interface S3CopyObjectListener {
+
+    /**
+     * Invoked once an object has been copied.
+     *
+     * @param request the request that succeeded
+     */
+    default void onCopied(S3CopyObjectRequest request) {
+    }
+
+    /**
+     * Invoked if an object could not be copied. The failure is also recorded in the batch result.
+     *
+     * @param request the request that failed
+     * @param cause why it failed
+     */
+    default void onFailure(S3CopyObjectRequest request, Throwable cause) {
+    }
+
+    /**
+     * Invoked as bytes are copied by any object of the batch.
+     *
+     * @param progress bytes copied since the last update, and the total size of the objects with a size hint
+     */
+    default void onProgress(S3MetaRequestProgress progress) {
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+/**
+ * One object of a {@link S3Client#copyObjects} batch: a server-side copy from a source object to a destination.
+ */
+public class S3CopyObjectRequest {
+
+    private String sourceBucket;
+    private String sourceKey;
+    private String destinationHost;
+    private String destinationKey;
+    private Long objectSizeHint;
+    private Object context;
+
+    public S3CopyObjectRequest() {
+    }
+
+    /**
+     * Bucket to copy from. Required.
+     *
+     * @param sourceBucket name of the source bucket
+     * @return this
+     */
+    public S3CopyObjectRequest withSourceBucket(String sourceBucket) {
+        this.sourceBucket = sourceBucket;
+        return this;
+    }
+
+    public String getSourceBucket() {
+        return sourceBucket;
+    }
+
+    /**
+     * Key of the object to copy, not URI-encoded. Required.
+     *
+     * @param sourceKey source object key
+     * @return this
+     */
+    public S3CopyObjectRequest withSourceKey(String sourceKey) {
+        this.sourceKey = sourceKey;
+        return this;
+    }
+
+    public String getSourceKey() {
+        return sourceKey;
+    }
+
+    /**
+     * Host of the destination bucket, e.g. "example-bucket.s3.us-west-2.amazonaws.com". Required.
+     *
+     * @param destinationHost value to send in the Host header
+     * @return this
+     */
+    public S3CopyObjectRequest withDestinationHost(String destinationHost) {
+        this.destinationHost = destinationHost;
+        return this;
+    }
+
+    public String getDestinationHost() {
+        return destinationHost;
+    }
+
+    /**
+     * Key to copy the object to, not URI-encoded. Required.
+     *
+     * @param destinationKey destination object key
+     * @return this
+     */
+    public S3CopyObjectRequest withDestinationKey(String destinationKey) {
+        this.destinationKey = destinationKey;
+        return this;
+    }
+
+    public String getDestinationKey() {
+        return destinationKey;
+    }
+
+    /**
+     * Size of the source object, if known, for example from a listing. Lets the batch start the largest copies
+     * first and report the total size in its progress.
+     *
+     * @param objectSizeHint size of the object in bytes, or null if unknown
+     * @return this
+     */
+    public S3CopyObjectRequest withObjectSizeHint(Long objectSizeHint) {
+        this.objectSizeHint = objectSizeHint;
+        return this;
+    }
+
+    public Long getObjectSizeHint() {
+        return objectSizeHint;
+    }
+
+    /**
+     * Any value the caller wants handed back with the object's result, such as a manifest line number.
+     *
+     * @param context caller-defined value, not used by the client
+     * @return this
+     */
+    public S3CopyObjectRequest withContext(Object context) {
+        this.context = context;
+        return this;
+    }
+
+    public Object getContext() {
+        return context;
+    }
+}
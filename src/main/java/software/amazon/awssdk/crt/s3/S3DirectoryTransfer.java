@@ -0,0 +1,161 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import software.amazon.awssdk.crt.http.HttpHeader;
+import software.amazon.awssdk.crt.http.HttpRequest;
+import software.amazon.awssdk.crt.io.Uri;
+
+/**
+ * Uploads a local directory tree to S3, or downloads a set of objects into a local directory,
+ * through a single {@link S3Client}.
+ * <p>
+ * All objects share one concurrency limit and one memory budget (see {@link S3DirectoryTransferOptions}),
+ * and large objects are started first so that many small files fill in around a few large ones
+ * instead of queueing behind them. Progress of the whole transfer is reported through one listener.
+ * <p>
+ * The S3Client must stay open until the returned future completes. Cancelling the future cancels
+ * every transfer still in flight and skips the ones not started yet.
+ */
+public class S3DirectoryTransfer {
+
+    private final Function<S3MetaRequestOptions, S3MetaRequest> metaRequestFactory;
+    private final S3DirectoryTransferOptions options;
+
+    /**
+     * @param client client that runs every meta request
+     * @param options options for the transfer
+     */
+    public S3DirectoryTransfer(S3Client client, S3DirectoryTransferOptions options) {
+        if (client == null) {
+            throw new IllegalArgumentException("S3DirectoryTransfer: client must not be null.");
+        }
+        if (options == null || options.getHost() == null) {
+            throw new IllegalArgumentException("S3DirectoryTransfer: options with a host are required.");
+        }
+        this.metaRequestFactory = client::makeMetaRequest;
+        this.options = options;
+    }
+
+    /**
+     * @param metaRequestFactory makes the meta request of each object, in place of an S3Client
+     * @param options options for the transfer
+     */
+    S3DirectoryTransfer(Function<S3MetaRequestOptions, S3MetaRequest> metaRequestFactory,
+            S3DirectoryTransferOptions options) {
+        this.metaRequestFactory = metaRequestFactory;
+        this.options = options;
+    }
+
+    /**
+     * Upload every regular file below a directory. Each file is uploaded to
+     * keyPrefix + its path relative to the directory, with "/" as separator.
+     *
+     * @param directory directory to upload
+     * @return future completed with the result once every file has been attempted
+     */
+    public CompletableFuture<S3TransferBatchResult> uploadDirectory(Path directory) {
+        return newBatch().run(listUploadItems(directory.toAbsolutePath()));
+    }
+
+    /* Upload items of the regular files below root, found with the CRT's native directory traversal */
+    @SuppressWarnings("deprecation")
+    private List<S3TransferBatch.Item> listUploadItems(final Path root) {
+        final List<S3TransferBatch.Item> items = new ArrayList<>();
+        software.amazon.awssdk.crt.io.DirectoryTraversal.traverse(root.toString(), true, entry -> {
+            if (entry.isFile()) {
+                Path file = Paths.get(entry.getPath());
+                String key = toKey(root.relativize(file.toAbsolutePath()));
+                items.add(uploadItem(key, file, entry.getFileSize()));
+            }
+            return true;
+        });
+        return items;
+    }
+
+    /**
+     * Download objects into a directory. Each object is written to its key relative to the directory,
+     * with keyPrefix removed from the front of the key if present. Parent directories are created as needed.
+     *
+     * @param directory directory to download into
+     * @param keys keys of the objects to download
+     * @return future completed with the result once every object has been attempted
+     */
+    public CompletableFuture<S3TransferBatchResult> downloadObjects(Path directory, List<String> keys) {
+        final Path root = directory.toAbsolutePath();
+        final List<S3TransferBatch.Item> items = new ArrayList<>();
+        for (String key : keys) {
+            String relative = key;
+            if (!options.getKeyPrefix().isEmpty() && key.startsWith(options.getKeyPrefix())) {
+                relative = key.substring(options.getKeyPrefix().length());
+            }
+            Path file = root.resolve(relative.replace('/', File.separatorChar)).normalize();
+            if (!file.startsWith(root)) {
+                throw new IllegalArgumentException("S3DirectoryTransfer: key escapes the target directory: " + key);
+            }
+            items.add(downloadItem(key, file));
+        }
+        return newBatch().run(items);
+    }
+
+    private S3TransferBatch newBatch() {
+        return new S3TransferBatch(metaRequestFactory, options.getMaxConcurrentTransfers(), options.getMaxInFlightBytes(),
+                options.getProgressListener());
+    }
+
+    private String toKey(Path relative) {
+        StringBuilder key = new StringBuilder(options.getKeyPrefix());
+        for (int i = 0; i < relative.getNameCount(); i++) {
+            if (i > 0) {
+                key.append('/');
+            }
+            key.append(relative.getName(i).toString());
+        }
+        return key.toString();
+    }
+
+    private S3TransferBatch.Item uploadItem(String key, Path file, long fileSize) {
+        HttpHeader[] headers = {
+                new HttpHeader("Host", options.getHost()),
+                new HttpHeader("Content-Length", Long.toString(fileSize)),
+        };
+        HttpRequest httpRequest = new HttpRequest("PUT", "/" + Uri.encodeUriPath(key), headers, null);
+        S3MetaRequestOptions metaRequestOptions = new S3MetaRequestOptions()
+                .withMetaRequestType(S3MetaRequestOptions.MetaRequestType.PUT_OBJECT)
+                .withHttpRequest(httpRequest)
+                .withRequestFilePath(file)
+                .withFileIoOptions(options.getFileIoOptions());
+        return new S3TransferBatch.Item(key, fileSize, reservationFor(fileSize), metaRequestOptions);
+    }
+
+    private S3TransferBatch.Item downloadItem(String key, Path file) {
+        HttpHeader[] headers = { new HttpHeader("Host", options.getHost()) };
+        HttpRequest httpRequest = new HttpRequest("GET", "/" + Uri.encodeUriPath(key), headers, null);
+        S3MetaRequestOptions metaRequestOptions = new S3MetaRequestOptions()
+                .withMetaRequestType(S3MetaRequestOptions.MetaRequestType.GET_OBJECT)
+                .withHttpRequest(httpRequest)
+                .withResponseFilePath(file)
+                .withResponseFileDeleteOnFailure(true)
+                .withFileIoOptions(options.getFileIoOptions());
+        File parent = file.getParent().toFile();
+        if (!parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+            throw new IllegalStateException("S3DirectoryTransfer: failed to create directory " + parent);
+        }
+        /* Sizes are not known up front, so every download reserves the full per-transfer amount */
+        return new S3TransferBatch.Item(key, 0, options.getPerTransferReservationBytes(), metaRequestOptions);
+    }
+
+    private long reservationFor(long objectSize) {
+        return Math.max(1, Math.min(objectSize, options.getPerTransferReservationBytes()));
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.util.function.Consumer;
+
+/**
+ * Options for {@link S3DirectoryTransfer}.
+ */
+public class S3DirectoryTransferOptions {
+
+    private String host;
+    private String keyPrefix = "";
+    private int maxConcurrentTransfers = 64;
+    private long maxInFlightBytes = 2L * 1024 * 1024 * 1024;
+    private long perTransferReservationBytes = 64L * 1024 * 1024;
+    private Consumer<S3MetaRequestProgress> progressListener;
+    private FileIoOptions fileIoOptions;
+
+    public S3DirectoryTransferOptions() {
+    }
+
+    /**
+     * Host of the bucket, e.g. "example-bucket.s3.us-west-2.amazonaws.com". Required.
+     *
+     * @param host value to send in the Host header of every request
+     * @return this
+     */
+    public S3DirectoryTransferOptions withHost(String host) {
+        this.host = host;
+        return this;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * Prefix joined to the path of each file relative to the directory to form its key.
+     * Include a trailing "/" to place the files under a "folder". Default is "" (the bucket root).
+     *
+     * @param keyPrefix prefix for every object key
+     * @return this
+     */
+    public S3DirectoryTransferOptions withKeyPrefix(String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+        return this;
+    }
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    /**
+     * Maximum number of meta requests in flight at once. Default is 64.
+     * Each meta request is still split into parts by the client, so a handful of large objects
+     * can saturate the connection on their own; this mainly bounds how many small objects run at once.
+     *
+     * @param maxConcurrentTransfers maximum number of concurrent meta requests
+     * @return this
+     */
+    public S3DirectoryTransferOptions withMaxConcurrentTransfers(int maxConcurrentTransfers) {
+        this.maxConcurrentTransfers = maxConcurrentTransfers;
+        return this;
+    }
+
+    public int getMaxConcurrentTransfers() {
+        return maxConcurrentTransfers;
+    }
+
+    /**
+     * Memory budget shared by all transfers in flight. Default is 2 GiB.
+     * Each transfer holds min(object size, perTransferReservationBytes) of the budget while it runs.
+     * A transfer that does not fit waits until others finish, unless nothing else is in flight.
+     *
+     * @param maxInFlightBytes total bytes that in-flight transfers may reserve
+     * @return this
+     */
+    public S3DirectoryTransferOptions withMaxInFlightBytes(long maxInFlightBytes) {
+        this.maxInFlightBytes = maxInFlightBytes;
+        return this;
+    }
+
+    public long getMaxInFlightBytes() {
+        return maxInFlightBytes;
+    }
+
+    /**
+     * Most of the memory budget any single transfer may hold, normally a few part sizes. Default is 64 MiB.
+     *
+     * @param perTransferReservationBytes upper bound of the reservation for one transfer
+     * @return this
+     */
+    public S3DirectoryTransferOptions withPerTransferReservationBytes(long perTransferReservationBytes) {
+        this.perTransferReservationBytes = perTransferReservationBytes;
+        return this;
+    }
+
+    public long getPerTransferReservationBytes() {
+        return perTransferReservationBytes;
+    }
+
+    /**
+     * Listener for aggregate progress. It is invoked from the client's event-loop threads,
+     * possibly concurrently. Each update carries the bytes transferred since the previous update
+     * of the same object, and as content length the total size of the whole directory transfer (0 if unknown).
+     *
+     * @param progressListener listener for progress of the whole transfer
+     * @return this
+     */
+    public S3DirectoryTransferOptions withProgressListener(Consumer<S3MetaRequestProgress> progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    public Consumer<S3MetaRequestProgress> getProgressListener() {
+        return progressListener;
+    }
+
+    /**
+     * File I/O options applied to every meta request.
+     *
+     * @param fileIoOptions file I/O options, or null for the client's default
+     * @return this
+     */
+    public S3DirectoryTransferOptions withFileIoOptions(FileIoOptions fileIoOptions) {
+        this.fileIoOptions = fileIoOptions;
+        return this;
+    }
+
+    public FileIoOptions getFileIoOptions() {
+        return fileIoOptions;
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+/**
+ * One object of a {@link S3Client#getObjects} batch.
+ */
+public class S3GetObjectRequest {
+
+    private String host;
+    private String key;
+    private Long objectSizeHint;
+    private Object context;
+
+    public S3GetObjectRequest() {
+    }
+
+    /**
+     * Host of the bucket, e.g. "example-bucket.s3.us-west-2.amazonaws.com". Required.
+     *
+     * @param host value to send in the Host header
+     * @return this
+     */
+    public S3GetObjectRequest withHost(String host) {
+        this.host = host;
+        return this;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * Key of the object, not URI-encoded. Required.
+     *
+     * @param key object key
+     * @return this
+     */
+    public S3GetObjectRequest withKey(String key) {
+        this.key = key;
+        return this;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Size of the object, if known, for example from a listing. Lets the client fetch a small object
+     * with a single GET, and lets the batch size the object's buffer and its share of the memory budget.
+     * Without it, the object reserves only 64 KiB of the batch's maxInFlightBytes however large it turns out to be,
+     * so the budget no longer bounds the memory actually held. See {@link S3MetaRequestOptions#withObjectSizeHint}.
+     *
+     * @param objectSizeHint size of the object in bytes, or null if unknown
+     * @return this
+     */
+    public S3GetObjectRequest withObjectSizeHint(Long objectSizeHint) {
+        this.objectSizeHint = objectSizeHint;
+        return this;
+    }
+
+    public Long getObjectSizeHint() {
+        return objectSizeHint;
+    }
+
+    /**
+     * Any value the caller wants handed back with the object's result, such as where to store it.
+     *
+     * @param context caller-defined value, not used by the client
+     * @return this
+     */
+    public S3GetObjectRequest withContext(Object context) {
+        this.context = context;
+        return this;
+    }
+
+    public Object getContext() {
+        return context;
+    }
+}
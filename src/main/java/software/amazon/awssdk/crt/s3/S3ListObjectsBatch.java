@@ -0,0 +1,121 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Keys of one ListObjectsV2 page, delivered to {@link S3ListObjectsListener#onBatch}.
+ * <p>
+ * The batch holds its records as arrays of primitives: the UTF-8 bytes of all keys one after the other,
+ * and the size and last-modified time of each. Keys can be compared or copied out with {@link #copyKey}
+ * without creating any object; {@link #getKey} and {@link #getETag} build a String on every call.
+ */
+public final class S3ListObjectsBatch {
+
+    private final String partitionPrefix;
+    private final int size;
+    private final byte[] keyData;
+    private final int[] keyOffsets;
+    private final byte[] eTagData;
+    private final int[] eTagOffsets;
+    private final long[] sizes;
+    private final long[] lastModifiedMillis;
+
+    /**
+     * @param keyOffsets start of each key in keyData, followed by the end of the last one
+     * @param eTagOffsets start of each ETag in eTagData, followed by the end of the last one
+     */
+    S3ListObjectsBatch(String partitionPrefix, int size, byte[] keyData, int[] keyOffsets, byte[] eTagData,
+            int[] eTagOffsets, long[] sizes, long[] lastModifiedMillis) {
+        this.partitionPrefix = partitionPrefix;
+        this.size = size;
+        this.keyData = keyData;
+        this.keyOffsets = keyOffsets;
+        this.eTagData = eTagData;
+        this.eTagOffsets = eTagOffsets;
+        this.sizes = sizes;
+        this.lastModifiedMillis = lastModifiedMillis;
+    }
+
+    /**
+     * @return prefix of the partition the page belongs to
+     */
+    public String getPartitionPrefix() {
+        return partitionPrefix;
+    }
+
+    /**
+     * @return number of keys in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index index of the key, from 0 to size() - 1
+     * @return length of the key in UTF-8 bytes
+     */
+    public int getKeyLength(int index) {
+        checkIndex(index);
+        return keyOffsets[index + 1] - keyOffsets[index];
+    }
+
+    /**
+     * Copy the UTF-8 bytes of a key.
+     *
+     * @param index index of the key
+     * @param dst where to copy the key
+     * @param dstOffset position in dst of the first byte
+     * @return length of the key in bytes
+     */
+    public int copyKey(int index, byte[] dst, int dstOffset) {
+        int length = getKeyLength(index);
+        System.arraycopy(keyData, keyOffsets[index], dst, dstOffset, length);
+        return length;
+    }
+
+    /**
+     * @param index index of the key
+     * @return the key
+     */
+    public String getKey(int index) {
+        return new String(keyData, keyOffsets[index], getKeyLength(index), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param index index of the key
+     * @return size of the object in bytes
+     */
+    public long getSize(int index) {
+        checkIndex(index);
+        return sizes[index];
+    }
+
+    /**
+     * @param index index of the key
+     * @return last-modified time of the object, in milliseconds since the epoch, or -1 if not reported
+     */
+    public long getLastModifiedMillis(int index) {
+        checkIndex(index);
+        return lastModifiedMillis[index];
+    }
+
+    /**
+     * @param index index of the key
+     * @return ETag of the object without its quotes, or null if not reported
+     */
+    public String getETag(int index) {
+        checkIndex(index);
+        int length = eTagOffsets[index + 1] - eTagOffsets[index];
+        return length == 0 ? null : new String(eTagData, eTagOffsets[index], length, StandardCharsets.UTF_8);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("S3ListObjectsBatch: index " + index + " out of " + size + ".");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+/**
+ * Receives the keys found by a {@link S3Client#listObjects} enumeration, one page at a time.
+ * Methods are invoked from the client's event-loop threads, possibly concurrently for different partitions,
+ * and should return quickly. Keys arrive in order within a partition, but not across partitions.
+ */
+public interface S3ListObjectsListener {
+
+    /**
+     * Invoked with the keys of each page listed. The batch stays valid after the call returns.
+     *
+     * @param batch keys of the page
+     */
+    void onBatch(S3ListObjectsBatch batch);
+
+    /**
+     * Invoked once a delimiter level has been split, with the prefix of each new partition.
+     *
+     * @param prefix common prefix that is now listed as a partition of its own
+     */
+    default void onPartition(String prefix) {
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.net.URI;
+
+/**
+ * Options of a {@link S3Client#listObjects} enumeration.
+ * <p>
+ * The keyspace under the prefix is split at the delimiter: the first partitionDepth levels are listed with the
+ * delimiter, and every common prefix found becomes a partition of its own, listed concurrently with the others.
+ * Below partitionDepth, a partition is listed without a delimiter, one page after the other. Every key under the
+ * prefix is reported exactly once, whatever the depth.
+ */
+public class S3ListObjectsOptions {
+
+    private String host;
+    private URI endpoint;
+    private String prefix = "";
+    private String delimiter = "/";
+    private int partitionDepth = 1;
+    private int maxConcurrentRequests = 16;
+    private int maxKeysPerPage = 1000;
+
+    /**
+     * @param host value of the Host header, which names the bucket
+     * @return this
+     */
+    public S3ListObjectsOptions withHost(String host) {
+        this.host = host;
+        return this;
+    }
+
+    /**
+     * @return value of the Host header, which names the bucket
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * @param endpoint where the requests are sent, see {@link S3MetaRequestOptions#withEndpoint}.
+     *                 Defaults to null, the endpoint is then derived from the host
+     * @return this
+     */
+    public S3ListObjectsOptions withEndpoint(URI endpoint) {
+        this.endpoint = endpoint;
+        return this;
+    }
+
+    /**
+     * @return where the requests are sent, or null to derive it from the host
+     */
+    public URI getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @param prefix only keys starting with it are listed. Defaults to "", the whole bucket
+     * @return this
+     */
+    public S3ListObjectsOptions withPrefix(String prefix) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("S3ListObjectsOptions: prefix must not be null.");
+        }
+        this.prefix = prefix;
+        return this;
+    }
+
+    /**
+     * @return only keys starting with it are listed
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * @param delimiter where the keyspace is split into partitions. Defaults to "/"
+     * @return this
+     */
+    public S3ListObjectsOptions withDelimiter(String delimiter) {
+        if (delimiter == null || delimiter.isEmpty()) {
+            throw new IllegalArgumentException("S3ListObjectsOptions: delimiter must not be empty.");
+        }
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * @return where the keyspace is split into partitions
+     */
+    public String getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * @param partitionDepth how many delimiter levels below the prefix are split into partitions. 0 lists the prefix
+     *                       sequentially, as a single partition. Defaults to 1
+     * @return this
+     */
+    public S3ListObjectsOptions withPartitionDepth(int partitionDepth) {
+        if (partitionDepth < 0) {
+            throw new IllegalArgumentException("S3ListObjectsOptions: partitionDepth must not be negative.");
+        }
+        this.partitionDepth = partitionDepth;
+        return this;
+    }
+
+    /**
+     * @return how many delimiter levels below the prefix are split into partitions
+     */
+    public int getPartitionDepth() {
+        return partitionDepth;
+    }
+
+    /**
+     * @param maxConcurrentRequests most ListObjectsV2 requests in flight at once. Defaults to 16
+     * @return this
+     */
+    public S3ListObjectsOptions withMaxConcurrentRequests(int maxConcurrentRequests) {
+        if (maxConcurrentRequests <= 0) {
+            throw new IllegalArgumentException("S3ListObjectsOptions: maxConcurrentRequests must be positive.");
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        return this;
+    }
+
+    /**
+     * @return most ListObjectsV2 requests in flight at once
+     */
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * @param maxKeysPerPage max-keys of each ListObjectsV2 request, from 1 to 1000. Defaults to 1000
+     * @return this
+     */
+    public S3ListObjectsOptions withMaxKeysPerPage(int maxKeysPerPage) {
+        if (maxKeysPerPage <= 0 || maxKeysPerPage > 1000) {
+            throw new IllegalArgumentException("S3ListObjectsOptions: maxKeysPerPage must be from 1 to 1000.");
+        }
+        this.maxKeysPerPage = maxKeysPerPage;
+        return this;
+    }
+
+    /**
+     * @return max-keys of each ListObjectsV2 request
+     */
+    public int getMaxKeysPerPage() {
+        return maxKeysPerPage;
+    }
+}
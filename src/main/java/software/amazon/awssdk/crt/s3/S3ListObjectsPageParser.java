@@ -0,0 +1,371 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parses the body of a ListObjectsV2 response made with encoding-type=url, straight from its bytes into the arrays
+ * of a {@link S3ListObjectsBatch}. Only the elements the lister needs are read; no object is created per key.
+ */
+final class S3ListObjectsPageParser {
+
+    /**
+     * One parsed page.
+     */
+    static final class Page {
+        final S3ListObjectsBatch batch;
+        final List<String> commonPrefixes;
+        final String nextContinuationToken;
+
+        Page(S3ListObjectsBatch batch, List<String> commonPrefixes, String nextContinuationToken) {
+            this.batch = batch;
+            this.commonPrefixes = commonPrefixes;
+            this.nextContinuationToken = nextContinuationToken;
+        }
+    }
+
+    private static final byte[] CONTENTS = bytes("Contents");
+    private static final byte[] KEY = bytes("Key");
+    private static final byte[] SIZE = bytes("Size");
+    private static final byte[] LAST_MODIFIED = bytes("LastModified");
+    private static final byte[] ETAG = bytes("ETag");
+    private static final byte[] COMMON_PREFIXES = bytes("CommonPrefixes");
+    private static final byte[] PREFIX = bytes("Prefix");
+    private static final byte[] NEXT_CONTINUATION_TOKEN = bytes("NextContinuationToken");
+    private static final byte[] IS_TRUNCATED = bytes("IsTruncated");
+    private static final byte[] AMP = bytes("amp");
+    private static final byte[] LT = bytes("lt");
+    private static final byte[] GT = bytes("gt");
+    private static final byte[] QUOT = bytes("quot");
+    private static final byte[] APOS = bytes("apos");
+
+    private final byte[] data;
+    private final int length;
+
+    private int count = 0;
+    private byte[] keyData;
+    private int keyLength = 0;
+    private int[] keyOffsets;
+    private byte[] eTagData;
+    private int eTagLength = 0;
+    private int[] eTagOffsets;
+    private long[] sizes;
+    private long[] lastModifiedMillis;
+
+    private S3ListObjectsPageParser(byte[] data, int length) {
+        this.data = data;
+        this.length = length;
+        /* A page holds at most 1000 keys, so the arrays rarely grow */
+        this.keyData = new byte[Math.max(256, length / 4)];
+        this.keyOffsets = new int[1001];
+        this.eTagData = new byte[1000 * 34];
+        this.eTagOffsets = new int[1001];
+        this.sizes = new long[1000];
+        this.lastModifiedMillis = new long[1000];
+    }
+
+    /**
+     * @param data body of the response
+     * @param length number of bytes of data that hold the body
+     * @param partitionPrefix reported by the batch
+     */
+    static Page parse(byte[] data, int length, String partitionPrefix) {
+        return new S3ListObjectsPageParser(data, length).parse(partitionPrefix);
+    }
+
+    private Page parse(String partitionPrefix) {
+        List<String> commonPrefixes = new ArrayList<>();
+        String nextContinuationToken = null;
+        boolean truncated = false;
+        boolean inContents = false;
+        boolean inCommonPrefixes = false;
+        int pos = indexOf('<', 0);
+        while (pos >= 0) {
+            int nameStart = pos + 1;
+            int tagEnd = indexOf('>', nameStart);
+            if (tagEnd < 0) {
+                throw new IllegalStateException("S3ListObjectsPageParser: unterminated tag in ListObjectsV2 response.");
+            }
+            if (nameStart < length && (data[nameStart] == '?' || data[nameStart] == '!')) {
+                pos = indexOf('<', tagEnd + 1);
+                continue;
+            }
+            boolean endTag = data[nameStart] == '/';
+            if (endTag) {
+                nameStart++;
+            }
+            int nameEnd = nameStart;
+            while (nameEnd < tagEnd && data[nameEnd] != ' ' && data[nameEnd] != '/') {
+                nameEnd++;
+            }
+            boolean selfClosing = data[tagEnd - 1] == '/';
+            int textStart = tagEnd + 1;
+            int textEnd = indexOf('<', textStart);
+            if (textEnd < 0) {
+                textEnd = length;
+            }
+
+            if (endTag) {
+                if (nameEquals(nameStart, nameEnd, CONTENTS)) {
+                    if (!inContents) {
+                        throw new IllegalStateException("S3ListObjectsPageParser: unbalanced Contents element.");
+                    }
+                    endRecord();
+                    inContents = false;
+                } else if (nameEquals(nameStart, nameEnd, COMMON_PREFIXES)) {
+                    inCommonPrefixes = false;
+                }
+            } else if (selfClosing) {
+                /* Empty element, e.g. <Prefix/> */
+            } else if (nameEquals(nameStart, nameEnd, CONTENTS)) {
+                beginRecord();
+                inContents = true;
+            } else if (nameEquals(nameStart, nameEnd, COMMON_PREFIXES)) {
+                inCommonPrefixes = true;
+            } else if (inContents) {
+                if (nameEquals(nameStart, nameEnd, KEY)) {
+                    keyLength = decode(textStart, textEnd, true, keyLength);
+                } else if (nameEquals(nameStart, nameEnd, SIZE)) {
+                    sizes[count] = parseLong(textStart, textEnd);
+                } else if (nameEquals(nameStart, nameEnd, LAST_MODIFIED)) {
+                    lastModifiedMillis[count] = parseTimestamp(textStart, textEnd);
+                } else if (nameEquals(nameStart, nameEnd, ETAG)) {
+                    appendETag(textStart, textEnd);
+                }
+            } else if (inCommonPrefixes) {
+                if (nameEquals(nameStart, nameEnd, PREFIX)) {
+                    commonPrefixes.add(decodeString(textStart, textEnd, true));
+                }
+            } else if (nameEquals(nameStart, nameEnd, NEXT_CONTINUATION_TOKEN)) {
+                nextContinuationToken = decodeString(textStart, textEnd, false);
+            } else if (nameEquals(nameStart, nameEnd, IS_TRUNCATED)) {
+                truncated = textEnd - textStart == 4 && data[textStart] == 't';
+            }
+            pos = textEnd < length ? textEnd : -1;
+        }
+        if (inContents) {
+            throw new IllegalStateException("S3ListObjectsPageParser: truncated ListObjectsV2 response.");
+        }
+        if (truncated && (nextContinuationToken == null || nextContinuationToken.isEmpty())) {
+            throw new IllegalStateException(
+                    "S3ListObjectsPageParser: ListObjectsV2 response is truncated but has no NextContinuationToken.");
+        }
+        S3ListObjectsBatch batch = new S3ListObjectsBatch(partitionPrefix, count, keyData, keyOffsets, eTagData,
+                eTagOffsets, sizes, lastModifiedMillis);
+        return new Page(batch, commonPrefixes, truncated ? nextContinuationToken : null);
+    }
+
+    private void beginRecord() {
+        if (count == sizes.length) {
+            int capacity = count * 2;
+            keyOffsets = Arrays.copyOf(keyOffsets, capacity + 1);
+            eTagOffsets = Arrays.copyOf(eTagOffsets, capacity + 1);
+            sizes = Arrays.copyOf(sizes, capacity);
+            lastModifiedMillis = Arrays.copyOf(lastModifiedMillis, capacity);
+        }
+        keyOffsets[count] = keyLength;
+        eTagOffsets[count] = eTagLength;
+        sizes[count] = 0;
+        lastModifiedMillis[count] = -1;
+    }
+
+    private void endRecord() {
+        count++;
+        keyOffsets[count] = keyLength;
+        eTagOffsets[count] = eTagLength;
+    }
+
+    /* The ETag is sent quoted, with the quotes escaped as &quot;. It is decoded past the keys, then copied unquoted */
+    private void appendETag(int start, int end) {
+        int decodedEnd = decode(start, end, false, keyLength);
+        int needed = eTagLength + decodedEnd - keyLength;
+        if (needed > eTagData.length) {
+            eTagData = Arrays.copyOf(eTagData, Math.max(needed, eTagData.length * 2));
+        }
+        for (int i = keyLength; i < decodedEnd; i++) {
+            if (keyData[i] != '"') {
+                eTagData[eTagLength++] = keyData[i];
+            }
+        }
+    }
+
+    private String decodeString(int start, int end, boolean urlEncoded) {
+        int mark = keyLength;
+        int decodedEnd = decode(start, end, urlEncoded, keyLength);
+        return new String(keyData, mark, decodedEnd - mark, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decode XML character references and, if urlEncoded, the escapes of encoding-type=url into keyData at
+     * position to. keyLength is not moved.
+     *
+     * @return end of the decoded bytes in keyData
+     */
+    private int decode(int start, int end, boolean urlEncoded, int to) {
+        /* Decoding never makes the text longer */
+        ensureKeyCapacity(to + (end - start));
+        int i = start;
+        while (i < end) {
+            byte b = data[i];
+            if (b == '&') {
+                int semicolon = i + 1;
+                while (semicolon < end && data[semicolon] != ';') {
+                    semicolon++;
+                }
+                if (semicolon == end) {
+                    throw new IllegalStateException("S3ListObjectsPageParser: unterminated character reference.");
+                }
+                to = appendReference(i + 1, semicolon, to);
+                i = semicolon + 1;
+            } else if (urlEncoded && b == '%') {
+                if (i + 2 >= end) {
+                    throw new IllegalStateException("S3ListObjectsPageParser: malformed escape.");
+                }
+                keyData[to++] = (byte) ((hexValue(data[i + 1]) << 4) | hexValue(data[i + 2]));
+                i += 3;
+            } else if (urlEncoded && b == '+') {
+                keyData[to++] = ' ';
+                i++;
+            } else {
+                keyData[to++] = b;
+                i++;
+            }
+        }
+        return to;
+    }
+
+    private int appendReference(int start, int end, int to) {
+        if (nameEquals(start, end, AMP)) {
+            keyData[to++] = '&';
+        } else if (nameEquals(start, end, LT)) {
+            keyData[to++] = '<';
+        } else if (nameEquals(start, end, GT)) {
+            keyData[to++] = '>';
+        } else if (nameEquals(start, end, QUOT)) {
+            keyData[to++] = '"';
+        } else if (nameEquals(start, end, APOS)) {
+            keyData[to++] = '\'';
+        } else if (end - start > 1 && data[start] == '#') {
+            int codePoint;
+            if (data[start + 1] == 'x') {
+                codePoint = (int) parseHex(start + 2, end);
+            } else {
+                codePoint = (int) parseLong(start + 1, end);
+            }
+            byte[] utf8 = new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8);
+            System.arraycopy(utf8, 0, keyData, to, utf8.length);
+            to += utf8.length;
+        } else {
+            throw new IllegalStateException("S3ListObjectsPageParser: unknown character reference.");
+        }
+        return to;
+    }
+
+    private void ensureKeyCapacity(int needed) {
+        if (needed > keyData.length) {
+            keyData = Arrays.copyOf(keyData, Math.max(needed, keyData.length * 2));
+        }
+    }
+
+    private long parseLong(int start, int end) {
+        if (start == end) {
+            throw new IllegalStateException("S3ListObjectsPageParser: empty number.");
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalStateException("S3ListObjectsPageParser: malformed number.");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private long parseHex(int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = (value << 4) | hexValue(data[i]);
+        }
+        return value;
+    }
+
+    private static int hexValue(byte b) {
+        if (b >= '0' && b <= '9') {
+            return b - '0';
+        } else if (b >= 'a' && b <= 'f') {
+            return b - 'a' + 10;
+        } else if (b >= 'A' && b <= 'F') {
+            return b - 'A' + 10;
+        }
+        throw new IllegalStateException("S3ListObjectsPageParser: malformed escape.");
+    }
+
+    /* ISO 8601 as S3 sends it: 2009-10-12T17:50:30.000Z. Returns -1 for anything else */
+    private long parseTimestamp(int start, int end) {
+        if (end - start < 20 || data[start + 4] != '-' || data[start + 7] != '-' || data[start + 10] != 'T'
+                || data[start + 13] != ':' || data[start + 16] != ':' || data[end - 1] != 'Z') {
+            return -1;
+        }
+        try {
+            long year = parseLong(start, start + 4);
+            long month = parseLong(start + 5, start + 7);
+            long day = parseLong(start + 8, start + 10);
+            long hour = parseLong(start + 11, start + 13);
+            long minute = parseLong(start + 14, start + 16);
+            long second = parseLong(start + 17, start + 19);
+            long millis = 0;
+            if (data[start + 19] == '.') {
+                int fractionEnd = Math.min(end - 1, start + 23);
+                millis = parseLong(start + 20, fractionEnd);
+                for (int i = fractionEnd - (start + 20); i < 3; i++) {
+                    millis *= 10;
+                }
+            }
+            return ((daysFromCivil(year, month, day) * 24 + hour) * 60 + minute) * 60_000L + second * 1000 + millis;
+        } catch (IllegalStateException ex) {
+            return -1;
+        }
+    }
+
+    /* Days since 1970-01-01 of a date of the proleptic Gregorian calendar */
+    private static long daysFromCivil(long year, long month, long day) {
+        year -= month <= 2 ? 1 : 0;
+        long era = (year >= 0 ? year : year - 399) / 400;
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private boolean nameEquals(int start, int end, byte[] name) {
+        if (end - start != name.length) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (data[start + i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(char c, int from) {
+        for (int i = from; i < length; i++) {
+            if (data[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
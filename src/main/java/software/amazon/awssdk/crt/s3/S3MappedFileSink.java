@@ -0,0 +1,308 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import software.amazon.awssdk.crt.Log;
+import software.amazon.awssdk.crt.http.HttpHeader;
+
+/**
+ * Response handler that downloads the response body into a memory-mapped file.
+ * <p>
+ * The file is sized from the object size, taken from the size hint or else from the response headers,
+ * and mapped in regions. Each chunk of the body is copied directly into the mapped region for its range,
+ * so there is no per-chunk write syscall. Combined with
+ * {@link S3MetaRequestOptions#withDirectResponseBody}, the copy goes from the native part buffer straight
+ * into the page cache without passing through the Java heap.
+ * <p>
+ * This is what {@link S3MetaRequestOptions.ResponseFileOption#MEMORY_MAPPED} uses, it rarely needs
+ * to be created directly.
+ * <p>
+ * Closing the sink unmaps its regions right away where the JVM allows it (through sun.misc.Unsafe on Java 9+,
+ * or the buffer's cleaner on Java 8), before the file is truncated or deleted. Where it does not, such as on
+ * Android or in a native image without that reflection, the mappings are left to the garbage collector; on
+ * Windows, truncating or deleting the file can then fail until they are collected, which is logged.
+ */
+public class S3MappedFileSink extends DelegatingResponseHandler implements AutoCloseable {
+
+    /* A single MappedByteBuffer can address at most Integer.MAX_VALUE bytes */
+    static final long REGION_SIZE = 1L << 30;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final boolean deleteOnFailure;
+    private final List<MappedByteBuffer> regions = new ArrayList<>();
+    private final AtomicLong bytesWritten = new AtomicLong(0);
+    /* Held shared while body data is copied into a mapping, and exclusively to unmap them */
+    private final ReentrantReadWriteLock mappingLock = new ReentrantReadWriteLock();
+    private long objectSize = -1;
+    private long highestEndWritten = 0;
+    private boolean closed = false;
+
+    private S3MappedFileSink(Path path, FileChannel channel, Long objectSizeHint, boolean deleteOnFailure,
+            S3MetaRequestResponseHandler delegate) {
+        super(delegate);
+        this.path = path;
+        this.channel = channel;
+        this.deleteOnFailure = deleteOnFailure;
+        if (objectSizeHint != null && objectSizeHint >= 0) {
+            this.objectSize = objectSizeHint;
+        }
+    }
+
+    /**
+     * Create or replace a file and return a sink that maps it.
+     *
+     * @param path file to download the response body into
+     * @param objectSizeHint size of the object if known, or null to take it from the response headers
+     * @param deleteOnFailure true to delete the file if the meta request fails
+     * @param delegate optional handler that receives every callback except the response body
+     * @return the sink. It closes itself once the meta request finishes
+     * @throws IOException if the file cannot be opened
+     */
+    public static S3MappedFileSink open(Path path, Long objectSizeHint, boolean deleteOnFailure,
+            S3MetaRequestResponseHandler delegate) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new S3MappedFileSink(path, channel, objectSizeHint, deleteOnFailure, delegate);
+    }
+
+    /**
+     * @return number of body bytes copied into the file so far
+     */
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    /**
+     * Force all mapped regions to be written to storage.
+     */
+    public synchronized void force() {
+        for (MappedByteBuffer region : regions) {
+            if (region != null) {
+                region.force();
+            }
+        }
+    }
+
+    @Override
+    public void onResponseHeaders(final int statusCode, final HttpHeader[] headers) {
+        if (statusCode >= 200 && statusCode < 300) {
+            long size = objectSizeFromHeaders(headers);
+            if (size >= 0) {
+                synchronized (this) {
+                    objectSize = size;
+                }
+            }
+        }
+        super.onResponseHeaders(statusCode, headers);
+    }
+
+    @Override
+    public int onResponseBody(ByteBuffer bodyBytesIn, long objectRangeStart, long objectRangeEnd) {
+        int length = bodyBytesIn.remaining();
+        long position = objectRangeStart;
+        mappingLock.readLock().lock();
+        try {
+            while (bodyBytesIn.hasRemaining()) {
+                int regionIndex = (int) (position / REGION_SIZE);
+                int regionOffset = (int) (position % REGION_SIZE);
+                int toCopy = (int) Math.min(REGION_SIZE - regionOffset, bodyBytesIn.remaining());
+                ByteBuffer region = getRegion(regionIndex, regionOffset + toCopy).duplicate();
+                region.position(regionOffset);
+                ByteBuffer slice = bodyBytesIn.duplicate();
+                slice.limit(slice.position() + toCopy);
+                region.put(slice);
+                bodyBytesIn.position(bodyBytesIn.position() + toCopy);
+                position += toCopy;
+            }
+        } catch (IOException ex) {
+            /* Thrown back to native, which fails the meta request with this as the cause */
+            throw new UncheckedIOException(ex);
+        } finally {
+            mappingLock.readLock().unlock();
+        }
+        synchronized (this) {
+            highestEndWritten = Math.max(highestEndWritten, objectRangeEnd);
+        }
+        bytesWritten.addAndGet(length);
+        /* The data is in the page cache, so it no longer counts against the window */
+        return length;
+    }
+
+    @Override
+    public void onFinished(S3FinishedResponseContext context) {
+        try {
+            close();
+        } catch (IOException ex) {
+            Log.log(Log.LogLevel.Warn, Log.LogSubject.JavaCrtS3,
+                    "S3MappedFileSink: failed to close " + path + ": " + ex);
+        }
+        if (context.getErrorCode() != 0 && deleteOnFailure) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ex) {
+                Log.log(Log.LogLevel.Warn, Log.LogSubject.JavaCrtS3,
+                        "S3MappedFileSink: failed to delete " + path + ": " + ex);
+            }
+        }
+        super.onFinished(context);
+    }
+
+    /* Close the sink of a meta request that could not be made, and delete the file if asked to */
+    void discard() throws IOException {
+        close();
+        if (deleteOnFailure) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Unmap the regions and close the file. The file is truncated to the object size.
+     * Waits for body data being copied into the file to finish, later body data fails the meta request.
+     *
+     * @throws IOException if the file cannot be truncated or closed
+     */
+    @Override
+    public void close() throws IOException {
+        mappingLock.writeLock().lock();
+        try {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                boolean unmapped = true;
+                for (MappedByteBuffer region : regions) {
+                    if (region != null) {
+                        unmapped &= unmap(region);
+                    }
+                }
+                regions.clear();
+                if (!unmapped) {
+                    Log.log(Log.LogLevel.Debug, Log.LogSubject.JavaCrtS3,
+                            "S3MappedFileSink: mappings of " + path + " are left to the garbage collector.");
+                }
+                try {
+                    long finalSize = Math.max(objectSize, highestEndWritten);
+                    if (channel.size() > finalSize) {
+                        channel.truncate(finalSize);
+                    }
+                } finally {
+                    channel.close();
+                }
+            }
+        } finally {
+            mappingLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Release a mapping right away. Nothing may access the buffer afterwards.
+     *
+     * @return false if this JVM does not allow it, and the mapping is released once the buffer is collected
+     */
+    static boolean unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner;
+            try {
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (NoSuchMethodException ex) {
+                /* Java 8: DirectByteBuffer.cleaner().clean() */
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner == null) {
+                    return false;
+                }
+                Method clean = cleaner.getClass().getMethod("clean");
+                clean.setAccessible(true);
+                clean.invoke(cleaner);
+                return true;
+            }
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Get the mapping for a region, mapping it (again) if it does not cover minCapacity bytes yet.
+     * Regions are sized to the object when its size is known, so each is normally mapped only once.
+     * A mapping that is replaced is unmapped right away: body callbacks of a meta request do not overlap,
+     * so no copy into it can still be running.
+     */
+    private synchronized MappedByteBuffer getRegion(int regionIndex, long minCapacity) throws IOException {
+        if (closed) {
+            throw new IOException("S3MappedFileSink is closed.");
+        }
+        while (regions.size() <= regionIndex) {
+            regions.add(null);
+        }
+        MappedByteBuffer region = regions.get(regionIndex);
+        if (region == null || region.capacity() < minCapacity) {
+            long regionStart = regionIndex * REGION_SIZE;
+            long regionSize = REGION_SIZE;
+            if (objectSize > regionStart) {
+                regionSize = Math.max(minCapacity, Math.min(REGION_SIZE, objectSize - regionStart));
+            }
+            /* Mapping past the end of the file grows it to cover the region */
+            MappedByteBuffer replaced = region;
+            region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, regionSize);
+            regions.set(regionIndex, region);
+            if (replaced != null) {
+                /* Its pages are shared with the new mapping, so data already copied is not lost */
+                unmap(replaced);
+            }
+        }
+        return region;
+    }
+
+    /**
+     * Total object size from "Content-Range: bytes start-end/total", or else from Content-Length.
+     * Returns -1 if neither is usable.
+     */
+    static long objectSizeFromHeaders(HttpHeader[] headers) {
+        if (headers == null) {
+            return -1;
+        }
+        long contentLength = -1;
+        for (HttpHeader header : headers) {
+            String name = header.getName();
+            try {
+                if ("Content-Range".equalsIgnoreCase(name)) {
+                    String value = header.getValue();
+                    int slash = value.lastIndexOf('/');
+                    if (slash >= 0 && !value.endsWith("*")) {
+                        return Long.parseLong(value.substring(slash + 1).trim());
+                    }
+                } else if ("Content-Length".equalsIgnoreCase(name)) {
+                    contentLength = Long.parseLong(header.getValue().trim());
+                }
+            } catch (NumberFormatException ex) {
+                /* Fall back to growing the mapping as data arrives */
+            }
+        }
+        return contentLength;
+    }
+}
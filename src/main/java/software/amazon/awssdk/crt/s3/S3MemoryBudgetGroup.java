@@ -0,0 +1,64 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+/**
+ * A named share of an S3Client's memory limit, for the meta requests of one tenant.
+ * <p>
+ * Register groups with {@link S3ClientOptions#withMemoryBudgetGroup}, and pick a group for a meta request with
+ * {@link S3MetaRequestOptions#withMemoryBudgetGroup}. Each group has:
+ * <ul>
+ * <li>guaranteed bytes, set aside for the group alone: other groups never borrow them, so a tenant with small
+ * transfers always finds memory for them, however busy the rest of the client is.</li>
+ * <li>max bytes, the most the group may hold at once. Above its guaranteed bytes, a group borrows from the memory
+ * that no group has guaranteed, while it is not in use by others.</li>
+ * </ul>
+ * Meta requests that name no group share the unguaranteed memory, with no cap of their own.
+ */
+public final class S3MemoryBudgetGroup {
+
+    private final String name;
+    private final long guaranteedBytes;
+    private final long maxBytes;
+
+    /**
+     * @param name name of the group, as passed to {@link S3MetaRequestOptions#withMemoryBudgetGroup}
+     * @param guaranteedBytes bytes reserved for this group, may be 0
+     * @param maxBytes most bytes the group may use at once, at least guaranteedBytes
+     */
+    public S3MemoryBudgetGroup(String name, long guaranteedBytes, long maxBytes) {
+        if (name == null) {
+            throw new IllegalArgumentException("S3MemoryBudgetGroup: name must not be null.");
+        }
+        if (guaranteedBytes < 0 || maxBytes <= 0 || maxBytes < guaranteedBytes) {
+            throw new IllegalArgumentException(
+                    "S3MemoryBudgetGroup: max bytes must be positive and not less than guaranteed bytes.");
+        }
+        this.name = name;
+        this.guaranteedBytes = guaranteedBytes;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return name of the group
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return bytes reserved for this group
+     */
+    public long getGuaranteedBytes() {
+        return guaranteedBytes;
+    }
+
+    /**
+     * @return most bytes the group may use at once
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enforces the S3MemoryBudgetGroups of an S3Client.
+ * <p>
+ * The native buffer pool holds about one part-size buffer for each request a meta request has in flight, so a meta
+ * request's memory is bounded by its part size times its connection limit. When a meta request starts, this picks
+ * that connection limit from what its group may still use, and charges it to the group until the meta request
+ * finishes. A meta request takes at most half of the parts its group can still afford, so the next meta requests of
+ * the group find memory too. As with the priority scheduler, a limit is fixed for the lifetime of a meta request.
+ * <p>
+ * If a named group cannot afford a single part while other meta requests of the group are in flight, the new meta
+ * request is refused: one of them finishing returns memory to the group. The first meta request of a group, and
+ * meta requests without a group, are always granted at least one connection so that they make progress; the
+ * native memory limit still bounds the client as a whole.
+ */
+final class S3MemoryBudgets {
+
+    /**
+     * Memory charged to a group for one meta request.
+     */
+    static final class Lease {
+        private final Group group;
+        private final long bytes;
+        private final long borrowedBytes;
+        private final int connections;
+
+        private Lease(Group group, long bytes, long borrowedBytes, int connections) {
+            this.group = group;
+            this.bytes = bytes;
+            this.borrowedBytes = borrowedBytes;
+            this.connections = connections;
+        }
+
+        /**
+         * @return connection limit for the meta request
+         */
+        int getConnections() {
+            return connections;
+        }
+    }
+
+    private static final class Group {
+        private final String name;
+        private final long guaranteedBytes;
+        private final long maxBytes;
+        private long usedBytes;
+        private int activeMetaRequests;
+
+        Group(String name, long guaranteedBytes, long maxBytes) {
+            this.name = name;
+            this.guaranteedBytes = guaranteedBytes;
+            this.maxBytes = maxBytes;
+        }
+    }
+
+    private final Map<String, Group> groups = new HashMap<>();
+    private final Group ungrouped;
+    /* Memory no group has guaranteed, shared by borrowing groups and ungrouped meta requests */
+    private final long sharedBytes;
+    private long sharedUsedBytes;
+
+    S3MemoryBudgets(long memoryLimit, List<S3MemoryBudgetGroup> budgetGroups) {
+        long guaranteed = 0;
+        for (S3MemoryBudgetGroup budgetGroup : budgetGroups) {
+            if (groups.put(budgetGroup.getName(),
+                    new Group(budgetGroup.getName(), budgetGroup.getGuaranteedBytes(),
+                            budgetGroup.getMaxBytes())) != null) {
+                throw new IllegalArgumentException(
+                        "S3ClientOptions: memory budget group " + budgetGroup.getName() + " is set more than once.");
+            }
+            guaranteed += budgetGroup.getGuaranteedBytes();
+        }
+        if (guaranteed > memoryLimit) {
+            throw new IllegalArgumentException(
+                    "S3ClientOptions: memory budget groups guarantee more bytes than the memory limit.");
+        }
+        sharedBytes = memoryLimit - guaranteed;
+        ungrouped = new Group(null, 0, memoryLimit);
+    }
+
+    /**
+     * Charge a meta request that is about to start to its group.
+     *
+     * @param groupName group of the meta request, or null if it has none
+     * @param partSize part size of the meta request
+     * @param connections connection limit the meta request would have without a budget
+     * @return the lease, to release once the meta request has finished or failed to start
+     * @throws IllegalStateException if the group has meta requests in flight and no memory left for another one
+     */
+    synchronized Lease acquire(String groupName, long partSize, int connections) {
+        Group group = ungrouped;
+        if (groupName != null) {
+            group = groups.get(groupName);
+            if (group == null) {
+                throw new IllegalArgumentException(
+                        "S3Client.makeMetaRequest has invalid options; unknown memory budget group " + groupName + ".");
+            }
+        }
+        long guaranteedFree = Math.max(0, group.guaranteedBytes - group.usedBytes);
+        long sharedFree = Math.max(0, sharedBytes - sharedUsedBytes);
+        long available = Math.min(Math.max(0, group.maxBytes - group.usedBytes), guaranteedFree + sharedFree);
+        long affordable = available / partSize;
+        if (affordable == 0 && group.name != null && group.activeMetaRequests > 0) {
+            throw new IllegalStateException("S3Client.makeMetaRequest: memory budget group " + group.name
+                    + " has no memory left; retry once one of its meta requests has finished.");
+        }
+        int granted = (int) Math.max(1, Math.min(connections, (affordable + 1) / 2));
+
+        long bytes = granted * partSize;
+        long borrowedBytes = Math.max(0, bytes - guaranteedFree);
+        group.usedBytes += bytes;
+        group.activeMetaRequests++;
+        sharedUsedBytes += borrowedBytes;
+        return new Lease(group, bytes, borrowedBytes, granted);
+    }
+
+    /**
+     * Return the memory of a lease to its group.
+     *
+     * @param lease lease returned by acquire
+     */
+    synchronized void release(Lease lease) {
+        lease.group.usedBytes -= lease.bytes;
+        lease.group.activeMetaRequests--;
+        sharedUsedBytes -= lease.borrowedBytes;
+    }
+}
@@ -12,9 +12,24 @@ import software.amazon.awssdk.crt.CrtRuntimeException;
 public class S3MetaRequest extends CrtResource {
 
     private final CompletableFuture<Void> shutdownComplete = new CompletableFuture<>();
+    /* Set under the lock once the native meta request is released, CrtResource only clears the handle later */
+    private boolean nativeReleased = false;
+    private final boolean readBackpressureEnabled;
 
     public S3MetaRequest() {
+        this(false);
+    }
 
+    S3MetaRequest(boolean readBackpressureEnabled) {
+        this.readBackpressureEnabled = readBackpressureEnabled;
+    }
+
+    /**
+     * @return whether the client that made this meta request has read backpressure enabled,
+     *         if not, {@link #incrementReadWindow} has no effect
+     */
+    boolean isReadBackpressureEnabled() {
+        return readBackpressureEnabled;
     }
 
     private void onShutdownComplete() {
@@ -55,8 +70,9 @@ public class S3MetaRequest extends CrtResource {
      * unusable after this call
      */
     @Override
-    protected void releaseNativeHandle() {
-        if (!isNull()) {
+    protected synchronized void releaseNativeHandle() {
+        if (!isNull() && !nativeReleased) {
+            nativeReleased = true;
             /**
              * Cancel the meta request before drop the refcount.
              * The meta request is not referenced by Java any longer, everything from native to Java will be ignored.
@@ -156,6 +172,22 @@ public class S3MetaRequest extends CrtResource {
         s3MetaRequestIncrementReadWindow(getNativeHandle(), bytes);
     }
 
+    /**
+     * Increment the flow-control window unless the meta request has been closed, for callers that may race
+     * with {@link #close}. Holds the same lock as the release of the native meta request, so the native
+     * handle cannot be destroyed during the call.
+     *
+     * @param bytes size to increment window by
+     * @return false if the meta request had already been closed
+     */
+    synchronized boolean incrementReadWindowIfOpen(long bytes) {
+        if (isNull() || nativeReleased) {
+            return false;
+        }
+        s3MetaRequestIncrementReadWindow(getNativeHandle(), bytes);
+        return true;
+    }
+
     /*******************************************************************************
      * native methods
      ******************************************************************************/
@@ -80,11 +80,31 @@ public class S3MetaRequestOptions {
         private static Map<Integer, MetaRequestType> enumMapping = buildEnumMapping();
     }
 
+    /**
+     * How an S3Client with priority scheduling shares its connections between meta requests.
+     * Without it, every meta request is treated alike.
+     *
+     * @see S3ClientOptions#withBackgroundConnectionShare
+     */
+    public enum Priority {
+        /**
+         * Latency-sensitive work, such as interactive GETs. Served ahead of BACKGROUND work.
+         */
+        FOREGROUND,
+
+        /**
+         * Bulk work, such as large uploads, that uses idle connections and is guaranteed a share of them.
+         */
+        BACKGROUND
+    }
+
     private MetaRequestType metaRequestType;
     private String operationName;
     private ChecksumConfig checksumConfig;
     private HttpRequest httpRequest;
     private Path requestFilePath;
+    private long requestFileOffset = 0;
+    private long requestFileLength = -1;
     private Path responseFilePath;
     private ResponseFileOption responseFileOption = ResponseFileOption.CREATE_OR_REPLACE;
     private long responseFilePosition = 0;
@@ -96,6 +116,51 @@ public class S3MetaRequestOptions {
     private ResumeToken resumeToken;
     private Long objectSizeHint;
     private FileIoOptions fileIoOptions;
+    private boolean directResponseBody = false;
+    private long partSize = 0;
+    private int maxActiveConnections = 0;
+    private Priority priority = Priority.FOREGROUND;
+    private String memoryBudgetGroup;
+    private long progressIntervalMs = 0;
+    private long progressIntervalBytes = 0;
+    private int telemetryBatchSize = 0;
+
+    /**
+     * Shallow copy, so a meta request can be made with a different value for some option without
+     * touching options owned by the caller. Every field must be listed here.
+     *
+     * @return a new options object with the same values as this one
+     */
+    S3MetaRequestOptions copy() {
+        S3MetaRequestOptions copy = new S3MetaRequestOptions();
+        copy.metaRequestType = metaRequestType;
+        copy.operationName = operationName;
+        copy.checksumConfig = checksumConfig;
+        copy.httpRequest = httpRequest;
+        copy.requestFilePath = requestFilePath;
+        copy.requestFileOffset = requestFileOffset;
+        copy.requestFileLength = requestFileLength;
+        copy.responseFilePath = responseFilePath;
+        copy.responseFileOption = responseFileOption;
+        copy.responseFilePosition = responseFilePosition;
+        copy.responseFileDeleteOnFailure = responseFileDeleteOnFailure;
+        copy.responseHandler = responseHandler;
+        copy.credentialsProvider = credentialsProvider;
+        copy.signingConfig = signingConfig;
+        copy.endpoint = endpoint;
+        copy.resumeToken = resumeToken;
+        copy.objectSizeHint = objectSizeHint;
+        copy.fileIoOptions = fileIoOptions;
+        copy.directResponseBody = directResponseBody;
+        copy.partSize = partSize;
+        copy.maxActiveConnections = maxActiveConnections;
+        copy.priority = priority;
+        copy.memoryBudgetGroup = memoryBudgetGroup;
+        copy.progressIntervalMs = progressIntervalMs;
+        copy.progressIntervalBytes = progressIntervalBytes;
+        copy.telemetryBatchSize = telemetryBatchSize;
+        return copy;
+    }
 
     public S3MetaRequestOptions withMetaRequestType(MetaRequestType metaRequestType) {
         this.metaRequestType = metaRequestType;
@@ -234,6 +299,42 @@ public class S3MetaRequestOptions {
         return requestFilePath;
     }
 
+    /**
+     * Send only a region of the {@link withRequestFilePath} file as the request's body, e.g. one segment
+     * of a large log or one member of a tar archive.
+     *
+     * The region is read natively, without any {@link software.amazon.awssdk.crt.http.HttpRequestBodyStream}
+     * calls into Java, and the Content-Length header is set to the length of the region. The region must lie
+     * within the file when the meta request is made. If {@link FileIoOptions#getDirectIo} is set, the pages
+     * read are dropped from the page cache where the platform supports it.
+     *
+     * @param offset position in the file of the first byte of the body
+     * @param length number of bytes in the body
+     * @return this
+     */
+    public S3MetaRequestOptions withRequestFileRegion(long offset, long length) {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("S3MetaRequestOptions: request file offset and length must not be negative.");
+        }
+        this.requestFileOffset = offset;
+        this.requestFileLength = length;
+        return this;
+    }
+
+    /**
+     * @return position in the file of the first byte of the body, 0 unless a region is set
+     */
+    public long getRequestFileOffset() {
+        return requestFileOffset;
+    }
+
+    /**
+     * @return number of bytes of the file in the body, or -1 to send the whole file
+     */
+    public long getRequestFileLength() {
+        return requestFileLength;
+    }
+
     public S3MetaRequestOptions withResponseHandler(S3MetaRequestResponseHandler responseHandler) {
         this.responseHandler = responseHandler;
         return this;
@@ -344,13 +445,36 @@ public class S3MetaRequestOptions {
          * If {@link withHttpRequest} is not configured, start overwriting data at the
          * beginning of the file (byte 0).
          */
-        WRITE_TO_POSITION(3);
+        WRITE_TO_POSITION(3),
+
+        /**
+         * Create a new file if it doesn't exist, otherwise replace the existing file,
+         * and download into it through a memory mapping (see {@link S3MappedFileSink}).
+         * The file is pre-sized from {@link withObjectSizeHint} if set, otherwise from the response headers.
+         * Body data is copied from the native part buffer into the mapped region for its range,
+         * without a copy on the Java heap and without a write syscall per chunk.
+         * <p>
+         * This option is implemented by the Java binding rather than the native client:
+         * unlike other options, {@link S3MetaRequestResponseHandler#onResponseBody} is invoked on the
+         * binding's own handler, and the file is written from the Java callback thread.
+         * {@link withResponseFilePath} must be set. {@link withResponseFilePosition} is not supported.
+         * It has no native value.
+         */
+        MEMORY_MAPPED(-1);
 
         ResponseFileOption(int nativeValue) {
             this.nativeValue = nativeValue;
         }
 
+        /**
+         * @return the value of this option in the native client
+         * @throws IllegalStateException for {@link #MEMORY_MAPPED}, which the native client does not know
+         */
         public int getNativeValue() {
+            if (this == MEMORY_MAPPED) {
+                throw new IllegalStateException(
+                        "ResponseFileOption.MEMORY_MAPPED is implemented by the Java binding and has no native value.");
+            }
             return nativeValue;
         }
 
@@ -472,4 +596,195 @@ public class S3MetaRequestOptions {
     public FileIoOptions getFileIoOptions() {
         return fileIoOptions;
     }
+
+    /**
+     * If set true, {@link S3MetaRequestResponseHandler#onResponseBody} receives a read-only direct
+     * ByteBuffer that views the native part buffer, instead of a heap buffer holding a copy of the data.
+     * This avoids allocating a new byte[] and copying every chunk of the body into it.
+     * <p>
+     * WARNING: the ByteBuffer is only valid for the duration of the
+     * {@link S3MetaRequestResponseHandler#onResponseBody} call. The native memory it views is
+     * reused once the callback returns, so the buffer must not be stored or accessed afterwards.
+     * To keep data beyond the callback, override
+     * {@link S3MetaRequestResponseHandler#onResponseBody(S3ResponseBodyLease)} and retain the lease.
+     * Retaining copies the chunk into newly allocated native memory: it is not a pooled part buffer,
+     * and it is not counted against {@link S3ClientOptions#withMemoryLimitInBytes}, so the application
+     * must bound the number of leases it holds.
+     * <p>
+     * By default, this option is false.
+     *
+     * @param directResponseBody true to receive response body data as direct ByteBuffers
+     * @return this
+     */
+    public S3MetaRequestOptions withDirectResponseBody(boolean directResponseBody) {
+        this.directResponseBody = directResponseBody;
+        return this;
+    }
+
+    /**
+     * @return whether response body data is delivered as direct ByteBuffers viewing native memory
+     */
+    public boolean getDirectResponseBody() {
+        return directResponseBody;
+    }
+
+    /**
+     * Size of the parts this meta request splits the object into, overriding the client's part size.
+     * <p>
+     * By default, this is 0 and the client's part size is used (or the value chosen by
+     * {@link S3ClientOptions#withAdaptiveTuning adaptive tuning}).
+     *
+     * @param partSize part size in bytes, or 0 to use the client's
+     * @return this
+     */
+    public S3MetaRequestOptions withPartSize(long partSize) {
+        this.partSize = partSize;
+        return this;
+    }
+
+    /**
+     * @return part size in bytes, or 0 if the client's part size is used
+     */
+    public long getPartSize() {
+        return partSize;
+    }
+
+    /**
+     * Maximum number of requests this meta request may have in flight at once.
+     * The client's own connection limit still applies across all of its meta requests.
+     * <p>
+     * By default, this is 0 and there is no per meta request limit (or the value chosen by
+     * {@link S3ClientOptions#withAdaptiveTuning adaptive tuning} is used).
+     *
+     * @param maxActiveConnections maximum number of requests in flight, or 0 for no override
+     * @return this
+     */
+    public S3MetaRequestOptions withMaxActiveConnections(int maxActiveConnections) {
+        this.maxActiveConnections = maxActiveConnections;
+        return this;
+    }
+
+    /**
+     * @return maximum number of requests in flight, or 0 if there is no override
+     */
+    public int getMaxActiveConnections() {
+        return maxActiveConnections;
+    }
+
+    /**
+     * Priority of this meta request, used when the client was created with
+     * {@link S3ClientOptions#withBackgroundConnectionShare}. By default, this is {@link Priority#FOREGROUND}.
+     *
+     * @param priority priority of the meta request
+     * @return this
+     */
+    public S3MetaRequestOptions withPriority(Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * @return priority of the meta request
+     */
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Name of the memory budget group this meta request is charged to, one of the groups added with
+     * {@link S3ClientOptions#withMemoryBudgetGroup}. By default, this is null and the meta request shares the memory
+     * that no group has guaranteed.
+     * <p>
+     * The meta request's part size times its number of requests in flight is kept within what its group may still
+     * use when it starts, so it may run with fewer requests in flight than it otherwise would. If the group has no
+     * memory left for even one part while other meta requests of the group are in flight, the meta request is refused
+     * with IllegalStateException.
+     *
+     * @param memoryBudgetGroup name of the group, or null for none
+     * @return this
+     */
+    public S3MetaRequestOptions withMemoryBudgetGroup(String memoryBudgetGroup) {
+        this.memoryBudgetGroup = memoryBudgetGroup;
+        return this;
+    }
+
+    /**
+     * @return name of the memory budget group, or null if there is none
+     */
+    public String getMemoryBudgetGroup() {
+        return memoryBudgetGroup;
+    }
+
+    /**
+     * Coalesce progress callbacks so that {@link S3MetaRequestResponseHandler#onProgress} is invoked at most about
+     * once per interval, with the bytes transferred since the previous call, instead of once per part.
+     * Any progress still pending is delivered before onFinished.
+     * May be combined with {@link #withProgressIntervalBytes}, progress is then delivered when either is reached.
+     * By default, this is 0 and progress is not coalesced by time.
+     *
+     * @param progressIntervalMs minimum interval between progress callbacks, in milliseconds
+     * @return this
+     */
+    public S3MetaRequestOptions withProgressIntervalMs(long progressIntervalMs) {
+        if (progressIntervalMs < 0) {
+            throw new IllegalArgumentException("S3MetaRequestOptions: progress interval must not be negative.");
+        }
+        this.progressIntervalMs = progressIntervalMs;
+        return this;
+    }
+
+    /**
+     * @return minimum interval between progress callbacks in milliseconds, or 0 if not coalesced by time
+     */
+    public long getProgressIntervalMs() {
+        return progressIntervalMs;
+    }
+
+    /**
+     * Coalesce progress callbacks so that {@link S3MetaRequestResponseHandler#onProgress} is invoked only once at
+     * least this many bytes were transferred since the previous call. Any progress still pending is delivered
+     * before onFinished. By default, this is 0 and progress is not coalesced by size.
+     *
+     * @param progressIntervalBytes minimum number of bytes between progress callbacks
+     * @return this
+     */
+    public S3MetaRequestOptions withProgressIntervalBytes(long progressIntervalBytes) {
+        if (progressIntervalBytes < 0) {
+            throw new IllegalArgumentException("S3MetaRequestOptions: progress interval must not be negative.");
+        }
+        this.progressIntervalBytes = progressIntervalBytes;
+        return this;
+    }
+
+    /**
+     * @return minimum number of bytes between progress callbacks, or 0 if not coalesced by size
+     */
+    public long getProgressIntervalBytes() {
+        return progressIntervalBytes;
+    }
+
+    /**
+     * Deliver telemetry in batches of up to this many requests, with a single call to
+     * {@link S3MetaRequestResponseHandler#onTelemetryBatch}, instead of one onTelemetry call per request.
+     * Native code fills the batch with primitive values and creates no Java object per request.
+     * A batch is delivered when it is full, when its oldest request is more than a second old, and before
+     * onFinished. By default, this is 0 and each request's telemetry is delivered on its own.
+     *
+     * @param telemetryBatchSize maximum number of requests per batch, 0 or 1 to disable batching
+     * @return this
+     */
+    public S3MetaRequestOptions withTelemetryBatchSize(int telemetryBatchSize) {
+        if (telemetryBatchSize < 0) {
+            throw new IllegalArgumentException("S3MetaRequestOptions: telemetry batch size must not be negative.");
+        }
+        this.telemetryBatchSize = telemetryBatchSize;
+        return this;
+    }
+
+    /**
+     * @return maximum number of requests per telemetry batch, or 0 if telemetry is not batched
+     */
+    public int getTelemetryBatchSize() {
+        return telemetryBatchSize;
+    }
 }
@@ -35,6 +35,11 @@ public interface S3MetaRequestResponseHandler {
      * </p>
      * If backpressure is disabled, you do not need to maintain the flow-control window,
      * data will arrive as fast as possible.
+     * <p>
+     * If the meta request was created with {@link S3MetaRequestOptions#withDirectResponseBody} set true,
+     * bodyBytesIn is a read-only direct ByteBuffer viewing native memory, and it is only valid
+     * until this method returns. Override {@link #onResponseBody(S3ResponseBodyLease)} instead
+     * to keep the data beyond that.
      *
      * @param bodyBytesIn The body data for this chunk of the object
      * @param objectRangeStart The byte index of the object that this refers to. For example, for an HTTP message that
@@ -50,6 +55,27 @@ public interface S3MetaRequestResponseHandler {
         return 0;
     }
 
+    /**
+     * Invoked to provide the response body as it is received, when the meta request was created with
+     * {@link S3MetaRequestOptions#withDirectResponseBody} set true.
+     * <p>
+     * The lease views native memory and expires when this method returns, unless
+     * {@link S3ResponseBodyLease#retain} is called on it. A retained lease must be handed back later
+     * with {@link S3ResponseBodyLease#release}.
+     * <p>
+     * The default implementation calls {@link #onResponseBody(ByteBuffer, long, long)}.
+     *
+     * @param lease The body data for this chunk of the object, and the range of the object it refers to
+     * @return The number of bytes to increment the flow-control window by.
+     * This value is ignored if backpressure is disabled, or if the lease was retained
+     * (the window is incremented by the lease's length when it is released instead).
+     *
+     * @see S3ClientOptions#withReadBackpressureEnabled
+     */
+    default int onResponseBody(S3ResponseBodyLease lease) {
+        return onResponseBody(lease.getBody(), lease.getObjectRangeStart(), lease.getObjectRangeEnd());
+    }
+
     /**
      * Invoked when the entire meta request execution is complete.
      * @param context a wrapper object containing the following fields
@@ -80,6 +106,18 @@ public interface S3MetaRequestResponseHandler {
     default void onTelemetry(S3RequestMetrics requestMetrics) {
     }
 
+    /**
+     * Invoked with the telemetry of several requests at once, instead of {@link #onTelemetry}, when the meta request
+     * was created with {@link S3MetaRequestOptions#withTelemetryBatchSize}.
+     * The default implementation calls {@link #onTelemetry} for each request of the batch.
+     * @param batch telemetry data for the request attempts of the batch
+     */
+    default void onTelemetryBatch(S3RequestMetricsBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            onTelemetry(batch.get(i));
+        }
+    }
+
     /**
      * Invoked with a resume token when the meta request fails unexpectedly.
      * Allows persisting state for later resume without re-transferring completed parts.
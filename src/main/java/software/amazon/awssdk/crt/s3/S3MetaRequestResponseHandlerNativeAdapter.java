@@ -10,17 +10,46 @@ import java.nio.ByteBuffer;
 
 class S3MetaRequestResponseHandlerNativeAdapter {
     private S3MetaRequestResponseHandler responseHandler;
+    private S3MetaRequest metaRequest;
+    private boolean readBackpressureEnabled;
+    private S3TelemetryAggregator telemetryAggregator;
+    private S3AdaptiveTuner adaptiveTuner;
+    private Runnable finishListener;
+    private S3RetainedBodyMemory retainedBodyMemory;
 
-    S3MetaRequestResponseHandlerNativeAdapter(S3MetaRequestResponseHandler responseHandler) {
+    S3MetaRequestResponseHandlerNativeAdapter(S3MetaRequestResponseHandler responseHandler, S3MetaRequest metaRequest,
+            boolean readBackpressureEnabled, S3TelemetryAggregator telemetryAggregator,
+            S3AdaptiveTuner adaptiveTuner, Runnable finishListener, S3RetainedBodyMemory retainedBodyMemory) {
         this.responseHandler = responseHandler;
+        this.metaRequest = metaRequest;
+        this.readBackpressureEnabled = readBackpressureEnabled;
+        this.telemetryAggregator = telemetryAggregator;
+        this.adaptiveTuner = adaptiveTuner;
+        this.finishListener = finishListener;
+        this.retainedBodyMemory = retainedBodyMemory;
     }
 
     int onResponseBody(byte[] bodyBytesIn, long objectRangeStart, long objectRangeEnd) {
         return this.responseHandler.onResponseBody(ByteBuffer.wrap(bodyBytesIn), objectRangeStart, objectRangeEnd);
     }
 
+    int onResponseBodyDirect(ByteBuffer bodyBytesIn, long objectRangeStart, long objectRangeEnd) {
+        S3ResponseBodyLease lease = new S3ResponseBodyLease(metaRequest, readBackpressureEnabled,
+                retainedBodyMemory, bodyBytesIn, objectRangeStart, objectRangeEnd);
+        try {
+            int windowIncrement = this.responseHandler.onResponseBody(lease);
+            /* A retained lease increments the window when it is released instead */
+            return lease.isRetained() ? 0 : windowIncrement;
+        } finally {
+            lease.onCallbackComplete();
+        }
+    }
+
     void onFinished(int errorCode, int responseStatus, byte[] errorPayload, String errorOperationName, int checksumAlgorithm, boolean didValidateChecksum, Throwable cause, final ByteBuffer headersBlob) {
         HttpHeader[] errorHeaders = headersBlob == null ? null : HttpHeader.loadHeadersFromMarshalledHeadersBlob(headersBlob);
+        if (finishListener != null) {
+            finishListener.run();
+        }
         S3FinishedResponseContext context = new S3FinishedResponseContext(errorCode, responseStatus, errorPayload, errorOperationName, ChecksumAlgorithm.getEnumValueFromInteger(checksumAlgorithm), didValidateChecksum, cause, errorHeaders);
         this.responseHandler.onFinished(context);
     }
@@ -30,13 +59,38 @@ class S3MetaRequestResponseHandlerNativeAdapter {
     }
 
     void onProgress(final S3MetaRequestProgress progress) {
+        if (adaptiveTuner != null) {
+            adaptiveTuner.recordProgress(progress.getBytesTransferred());
+        }
         responseHandler.onProgress(progress);
     }
 
     void onTelemetry(final S3RequestMetrics requestMetrics) {
+        if (telemetryAggregator != null) {
+            telemetryAggregator.record(requestMetrics);
+        }
+        if (adaptiveTuner != null) {
+            adaptiveTuner.recordRequest(requestMetrics);
+        }
         responseHandler.onTelemetry(requestMetrics);
     }
 
+    void onTelemetryBatch(final long[] values, final byte[] strings, final int count) {
+        S3RequestMetricsBatch batch = new S3RequestMetricsBatch(values, strings, count);
+        if (telemetryAggregator != null || adaptiveTuner != null) {
+            for (int i = 0; i < count; i++) {
+                S3RequestMetrics requestMetrics = batch.get(i);
+                if (telemetryAggregator != null) {
+                    telemetryAggregator.record(requestMetrics);
+                }
+                if (adaptiveTuner != null) {
+                    adaptiveTuner.recordRequest(requestMetrics);
+                }
+            }
+        }
+        responseHandler.onTelemetryBatch(batch);
+    }
+
     void onErrorResumeToken(final int errorCode, final ResumeToken resumeToken) {
         responseHandler.onErrorResumeToken(errorCode, resumeToken);
     }
@@ -0,0 +1,210 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import software.amazon.awssdk.crt.CrtRuntimeException;
+import software.amazon.awssdk.crt.http.HttpHeader;
+import software.amazon.awssdk.crt.http.HttpRequest;
+import software.amazon.awssdk.crt.io.Uri;
+
+/**
+ * Small requests against a single object, each run as its own meta request:
+ * HeadObject, and ranged GetObject into a heap buffer.
+ * Used by the readers built on top of S3Client, it is not part of the public API.
+ */
+final class S3ObjectFetcher {
+
+    /**
+     * Response of a HeadObject request.
+     */
+    static final class ObjectMetadata {
+        final long contentLength;
+        final String eTag;
+
+        ObjectMetadata(long contentLength, String eTag) {
+            this.contentLength = contentLength;
+            this.eTag = eTag;
+        }
+    }
+
+    /**
+     * An in-flight request. The future completes when the meta request finishes.
+     */
+    static final class Fetch<T> implements S3MetaRequestResponseHandler {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        private final ByteBuffer body;
+        private final long rangeStart;
+        private long received = 0;
+        private HttpHeader[] headers;
+        private S3MetaRequest metaRequest;
+        private boolean finished = false;
+        private Runnable onCancel;
+
+        private Fetch(ByteBuffer body, long rangeStart) {
+            this.body = body;
+            this.rangeStart = rangeStart;
+        }
+
+        /**
+         * Cancel the meta request. The future then completes exceptionally, unless it already completed.
+         * For a fetch made by {@link #completed(ByteBuffer, Runnable)}, release its data instead.
+         */
+        synchronized void cancel() {
+            if (metaRequest != null && !metaRequest.isNull()) {
+                metaRequest.cancel();
+            }
+            if (onCancel != null) {
+                onCancel.run();
+                onCancel = null;
+            }
+        }
+
+        private void start(S3Client client, S3MetaRequestOptions options) {
+            try {
+                S3MetaRequest created = client.makeMetaRequest(options.withResponseHandler(this));
+                synchronized (this) {
+                    if (!finished) {
+                        metaRequest = created;
+                        return;
+                    }
+                }
+                created.close();
+            } catch (RuntimeException ex) {
+                future.completeExceptionally(ex);
+            }
+        }
+
+        @Override
+        public void onResponseHeaders(final int statusCode, final HttpHeader[] headers) {
+            if (statusCode >= 200 && statusCode < 300) {
+                this.headers = headers;
+            }
+        }
+
+        @Override
+        public int onResponseBody(ByteBuffer bodyBytesIn, long objectRangeStart, long objectRangeEnd) {
+            if (body == null) {
+                return 0;
+            }
+            long offset = objectRangeStart - rangeStart;
+            if (offset < 0 || offset + bodyBytesIn.remaining() > body.capacity()) {
+                throw new IllegalStateException("S3ObjectFetcher: response body outside of the requested range.");
+            }
+            int length = bodyBytesIn.remaining();
+            ByteBuffer target = body.duplicate();
+            target.position((int) offset);
+            target.put(bodyBytesIn);
+            synchronized (this) {
+                received += length;
+            }
+            return 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onFinished(S3FinishedResponseContext context) {
+            S3MetaRequest toClose;
+            long receivedBytes;
+            synchronized (this) {
+                finished = true;
+                toClose = metaRequest;
+                metaRequest = null;
+                receivedBytes = received;
+            }
+            if (toClose != null) {
+                toClose.close();
+            }
+            if (context.getErrorCode() != 0) {
+                future.completeExceptionally(context.getCause() != null
+                        ? context.getCause() : new CrtRuntimeException(context.getErrorCode()));
+            } else if (body != null && receivedBytes < body.capacity()) {
+                /* The object ended before the range did, the rest of the buffer would pass for data */
+                future.completeExceptionally(new IllegalStateException("S3ObjectFetcher: response body ended after "
+                        + receivedBytes + " of the " + body.capacity() + " bytes requested."));
+            } else if (body != null) {
+                future.complete((T) body);
+            } else {
+                future.complete((T) metadataFromHeaders(headers));
+            }
+        }
+    }
+
+    private S3ObjectFetcher() {
+    }
+
+    /**
+     * Send HeadObject for a key.
+     */
+    static Fetch<ObjectMetadata> head(S3Client client, String host, String key) {
+        HttpRequest httpRequest = new HttpRequest("HEAD", encodedPath(key), new HttpHeader[] {
+                new HttpHeader("Host", host) }, null);
+        Fetch<ObjectMetadata> fetch = new Fetch<>(null, 0);
+        fetch.start(client, new S3MetaRequestOptions()
+                .withMetaRequestType(S3MetaRequestOptions.MetaRequestType.DEFAULT)
+                .withOperationName("HeadObject")
+                .withHttpRequest(httpRequest));
+        return fetch;
+    }
+
+    /**
+     * Fetch [start, start + length) of an object into a new heap buffer.
+     *
+     * @param eTag if not null, sent as If-Match so the range cannot come from a different version of the object
+     */
+    static Fetch<ByteBuffer> getRange(S3Client client, String host, String key, String eTag, long start, int length) {
+        List<HttpHeader> headers = new ArrayList<>();
+        headers.add(new HttpHeader("Host", host));
+        headers.add(new HttpHeader("Range", "bytes=" + start + "-" + (start + length - 1)));
+        if (eTag != null) {
+            headers.add(new HttpHeader("If-Match", eTag));
+        }
+        HttpRequest httpRequest = new HttpRequest("GET", encodedPath(key), headers.toArray(new HttpHeader[0]), null);
+        Fetch<ByteBuffer> fetch = new Fetch<>(ByteBuffer.allocate(length), start);
+        fetch.start(client, new S3MetaRequestOptions()
+                .withMetaRequestType(S3MetaRequestOptions.MetaRequestType.GET_OBJECT)
+                .withHttpRequest(httpRequest));
+        return fetch;
+    }
+
+    /**
+     * A fetch that already has its result, for data served without a request.
+     *
+     * @param onCancel run once when the fetch is cancelled, to release data borrowed from elsewhere
+     */
+    static Fetch<ByteBuffer> completed(ByteBuffer data, Runnable onCancel) {
+        Fetch<ByteBuffer> fetch = new Fetch<>(data, 0);
+        fetch.onCancel = onCancel;
+        fetch.future.complete(data);
+        return fetch;
+    }
+
+    static String encodedPath(String key) {
+        return "/" + Uri.encodeUriPath(key);
+    }
+
+    private static ObjectMetadata metadataFromHeaders(HttpHeader[] headers) {
+        long contentLength = -1;
+        String eTag = null;
+        if (headers != null) {
+            for (HttpHeader header : headers) {
+                if ("Content-Length".equalsIgnoreCase(header.getName())) {
+                    try {
+                        contentLength = Long.parseLong(header.getValue().trim());
+                    } catch (NumberFormatException ex) {
+                        contentLength = -1;
+                    }
+                } else if ("ETag".equalsIgnoreCase(header.getName())) {
+                    eTag = header.getValue();
+                }
+            }
+        }
+        return new ObjectMetadata(contentLength, eTag);
+    }
+}
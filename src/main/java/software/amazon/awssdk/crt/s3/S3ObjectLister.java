@@ -0,0 +1,254 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import software.amazon.awssdk.crt.CrtRuntimeException;
+import software.amazon.awssdk.crt.http.HttpHeader;
+import software.amazon.awssdk.crt.http.HttpRequest;
+import software.amazon.awssdk.crt.io.Uri;
+
+/**
+ * Implementation of {@link S3Client#listObjects}: lists the partitions of a keyspace with ListObjectsV2 requests,
+ * each run as a DEFAULT meta request, so they are signed, retried and pooled by the client like any other request.
+ * <p>
+ * Pages of one partition follow each other through their continuation token, while different partitions are
+ * listed concurrently up to the limit of the options. A waiting continuation page is started before a new
+ * partition, so partitions are finished early and few tokens wait at a time.
+ */
+final class S3ObjectLister {
+
+    /**
+     * A page to request: the prefix of its partition, how deep the partition is, and the continuation token
+     * of the page, null for the first one.
+     */
+    private static final class Page {
+        final String prefix;
+        final int depth;
+        final String continuationToken;
+
+        Page(String prefix, int depth, String continuationToken) {
+            this.prefix = prefix;
+            this.depth = depth;
+            this.continuationToken = continuationToken;
+        }
+    }
+
+    private final S3Client client;
+    private final S3ListObjectsOptions options;
+    private final S3ListObjectsListener listener;
+
+    private final CompletableFuture<Long> future = new CompletableFuture<>();
+    private final Deque<Page> pending = new ArrayDeque<>();
+    private final Set<PageRequest> active = new HashSet<>();
+    private long keyCount = 0;
+    private boolean completed = false;
+
+    private S3ObjectLister(S3Client client, S3ListObjectsOptions options, S3ListObjectsListener listener) {
+        this.client = client;
+        this.options = options;
+        this.listener = listener;
+        /* Cancelling the returned future cancels the requests in flight */
+        this.future.whenComplete((r, ex) -> {
+            if (future.isCancelled()) {
+                fail(null);
+            }
+        });
+    }
+
+    static CompletableFuture<Long> run(S3Client client, S3ListObjectsOptions options, S3ListObjectsListener listener) {
+        if (options == null || options.getHost() == null) {
+            throw new IllegalArgumentException("S3Client.listObjects: options must set the host.");
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("S3Client.listObjects: listener must not be null.");
+        }
+        S3ObjectLister lister = new S3ObjectLister(client, options, listener);
+        synchronized (lister) {
+            lister.pending.add(new Page(options.getPrefix(), 0, null));
+        }
+        lister.schedule();
+        return lister.future;
+    }
+
+    private void schedule() {
+        while (true) {
+            PageRequest next;
+            synchronized (this) {
+                if (completed) {
+                    return;
+                }
+                if (pending.isEmpty()) {
+                    if (active.isEmpty()) {
+                        completed = true;
+                    }
+                    break;
+                }
+                if (active.size() >= options.getMaxConcurrentRequests()) {
+                    break;
+                }
+                /* Counted as active right away, so concurrent schedule() calls see the limit */
+                next = new PageRequest(pending.pollFirst());
+                active.add(next);
+            }
+            next.start();
+        }
+        long total;
+        synchronized (this) {
+            if (!completed || !active.isEmpty()) {
+                return;
+            }
+            total = keyCount;
+        }
+        future.complete(total);
+    }
+
+    /* Stop listing: drop the waiting pages and cancel the requests in flight. failure is null on cancellation */
+    private void fail(Throwable failure) {
+        List<PageRequest> toCancel;
+        synchronized (this) {
+            if (completed && active.isEmpty()) {
+                return;
+            }
+            completed = true;
+            pending.clear();
+            toCancel = new ArrayList<>(active);
+        }
+        if (failure != null) {
+            future.completeExceptionally(failure);
+        }
+        for (PageRequest request : toCancel) {
+            request.cancel();
+        }
+    }
+
+    private HttpRequest buildRequest(Page page) {
+        StringBuilder path = new StringBuilder("/?list-type=2&encoding-type=url&max-keys=")
+                .append(options.getMaxKeysPerPage());
+        if (!page.prefix.isEmpty()) {
+            path.append("&prefix=").append(Uri.encodeUriParam(page.prefix));
+        }
+        /* Partitions below the depth are listed whole, so they report keys instead of common prefixes */
+        if (page.depth < options.getPartitionDepth()) {
+            path.append("&delimiter=").append(Uri.encodeUriParam(options.getDelimiter()));
+        }
+        if (page.continuationToken != null) {
+            path.append("&continuation-token=").append(Uri.encodeUriParam(page.continuationToken));
+        }
+        return new HttpRequest("GET", path.toString(), new HttpHeader[] {
+                new HttpHeader("Host", options.getHost()) }, null);
+    }
+
+    /**
+     * One ListObjectsV2 request in flight. Collects the response body and hands the parsed page to the listener.
+     */
+    private final class PageRequest implements S3MetaRequestResponseHandler {
+        private final Page page;
+        private byte[] body = new byte[64 * 1024];
+        private int bodyLength = 0;
+        private S3MetaRequest metaRequest;
+        private boolean finished = false;
+
+        PageRequest(Page page) {
+            this.page = page;
+        }
+
+        void start() {
+            try {
+                S3MetaRequest created = client.makeMetaRequest(new S3MetaRequestOptions()
+                        .withMetaRequestType(S3MetaRequestOptions.MetaRequestType.DEFAULT)
+                        .withOperationName("ListObjectsV2")
+                        .withHttpRequest(buildRequest(page))
+                        .withEndpoint(options.getEndpoint())
+                        .withResponseHandler(this));
+                synchronized (this) {
+                    if (!finished) {
+                        metaRequest = created;
+                        return;
+                    }
+                }
+                created.close();
+            } catch (RuntimeException ex) {
+                finish();
+                fail(ex);
+            }
+        }
+
+        synchronized void cancel() {
+            if (metaRequest != null && !metaRequest.isNull()) {
+                metaRequest.cancel();
+            }
+        }
+
+        @Override
+        public int onResponseBody(ByteBuffer bodyBytesIn, long objectRangeStart, long objectRangeEnd) {
+            int remaining = bodyBytesIn.remaining();
+            if (bodyLength + remaining > body.length) {
+                body = Arrays.copyOf(body, Math.max(bodyLength + remaining, body.length * 2));
+            }
+            bodyBytesIn.get(body, bodyLength, remaining);
+            bodyLength += remaining;
+            return 0;
+        }
+
+        @Override
+        public void onFinished(S3FinishedResponseContext context) {
+            finish();
+            if (context.getErrorCode() != 0) {
+                fail(context.getCause() != null ? context.getCause() : new CrtRuntimeException(context.getErrorCode()));
+                return;
+            }
+            synchronized (S3ObjectLister.this) {
+                if (completed) {
+                    return;
+                }
+            }
+            try {
+                S3ListObjectsPageParser.Page parsed = S3ListObjectsPageParser.parse(body, bodyLength, page.prefix);
+                body = null;
+                listener.onBatch(parsed.batch);
+                for (String prefix : parsed.commonPrefixes) {
+                    listener.onPartition(prefix);
+                }
+                synchronized (S3ObjectLister.this) {
+                    keyCount += parsed.batch.size();
+                    if (parsed.nextContinuationToken != null) {
+                        pending.addFirst(new Page(page.prefix, page.depth, parsed.nextContinuationToken));
+                    }
+                    for (String prefix : parsed.commonPrefixes) {
+                        pending.addLast(new Page(prefix, page.depth + 1, null));
+                    }
+                    active.remove(this);
+                }
+            } catch (RuntimeException ex) {
+                /* A malformed page or a throwing listener stops the whole listing */
+                fail(ex);
+                return;
+            }
+            schedule();
+        }
+
+        private void finish() {
+            S3MetaRequest toClose;
+            synchronized (this) {
+                finished = true;
+                toClose = metaRequest;
+                metaRequest = null;
+            }
+            if (toClose != null) {
+                toClose.close();
+            }
+        }
+    }
+}
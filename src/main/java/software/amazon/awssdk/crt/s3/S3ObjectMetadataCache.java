@@ -0,0 +1,221 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the size, ETag and checksum type of recently downloaded objects, so that repeated GETs of an object
+ * can skip the request that discovers its size.
+ * <p>
+ * A GET_OBJECT meta request made without {@link S3MetaRequestOptions#withObjectSizeHint} and without a Range
+ * header first learns the object size from a ranged request, and only then fans out. With a cache attached
+ * through {@link S3ClientOptions#withObjectMetadataCache}, the size recorded by an earlier download of the same
+ * host (which names the bucket) and path is passed as the size hint instead. The first response of every
+ * download is checked against the cached ETag: if the object was replaced, the entry is updated from that
+ * response. A stale size hint only costs the native client an extra request, never a wrong result.
+ * <p>
+ * Entries expire ttlMillis after they were recorded. When the cache is full, the least recently used entry is
+ * evicted. One cache may be shared by several clients. All methods are thread-safe.
+ */
+public class S3ObjectMetadataCache {
+
+    /**
+     * What the cache knows about one object.
+     */
+    public static final class ObjectMetadata {
+        private final long size;
+        private final String eTag;
+        private final String checksumType;
+
+        /**
+         * @param size size of the object in bytes
+         * @param eTag ETag of the object, or null if unknown
+         * @param checksumType value of the x-amz-checksum-type header, or null if the object has none
+         */
+        public ObjectMetadata(long size, String eTag, String checksumType) {
+            if (size < 0) {
+                throw new IllegalArgumentException("ObjectMetadata: size must not be negative.");
+            }
+            this.size = size;
+            this.eTag = eTag;
+            this.checksumType = checksumType;
+        }
+
+        /**
+         * @return size of the object in bytes
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * @return ETag of the object, or null if unknown
+         */
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * @return checksum type of the object, e.g. FULL_OBJECT or COMPOSITE, or null if the object has none
+         */
+        public String getChecksumType() {
+            return checksumType;
+        }
+    }
+
+    private static final class CachedEntry {
+        final ObjectMetadata metadata;
+        final long expiresAtNs;
+
+        CachedEntry(ObjectMetadata metadata, long expiresAtNs) {
+            this.metadata = metadata;
+            this.expiresAtNs = expiresAtNs;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlNs;
+    /* Access-ordered, so iteration starts at the least recently used entry */
+    private final LinkedHashMap<String, CachedEntry> entries;
+
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * @param maxEntries most objects the cache remembers
+     * @param ttlMillis how long an entry is used after it was recorded, in milliseconds
+     */
+    public S3ObjectMetadataCache(int maxEntries, long ttlMillis) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("S3ObjectMetadataCache: maxEntries must be positive.");
+        }
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("S3ObjectMetadataCache: ttlMillis must be positive.");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNs = ttlMillis * 1_000_000L;
+        this.entries = new LinkedHashMap<String, CachedEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedEntry> eldest) {
+                if (size() > S3ObjectMetadataCache.this.maxEntries) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return most objects the cache remembers
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return number of objects currently cached, including expired entries not yet dropped
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of lookups that found a live entry
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return number of lookups that found no entry, or an expired one
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return number of entries evicted to make room for others
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @param host value of the Host header, which names the bucket
+     * @param path path of the object, including any query such as versionId
+     * @return metadata of the object, or null if it is not cached or the entry has expired
+     */
+    public synchronized ObjectMetadata get(String host, String path) {
+        String key = key(host, path);
+        CachedEntry entry = entries.get(key);
+        if (entry != null && entry.expiresAtNs - System.nanoTime() <= 0) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.metadata;
+    }
+
+    /**
+     * Record the metadata of an object, replacing any earlier entry. The entry expires ttlMillis from now.
+     *
+     * @param host value of the Host header, which names the bucket
+     * @param path path of the object, including any query such as versionId
+     * @param metadata metadata of the object
+     */
+    public synchronized void put(String host, String path, ObjectMetadata metadata) {
+        if (metadata == null) {
+            throw new IllegalArgumentException("S3ObjectMetadataCache: metadata must not be null.");
+        }
+        entries.put(key(host, path), new CachedEntry(metadata, System.nanoTime() + ttlNs));
+    }
+
+    /**
+     * Forget one object, e.g. after overwriting or deleting it.
+     *
+     * @param host value of the Host header, which names the bucket
+     * @param path path of the object, including any query such as versionId
+     */
+    public synchronized void invalidate(String host, String path) {
+        entries.remove(key(host, path));
+    }
+
+    /**
+     * Drop every entry, including expired ones.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Drop the entries that have expired. Expired entries are otherwise dropped when they are looked up
+     * or evicted.
+     */
+    public synchronized void removeExpired() {
+        long now = System.nanoTime();
+        Iterator<CachedEntry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAtNs - now <= 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static String key(String host, String path) {
+        if (host == null || path == null) {
+            throw new IllegalArgumentException("S3ObjectMetadataCache: host and path must not be null.");
+        }
+        return host + '\n' + path;
+    }
+}
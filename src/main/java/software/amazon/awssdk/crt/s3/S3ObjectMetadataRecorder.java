@@ -0,0 +1,92 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import software.amazon.awssdk.crt.http.HttpHeader;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Records the size, ETag and checksum type from the response headers of a download into an
+ * {@link S3ObjectMetadataCache}, and forwards every callback to the user's handler.
+ */
+class S3ObjectMetadataRecorder implements S3MetaRequestResponseHandler {
+
+    private final S3ObjectMetadataCache cache;
+    private final String host;
+    private final String path;
+    private final S3MetaRequestResponseHandler userHandler;
+
+    S3ObjectMetadataRecorder(S3ObjectMetadataCache cache, String host, String path,
+            S3MetaRequestResponseHandler userHandler) {
+        this.cache = cache;
+        this.host = host;
+        this.path = path;
+        this.userHandler = userHandler;
+    }
+
+    @Override
+    public void onResponseHeaders(final int statusCode, final HttpHeader[] headers) {
+        if (statusCode == 200 || statusCode == 206) {
+            record(headers);
+        }
+        userHandler.onResponseHeaders(statusCode, headers);
+    }
+
+    private void record(HttpHeader[] headers) {
+        long size = S3MappedFileSink.objectSizeFromHeaders(headers);
+        String eTag = null;
+        String checksumType = null;
+        for (HttpHeader header : headers) {
+            if ("ETag".equalsIgnoreCase(header.getName())) {
+                eTag = header.getValue();
+            } else if ("x-amz-checksum-type".equalsIgnoreCase(header.getName())) {
+                checksumType = header.getValue();
+            }
+        }
+        if (size < 0) {
+            /* Nothing to hint with, and an entry for an older version must not stay */
+            cache.invalidate(host, path);
+            return;
+        }
+        /* Replaces an entry whose ETag no longer matches, and refreshes one the response confirmed */
+        cache.put(host, path, new S3ObjectMetadataCache.ObjectMetadata(size, eTag, checksumType));
+    }
+
+    @Override
+    public int onResponseBody(ByteBuffer bodyBytesIn, long objectRangeStart, long objectRangeEnd) {
+        return userHandler.onResponseBody(bodyBytesIn, objectRangeStart, objectRangeEnd);
+    }
+
+    @Override
+    public int onResponseBody(S3ResponseBodyLease lease) {
+        return userHandler.onResponseBody(lease);
+    }
+
+    @Override
+    public void onFinished(S3FinishedResponseContext context) {
+        userHandler.onFinished(context);
+    }
+
+    @Override
+    public void onProgress(final S3MetaRequestProgress progress) {
+        userHandler.onProgress(progress);
+    }
+
+    @Override
+    public void onTelemetry(S3RequestMetrics requestMetrics) {
+        userHandler.onTelemetry(requestMetrics);
+    }
+
+    @Override
+    public void onTelemetryBatch(S3RequestMetricsBatch batch) {
+        userHandler.onTelemetryBatch(batch);
+    }
+
+    @Override
+    public void onErrorResumeToken(final int errorCode, final ResumeToken resumeToken) {
+        userHandler.onErrorResumeToken(errorCode, resumeToken);
+    }
+}
@@ -0,0 +1,408 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import software.amazon.awssdk.crt.CrtRuntimeException;
+import software.amazon.awssdk.crt.http.HttpRequest;
+import software.amazon.awssdk.crt.http.HttpRequestBodyStream;
+
+/**
+ * Push-style upload of an object of unknown length: an {@link OutputStream} and {@link WritableByteChannel}
+ * whose data becomes the body of a PUT_OBJECT meta request.
+ * <p>
+ * Written data is collected in a fixed number of part buffers. Filled buffers are handed to the meta request,
+ * which pulls them through its request body stream and uploads them as parts of a multipart upload. Once every
+ * buffer is either filled or being uploaded, writes block until the meta request has consumed one, so memory
+ * use is bounded by maxInFlightBuffers * partBufferSize no matter how fast the writer is.
+ * Use the client's part size as partBufferSize so each buffer maps to one part.
+ * <p>
+ * {@link #close} completes the upload and waits for it to finish. {@link #abort} cancels it instead.
+ * Writes must not be made from a thread of the client's event loop group.
+ * The stream is meant for a single writer thread.
+ * <p>
+ * The meta request pulls its body synchronously on a thread of the client's event loop group. By default, a pull
+ * that finds no filled part buffer returns at once with whatever it has, and the meta request pulls again, so the
+ * thread polls the stream until the writer catches up. A stream opened with waitForWriter set instead parks that
+ * thread until the writer fills a buffer, in steps of 100 ms checking whether the upload has ended, and other meta
+ * requests of the client served by the same thread stall meanwhile. Either way, write steadily once the stream is
+ * open, and only wait for the writer on a client of its own.
+ */
+public class S3ObjectOutputStream extends OutputStream implements WritableByteChannel {
+
+    /* Longest single wait of a body read for the writer, before checking whether the upload has ended */
+    static final long BODY_WAIT_MILLIS = 100;
+
+    private final int partBufferSize;
+    private final int maxInFlightBuffers;
+    private final boolean waitForWriter;
+    private final CompletableFuture<Void> finishedFuture = new CompletableFuture<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition bufferFreed = lock.newCondition();
+    private final Condition dataAvailable = lock.newCondition();
+    /* Guarded by lock */
+    private final Deque<ByteBuffer> freeBuffers = new ArrayDeque<>();
+    private final Deque<ByteBuffer> filledBuffers = new ArrayDeque<>();
+    private int allocatedBuffers = 0;
+    private boolean endOfData = false;
+    private boolean aborted = false;
+
+    /* Only touched by the writer */
+    private ByteBuffer current;
+    private boolean closed = false;
+    /* Only touched by the meta request's body stream */
+    private ByteBuffer reading;
+
+    /* Guarded by this */
+    private S3MetaRequest metaRequest;
+    private boolean metaRequestFinished = false;
+
+    S3ObjectOutputStream(int partBufferSize, int maxInFlightBuffers, boolean waitForWriter) {
+        this.partBufferSize = partBufferSize;
+        this.maxInFlightBuffers = maxInFlightBuffers;
+        this.waitForWriter = waitForWriter;
+    }
+
+    /**
+     * Start an upload whose body is written to the returned stream.
+     *
+     * @param client client that runs the upload
+     * @param options options of a PUT_OBJECT meta request. Its HttpRequest must not have a body stream
+     *                or a Content-Length header. Its response handler, if any, receives every callback
+     *                except the response body
+     * @param partBufferSize size of each part buffer, normally the client's part size
+     * @param maxInFlightBuffers most part buffers being filled or uploaded at once, at least 2
+     * @return the stream, close it to complete the upload
+     */
+    public static S3ObjectOutputStream open(S3Client client, S3MetaRequestOptions options, int partBufferSize,
+            int maxInFlightBuffers) {
+        return open(client, options, partBufferSize, maxInFlightBuffers, false);
+    }
+
+    /**
+     * Start an upload whose body is written to the returned stream.
+     *
+     * @param client client that runs the upload
+     * @param options options of a PUT_OBJECT meta request. Its HttpRequest must not have a body stream
+     *                or a Content-Length header. Its response handler, if any, receives every callback
+     *                except the response body. The options are not modified
+     * @param partBufferSize size of each part buffer, normally the client's part size
+     * @param maxInFlightBuffers most part buffers being filled or uploaded at once, at least 2
+     * @param waitForWriter whether a pull of the body that finds no filled part buffer blocks its event loop
+     *                      thread until the writer fills one, rather than return at once. Only set it on a
+     *                      client dedicated to this upload
+     * @return the stream, close it to complete the upload
+     */
+    public static S3ObjectOutputStream open(S3Client client, S3MetaRequestOptions options, int partBufferSize,
+            int maxInFlightBuffers, boolean waitForWriter) {
+        if (options.getMetaRequestType() != S3MetaRequestOptions.MetaRequestType.PUT_OBJECT) {
+            throw new IllegalArgumentException("S3ObjectOutputStream: meta request type must be PUT_OBJECT.");
+        }
+        HttpRequest request = options.getHttpRequest();
+        if (request == null || request.getBodyStream() != null || options.getRequestFilePath() != null) {
+            throw new IllegalArgumentException("S3ObjectOutputStream: the HttpRequest must not have a body.");
+        }
+        if (partBufferSize <= 0 || maxInFlightBuffers < 2) {
+            throw new IllegalArgumentException(
+                    "S3ObjectOutputStream: partBufferSize must be positive and maxInFlightBuffers at least 2.");
+        }
+        S3ObjectOutputStream stream = new S3ObjectOutputStream(partBufferSize, maxInFlightBuffers, waitForWriter);
+        HttpRequest streamingRequest = new HttpRequest(request.getMethod(), request.getEncodedPath(),
+                request.getHeadersAsArray(), stream.new BodyStream());
+        stream.attach(client.makeMetaRequest(options.copy().withHttpRequest(streamingRequest)
+                .withResponseHandler(stream.new UploadHandler(options.getResponseHandler()))));
+        return stream;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        write(ByteBuffer.wrap(b, off, len));
+    }
+
+    /**
+     * Copy the remaining bytes of src into the upload, blocking while every part buffer is in use.
+     *
+     * @param src data to upload
+     * @return number of bytes written, always all remaining bytes of src
+     * @throws IOException if the stream is closed or the upload failed
+     */
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        int written = 0;
+        while (src.hasRemaining()) {
+            if (current == null) {
+                current = acquireBuffer();
+            }
+            int toCopy = Math.min(current.remaining(), src.remaining());
+            ByteBuffer slice = src.duplicate();
+            slice.limit(slice.position() + toCopy);
+            current.put(slice);
+            src.position(src.position() + toCopy);
+            written += toCopy;
+            if (!current.hasRemaining()) {
+                submit(current);
+                current = null;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Does nothing: data is uploaded a full part buffer at a time, and the last partial buffer on {@link #close}.
+     */
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Upload any remaining data, complete the upload, and wait for it to finish.
+     *
+     * @throws IOException if the upload failed
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            if (current != null && current.position() > 0) {
+                submit(current);
+            }
+            current = null;
+            lock.lock();
+            try {
+                endOfData = true;
+                dataAvailable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+        awaitFinished();
+    }
+
+    /**
+     * Cancel the upload. Data already written is discarded, and any blocked or later write fails.
+     */
+    public void abort() {
+        closed = true;
+        lock.lock();
+        try {
+            aborted = true;
+            bufferFreed.signalAll();
+            dataAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        synchronized (this) {
+            if (metaRequest != null && !metaRequest.isNull()) {
+                metaRequest.cancel();
+            }
+        }
+    }
+
+    /**
+     * @return future completed once the upload has finished, exceptionally if it failed
+     */
+    public CompletableFuture<Void> getFinishedFuture() {
+        return finishedFuture;
+    }
+
+    private void attach(S3MetaRequest created) {
+        synchronized (this) {
+            if (!metaRequestFinished) {
+                metaRequest = created;
+                return;
+            }
+        }
+        created.close();
+    }
+
+    private ByteBuffer acquireBuffer() throws IOException {
+        lock.lock();
+        try {
+            while (true) {
+                if (aborted || finishedFuture.isDone()) {
+                    break;
+                }
+                ByteBuffer buffer = freeBuffers.poll();
+                if (buffer != null) {
+                    return buffer;
+                }
+                if (allocatedBuffers < maxInFlightBuffers) {
+                    allocatedBuffers++;
+                    return ByteBuffer.allocate(partBufferSize);
+                }
+                try {
+                    bufferFreed.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("S3ObjectOutputStream: interrupted while waiting for a part buffer.");
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        /* The upload ended before the writer did */
+        awaitFinished();
+        throw new IOException("S3ObjectOutputStream: upload was cancelled.");
+    }
+
+    private void submit(ByteBuffer buffer) {
+        buffer.flip();
+        lock.lock();
+        try {
+            filledBuffers.add(buffer);
+            dataAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitFinished() throws IOException {
+        try {
+            finishedFuture.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("S3ObjectOutputStream: interrupted while waiting for the upload.");
+        } catch (ExecutionException ex) {
+            throw new IOException("S3ObjectOutputStream: upload failed: " + ex.getCause(), ex.getCause());
+        }
+    }
+
+    /**
+     * Hands filled part buffers to the meta request. With waitForWriter, blocks the calling event loop thread
+     * while the writer has not filled a buffer yet, since the body stream interface can only pull.
+     */
+    class BodyStream implements HttpRequestBodyStream {
+        @Override
+        public boolean sendRequestBody(ByteBuffer bodyBytesOut) {
+            while (bodyBytesOut.hasRemaining()) {
+                if (reading == null) {
+                    lock.lock();
+                    try {
+                        while (filledBuffers.isEmpty() && !endOfData && !aborted) {
+                            if (finishedFuture.isDone()) {
+                                /* The upload failed, or its future was cancelled: nothing will be read anymore */
+                                return true;
+                            }
+                            if (bodyBytesOut.position() > 0 || !waitForWriter) {
+                                /* Send what we have, the meta request pulls again for the rest */
+                                return false;
+                            }
+                            awaitData();
+                        }
+                        reading = filledBuffers.poll();
+                        if (reading == null) {
+                            return true;
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+                int toCopy = Math.min(reading.remaining(), bodyBytesOut.remaining());
+                ByteBuffer slice = reading.duplicate();
+                slice.limit(slice.position() + toCopy);
+                bodyBytesOut.put(slice);
+                reading.position(reading.position() + toCopy);
+                if (!reading.hasRemaining()) {
+                    recycle(reading);
+                    reading = null;
+                }
+            }
+            lock.lock();
+            try {
+                return reading == null && filledBuffers.isEmpty() && endOfData;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /* Called with lock held. An interrupt does not end the wait, it is kept for the thread's owner */
+        private void awaitData() {
+            boolean interrupted = Thread.interrupted();
+            try {
+                dataAvailable.await(BODY_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void recycle(ByteBuffer buffer) {
+            buffer.clear();
+            lock.lock();
+            try {
+                freeBuffers.add(buffer);
+                bufferFreed.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private class UploadHandler extends DelegatingResponseHandler {
+        UploadHandler(S3MetaRequestResponseHandler delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void onFinished(S3FinishedResponseContext context) {
+            try {
+                super.onFinished(context);
+            } finally {
+                if (context.getErrorCode() != 0) {
+                    finishedFuture.completeExceptionally(context.getCause() != null
+                            ? context.getCause() : new CrtRuntimeException(context.getErrorCode()));
+                } else {
+                    finishedFuture.complete(null);
+                }
+                lock.lock();
+                try {
+                    /* Unblock a writer waiting for a buffer that will never be freed */
+                    bufferFreed.signalAll();
+                    dataAvailable.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                S3MetaRequest toClose;
+                synchronized (S3ObjectOutputStream.this) {
+                    metaRequestFinished = true;
+                    toClose = metaRequest;
+                    metaRequest = null;
+                }
+                if (toClose != null) {
+                    toClose.close();
+                }
+            }
+        }
+    }
+}
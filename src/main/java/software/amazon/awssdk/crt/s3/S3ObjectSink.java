@@ -0,0 +1,32 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Receives the per-object results of a {@link S3Client#getObjects} batch.
+ * Methods are invoked from the client's event-loop threads, possibly concurrently for different objects,
+ * and should return quickly.
+ */
+public interface S3ObjectSink {
+
+    /**
+     * Invoked once an object has been downloaded in full.
+     *
+     * @param request the request the object was fetched for
+     * @param body heap buffer with the whole object, from position 0 to limit. It is owned by the sink
+     */
+    void onObject(S3GetObjectRequest request, ByteBuffer body);
+
+    /**
+     * Invoked if an object could not be downloaded. The failure is also recorded in the batch result.
+     *
+     * @param request the request that failed
+     * @param cause why it failed
+     */
+    default void onFailure(S3GetObjectRequest request, Throwable cause) {
+    }
+}
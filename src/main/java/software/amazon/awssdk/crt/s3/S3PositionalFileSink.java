@@ -0,0 +1,115 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Response handler that writes each chunk of the response body straight to a file, at the position
+ * of the chunk within the object, using positional {@link FileChannel} writes.
+ * <p>
+ * Nothing is buffered in Java: each chunk is written as soon as it is delivered, and the flow-control
+ * window is incremented by the chunk's length once it is on disk. Chunks of one meta request are delivered
+ * in order, and every write costs a call into Java. To download a single object or range into a file,
+ * {@link S3MetaRequestOptions#withResponseFilePath} with
+ * {@link S3MetaRequestOptions.ResponseFileOption#WRITE_TO_POSITION} and
+ * {@link S3MetaRequestOptions#withResponseFilePosition} writes it natively instead.
+ * This sink is for a FileChannel shared by several ranged GET meta requests of the same object, each with its
+ * own sink. A slow range then only delays itself, not the ranges after it.
+ * <p>
+ * Combine with {@link S3MetaRequestOptions#withDirectResponseBody} to write from native memory
+ * without copying the data through the Java heap.
+ */
+public class S3PositionalFileSink extends DelegatingResponseHandler implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final boolean ownsChannel;
+    private final long fileOffset;
+    private final AtomicLong bytesWritten = new AtomicLong(0);
+
+    /**
+     * Write into a channel owned by the caller. The channel is not closed by {@link #close}.
+     *
+     * @param channel channel to write into, it may be shared with other sinks
+     * @param fileOffset position in the file of byte 0 of the object
+     * @param delegate optional handler that receives every callback except the response body
+     */
+    public S3PositionalFileSink(FileChannel channel, long fileOffset, S3MetaRequestResponseHandler delegate) {
+        super(delegate);
+        if (channel == null) {
+            throw new IllegalArgumentException("S3PositionalFileSink: channel must not be null.");
+        }
+        if (fileOffset < 0) {
+            throw new IllegalArgumentException("S3PositionalFileSink: fileOffset must not be negative.");
+        }
+        this.channel = channel;
+        this.ownsChannel = false;
+        this.fileOffset = fileOffset;
+    }
+
+    private S3PositionalFileSink(FileChannel channel, S3MetaRequestResponseHandler delegate) {
+        super(delegate);
+        this.channel = channel;
+        this.ownsChannel = true;
+        this.fileOffset = 0;
+    }
+
+    /**
+     * Create or replace a file and return a sink that owns it.
+     * Object byte 0 is written at file position 0.
+     *
+     * @param path file to write the response body to
+     * @param delegate optional handler that receives every callback except the response body
+     * @return the sink, close it once the meta request has finished
+     * @throws IOException if the file cannot be opened
+     */
+    public static S3PositionalFileSink open(Path path, S3MetaRequestResponseHandler delegate) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        return new S3PositionalFileSink(channel, delegate);
+    }
+
+    /**
+     * @return number of body bytes written to the file so far
+     */
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    @Override
+    public int onResponseBody(ByteBuffer bodyBytesIn, long objectRangeStart, long objectRangeEnd) {
+        int length = bodyBytesIn.remaining();
+        long position = fileOffset + objectRangeStart;
+        try {
+            while (bodyBytesIn.hasRemaining()) {
+                position += channel.write(bodyBytesIn, position);
+            }
+        } catch (IOException ex) {
+            /* Thrown back to native, which fails the meta request with this as the cause */
+            throw new UncheckedIOException(ex);
+        }
+        bytesWritten.addAndGet(length);
+        /* The data is on its way to disk, so it no longer counts against the window */
+        return length;
+    }
+
+    /**
+     * Close the file, if it was opened by {@link #open}.
+     *
+     * @throws IOException if closing the file fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (ownsChannel) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+/**
+ * Splits an S3Client's connections between FOREGROUND and BACKGROUND meta requests.
+ * <p>
+ * The native client serves its meta requests round-robin, up to its connection limit, and up to each meta
+ * request's own limit. This scheduler picks that per meta request limit when the meta request starts, from
+ * the mix of meta requests active at that time:
+ * <ul>
+ * <li>BACKGROUND meta requests share the background share of the connections, whether or not a FOREGROUND
+ * meta request is active.</li>
+ * <li>While a BACKGROUND meta request is active, each FOREGROUND meta request may use every connection but the
+ * background share, so background transfers keep progressing. Otherwise it has no limit.</li>
+ * </ul>
+ * Limits are fixed for the lifetime of a meta request, as aws-c-s3 cannot change them mid-transfer. So a
+ * BACKGROUND meta request is never given more than the background share, even while the client is otherwise idle:
+ * it could not give connections back to a FOREGROUND meta request starting later. Background work made of many
+ * objects adapts best, as each new meta request is limited by the mix active when it starts.
+ */
+final class S3PriorityScheduler {
+
+    private final int connections;
+    private final int backgroundConnections;
+
+    private int activeForeground;
+    private int activeBackground;
+
+    S3PriorityScheduler(int connections, double backgroundShare) {
+        this.connections = Math.max(2, connections);
+        this.backgroundConnections = Math.max(1, Math.min(this.connections - 1,
+                (int) Math.floor(this.connections * backgroundShare)));
+    }
+
+    /**
+     * @return connection limit of the client, for the native client options
+     */
+    int getConnections() {
+        return connections;
+    }
+
+    /**
+     * @return connections shared by BACKGROUND meta requests
+     */
+    int getBackgroundConnections() {
+        return backgroundConnections;
+    }
+
+    /**
+     * Register a meta request that is about to start.
+     *
+     * @param priority priority of the meta request
+     * @return connection limit for the meta request, 0 for no limit
+     */
+    synchronized int admit(S3MetaRequestOptions.Priority priority) {
+        if (priority == S3MetaRequestOptions.Priority.BACKGROUND) {
+            int limit = Math.max(1, backgroundConnections / (activeBackground + 1));
+            activeBackground++;
+            return limit;
+        }
+        activeForeground++;
+        return activeBackground > 0 ? connections - backgroundConnections : 0;
+    }
+
+    /**
+     * Unregister a meta request once it has finished, or failed to start.
+     *
+     * @param priority priority it was admitted with
+     */
+    synchronized void release(S3MetaRequestOptions.Priority priority) {
+        if (priority == S3MetaRequestOptions.Priority.BACKGROUND) {
+            activeBackground--;
+        } else {
+            activeForeground--;
+        }
+    }
+}
@@ -166,4 +166,90 @@ public class S3RequestMetrics {
     public String getIpAddress() {
         return this.ipAddress;
     }
+
+    /*
+     * Raw values for S3TelemetryAggregator, which records every request and must not pay for an exception
+     * per missing value. Each returns -1 when the value is not available.
+     */
+
+    long timeToFirstByteDurationNs() {
+        long start = sendStartTimestampNs != -1 ? sendStartTimestampNs : startTimestampNs;
+        return receiveStartTimestampNs == -1 ? -1 : receiveStartTimestampNs - start;
+    }
+
+    long timeToLastByteDurationNs() {
+        long start = sendStartTimestampNs != -1 ? sendStartTimestampNs : startTimestampNs;
+        return receiveEndTimestampNs == -1 ? -1 : receiveEndTimestampNs - start;
+    }
+
+    long signingDurationNsOrUnavailable() {
+        return signingDurationNs;
+    }
+
+    long backoffDelayDurationNsOrUnavailable() {
+        return retryDelayDurationNs;
+    }
+
+    int responseStatusOrUnavailable() {
+        return responseStatus;
+    }
+
+    String requestPathQuery() {
+        return requestPathQuery;
+    }
+
+    /**
+     * Build the metrics of one record of an S3RequestMetricsBatch.
+     *
+     * @param values numeric values of the batch, S3RequestMetricsBatch.LONGS_PER_RECORD per record
+     * @param valueOffset index of the record's first value
+     * @param strings strings of the batch, S3RequestMetricsBatch.STRINGS_PER_RECORD per record
+     * @param stringOffset index of the record's first string
+     * @return the metrics
+     */
+    static S3RequestMetrics fromRecord(long[] values, int valueOffset, String[] strings, int stringOffset) {
+        S3RequestMetrics metrics = new S3RequestMetrics();
+        int v = valueOffset;
+        metrics.s3RequestFirstAttemptStartTimestampNs = values[v++];
+        metrics.s3RequestLastAttemptEndTimestampNs = values[v++];
+        metrics.startTimestampNs = values[v++];
+        metrics.endTimestampNs = values[v++];
+        metrics.totalDurationNs = values[v++];
+        metrics.sendStartTimestampNs = values[v++];
+        metrics.sendEndTimestampNs = values[v++];
+        metrics.sendingDurationNs = values[v++];
+        metrics.receiveStartTimestampNs = values[v++];
+        metrics.receiveEndTimestampNs = values[v++];
+        metrics.receivingDurationNs = values[v++];
+        metrics.signStartTimestampNs = values[v++];
+        metrics.signEndTimestampNs = values[v++];
+        metrics.signingDurationNs = values[v++];
+        metrics.memAcquireStartTimestampNs = values[v++];
+        metrics.memAcquireEndTimestampNs = values[v++];
+        metrics.memAcquireDurationNs = values[v++];
+        metrics.deliverStartTimestampNs = values[v++];
+        metrics.deliverEndTimestampNs = values[v++];
+        metrics.deliverDurationNs = values[v++];
+        metrics.retryDelayStartTimestampNs = values[v++];
+        metrics.retryDelayEndTimestampNs = values[v++];
+        metrics.retryDelayDurationNs = values[v++];
+        metrics.serviceCallDurationNs = values[v++];
+        metrics.responseStatus = (int) values[v++];
+        metrics.requestType = (int) values[v++];
+        metrics.connectionId = values[v++];
+        metrics.requestPtr = values[v++];
+        metrics.threadId = values[v++];
+        metrics.streamId = (int) values[v++];
+        metrics.errorCode = (int) values[v++];
+        metrics.retryAttempt = (int) values[v];
+
+        int s = stringOffset;
+        metrics.requestId = strings[s++];
+        metrics.extendedRequestId = strings[s++];
+        metrics.operationName = strings[s++];
+        metrics.requestPathQuery = strings[s++];
+        metrics.hostAddress = strings[s++];
+        metrics.ipAddress = strings[s];
+        return metrics;
+    }
 }
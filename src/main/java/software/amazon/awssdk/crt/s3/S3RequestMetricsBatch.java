@@ -0,0 +1,121 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Telemetry of several requests, delivered in one call to
+ * {@link S3MetaRequestResponseHandler#onTelemetryBatch} when the meta request was created with
+ * {@link S3MetaRequestOptions#withTelemetryBatchSize}.
+ * <p>
+ * The batch holds the records as arrays of primitives, as native code filled them. Commonly used values can be read
+ * with the primitive getters without creating any object; {@link #get} builds the S3RequestMetrics of a record the
+ * first time it is asked for.
+ */
+public final class S3RequestMetricsBatch {
+
+    /* Record layout shared with s3_client.c */
+    static final int LONGS_PER_RECORD = 32;
+    static final int STRINGS_PER_RECORD = 6;
+    private static final int TOTAL_DURATION_INDEX = 4;
+    private static final int RESPONSE_STATUS_INDEX = 24;
+    private static final int ERROR_CODE_INDEX = 30;
+    private static final int RETRY_ATTEMPT_INDEX = 31;
+
+    private final long[] values;
+    private final byte[] stringData;
+    private final int size;
+    private String[] strings;
+    private S3RequestMetrics[] metrics;
+
+    S3RequestMetricsBatch(long[] values, byte[] stringData, int size) {
+        this.values = values;
+        this.stringData = stringData;
+        this.size = size;
+    }
+
+    /**
+     * @return number of requests in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index index of the request, from 0 to size() - 1
+     * @return metrics of the request
+     */
+    public synchronized S3RequestMetrics get(int index) {
+        checkIndex(index);
+        if (metrics == null) {
+            metrics = new S3RequestMetrics[size];
+            strings = decodeStrings();
+        }
+        if (metrics[index] == null) {
+            metrics[index] = S3RequestMetrics.fromRecord(values, index * LONGS_PER_RECORD, strings,
+                    index * STRINGS_PER_RECORD);
+        }
+        return metrics[index];
+    }
+
+    /**
+     * @param index index of the request
+     * @return HTTP status of the response, or -1 if there was none
+     */
+    public int getResponseStatus(int index) {
+        return (int) value(index, RESPONSE_STATUS_INDEX);
+    }
+
+    /**
+     * @param index index of the request
+     * @return CRT error code of the request, 0 on success
+     */
+    public int getErrorCode(int index) {
+        return (int) value(index, ERROR_CODE_INDEX);
+    }
+
+    /**
+     * @param index index of the request
+     * @return retry attempt of the request, 0 for the first attempt
+     */
+    public int getRetryAttempt(int index) {
+        return (int) value(index, RETRY_ATTEMPT_INDEX);
+    }
+
+    /**
+     * @param index index of the request
+     * @return duration of the request attempt, in nanoseconds
+     */
+    public long getTotalDurationNs(int index) {
+        return value(index, TOTAL_DURATION_INDEX);
+    }
+
+    private long value(int index, int field) {
+        checkIndex(index);
+        return values[index * LONGS_PER_RECORD + field];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("S3RequestMetricsBatch: index " + index + " out of " + size + ".");
+        }
+    }
+
+    /* Strings are stored one after the other, each as a big-endian 32-bit length (-1 for null) and its UTF-8 bytes */
+    private String[] decodeStrings() {
+        String[] decoded = new String[size * STRINGS_PER_RECORD];
+        ByteBuffer buffer = ByteBuffer.wrap(stringData);
+        for (int i = 0; i < decoded.length; i++) {
+            int length = buffer.getInt();
+            if (length >= 0) {
+                decoded[i] = new String(stringData, buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            }
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A chunk of response body data held in native memory, delivered through
+ * {@link S3MetaRequestResponseHandler#onResponseBody(S3ResponseBodyLease)} when the meta request was
+ * created with {@link S3MetaRequestOptions#withDirectResponseBody} set true.
+ * <p>
+ * By default, the lease is only valid until onResponseBody returns. Call {@link #retain} from within
+ * the callback to keep the data afterwards, for example to hand it to another thread.
+ * A retained lease MUST be handed back with {@link #release} once the data is no longer needed.
+ * Retained bytes count against {@link S3ClientOptions#withMemoryLimitInBytes} until then, and the memory of a lease
+ * dropped without being released is only freed, with a warning, after its buffers are garbage collected.
+ * <p>
+ * If the client was created with {@link S3ClientOptions#withReadBackpressureEnabled} set true,
+ * the bytes held by a retained lease stay counted against the meta request's flow-control window:
+ * the value returned from onResponseBody is ignored for a retained lease, and the window is
+ * incremented by {@link #getLength} when the lease is released.
+ */
+public class S3ResponseBodyLease implements AutoCloseable {
+
+    private final S3MetaRequest metaRequest;
+    private final boolean readBackpressureEnabled;
+    private final S3RetainedBodyMemory retainedMemory;
+    private final long objectRangeStart;
+    private final long objectRangeEnd;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    /* Writable buffer over the native memory, only touched by native code */
+    private ByteBuffer nativeBuffer;
+    /* Read-only view of nativeBuffer given to the user */
+    private ByteBuffer body;
+    private boolean inCallback = true;
+    private boolean retained = false;
+    /* Frees the native copy of a retained lease */
+    private S3RetainedBodyMemory.Retained retainedCopy;
+
+    S3ResponseBodyLease(S3MetaRequest metaRequest, boolean readBackpressureEnabled,
+            S3RetainedBodyMemory retainedMemory, ByteBuffer nativeBuffer, long objectRangeStart, long objectRangeEnd) {
+        this.metaRequest = metaRequest;
+        this.readBackpressureEnabled = readBackpressureEnabled;
+        this.retainedMemory = retainedMemory;
+        this.nativeBuffer = nativeBuffer;
+        this.body = nativeBuffer.asReadOnlyBuffer();
+        this.objectRangeStart = objectRangeStart;
+        this.objectRangeEnd = objectRangeEnd;
+    }
+
+    /**
+     * @return read-only direct ByteBuffer with the body data of this chunk
+     * @throws IllegalStateException if the lease has expired or has been released
+     */
+    public synchronized ByteBuffer getBody() {
+        if (body == null) {
+            throw new IllegalStateException("S3ResponseBodyLease is no longer valid.");
+        }
+        return body;
+    }
+
+    /**
+     * @return the byte index of the object that the first byte of this chunk refers to
+     */
+    public long getObjectRangeStart() {
+        return objectRangeStart;
+    }
+
+    /**
+     * @return the past-the-end byte index of the object for this chunk
+     */
+    public long getObjectRangeEnd() {
+        return objectRangeEnd;
+    }
+
+    /**
+     * @return the number of body bytes in this chunk
+     */
+    public long getLength() {
+        return objectRangeEnd - objectRangeStart;
+    }
+
+    /**
+     * Keep the body data valid after onResponseBody returns.
+     * The data is copied out of the part buffer into native memory newly allocated for this lease,
+     * it never passes through the Java heap. This memory is not pooled, and it counts against
+     * {@link S3ClientOptions#withMemoryLimitInBytes} until the lease is released.
+     * Any ByteBuffer previously obtained from {@link #getBody} must be re-fetched after this call.
+     *
+     * @return this
+     * @throws IllegalStateException if not called from within onResponseBody, if the lease was released, or if
+     *         the bytes retained by the client's leases would exceed its memory limit
+     */
+    public synchronized S3ResponseBodyLease retain() {
+        if (!inCallback || body == null) {
+            throw new IllegalStateException("S3ResponseBodyLease can only be retained from within onResponseBody.");
+        }
+        if (retained) {
+            return this;
+        }
+        long bytes = nativeBuffer.capacity();
+        retainedMemory.reserve(bytes);
+        long[] address = new long[1];
+        ByteBuffer retainedBuffer;
+        try {
+            retainedBuffer = s3ResponseBodyLeaseRetain(nativeBuffer, address);
+        } catch (RuntimeException | Error ex) {
+            retainedMemory.unreserve(bytes);
+            throw ex;
+        }
+        retainedCopy = retainedMemory.track(retainedBuffer, address[0], bytes);
+        retainedBuffer.position(body.position());
+        retainedBuffer.limit(body.limit());
+        nativeBuffer = retainedBuffer;
+        body = retainedBuffer.asReadOnlyBuffer();
+        retained = true;
+        return this;
+    }
+
+    /**
+     * @return true if {@link #retain} was called on this lease
+     */
+    public synchronized boolean isRetained() {
+        return retained;
+    }
+
+    /**
+     * Hand the body data back. The lease and any ByteBuffer obtained from it must not be used afterwards.
+     * It is safe to call this more than once, and from any thread.
+     */
+    public void release() {
+        if (!released.compareAndSet(false, true)) {
+            return;
+        }
+        S3RetainedBodyMemory.Retained toFree;
+        synchronized (this) {
+            toFree = retainedCopy;
+            retainedCopy = null;
+            nativeBuffer = null;
+            body = null;
+        }
+        if (toFree == null) {
+            /* Still viewing the part buffer, which is owned by the meta request */
+            return;
+        }
+        toFree.free();
+        if (readBackpressureEnabled) {
+            /* A no-op if the meta request was closed meanwhile, so release() is safe from any thread */
+            metaRequest.incrementReadWindowIfOpen(getLength());
+        }
+    }
+
+    @Override
+    public void close() {
+        release();
+    }
+
+    /**
+     * Called by the native adapter once onResponseBody returns.
+     * Expires the lease unless it was retained.
+     */
+    synchronized void onCallbackComplete() {
+        inCallback = false;
+        if (!retained) {
+            released.set(true);
+            nativeBuffer = null;
+            body = null;
+        }
+    }
+
+    /*******************************************************************************
+     * native methods
+     ******************************************************************************/
+    private static native ByteBuffer s3ResponseBodyLeaseRetain(ByteBuffer partBuffer, long[] addressOut);
+
+    static native void s3ResponseBodyLeaseRelease(long address);
+}
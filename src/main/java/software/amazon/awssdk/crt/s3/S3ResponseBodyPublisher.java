@@ -0,0 +1,312 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import software.amazon.awssdk.crt.CrtRuntimeException;
+import software.amazon.awssdk.crt.Log;
+
+/**
+ * Response handler that publishes the body of a meta request to a single subscriber,
+ * with the subscriber's demand driving the meta request's flow-control window.
+ * <p>
+ * The {@link Subscriber} and {@link Subscription} interfaces have the same shape and contract as
+ * java.util.concurrent.Flow (which is not available on Java 8), so they can be bridged directly
+ * to Flow or Reactive Streams.
+ * <p>
+ * When the client was created with {@link S3ClientOptions#withReadBackpressureEnabled} set true,
+ * the window is only incremented as body data is handed to the subscriber, and data is only handed
+ * to the subscriber when it has requested more. A subscriber that stops requesting therefore stops
+ * the download once {@link S3ClientOptions#withInitialReadWindowSize} bytes are buffered.
+ * If backpressure is disabled, data is buffered until the subscriber requests it.
+ * <p>
+ * Usage:
+ * <pre>
+ * S3ResponseBodyPublisher publisher = new S3ResponseBodyPublisher();
+ * S3MetaRequest metaRequest = client.makeMetaRequest(options.withResponseHandler(publisher));
+ * publisher.attach(metaRequest);
+ * publisher.subscribe(subscriber);
+ * </pre>
+ * If the meta request was created with {@link S3MetaRequestOptions#withDirectResponseBody} set true,
+ * each ByteBuffer passed to {@link Subscriber#onNext} views native memory and is only valid until
+ * onNext returns.
+ */
+public class S3ResponseBodyPublisher extends DelegatingResponseHandler {
+
+    /**
+     * Receives the response body of the meta request.
+     * Methods are invoked serially, never concurrently.
+     */
+    public interface Subscriber {
+        void onSubscribe(Subscription subscription);
+
+        void onNext(ByteBuffer item);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+    }
+
+    /**
+     * Link between the publisher and its subscriber, used to signal demand or cancel.
+     */
+    public interface Subscription {
+        /**
+         * Request up to n more body buffers. n must be positive, otherwise the subscriber is failed
+         * with an IllegalArgumentException and the meta request is cancelled.
+         * @param n number of additional buffers the subscriber is ready to receive
+         */
+        void request(long n);
+
+        /**
+         * Stop receiving body buffers, and cancel the meta request.
+         */
+        void cancel();
+    }
+
+    /* Contains ByteBuffer or retained S3ResponseBodyLease */
+    private final Queue<Object> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Subscriber> subscriber = new AtomicReference<>();
+    private final AtomicLong demand = new AtomicLong(0);
+    private final AtomicInteger drainWip = new AtomicInteger(0);
+    private volatile boolean finished = false;
+    private volatile Throwable error = null;
+    private volatile boolean cancelled = false;
+    /* Set when the subscriber cancelled or broke the subscription contract */
+    private volatile boolean metaRequestCancelled = false;
+    /* Only accessed from within the drain loop */
+    private boolean terminated = false;
+
+    private final Object windowLock = new Object();
+    private S3MetaRequest metaRequest;
+    private long unattachedWindowIncrement = 0;
+
+    private final Subscription subscription = new Subscription() {
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                /* Reactive Streams rule 3.9: fail the subscriber, and stop the download it no longer drives */
+                error = new IllegalArgumentException("S3ResponseBodyPublisher: request(n) must be positive.");
+                cancelMetaRequest();
+                drain();
+                return;
+            }
+            long current;
+            long updated;
+            do {
+                current = demand.get();
+                if (current == Long.MAX_VALUE) {
+                    return;
+                }
+                updated = current + n;
+                if (updated < 0) {
+                    updated = Long.MAX_VALUE;
+                }
+            } while (!demand.compareAndSet(current, updated));
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            cancelMetaRequest();
+            drain();
+        }
+    };
+
+    public S3ResponseBodyPublisher() {
+        this(null);
+    }
+
+    /**
+     * @param delegate optional handler that receives every callback except the response body
+     */
+    public S3ResponseBodyPublisher(S3MetaRequestResponseHandler delegate) {
+        super(delegate);
+    }
+
+    /**
+     * Subscribe to the response body. Only one subscriber is supported, any further subscriber
+     * is immediately failed with an IllegalStateException.
+     *
+     * @param newSubscriber subscriber for the response body
+     */
+    public void subscribe(Subscriber newSubscriber) {
+        if (newSubscriber == null) {
+            throw new NullPointerException("S3ResponseBodyPublisher: subscriber must not be null.");
+        }
+        if (!subscriber.compareAndSet(null, newSubscriber)) {
+            newSubscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            newSubscriber.onError(new IllegalStateException("S3ResponseBodyPublisher only supports one subscriber."));
+            return;
+        }
+        newSubscriber.onSubscribe(subscription);
+        drain();
+    }
+
+    /**
+     * Attach the meta request created with this publisher as its response handler,
+     * so that subscriber demand can increment its flow-control window.
+     *
+     * @param metaRequest the meta request returned by {@link S3Client#makeMetaRequest}
+     */
+    public void attach(S3MetaRequest metaRequest) {
+        long increment;
+        synchronized (windowLock) {
+            if (this.metaRequest != null) {
+                throw new IllegalStateException("S3ResponseBodyPublisher is already attached to a meta request.");
+            }
+            this.metaRequest = metaRequest;
+            increment = unattachedWindowIncrement;
+            unattachedWindowIncrement = 0;
+        }
+        if (metaRequestCancelled) {
+            metaRequest.cancel();
+        } else if (increment > 0 && metaRequest.isReadBackpressureEnabled()) {
+            metaRequest.incrementReadWindowIfOpen(increment);
+        }
+    }
+
+    @Override
+    public int onResponseBody(ByteBuffer bodyBytesIn, long objectRangeStart, long objectRangeEnd) {
+        pending.add(bodyBytesIn);
+        drain();
+        /* The window is incremented as the subscriber consumes the data */
+        return 0;
+    }
+
+    @Override
+    public int onResponseBody(S3ResponseBodyLease lease) {
+        /* The lease increments the window when it is released after delivery */
+        pending.add(lease.retain());
+        drain();
+        return 0;
+    }
+
+    @Override
+    public void onFinished(S3FinishedResponseContext context) {
+        if (context.getErrorCode() != 0) {
+            error = context.getCause() != null ? context.getCause() : new CrtRuntimeException(context.getErrorCode());
+        }
+        finished = true;
+        drain();
+        super.onFinished(context);
+    }
+
+    private void drain() {
+        if (drainWip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Subscriber s = subscriber.get();
+            if (terminated || cancelled) {
+                clearPending();
+            } else if (s != null) {
+                drainTo(s);
+            }
+            missed = drainWip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void drainTo(Subscriber s) {
+        Throwable failure = error;
+        if (failure != null) {
+            terminated = true;
+            clearPending();
+            s.onError(failure);
+            return;
+        }
+
+        while (demand.get() > 0 && !cancelled) {
+            Object item = pending.poll();
+            if (item == null) {
+                break;
+            }
+            if (demand.get() != Long.MAX_VALUE) {
+                demand.decrementAndGet();
+            }
+            try {
+                deliver(s, item);
+            } catch (RuntimeException ex) {
+                Log.log(Log.LogLevel.Error, Log.LogSubject.JavaCrtS3,
+                        "S3ResponseBodyPublisher: subscriber threw from onNext, cancelling meta request: " + ex);
+                terminated = true;
+                subscription.cancel();
+                return;
+            }
+        }
+
+        if (!cancelled && finished && pending.isEmpty()) {
+            terminated = true;
+            s.onComplete();
+        }
+    }
+
+    private void deliver(Subscriber s, Object item) {
+        if (item instanceof S3ResponseBodyLease) {
+            S3ResponseBodyLease lease = (S3ResponseBodyLease) item;
+            try {
+                s.onNext(lease.getBody());
+            } finally {
+                lease.release();
+            }
+        } else {
+            ByteBuffer buffer = (ByteBuffer) item;
+            long length = buffer.remaining();
+            s.onNext(buffer);
+            creditReadWindow(length);
+        }
+    }
+
+    private void clearPending() {
+        Object item;
+        while ((item = pending.poll()) != null) {
+            if (item instanceof S3ResponseBodyLease) {
+                ((S3ResponseBodyLease) item).release();
+            }
+        }
+    }
+
+    private void cancelMetaRequest() {
+        metaRequestCancelled = true;
+        S3MetaRequest toCancel;
+        synchronized (windowLock) {
+            toCancel = metaRequest;
+        }
+        if (toCancel != null && !toCancel.isNull()) {
+            toCancel.cancel();
+        }
+    }
+
+    private void creditReadWindow(long bytes) {
+        S3MetaRequest target;
+        synchronized (windowLock) {
+            if (metaRequest == null) {
+                unattachedWindowIncrement += bytes;
+                return;
+            }
+            target = metaRequest;
+        }
+        /* Without backpressure there is no window to open, skip the JNI call for every chunk */
+        if (target.isReadBackpressureEnabled()) {
+            target.incrementReadWindowIfOpen(bytes);
+        }
+    }
+}
@@ -0,0 +1,504 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import software.amazon.awssdk.crt.Log;
+import software.amazon.awssdk.crt.http.HttpHeader;
+import software.amazon.awssdk.crt.http.HttpRequest;
+
+/**
+ * A file that holds the latest {@link ResumeToken} of one large upload or download, so that the transfer can be
+ * resumed after the process crashes, instead of restarted from zero.
+ * <p>
+ * Start the transfer with {@link #makeMetaRequest} instead of {@link S3Client#makeMetaRequest}. While the meta
+ * request runs, the journal is checkpointed as parts complete, at most once per checkpoint interval, and once more
+ * with the token from {@link S3MetaRequestResponseHandler#onErrorResumeToken} if it fails. Each checkpoint is
+ * written to a temporary file, synced, and atomically renamed over the journal, so a crash leaves either the
+ * previous or the new checkpoint, never a torn one. The journal is deleted when the transfer succeeds.
+ * After a crash, calling {@link #makeMetaRequest} again with the same journal and the same options resumes:
+ * <ul>
+ * <li>PUT_OBJECT: the multipart upload recorded in the journal is continued, and the parts it already has are
+ * skipped. The upload's part size is chosen by the journal, so that it is known when the upload is resumed.</li>
+ * <li>GET_OBJECT: the download continues with a ranged GET from the last byte delivered in order, and only if the
+ * object's ETag is unchanged. A response file is written from that position onward. If the object was replaced
+ * since, the resumed GET fails with 412 Precondition Failed and the journal is deleted, so the next attempt
+ * downloads the new object from the start. Only downloads of whole objects are supported.</li>
+ * </ul>
+ * Checkpoints are written from the client's callback threads. The checkpoint interval bounds both the work
+ * redone after a crash and the time spent syncing the journal.
+ */
+public class S3ResumeJournal {
+
+    /**
+     * Default minimum time between two checkpoints, in milliseconds.
+     */
+    public static final long DEFAULT_CHECKPOINT_INTERVAL_MS = 1000;
+
+    /* Part size of journaled uploads, unless set in the meta request options */
+    static final long DEFAULT_UPLOAD_PART_SIZE = 8L * 1024 * 1024;
+    private static final long MAX_UPLOAD_PARTS = 10000;
+    private static final long PART_SIZE_ALIGNMENT = 1024 * 1024;
+
+    private final Path path;
+    private final long checkpointIntervalNs;
+
+    /**
+     * @param path file that holds the journal. It is created by the first checkpoint.
+     */
+    public S3ResumeJournal(Path path) {
+        this(path, DEFAULT_CHECKPOINT_INTERVAL_MS);
+    }
+
+    /**
+     * @param path file that holds the journal. It is created by the first checkpoint.
+     * @param checkpointIntervalMs minimum time between two checkpoints while a transfer runs, in milliseconds
+     */
+    public S3ResumeJournal(Path path, long checkpointIntervalMs) {
+        if (path == null) {
+            throw new IllegalArgumentException("S3ResumeJournal: path must not be null.");
+        }
+        if (checkpointIntervalMs < 0) {
+            throw new IllegalArgumentException("S3ResumeJournal: checkpoint interval must not be negative.");
+        }
+        this.path = path;
+        this.checkpointIntervalNs = checkpointIntervalMs * 1_000_000L;
+    }
+
+    /**
+     * @return file that holds the journal
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Read the last checkpoint.
+     *
+     * @return the last token checkpointed, or null if there is none
+     * @throws IOException if the journal exists but cannot be read
+     * @throws IllegalArgumentException if the journal exists but does not hold a valid token
+     */
+    public ResumeToken load() throws IOException {
+        byte[] data;
+        try {
+            data = Files.readAllBytes(path);
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+        return ResumeToken.fromBytes(data);
+    }
+
+    /**
+     * Durably replace the journal's content with a token.
+     *
+     * @param token token to persist
+     * @throws IOException if the journal cannot be written
+     */
+    public synchronized void checkpoint(ResumeToken token) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = ByteBuffer.wrap(token.toBytes());
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Delete the journal, if it exists.
+     *
+     * @throws IOException if the journal cannot be deleted
+     */
+    public synchronized void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * Start a PUT_OBJECT or GET_OBJECT meta request that checkpoints into this journal, resuming from the last
+     * checkpoint if there is one. The meta request is made from a copy of the options, on which the part size of
+     * an upload, and the resume token, Range header and response file position of a resumed transfer are set.
+     * The caller's options are left untouched, so the same instance can be passed again to resume.
+     *
+     * @param client client that runs the meta request
+     * @param options options of the transfer. For an upload, the object size must be known from
+     *                the request file or a Content-Length header.
+     * @return the meta request, as returned by {@link S3Client#makeMetaRequest}
+     * @throws IOException if the journal or the request file cannot be read
+     */
+    public S3MetaRequest makeMetaRequest(S3Client client, S3MetaRequestOptions options) throws IOException {
+        if (options.getResponseHandler() == null) {
+            throw new IllegalArgumentException("S3ResumeJournal: options must have a response handler.");
+        }
+        ResumeToken token = load();
+        S3MetaRequestOptions journaled = options.copy();
+        Tracker tracker;
+        if (options.getMetaRequestType() == S3MetaRequestOptions.MetaRequestType.PUT_OBJECT) {
+            tracker = prepareUpload(journaled, token);
+        } else if (options.getMetaRequestType() == S3MetaRequestOptions.MetaRequestType.GET_OBJECT) {
+            tracker = prepareDownload(journaled, token);
+        } else {
+            throw new IllegalArgumentException("S3ResumeJournal: only PUT_OBJECT and GET_OBJECT can be journaled.");
+        }
+        return client.makeMetaRequest(journaled.withResponseHandler(tracker));
+    }
+
+    private Tracker prepareUpload(S3MetaRequestOptions options, ResumeToken token) throws IOException {
+        long contentLength = uploadContentLength(options);
+        long partSize;
+        if (token != null && token.getType() == S3MetaRequestOptions.MetaRequestType.PUT_OBJECT) {
+            partSize = token.getPartSize();
+            options.withResumeToken(token);
+        } else {
+            partSize = uploadPartSize(options.getPartSize(), contentLength);
+            token = null;
+        }
+        options.withPartSize(partSize);
+        long totalNumParts = Math.max(1, (contentLength + partSize - 1) / partSize);
+        return new UploadTracker(options.getResponseHandler(), partSize, totalNumParts, token);
+    }
+
+    private Tracker prepareDownload(S3MetaRequestOptions options, ResumeToken token) throws IOException {
+        HttpRequest request = options.getHttpRequest();
+        for (HttpHeader header : request.getHeaders()) {
+            if (header.getName().equalsIgnoreCase("Range")) {
+                throw new IllegalArgumentException("S3ResumeJournal: only downloads of whole objects can be journaled.");
+            }
+        }
+        /* The partial file must survive a failure, it is what the download resumes into */
+        options.withResponseFileDeleteOnFailure(false);
+
+        long resumeOffset = 0;
+        String etag = null;
+        if (token != null && token.getType() == S3MetaRequestOptions.MetaRequestType.GET_OBJECT
+                && token.getEtag() != null) {
+            /* Tokens from the native client count from the start of the range they were downloading */
+            resumeOffset = token.getObjectRangeStart() + token.getContinuesDownloadedBytes();
+            etag = token.getEtag();
+            Path file = options.getResponseFilePath();
+            if (file != null && (!Files.exists(file) || Files.size(file) < resumeOffset)) {
+                /* The file no longer holds what was downloaded, start over */
+                resumeOffset = 0;
+                etag = null;
+            }
+        }
+        if (resumeOffset > 0) {
+            List<HttpHeader> headers = new ArrayList<>(request.getHeaders());
+            headers.add(new HttpHeader("Range", "bytes=" + resumeOffset + "-"));
+            headers.add(new HttpHeader("If-Match", etag));
+            options.withHttpRequest(new HttpRequest(request.getMethod(), request.getEncodedPath(),
+                    headers.toArray(new HttpHeader[0]), request.getBodyStream()));
+            if (options.getResponseFilePath() != null) {
+                options.withResponseFileOption(S3MetaRequestOptions.ResponseFileOption.WRITE_TO_POSITION)
+                        .withResponseFilePosition(resumeOffset);
+            }
+        }
+        return new DownloadTracker(options.getResponseHandler(), options.getPartSize(), resumeOffset, etag);
+    }
+
+    private static long uploadContentLength(S3MetaRequestOptions options) throws IOException {
+        if (options.getRequestFilePath() != null) {
+            return Files.size(options.getRequestFilePath());
+        }
+        for (HttpHeader header : options.getHttpRequest().getHeaders()) {
+            if (header.getName().equalsIgnoreCase("Content-Length")) {
+                try {
+                    return Long.parseLong(header.getValue().trim());
+                } catch (NumberFormatException ex) {
+                    break;
+                }
+            }
+        }
+        throw new IllegalArgumentException(
+                "S3ResumeJournal: uploads need a request file or a Content-Length header to be journaled.");
+    }
+
+    /*
+     * Pick a part size that already respects the part count limit, so that the native client
+     * does not adjust it and the journal knows the layout of the upload.
+     */
+    static long uploadPartSize(long requestedPartSize, long contentLength) {
+        long partSize = requestedPartSize > 0 ? requestedPartSize : DEFAULT_UPLOAD_PART_SIZE;
+        long minimum = (contentLength + MAX_UPLOAD_PARTS - 1) / MAX_UPLOAD_PARTS;
+        if (partSize < minimum) {
+            partSize = (minimum + PART_SIZE_ALIGNMENT - 1) / PART_SIZE_ALIGNMENT * PART_SIZE_ALIGNMENT;
+        }
+        return partSize;
+    }
+
+    /* Query parameter of an UploadPart request, or null */
+    static String queryParameter(String pathQuery, String name) {
+        if (pathQuery == null) {
+            return null;
+        }
+        int queryStart = pathQuery.indexOf('?');
+        if (queryStart < 0) {
+            return null;
+        }
+        for (String parameter : pathQuery.substring(queryStart + 1).split("&")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0 && parameter.substring(0, equals).equals(name)) {
+                try {
+                    return URLDecoder.decode(parameter.substring(equals + 1), "UTF-8");
+                } catch (UnsupportedEncodingException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Forwards every callback to the user's handler, and checkpoints the journal as the transfer progresses.
+     */
+    private abstract class Tracker implements S3MetaRequestResponseHandler {
+        private final S3MetaRequestResponseHandler delegate;
+        private long lastCheckpointNs = System.nanoTime();
+        private boolean done;
+
+        Tracker(S3MetaRequestResponseHandler delegate) {
+            this.delegate = delegate;
+        }
+
+        /* Token for the current state, or null if there is nothing worth persisting yet */
+        abstract ResumeToken currentToken();
+
+        /* Token to persist when the transfer fails */
+        ResumeToken failureToken(ResumeToken nativeToken) {
+            return nativeToken != null ? nativeToken : currentToken();
+        }
+
+        /* Whether a failure means the checkpoints can never be resumed, so the journal must go */
+        boolean invalidatesJournal(S3FinishedResponseContext context) {
+            return false;
+        }
+
+        void maybeCheckpoint() {
+            long now = System.nanoTime();
+            if (done || now - lastCheckpointNs < checkpointIntervalNs) {
+                return;
+            }
+            ResumeToken token = currentToken();
+            if (token != null) {
+                lastCheckpointNs = now;
+                tryCheckpoint(token);
+            }
+        }
+
+        void tryCheckpoint(ResumeToken token) {
+            try {
+                checkpoint(token);
+            } catch (IOException ex) {
+                Log.log(Log.LogLevel.Error, Log.LogSubject.JavaCrtS3,
+                        "S3ResumeJournal failed to checkpoint " + path + ": " + ex);
+            }
+        }
+
+        @Override
+        public void onResponseHeaders(final int statusCode, final HttpHeader[] headers) {
+            delegate.onResponseHeaders(statusCode, headers);
+        }
+
+        @Override
+        public int onResponseBody(ByteBuffer bodyBytesIn, long objectRangeStart, long objectRangeEnd) {
+            return delegate.onResponseBody(bodyBytesIn, objectRangeStart, objectRangeEnd);
+        }
+
+        @Override
+        public int onResponseBody(S3ResponseBodyLease lease) {
+            return delegate.onResponseBody(lease);
+        }
+
+        @Override
+        public void onProgress(final S3MetaRequestProgress progress) {
+            delegate.onProgress(progress);
+        }
+
+        @Override
+        public void onTelemetry(S3RequestMetrics requestMetrics) {
+            delegate.onTelemetry(requestMetrics);
+        }
+
+        @Override
+        public void onTelemetryBatch(S3RequestMetricsBatch batch) {
+            delegate.onTelemetryBatch(batch);
+        }
+
+        @Override
+        public void onErrorResumeToken(final int errorCode, final ResumeToken resumeToken) {
+            synchronized (this) {
+                /* Nothing to persist once the journal has been deleted */
+                if (!done) {
+                    done = true;
+                    ResumeToken token = failureToken(resumeToken);
+                    if (token != null) {
+                        tryCheckpoint(token);
+                    }
+                }
+            }
+            delegate.onErrorResumeToken(errorCode, resumeToken);
+        }
+
+        @Override
+        public void onFinished(S3FinishedResponseContext context) {
+            if (context.getErrorCode() == 0 || invalidatesJournal(context)) {
+                synchronized (this) {
+                    done = true;
+                    try {
+                        delete();
+                    } catch (IOException ex) {
+                        Log.log(Log.LogLevel.Warn, Log.LogSubject.JavaCrtS3,
+                                "S3ResumeJournal failed to delete " + path + ": " + ex);
+                    }
+                }
+            }
+            delegate.onFinished(context);
+        }
+    }
+
+    private class UploadTracker extends Tracker {
+        private final long partSize;
+        private final long totalNumParts;
+        private final BitSet completedParts = new BitSet();
+        private final long previouslyCompletedParts;
+        private String uploadId;
+
+        UploadTracker(S3MetaRequestResponseHandler delegate, long partSize, long totalNumParts, ResumeToken resumed) {
+            super(delegate);
+            this.partSize = partSize;
+            this.totalNumParts = totalNumParts;
+            /* Parts completed before a resume are skipped, and never show up in the telemetry */
+            this.previouslyCompletedParts = resumed != null ? resumed.getNumPartsCompleted() : 0;
+            if (resumed != null) {
+                uploadId = resumed.getUploadId();
+            }
+        }
+
+        @Override
+        public void onTelemetry(S3RequestMetrics requestMetrics) {
+            recordPart(requestMetrics);
+            super.onTelemetry(requestMetrics);
+        }
+
+        @Override
+        public void onTelemetryBatch(S3RequestMetricsBatch batch) {
+            for (int i = 0; i < batch.size(); i++) {
+                if (batch.getErrorCode(i) == 0) {
+                    recordPart(batch.get(i));
+                }
+            }
+            super.onTelemetryBatch(batch);
+        }
+
+        private void recordPart(S3RequestMetrics requestMetrics) {
+            if (requestMetrics.getErrorCode() == 0 && "UploadPart".equals(requestMetrics.getOperationName())) {
+                String pathQuery = requestMetrics.requestPathQuery();
+                String partNumber = queryParameter(pathQuery, "partNumber");
+                String partUploadId = queryParameter(pathQuery, "uploadId");
+                if (partNumber != null && partUploadId != null) {
+                    synchronized (this) {
+                        uploadId = partUploadId;
+                        completedParts.set(Integer.parseInt(partNumber));
+                        maybeCheckpoint();
+                    }
+                }
+            }
+        }
+
+        @Override
+        ResumeToken currentToken() {
+            if (uploadId == null) {
+                return null;
+            }
+            return new ResumeToken.PutResumeTokenBuilder()
+                    .withPartSize(partSize)
+                    .withTotalNumParts(totalNumParts)
+                    .withNumPartsCompleted(Math.min(totalNumParts,
+                            previouslyCompletedParts + completedParts.cardinality()))
+                    .withUploadId(uploadId)
+                    .build();
+        }
+    }
+
+    private class DownloadTracker extends Tracker {
+        private final long partSize;
+        private final long resumeOffset;
+        private String etag;
+        private long objectSize;
+        private long downloadedBytes;
+
+        DownloadTracker(S3MetaRequestResponseHandler delegate, long partSize, long resumeOffset, String etag) {
+            super(delegate);
+            this.partSize = partSize;
+            this.resumeOffset = resumeOffset;
+            this.etag = etag;
+        }
+
+        @Override
+        public void onResponseHeaders(final int statusCode, final HttpHeader[] headers) {
+            synchronized (this) {
+                for (HttpHeader header : headers) {
+                    if (etag == null && header.getName().equalsIgnoreCase("ETag")) {
+                        etag = header.getValue();
+                    }
+                }
+            }
+            super.onResponseHeaders(statusCode, headers);
+        }
+
+        @Override
+        public void onProgress(final S3MetaRequestProgress progress) {
+            synchronized (this) {
+                /* GET progress follows in-order delivery, so the bytes reported so far are contiguous */
+                downloadedBytes += progress.getBytesTransferred();
+                objectSize = resumeOffset + progress.getContentLength();
+                maybeCheckpoint();
+            }
+            super.onProgress(progress);
+        }
+
+        /* The ETag checked by If-Match no longer matches: the object was replaced, so resuming cannot succeed */
+        @Override
+        boolean invalidatesJournal(S3FinishedResponseContext context) {
+            return context.getResponseStatus() == 412;
+        }
+
+        /* Prefer the binding's own token, whose offsets match the layout of the response file */
+        @Override
+        ResumeToken failureToken(ResumeToken nativeToken) {
+            ResumeToken token = currentToken();
+            return token != null ? token : nativeToken;
+        }
+
+        @Override
+        ResumeToken currentToken() {
+            if (etag == null || objectSize == 0) {
+                return null;
+            }
+            return ResumeToken.newDownloadToken(partSize, etag, objectSize, resumeOffset + downloadedBytes);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import software.amazon.awssdk.crt.Log;
+
+/**
+ * Native memory held by the retained {@link S3ResponseBodyLease}s of one client.
+ * <p>
+ * Retained bytes count against the client's memory limit, on top of the part buffers the native client
+ * accounts for itself, so retaining without releasing cannot grow memory use without bound.
+ * The memory of a lease that was dropped without being released is freed once the garbage collector finds
+ * its body buffer, and every buffer obtained from it, unreachable. That is a backstop, not a substitute for
+ * {@link S3ResponseBodyLease#release}: until the buffer is collected, its bytes keep counting against the limit.
+ */
+final class S3RetainedBodyMemory {
+
+    private static final ReferenceQueue<ByteBuffer> droppedBuffers = new ReferenceQueue<>();
+    /* Keeps the references reachable until their memory has been freed */
+    private static final Set<Retained> outstanding = ConcurrentHashMap.newKeySet();
+
+    private final long limit;
+    private final AtomicLong retainedBytes = new AtomicLong(0);
+
+    /**
+     * @param limit most bytes retained at once
+     */
+    S3RetainedBodyMemory(long limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Account for bytes about to be retained.
+     *
+     * @param bytes size of the copy
+     * @throws IllegalStateException if they would take the retained bytes over the limit
+     */
+    void reserve(long bytes) {
+        freeDropped();
+        while (true) {
+            long current = retainedBytes.get();
+            if (current + bytes > limit) {
+                throw new IllegalStateException("S3ResponseBodyLease: retaining " + bytes + " more bytes would exceed"
+                        + " the client's memory limit of " + limit + " bytes; release retained leases first.");
+            }
+            if (retainedBytes.compareAndSet(current, current + bytes)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Give back bytes that were reserved but not retained after all.
+     */
+    void unreserve(long bytes) {
+        retainedBytes.addAndGet(-bytes);
+    }
+
+    /**
+     * Track the copy made for reserved bytes, until it is freed.
+     *
+     * @param buffer the buffer over the copy, from which every buffer given to the user is derived
+     * @param address address of the copy
+     * @param bytes size of the copy, as reserved
+     * @return handle that frees the copy
+     */
+    Retained track(ByteBuffer buffer, long address, long bytes) {
+        Retained retained = new Retained(this, buffer, address, bytes);
+        outstanding.add(retained);
+        return retained;
+    }
+
+    /**
+     * @return bytes currently retained
+     */
+    long getRetainedBytes() {
+        return retainedBytes.get();
+    }
+
+    private static void freeDropped() {
+        Retained dropped;
+        while ((dropped = (Retained) droppedBuffers.poll()) != null) {
+            if (dropped.free()) {
+                Log.log(Log.LogLevel.Warn, Log.LogSubject.JavaCrtS3, "S3ResponseBodyLease: a retained lease of "
+                        + dropped.bytes + " bytes was never released, its memory was freed after garbage collection.");
+            }
+        }
+    }
+
+    /**
+     * Native copy of a retained lease. It does not keep the buffer over the copy reachable.
+     */
+    static final class Retained extends PhantomReference<ByteBuffer> {
+        private final S3RetainedBodyMemory owner;
+        private final long address;
+        private final long bytes;
+        private final AtomicBoolean freed = new AtomicBoolean(false);
+
+        private Retained(S3RetainedBodyMemory owner, ByteBuffer buffer, long address, long bytes) {
+            super(buffer, droppedBuffers);
+            this.owner = owner;
+            this.address = address;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Free the copy. Buffers over it must not be used afterwards.
+         *
+         * @return false if it was already freed
+         */
+        boolean free() {
+            if (!freed.compareAndSet(false, true)) {
+                return false;
+            }
+            clear();
+            outstanding.remove(this);
+            S3ResponseBodyLease.s3ResponseBodyLeaseRelease(address);
+            owner.unreserve(bytes);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Read-only {@link SeekableByteChannel} over an S3 object.
+ * <p>
+ * The object is read in fixed-size blocks, each fetched with its own ranged GET_OBJECT meta request.
+ * Blocks are kept in a small LRU cache, so the many small reads a columnar reader issues against a footer
+ * or a column chunk cost one request per block rather than one per read.
+ * <p>
+ * The channel watches the access pattern: while each read starts where the previous one ended,
+ * it prefetches an increasing number of blocks ahead of the read position in parallel (up to
+ * {@link S3SeekableByteChannelOptions#withMaxReadAheadBlocks}). A read anywhere else is treated as
+ * random access and only fetches the blocks it touches.
+ * <p>
+ * If the client has an {@link S3BlockCache} and the ETag of the object is known, blocks are looked up
+ * in the cache first and blocks fetched from S3 are added to it, so other channels over the same
+ * object version are served locally. The cache's block size then replaces the channel's.
+ * <p>
+ * The channel is safe for use by multiple threads, reads are serialized. The S3Client must stay open
+ * until the channel is closed.
+ */
+public class S3SeekableByteChannel implements SeekableByteChannel {
+
+    private final S3Client client;
+    private final String host;
+    private final String key;
+    private final String eTag;
+    private final long size;
+    private final int blockSize;
+    private final int maxReadAheadBlocks;
+    private final int maxCachedBlocks;
+    private final S3BlockCache blockCache;
+    private final Map<Long, S3ObjectFetcher.Fetch<ByteBuffer>> blocks;
+
+    private long position = 0;
+    private long lastReadEnd = -1;
+    private int readAheadBlocks = 0;
+    private boolean open = true;
+
+    private S3SeekableByteChannel(S3Client client, S3SeekableByteChannelOptions options, long size, String eTag) {
+        this.client = client;
+        this.host = options.getHost();
+        this.key = options.getKey();
+        this.eTag = eTag;
+        this.size = size;
+        /* The shared cache can only be used for objects whose version is known */
+        this.blockCache = eTag != null ? client.getBlockCache() : null;
+        this.blockSize = blockCache != null ? blockCache.getBlockSize() : options.getBlockSize();
+        this.maxReadAheadBlocks = options.getMaxReadAheadBlocks();
+        this.maxCachedBlocks = options.getMaxCachedBlocks();
+        this.blocks = new LinkedHashMap<Long, S3ObjectFetcher.Fetch<ByteBuffer>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, S3ObjectFetcher.Fetch<ByteBuffer>> eldest) {
+                if (size() > maxCachedBlocks) {
+                    eldest.getValue().cancel();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Open a channel over an object. Sends a HeadObject request first, unless the object size is set in the options.
+     *
+     * @param client client that runs the requests
+     * @param options options for the channel
+     * @return the channel, positioned at the start of the object
+     * @throws IOException if the HeadObject request fails
+     */
+    public static S3SeekableByteChannel open(S3Client client, S3SeekableByteChannelOptions options)
+            throws IOException {
+        if (client == null) {
+            throw new IllegalArgumentException("S3SeekableByteChannel: client must not be null.");
+        }
+        if (options == null || options.getHost() == null || options.getKey() == null) {
+            throw new IllegalArgumentException("S3SeekableByteChannel: options with a host and key are required.");
+        }
+        if (options.getBlockSize() <= 0 || options.getMaxReadAheadBlocks() < 0
+                || options.getMaxCachedBlocks() <= options.getMaxReadAheadBlocks()) {
+            throw new IllegalArgumentException(
+                    "S3SeekableByteChannel: blockSize must be positive and maxCachedBlocks larger than maxReadAheadBlocks.");
+        }
+        if (options.getObjectSize() != null) {
+            return new S3SeekableByteChannel(client, options, options.getObjectSize(), options.getETag());
+        }
+        S3ObjectFetcher.ObjectMetadata metadata = await(S3ObjectFetcher.head(client, options.getHost(),
+                options.getKey()));
+        if (metadata.contentLength < 0) {
+            throw new IOException("S3SeekableByteChannel: HeadObject response has no Content-Length.");
+        }
+        String eTag = options.getETag() != null ? options.getETag() : metadata.eTag;
+        return new S3SeekableByteChannel(client, options, metadata.contentLength, eTag);
+    }
+
+    @Override
+    public synchronized int read(ByteBuffer dst) throws IOException {
+        ensureOpen();
+        if (position >= size) {
+            return -1;
+        }
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        long readEnd = Math.min(size, position + dst.remaining());
+        updateReadAhead();
+
+        /* Request every block of this read and of the read-ahead before waiting on any of them */
+        long firstBlock = position / blockSize;
+        long lastBlock = (readEnd - 1) / blockSize;
+        long lastObjectBlock = (size - 1) / blockSize;
+        long prefetchEnd = Math.min(lastObjectBlock, lastBlock + readAheadBlocks);
+        /* Never request so much that the cache evicts blocks this read still needs */
+        prefetchEnd = Math.min(prefetchEnd, firstBlock + maxCachedBlocks - 1);
+        for (long block = firstBlock; block <= prefetchEnd; block++) {
+            fetch(block);
+        }
+
+        int total = 0;
+        while (position < readEnd) {
+            long block = position / blockSize;
+            ByteBuffer data = await(fetch(block)).duplicate();
+            int offset = (int) (position - block * blockSize);
+            int length = (int) Math.min(data.capacity() - offset, readEnd - position);
+            data.limit(offset + length);
+            data.position(offset);
+            dst.put(data);
+            position += length;
+            total += length;
+        }
+        lastReadEnd = position;
+        return total;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public synchronized long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public synchronized SeekableByteChannel position(long newPosition) throws IOException {
+        ensureOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("S3SeekableByteChannel: position must not be negative.");
+        }
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public synchronized long size() throws IOException {
+        ensureOpen();
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public synchronized boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Close the channel and cancel any block fetches still in flight.
+     */
+    @Override
+    public synchronized void close() {
+        if (!open) {
+            return;
+        }
+        open = false;
+        Iterator<S3ObjectFetcher.Fetch<ByteBuffer>> it = blocks.values().iterator();
+        while (it.hasNext()) {
+            it.next().cancel();
+            it.remove();
+        }
+    }
+
+    /**
+     * Grow the read-ahead while reads are sequential: start at one block once a read continues
+     * where the previous one ended, double on every further sequential read, reset on a seek.
+     */
+    private void updateReadAhead() {
+        if (position == lastReadEnd) {
+            readAheadBlocks = Math.min(maxReadAheadBlocks, Math.max(1, readAheadBlocks * 2));
+        } else {
+            readAheadBlocks = 0;
+        }
+    }
+
+    private S3ObjectFetcher.Fetch<ByteBuffer> fetch(long block) {
+        S3ObjectFetcher.Fetch<ByteBuffer> fetch = blocks.get(block);
+        if (fetch == null || fetch.future.isCompletedExceptionally()) {
+            fetch = fetchBlock(block);
+            blocks.put(block, fetch);
+        }
+        return fetch;
+    }
+
+    private S3ObjectFetcher.Fetch<ByteBuffer> fetchBlock(long block) {
+        S3BlockCache.BlockKey cacheKey = null;
+        if (blockCache != null) {
+            cacheKey = new S3BlockCache.BlockKey(host, key, eTag, block);
+            final S3BlockCache.PinnedBlock cached = blockCache.get(cacheKey);
+            if (cached != null) {
+                /* The block stays pinned while this channel holds it, it is unpinned when the fetch is dropped */
+                return S3ObjectFetcher.completed(cached.data, () -> blockCache.unpin(cached));
+            }
+        }
+        long start = block * blockSize;
+        int length = (int) Math.min(blockSize, size - start);
+        S3ObjectFetcher.Fetch<ByteBuffer> fetch = S3ObjectFetcher.getRange(client, host, key, eTag, start, length);
+        if (cacheKey != null) {
+            final S3BlockCache.BlockKey blockKey = cacheKey;
+            fetch.future.thenAccept(data -> blockCache.put(blockKey, data));
+        }
+        return fetch;
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    private static <T> T await(S3ObjectFetcher.Fetch<T> fetch) throws IOException {
+        try {
+            return fetch.future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("S3SeekableByteChannel: interrupted while waiting for S3.");
+        } catch (ExecutionException ex) {
+            throw new IOException("S3SeekableByteChannel: request failed: " + ex.getCause(), ex.getCause());
+        }
+    }
+}
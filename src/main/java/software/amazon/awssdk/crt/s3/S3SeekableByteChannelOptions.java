@@ -0,0 +1,135 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+/**
+ * Options for {@link S3SeekableByteChannel}.
+ */
+public class S3SeekableByteChannelOptions {
+
+    private String host;
+    private String key;
+    private Long objectSize;
+    private String eTag;
+    private int blockSize = 1024 * 1024;
+    private int maxReadAheadBlocks = 16;
+    private int maxCachedBlocks = 64;
+
+    public S3SeekableByteChannelOptions() {
+    }
+
+    /**
+     * Host of the bucket, e.g. "example-bucket.s3.us-west-2.amazonaws.com". Required.
+     *
+     * @param host value to send in the Host header of every request
+     * @return this
+     */
+    public S3SeekableByteChannelOptions withHost(String host) {
+        this.host = host;
+        return this;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * Key of the object to read, not URI-encoded. Required.
+     *
+     * @param key object key
+     * @return this
+     */
+    public S3SeekableByteChannelOptions withKey(String key) {
+        this.key = key;
+        return this;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Size of the object, if already known, for example from a listing.
+     * If not set, the channel sends a HeadObject request when it is opened.
+     *
+     * @param objectSize size of the object in bytes, or null if unknown
+     * @return this
+     */
+    public S3SeekableByteChannelOptions withObjectSize(Long objectSize) {
+        this.objectSize = objectSize;
+        return this;
+    }
+
+    public Long getObjectSize() {
+        return objectSize;
+    }
+
+    /**
+     * ETag of the object, if already known. Every ranged GET is sent with If-Match on the ETag,
+     * so reads fail instead of mixing data if the object is overwritten while the channel is open.
+     * If not set and the object size is not set either, it is taken from the HeadObject response.
+     *
+     * @param eTag ETag of the object, or null
+     * @return this
+     */
+    public S3SeekableByteChannelOptions withETag(String eTag) {
+        this.eTag = eTag;
+        return this;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Size of the ranges fetched from S3. Default is 1 MiB.
+     * Each read fetches the blocks it touches, so smaller blocks waste less on small random reads,
+     * while larger blocks have less per-request overhead on sequential reads.
+     *
+     * @param blockSize bytes per ranged GET
+     * @return this
+     */
+    public S3SeekableByteChannelOptions withBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+        return this;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Most blocks fetched ahead of the read position once reads are sequential. Default is 16.
+     * The read-ahead starts at one block and doubles with every sequential read up to this limit,
+     * and drops back to none when the reader seeks elsewhere.
+     *
+     * @param maxReadAheadBlocks maximum number of blocks to prefetch
+     * @return this
+     */
+    public S3SeekableByteChannelOptions withMaxReadAheadBlocks(int maxReadAheadBlocks) {
+        this.maxReadAheadBlocks = maxReadAheadBlocks;
+        return this;
+    }
+
+    public int getMaxReadAheadBlocks() {
+        return maxReadAheadBlocks;
+    }
+
+    /**
+     * Most blocks kept in memory, fetched or in flight. Default is 64.
+     * Least recently used blocks are dropped first. Must be larger than maxReadAheadBlocks.
+     *
+     * @param maxCachedBlocks maximum number of blocks held by the channel
+     * @return this
+     */
+    public S3SeekableByteChannelOptions withMaxCachedBlocks(int maxCachedBlocks) {
+        this.maxCachedBlocks = maxCachedBlocks;
+        return this;
+    }
+
+    public int getMaxCachedBlocks() {
+        return maxCachedBlocks;
+    }
+}
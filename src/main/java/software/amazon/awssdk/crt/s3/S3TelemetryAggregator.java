@@ -0,0 +1,202 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client-wide aggregation of {@link S3RequestMetrics}, broken down by operation name and endpoint IP address.
+ * <p>
+ * Attach it with {@link S3ClientOptions#withTelemetryAggregator}, and every request made by the client's meta
+ * requests is recorded, before the metrics are passed on to the meta request's own
+ * {@link S3MetaRequestResponseHandler#onTelemetry}. For each (operation, IP) pair, it keeps
+ * lock-free histograms of time to first byte, time to last byte, signing duration and backoff delay,
+ * plus request, retry and error counts. Recording never blocks, and a {@link #snapshot} is cheap enough
+ * to take periodically for dashboards.
+ * <p>
+ * One aggregator may be shared by several clients.
+ */
+public class S3TelemetryAggregator {
+
+    /**
+     * Operation name or IP address used when a request's metrics do not include one.
+     */
+    public static final String UNKNOWN = "unknown";
+
+    private final ConcurrentMap<Key, Stats> stats = new ConcurrentHashMap<>();
+
+    public S3TelemetryAggregator() {
+    }
+
+    /**
+     * Record the metrics of one request.
+     *
+     * @param metrics metrics of a request, as passed to onTelemetry
+     */
+    public void record(S3RequestMetrics metrics) {
+        Key key = new Key(orUnknown(metrics.getOperationName()), orUnknown(metrics.getIpAddress()));
+        Stats entry = stats.get(key);
+        if (entry == null) {
+            entry = stats.computeIfAbsent(key, k -> new Stats());
+        }
+        entry.requestCount.increment();
+        if (metrics.getRetryCount() > 0) {
+            entry.retryCount.add(metrics.getRetryCount());
+        }
+        if (metrics.getErrorCode() != 0) {
+            entry.errorCount.increment();
+        }
+        entry.timeToFirstByte.record(metrics.timeToFirstByteDurationNs());
+        entry.timeToLastByte.record(metrics.timeToLastByteDurationNs());
+        entry.signingDuration.record(metrics.signingDurationNsOrUnavailable());
+        entry.backoffDelay.record(metrics.backoffDelayDurationNsOrUnavailable());
+    }
+
+    /**
+     * @return a copy of the current statistics, one entry per (operation, IP) pair seen so far
+     */
+    public List<Snapshot> snapshot() {
+        List<Snapshot> snapshots = new ArrayList<>(stats.size());
+        for (Map.Entry<Key, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            snapshots.add(new Snapshot(entry.getKey().operationName, entry.getKey().ipAddress,
+                    s.requestCount.sum(), s.retryCount.sum(), s.errorCount.sum(),
+                    s.timeToFirstByte.snapshot(), s.timeToLastByte.snapshot(),
+                    s.signingDuration.snapshot(), s.backoffDelay.snapshot()));
+        }
+        return snapshots;
+    }
+
+    /**
+     * Forget everything recorded so far.
+     */
+    public void reset() {
+        stats.clear();
+    }
+
+    private static String orUnknown(String value) {
+        return value == null || value.isEmpty() ? UNKNOWN : value;
+    }
+
+    private static final class Key {
+        final String operationName;
+        final String ipAddress;
+
+        Key(String operationName, String ipAddress) {
+            this.operationName = operationName;
+            this.ipAddress = ipAddress;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return operationName.equals(other.operationName) && ipAddress.equals(other.ipAddress);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(operationName, ipAddress);
+        }
+    }
+
+    private static final class Stats {
+        final LongAdder requestCount = new LongAdder();
+        final LongAdder retryCount = new LongAdder();
+        final LongAdder errorCount = new LongAdder();
+        final S3LatencyHistogram timeToFirstByte = new S3LatencyHistogram();
+        final S3LatencyHistogram timeToLastByte = new S3LatencyHistogram();
+        final S3LatencyHistogram signingDuration = new S3LatencyHistogram();
+        final S3LatencyHistogram backoffDelay = new S3LatencyHistogram();
+    }
+
+    /**
+     * Statistics of the requests of one operation to one endpoint IP address.
+     */
+    public static class Snapshot {
+        private final String operationName;
+        private final String ipAddress;
+        private final long requestCount;
+        private final long retryCount;
+        private final long errorCount;
+        private final S3LatencyHistogram.Snapshot timeToFirstByte;
+        private final S3LatencyHistogram.Snapshot timeToLastByte;
+        private final S3LatencyHistogram.Snapshot signingDuration;
+        private final S3LatencyHistogram.Snapshot backoffDelay;
+
+        Snapshot(String operationName, String ipAddress, long requestCount, long retryCount, long errorCount,
+                S3LatencyHistogram.Snapshot timeToFirstByte, S3LatencyHistogram.Snapshot timeToLastByte,
+                S3LatencyHistogram.Snapshot signingDuration, S3LatencyHistogram.Snapshot backoffDelay) {
+            this.operationName = operationName;
+            this.ipAddress = ipAddress;
+            this.requestCount = requestCount;
+            this.retryCount = retryCount;
+            this.errorCount = errorCount;
+            this.timeToFirstByte = timeToFirstByte;
+            this.timeToLastByte = timeToLastByte;
+            this.signingDuration = signingDuration;
+            this.backoffDelay = backoffDelay;
+        }
+
+        public String getOperationName() {
+            return operationName;
+        }
+
+        public String getIpAddress() {
+            return ipAddress;
+        }
+
+        /**
+         * @return number of requests recorded
+         */
+        public long getRequestCount() {
+            return requestCount;
+        }
+
+        /**
+         * @return sum of the retry attempts of the requests recorded
+         */
+        public long getRetryCount() {
+            return retryCount;
+        }
+
+        /**
+         * @return number of requests that failed
+         */
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        /**
+         * @return time from sending a request to receiving the first byte of its response
+         */
+        public S3LatencyHistogram.Snapshot getTimeToFirstByte() {
+            return timeToFirstByte;
+        }
+
+        /**
+         * @return time from sending a request to receiving the last byte of its response
+         */
+        public S3LatencyHistogram.Snapshot getTimeToLastByte() {
+            return timeToLastByte;
+        }
+
+        public S3LatencyHistogram.Snapshot getSigningDuration() {
+            return signingDuration;
+        }
+
+        public S3LatencyHistogram.Snapshot getBackoffDelay() {
+            return backoffDelay;
+        }
+    }
+}
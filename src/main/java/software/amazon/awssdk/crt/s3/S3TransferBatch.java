@@ -0,0 +1,306 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import software.amazon.awssdk.crt.CrtRuntimeException;
+import software.amazon.awssdk.crt.http.HttpHeader;
+
+/**
+ * Runs many meta requests on one S3Client under a shared concurrency limit and in-flight byte budget,
+ * and aggregates their progress and results.
+ * <p>
+ * Items are started largest first (longest-processing-time-first scheduling), so large objects start early
+ * and small objects fill in around them. When the largest waiting item does not fit the byte budget,
+ * the smallest waiting item is tried instead, so a few large objects cannot stall many small ones.
+ */
+class S3TransferBatch {
+
+    /**
+     * One meta request of the batch.
+     */
+    static final class Item {
+        final String key;
+        final long contentLength;
+        final long reservationBytes;
+        final S3MetaRequestOptions options;
+
+        /**
+         * @param key name the item is reported under in the result
+         * @param contentLength bytes this item transfers, 0 if unknown
+         * @param reservationBytes bytes of the batch budget this item holds while in flight
+         * @param options meta request options. Its response handler (may be null) receives every callback
+         */
+        Item(String key, long contentLength, long reservationBytes, S3MetaRequestOptions options) {
+            this.key = key;
+            this.contentLength = contentLength;
+            this.reservationBytes = reservationBytes;
+            this.options = options;
+        }
+    }
+
+    private final Function<S3MetaRequestOptions, S3MetaRequest> metaRequestFactory;
+    private final int maxConcurrentTransfers;
+    private final long maxInFlightBytes;
+    private final Consumer<S3MetaRequestProgress> progressListener;
+
+    private final CompletableFuture<S3TransferBatchResult> future = new CompletableFuture<>();
+    private final S3TransferBatchResult result = new S3TransferBatchResult();
+    private final AtomicLong totalContentLength = new AtomicLong(0);
+    private final Deque<Item> pending = new ArrayDeque<>();
+    private final Set<Transfer> active = new HashSet<>();
+    private long inFlightBytes = 0;
+    private boolean completed = false;
+    private long startNanos;
+
+    S3TransferBatch(S3Client client, int maxConcurrentTransfers, long maxInFlightBytes,
+            Consumer<S3MetaRequestProgress> progressListener) {
+        this(client::makeMetaRequest, maxConcurrentTransfers, maxInFlightBytes, progressListener);
+    }
+
+    /**
+     * @param metaRequestFactory makes the meta request of an item, {@link S3Client#makeMetaRequest} outside of tests
+     */
+    S3TransferBatch(Function<S3MetaRequestOptions, S3MetaRequest> metaRequestFactory, int maxConcurrentTransfers,
+            long maxInFlightBytes, Consumer<S3MetaRequestProgress> progressListener) {
+        if (maxConcurrentTransfers <= 0) {
+            throw new IllegalArgumentException("S3TransferBatch: maxConcurrentTransfers must be positive.");
+        }
+        if (maxInFlightBytes <= 0) {
+            throw new IllegalArgumentException("S3TransferBatch: maxInFlightBytes must be positive.");
+        }
+        this.metaRequestFactory = metaRequestFactory;
+        this.maxConcurrentTransfers = maxConcurrentTransfers;
+        this.maxInFlightBytes = maxInFlightBytes;
+        this.progressListener = progressListener;
+        /* Cancelling the returned future cancels everything still running */
+        this.future.whenComplete((r, ex) -> {
+            if (future.isCancelled()) {
+                cancel();
+            }
+        });
+    }
+
+    /**
+     * Start the batch.
+     *
+     * @param items meta requests to run
+     * @return future completed once every item has finished, successfully or not
+     */
+    CompletableFuture<S3TransferBatchResult> run(List<Item> items) {
+        List<Item> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingLong((Item item) -> item.contentLength).reversed());
+        long total = 0;
+        synchronized (this) {
+            for (Item item : sorted) {
+                pending.add(item);
+                total += item.contentLength;
+            }
+        }
+        totalContentLength.set(total);
+        startNanos = System.nanoTime();
+        schedule();
+        return future;
+    }
+
+    private void schedule() {
+        while (true) {
+            Transfer next;
+            synchronized (this) {
+                if (completed) {
+                    return;
+                }
+                if (pending.isEmpty()) {
+                    if (active.isEmpty()) {
+                        completed = true;
+                    }
+                    break;
+                }
+                if (active.size() >= maxConcurrentTransfers) {
+                    break;
+                }
+                Item item;
+                if (fits(pending.peekFirst())) {
+                    item = pending.pollFirst();
+                } else if (fits(pending.peekLast())) {
+                    item = pending.pollLast();
+                } else {
+                    break;
+                }
+                /* Counted as active right away, so concurrent schedule() calls see the limits */
+                next = new Transfer(item);
+                active.add(next);
+                inFlightBytes += item.reservationBytes;
+            }
+            start(next);
+        }
+        boolean finishedNow;
+        synchronized (this) {
+            finishedNow = completed && active.isEmpty();
+        }
+        if (finishedNow) {
+            result.setElapsedNanos(System.nanoTime() - startNanos);
+            future.complete(result);
+        }
+    }
+
+    /* An item always fits when nothing else is in flight, so oversized items still make progress */
+    private boolean fits(Item item) {
+        return active.isEmpty() || inFlightBytes + item.reservationBytes <= maxInFlightBytes;
+    }
+
+    private void start(Transfer transfer) {
+        /* A copy, so the caller's options keep their own handler while the transfer forwards to it */
+        S3MetaRequestOptions options = transfer.item.options.copy().withResponseHandler(transfer);
+        try {
+            transfer.setMetaRequest(metaRequestFactory.apply(options));
+        } catch (RuntimeException ex) {
+            /* Called from within schedule(), which goes on to the next item itself */
+            transfer.finish(ex, false);
+        }
+    }
+
+    private void cancel() {
+        List<Transfer> toCancel;
+        synchronized (this) {
+            pending.clear();
+            toCancel = new ArrayList<>(active);
+        }
+        for (Transfer transfer : toCancel) {
+            transfer.cancel();
+        }
+    }
+
+    /**
+     * Tracks one in-flight item, and forwards its callbacks to the item's own handler.
+     */
+    private final class Transfer implements S3MetaRequestResponseHandler {
+        private final Item item;
+        private final S3MetaRequestResponseHandler userHandler;
+        private S3MetaRequest metaRequest;
+        private boolean finished = false;
+
+        Transfer(Item item) {
+            this.item = item;
+            this.userHandler = item.options.getResponseHandler();
+        }
+
+        synchronized void setMetaRequest(S3MetaRequest metaRequest) {
+            if (finished) {
+                metaRequest.close();
+            } else {
+                this.metaRequest = metaRequest;
+            }
+        }
+
+        synchronized void cancel() {
+            if (metaRequest != null && !metaRequest.isNull()) {
+                metaRequest.cancel();
+            }
+        }
+
+        void finish(Throwable failure, boolean reschedule) {
+            S3MetaRequest toClose;
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+                finished = true;
+                toClose = metaRequest;
+                metaRequest = null;
+            }
+            if (toClose != null) {
+                toClose.close();
+            }
+            if (failure == null) {
+                result.recordSuccess(item.key);
+            } else {
+                result.recordFailure(item.key, failure);
+            }
+            synchronized (S3TransferBatch.this) {
+                active.remove(this);
+                inFlightBytes -= item.reservationBytes;
+            }
+            if (reschedule) {
+                schedule();
+            }
+        }
+
+        @Override
+        public void onResponseHeaders(final int statusCode, final HttpHeader[] headers) {
+            if (userHandler != null) {
+                userHandler.onResponseHeaders(statusCode, headers);
+            }
+        }
+
+        @Override
+        public int onResponseBody(ByteBuffer bodyBytesIn, long objectRangeStart, long objectRangeEnd) {
+            return userHandler != null ? userHandler.onResponseBody(bodyBytesIn, objectRangeStart, objectRangeEnd) : 0;
+        }
+
+        @Override
+        public int onResponseBody(S3ResponseBodyLease lease) {
+            return userHandler != null ? userHandler.onResponseBody(lease) : 0;
+        }
+
+        @Override
+        public void onFinished(S3FinishedResponseContext context) {
+            if (userHandler != null) {
+                userHandler.onFinished(context);
+            }
+            Throwable failure = null;
+            if (context.getErrorCode() != 0) {
+                failure = context.getCause() != null ? context.getCause() : new CrtRuntimeException(context.getErrorCode());
+            }
+            finish(failure, true);
+        }
+
+        @Override
+        public void onProgress(final S3MetaRequestProgress progress) {
+            result.addBytesTransferred(progress.getBytesTransferred());
+            if (progressListener != null) {
+                progressListener.accept(new S3MetaRequestProgress()
+                        .withBytesTransferred(progress.getBytesTransferred())
+                        .withContentLength(totalContentLength.get()));
+            }
+            if (userHandler != null) {
+                userHandler.onProgress(progress);
+            }
+        }
+
+        @Override
+        public void onTelemetry(S3RequestMetrics requestMetrics) {
+            if (userHandler != null) {
+                userHandler.onTelemetry(requestMetrics);
+            }
+        }
+
+        @Override
+        public void onTelemetryBatch(S3RequestMetricsBatch batch) {
+            if (userHandler != null) {
+                userHandler.onTelemetryBatch(batch);
+            }
+        }
+
+        @Override
+        public void onErrorResumeToken(final int errorCode, final ResumeToken resumeToken) {
+            if (userHandler != null) {
+                userHandler.onErrorResumeToken(errorCode, resumeToken);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.s3;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outcome of a batch of meta requests, such as a directory upload or download.
+ * A batch always runs every item to completion, so one failed object does not stop the rest.
+ */
+public class S3TransferBatchResult {
+
+    private final AtomicInteger succeededCount = new AtomicInteger(0);
+    private final AtomicLong bytesTransferred = new AtomicLong(0);
+    private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+    private volatile long elapsedNanos = 0;
+
+    S3TransferBatchResult() {
+    }
+
+    void recordSuccess(String key) {
+        succeededCount.incrementAndGet();
+    }
+
+    void recordFailure(String key, Throwable cause) {
+        failures.put(key, cause);
+    }
+
+    void addBytesTransferred(long bytes) {
+        bytesTransferred.addAndGet(bytes);
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return number of objects transferred successfully
+     */
+    public int getSucceededCount() {
+        return succeededCount.get();
+    }
+
+    /**
+     * @return total bytes transferred across all objects, as reported by progress updates
+     */
+    public long getBytesTransferred() {
+        return bytesTransferred.get();
+    }
+
+    /**
+     * @return time from the start of the batch until its last item finished, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return aggregate throughput of the batch, in bytes per second, or 0 if it took no measurable time
+     */
+    public double getBytesPerSecond() {
+        long elapsed = elapsedNanos;
+        return elapsed > 0 ? bytesTransferred.get() * 1_000_000_000.0 / elapsed : 0;
+    }
+
+    /**
+     * @return the cause of each failed transfer, keyed by object key
+     */
+    public Map<String, Throwable> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return true if every object was transferred successfully
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+}
@@ -35,6 +35,19 @@ jint crc32_common(
     return res_signed;
 }
 
+/* Cursor over [offset, offset + length) of a direct ByteBuffer, clamped to its capacity. Empty if not direct */
+static struct aws_byte_cursor s_direct_buffer_cursor(JNIEnv *env, jobject buffer, jint offset, jint length) {
+    struct aws_byte_cursor cursor;
+    AWS_ZERO_STRUCT(cursor);
+    uint8_t *address = (*env)->GetDirectBufferAddress(env, buffer);
+    jlong capacity = (*env)->GetDirectBufferCapacity(env, buffer);
+    if (address == NULL || capacity < 0 || offset < 0 || length < 0 || offset > capacity) {
+        return cursor;
+    }
+    cursor = aws_byte_cursor_from_array(address + offset, aws_min_size((size_t)length, (size_t)(capacity - offset)));
+    return cursor;
+}
+
 JNIEXPORT jint JNICALL Java_software_amazon_awssdk_crt_checksums_CRC32_crc32(
     JNIEnv *env,
     jclass jni_class,
@@ -83,3 +96,45 @@ JNIEXPORT jlong JNICALL Java_software_amazon_awssdk_crt_checksums_CRC64NVME_crc6
     aws_jni_byte_cursor_from_jbyteArray_critical_release(env, input, c_byte_array);
     return res_signed;
 }
+
+JNIEXPORT jint JNICALL Java_software_amazon_awssdk_crt_checksums_CRC32_crc32Direct(
+    JNIEnv *env,
+    jclass jni_class,
+    jobject input,
+    jint previous,
+    jint offset,
+    jint length) {
+    (void)jni_class;
+    aws_cache_jni_ids(env);
+
+    struct aws_byte_cursor cursor = s_direct_buffer_cursor(env, input, offset, length);
+    return (jint)aws_checksums_crc32_ex(cursor.ptr, cursor.len, previous);
+}
+
+JNIEXPORT jint JNICALL Java_software_amazon_awssdk_crt_checksums_CRC32C_crc32cDirect(
+    JNIEnv *env,
+    jclass jni_class,
+    jobject input,
+    jint previous,
+    jint offset,
+    jint length) {
+    (void)jni_class;
+    aws_cache_jni_ids(env);
+
+    struct aws_byte_cursor cursor = s_direct_buffer_cursor(env, input, offset, length);
+    return (jint)aws_checksums_crc32c_ex(cursor.ptr, cursor.len, previous);
+}
+
+JNIEXPORT jlong JNICALL Java_software_amazon_awssdk_crt_checksums_CRC64NVME_crc64nvmeDirect(
+    JNIEnv *env,
+    jclass jni_class,
+    jobject input,
+    jlong previous,
+    jint offset,
+    jint length) {
+    (void)jni_class;
+    aws_cache_jni_ids(env);
+
+    struct aws_byte_cursor cursor = s_direct_buffer_cursor(env, input, offset, length);
+    return (jlong)aws_checksums_crc64nvme_ex(cursor.ptr, cursor.len, previous);
+}
@@ -8,7 +8,9 @@
 #include "crt.h"
 #include "java_class_ids.h"
 
+#include <aws/common/array_list.h>
 #include <aws/common/byte_order.h>
+#include <aws/common/math.h>
 #include <aws/http/http.h>
 #include <aws/http/request_response.h>
 #include <aws/io/stream.h>
@@ -24,8 +26,135 @@ struct aws_http_request_body_stream_impl {
     jobject http_request_body_stream;
     bool body_done;
     bool is_valid;
+
+    /*
+     * When the Java stream prefers large fills, reads with less room than the fill size are served from
+     * this staging buffer, which is refilled in a single upcall. staging_direct_buffer is a global ref to
+     * a Direct ByteBuffer over staging, created once and reused for every fill.
+     */
+    struct aws_byte_buf staging;
+    struct aws_byte_cursor staging_unread;
+    jobject staging_direct_buffer;
+    bool java_body_done;
+
+    /*
+     * When the Java stream exposes its body as a list of direct buffers, reads and seeks are served from
+     * them without calling into Java. gather_buffers is a global ref to the array, which keeps the buffers
+     * and the memory behind gather_list alive for the lifetime of the stream.
+     */
+    jobject gather_buffers;
+    struct aws_array_list gather_list; /* struct aws_byte_cursor */
+    uint64_t gather_length;
+    size_t gather_index;
+    size_t gather_offset;
 };
 
+/* Moves the gather read position to an absolute offset in the body */
+static int s_gather_seek(struct aws_http_request_body_stream_impl *impl, uint64_t position) {
+    if (position > impl->gather_length) {
+        return aws_raise_error(AWS_IO_STREAM_INVALID_SEEK_POSITION);
+    }
+
+    impl->gather_index = 0;
+    impl->gather_offset = 0;
+    size_t count = aws_array_list_length(&impl->gather_list);
+    while (impl->gather_index < count) {
+        struct aws_byte_cursor *segment = NULL;
+        aws_array_list_get_at_ptr(&impl->gather_list, (void **)&segment, impl->gather_index);
+        if (position < segment->len) {
+            impl->gather_offset = (size_t)position;
+            break;
+        }
+        position -= segment->len;
+        ++impl->gather_index;
+    }
+    impl->body_done = impl->gather_index == count;
+    return AWS_OP_SUCCESS;
+}
+
+/* Copies as much of the gather list as fits into dest, segment by segment */
+static void s_gather_read(struct aws_http_request_body_stream_impl *impl, struct aws_byte_buf *dest) {
+    size_t count = aws_array_list_length(&impl->gather_list);
+    while (impl->gather_index < count && dest->len < dest->capacity) {
+        struct aws_byte_cursor *segment = NULL;
+        aws_array_list_get_at_ptr(&impl->gather_list, (void **)&segment, impl->gather_index);
+        size_t amt = aws_min_size(segment->len - impl->gather_offset, dest->capacity - dest->len);
+        aws_byte_buf_write(dest, segment->ptr + impl->gather_offset, amt);
+        impl->gather_offset += amt;
+        if (impl->gather_offset == segment->len) {
+            ++impl->gather_index;
+            impl->gather_offset = 0;
+        }
+    }
+    impl->body_done = impl->gather_index == count;
+}
+
+/*
+ * Asks the Java stream for gather buffers and, if it has them, records the address and capacity of each.
+ * Returns AWS_OP_ERR only if Java threw; a stream without gather buffers keeps using sendRequestBody().
+ */
+static int s_init_gather_list(JNIEnv *env, struct aws_http_request_body_stream_impl *impl) {
+    jobjectArray buffers = (jobjectArray)(*env)->CallObjectMethod(
+        env, impl->http_request_body_stream, http_request_body_stream_properties.get_gather_buffers);
+    if (aws_jni_check_and_clear_exception(env)) {
+        return AWS_OP_ERR;
+    }
+    if (buffers == NULL) {
+        return AWS_OP_SUCCESS;
+    }
+
+    int result = AWS_OP_SUCCESS;
+    jsize count = (*env)->GetArrayLength(env, buffers);
+    aws_array_list_init_dynamic(&impl->gather_list, impl->allocator, (size_t)count, sizeof(struct aws_byte_cursor));
+    for (jsize i = 0; i < count; ++i) {
+        jobject buffer = (*env)->GetObjectArrayElement(env, buffers, i);
+        void *address = buffer != NULL ? (*env)->GetDirectBufferAddress(env, buffer) : NULL;
+        jlong capacity = buffer != NULL ? (*env)->GetDirectBufferCapacity(env, buffer) : -1;
+        if (buffer != NULL) {
+            (*env)->DeleteLocalRef(env, buffer);
+        }
+        if (address == NULL || capacity < 0) {
+            /* Not a direct buffer, fall back to sendRequestBody() */
+            aws_array_list_clean_up(&impl->gather_list);
+            goto done;
+        }
+        struct aws_byte_cursor segment = aws_byte_cursor_from_array(address, (size_t)capacity);
+        aws_array_list_push_back(&impl->gather_list, &segment);
+        impl->gather_length += (uint64_t)capacity;
+    }
+
+    impl->gather_buffers = (*env)->NewGlobalRef(env, buffers);
+    if (impl->gather_buffers == NULL) {
+        aws_array_list_clean_up(&impl->gather_list);
+        result = AWS_OP_ERR;
+    }
+
+done:
+    (*env)->DeleteLocalRef(env, buffers);
+    return result;
+}
+
+/*
+ * Upcall sendRequestBody() with a buffer over [dest, dest + capacity).
+ * Returns the number of bytes written by Java in *amt_written, or AWS_OP_ERR if it threw.
+ */
+static int s_call_send_request_body(
+    JNIEnv *env,
+    struct aws_http_request_body_stream_impl *impl,
+    jobject direct_buffer,
+    size_t *amt_written) {
+
+    impl->java_body_done = (*env)->CallBooleanMethod(
+        env, impl->http_request_body_stream, http_request_body_stream_properties.send_outgoing_body, direct_buffer);
+
+    if (aws_jni_check_and_clear_exception(env)) {
+        return aws_raise_error(AWS_ERROR_HTTP_CALLBACK_FAILURE);
+    }
+
+    *amt_written = aws_jni_byte_buffer_get_position(env, direct_buffer);
+    return AWS_OP_SUCCESS;
+}
+
 static int s_aws_input_stream_seek(struct aws_input_stream *stream, int64_t offset, enum aws_stream_seek_basis basis) {
     struct aws_http_request_body_stream_impl *impl =
         AWS_CONTAINER_OF(stream, struct aws_http_request_body_stream_impl, base);
@@ -34,6 +163,15 @@ static int s_aws_input_stream_seek(struct aws_input_stream *stream, int64_t offs
         return aws_raise_error(AWS_ERROR_HTTP_INVALID_BODY_STREAM);
     }
 
+    if (impl->gather_buffers != NULL) {
+        /* Any position can be reached in the gather list, from either end */
+        int64_t base = basis == AWS_SSB_BEGIN ? 0 : (int64_t)impl->gather_length;
+        if (offset < -base) {
+            return aws_raise_error(AWS_IO_STREAM_INVALID_SEEK_POSITION);
+        }
+        return s_gather_seek(impl, (uint64_t)(base + offset));
+    }
+
     int result = AWS_OP_SUCCESS;
     if (impl->http_request_body_stream != NULL) {
         if (basis != AWS_SSB_BEGIN || offset != 0) {
@@ -63,6 +201,8 @@ static int s_aws_input_stream_seek(struct aws_input_stream *stream, int64_t offs
 
     if (result == AWS_OP_SUCCESS) {
         impl->body_done = false;
+        impl->java_body_done = false;
+        impl->staging_unread.len = 0;
     }
 
     return result;
@@ -85,6 +225,11 @@ static int s_aws_input_stream_read(struct aws_input_stream *stream, struct aws_b
         return AWS_OP_SUCCESS;
     }
 
+    if (impl->gather_buffers != NULL) {
+        s_gather_read(impl, dest);
+        return AWS_OP_SUCCESS;
+    }
+
     /********** JNI ENV ACQUIRE **********/
     struct aws_jvm_env_context jvm_env_context = aws_jni_acquire_thread_env(impl->jvm);
     JNIEnv *env = jvm_env_context.env;
@@ -93,22 +238,39 @@ static int s_aws_input_stream_read(struct aws_input_stream *stream, struct aws_b
         return AWS_OP_ERR;
     }
 
+    int result = AWS_OP_SUCCESS;
     size_t out_remaining = dest->capacity - dest->len;
 
-    jobject direct_buffer = aws_jni_direct_byte_buffer_from_raw_ptr(env, dest->buffer + dest->len, out_remaining);
-
-    impl->body_done = (*env)->CallBooleanMethod(
-        env, impl->http_request_body_stream, http_request_body_stream_properties.send_outgoing_body, direct_buffer);
-
-    int result = AWS_OP_SUCCESS;
-    if (aws_jni_check_and_clear_exception(env)) {
-        result = aws_raise_error(AWS_ERROR_HTTP_CALLBACK_FAILURE);
+    if (impl->staging_direct_buffer != NULL && out_remaining < impl->staging.capacity) {
+        /* Small read: refill the staging buffer in one upcall if it is empty, then copy from it */
+        if (impl->staging_unread.len == 0 && !impl->java_body_done) {
+            aws_jni_byte_buffer_set_limit(env, impl->staging_direct_buffer, (jint)impl->staging.capacity);
+            aws_jni_byte_buffer_set_position(env, impl->staging_direct_buffer, 0);
+            size_t amt_staged = 0;
+            result = s_call_send_request_body(env, impl, impl->staging_direct_buffer, &amt_staged);
+            impl->staging_unread = aws_byte_cursor_from_array(impl->staging.buffer, amt_staged);
+        }
+        if (result == AWS_OP_SUCCESS) {
+            struct aws_byte_cursor chunk = aws_byte_cursor_advance(
+                &impl->staging_unread, aws_min_size(out_remaining, impl->staging_unread.len));
+            aws_byte_buf_write_from_whole_cursor(dest, chunk);
+        }
+    } else if (impl->staging_unread.len > 0) {
+        /* Large read, but data is left from an earlier fill: hand that out first, so order is kept */
+        size_t amt = aws_min_size(out_remaining, impl->staging_unread.len);
+        aws_byte_buf_write_from_whole_cursor(dest, aws_byte_cursor_advance(&impl->staging_unread, amt));
     } else {
-        size_t amt_written = aws_jni_byte_buffer_get_position(env, direct_buffer);
-        dest->len += amt_written;
+        jobject direct_buffer = aws_jni_direct_byte_buffer_from_raw_ptr(env, dest->buffer + dest->len, out_remaining);
+        size_t amt_written = 0;
+        result = s_call_send_request_body(env, impl, direct_buffer, &amt_written);
+        if (result == AWS_OP_SUCCESS) {
+            dest->len += amt_written;
+        }
+        (*env)->DeleteLocalRef(env, direct_buffer);
     }
 
-    (*env)->DeleteLocalRef(env, direct_buffer);
+    /* The body is only done once Java has said so and everything it wrote has been handed out */
+    impl->body_done = impl->java_body_done && impl->staging_unread.len == 0;
 
     aws_jni_release_thread_env(impl->jvm, &jvm_env_context);
     /********** JNI ENV RELEASE **********/
@@ -131,6 +293,11 @@ static int s_aws_input_stream_get_length(struct aws_input_stream *stream, int64_
     struct aws_http_request_body_stream_impl *impl =
         AWS_CONTAINER_OF(stream, struct aws_http_request_body_stream_impl, base);
 
+    if (impl->gather_buffers != NULL) {
+        *length = (int64_t)impl->gather_length;
+        return AWS_OP_SUCCESS;
+    }
+
     if (impl->http_request_body_stream != NULL) {
 
         /********** JNI ENV ACQUIRE **********/
@@ -172,9 +339,19 @@ static void s_aws_input_stream_destroy(struct aws_http_request_body_stream_impl
         (*env)->DeleteGlobalRef(env, impl->http_request_body_stream);
     }
 
+    if (impl->staging_direct_buffer != NULL) {
+        (*env)->DeleteGlobalRef(env, impl->staging_direct_buffer);
+    }
+
+    if (impl->gather_buffers != NULL) {
+        (*env)->DeleteGlobalRef(env, impl->gather_buffers);
+        aws_array_list_clean_up(&impl->gather_list);
+    }
+
     aws_jni_release_thread_env(impl->jvm, &jvm_env_context);
     /********** JNI ENV RELEASE **********/
 
+    aws_byte_buf_clean_up(&impl->staging);
     aws_mem_release(impl->allocator, impl);
 }
 
@@ -205,6 +382,29 @@ struct aws_input_stream *aws_input_stream_new_from_java_http_request_body_stream
         if (impl->http_request_body_stream == NULL) {
             goto on_error;
         }
+
+        if (s_init_gather_list(env, impl)) {
+            goto on_error;
+        }
+
+        jint fill_size = (*env)->CallIntMethod(
+            env, http_request_body_stream, http_request_body_stream_properties.get_preferred_fill_size);
+        if (aws_jni_check_and_clear_exception(env)) {
+            goto on_error;
+        }
+        if (fill_size > 0 && impl->gather_buffers == NULL) {
+            aws_byte_buf_init(&impl->staging, allocator, (size_t)fill_size);
+            jobject staging_direct_buffer =
+                aws_jni_direct_byte_buffer_from_raw_ptr(env, impl->staging.buffer, impl->staging.capacity);
+            if (staging_direct_buffer == NULL) {
+                goto on_error;
+            }
+            impl->staging_direct_buffer = (*env)->NewGlobalRef(env, staging_direct_buffer);
+            (*env)->DeleteLocalRef(env, staging_direct_buffer);
+            if (impl->staging_direct_buffer == NULL) {
+                goto on_error;
+            }
+        }
     } else {
         impl->body_done = true;
     }
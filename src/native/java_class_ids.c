@@ -23,6 +23,14 @@ static void s_cache_http_request_body_stream(JNIEnv *env) {
 
     http_request_body_stream_properties.get_length = (*env)->GetMethodID(env, cls, "getLength", "()J");
     AWS_FATAL_ASSERT(http_request_body_stream_properties.get_length);
+
+    http_request_body_stream_properties.get_preferred_fill_size =
+        (*env)->GetMethodID(env, cls, "getPreferredFillSize", "()I");
+    AWS_FATAL_ASSERT(http_request_body_stream_properties.get_preferred_fill_size);
+
+    http_request_body_stream_properties.get_gather_buffers =
+        (*env)->GetMethodID(env, cls, "getGatherBuffers", "()[Ljava/nio/ByteBuffer;");
+    AWS_FATAL_ASSERT(http_request_body_stream_properties.get_gather_buffers);
 }
 
 struct java_aws_signing_config_properties aws_signing_config_properties;
@@ -734,6 +742,10 @@ static void s_cache_s3_meta_request_response_handler_native_adapter_properties(J
         (*env)->GetMethodID(env, cls, "onResponseBody", "([BJJ)I");
     AWS_FATAL_ASSERT(s3_meta_request_response_handler_native_adapter_properties.onResponseBody);
 
+    s3_meta_request_response_handler_native_adapter_properties.onResponseBodyDirect =
+        (*env)->GetMethodID(env, cls, "onResponseBodyDirect", "(Ljava/nio/ByteBuffer;JJ)I");
+    AWS_FATAL_ASSERT(s3_meta_request_response_handler_native_adapter_properties.onResponseBodyDirect);
+
     s3_meta_request_response_handler_native_adapter_properties.onFinished = (*env)->GetMethodID(
         env, cls, "onFinished", "(II[BLjava/lang/String;IZLjava/lang/Throwable;Ljava/nio/ByteBuffer;)V");
     AWS_FATAL_ASSERT(s3_meta_request_response_handler_native_adapter_properties.onFinished);
@@ -749,6 +761,10 @@ static void s_cache_s3_meta_request_response_handler_native_adapter_properties(J
     s3_meta_request_response_handler_native_adapter_properties.onTelemetry =
         (*env)->GetMethodID(env, cls, "onTelemetry", "(Lsoftware/amazon/awssdk/crt/s3/S3RequestMetrics;)V");
 
+    s3_meta_request_response_handler_native_adapter_properties.onTelemetryBatch =
+        (*env)->GetMethodID(env, cls, "onTelemetryBatch", "([J[BI)V");
+    AWS_FATAL_ASSERT(s3_meta_request_response_handler_native_adapter_properties.onTelemetryBatch);
+
     s3_meta_request_response_handler_native_adapter_properties.onErrorResumeToken =
         (*env)->GetMethodID(env, cls, "onErrorResumeToken", "(ILsoftware/amazon/awssdk/crt/s3/ResumeToken;)V");
     AWS_FATAL_ASSERT(s3_meta_request_response_handler_native_adapter_properties.onErrorResumeToken);
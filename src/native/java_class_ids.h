@@ -13,6 +13,8 @@ struct java_http_request_body_stream_properties {
     jmethodID send_outgoing_body;
     jmethodID reset_position;
     jmethodID get_length;
+    jmethodID get_preferred_fill_size;
+    jmethodID get_gather_buffers;
 };
 extern struct java_http_request_body_stream_properties http_request_body_stream_properties;
 
@@ -330,10 +332,12 @@ extern struct java_s3_meta_request_properties s3_meta_request_properties;
 /* S3MetaRequestResponseHandlerNativeAdapter */
 struct java_s3_meta_request_response_handler_native_adapter_properties {
     jmethodID onResponseBody;
+    jmethodID onResponseBodyDirect;
     jmethodID onFinished;
     jmethodID onResponseHeaders;
     jmethodID onProgress;
     jmethodID onTelemetry;
+    jmethodID onTelemetryBatch;
     jmethodID onErrorResumeToken;
 };
 extern struct java_s3_meta_request_response_handler_native_adapter_properties
@@ -8,6 +8,9 @@
 #include "http_request_utils.h"
 #include "java_class_ids.h"
 #include "retry_utils.h"
+#include <aws/common/clock.h>
+#include <aws/common/file.h>
+#include <aws/common/mutex.h>
 #include <aws/common/string.h>
 #include <aws/http/connection.h>
 #include <aws/http/proxy.h>
@@ -21,8 +24,13 @@
 #include <aws/s3/s3express_credentials_provider.h>
 #include <http_proxy_options.h>
 #include <http_proxy_options_environment_variable.h>
+#include <inttypes.h>
 #include <jni.h>
 
+#if !defined(_WIN32)
+#    include <fcntl.h>
+#endif
+
 /* on 32-bit platforms, casting pointers to longs throws a warning we don't need */
 #if UINTPTR_MAX == 0xffffffff
 #    if defined(_MSC_VER)
@@ -50,10 +58,70 @@ struct s3_client_make_meta_request_callback_data {
     struct aws_input_stream *input_stream;
     struct aws_signing_config_data signing_config_data;
     jthrowable java_exception;
+    /* If true, body data is passed to Java as a direct ByteBuffer viewing the native part buffer */
+    bool direct_response_body;
+
+    /* Progress and telemetry coalescing, 0 to deliver every callback on its own */
+    uint64_t progress_interval_ns;
+    uint64_t progress_interval_bytes;
+    size_t telemetry_batch_size;
+
+    /* Protects the pending progress and telemetry below, as callbacks come from several event loop threads */
+    struct aws_mutex coalesce_lock;
+    struct aws_s3_meta_request_progress pending_progress;
+    uint64_t last_progress_ns;
+    /* Pending telemetry records, laid out as S3RequestMetricsBatch reads them */
+    struct aws_byte_buf telemetry_values;
+    struct aws_byte_buf telemetry_strings;
+    size_t telemetry_count;
+    uint64_t telemetry_batch_start_ns;
+};
+
+/* Record layout of S3RequestMetricsBatch: int64 values, then length-prefixed strings */
+enum s3_telemetry_record_value {
+    S3_TELEMETRY_FIRST_ATTEMPT_START_NS,
+    S3_TELEMETRY_LAST_ATTEMPT_END_NS,
+    S3_TELEMETRY_START_NS,
+    S3_TELEMETRY_END_NS,
+    S3_TELEMETRY_TOTAL_DURATION_NS,
+    S3_TELEMETRY_SEND_START_NS,
+    S3_TELEMETRY_SEND_END_NS,
+    S3_TELEMETRY_SENDING_DURATION_NS,
+    S3_TELEMETRY_RECEIVE_START_NS,
+    S3_TELEMETRY_RECEIVE_END_NS,
+    S3_TELEMETRY_RECEIVING_DURATION_NS,
+    S3_TELEMETRY_SIGN_START_NS,
+    S3_TELEMETRY_SIGN_END_NS,
+    S3_TELEMETRY_SIGNING_DURATION_NS,
+    S3_TELEMETRY_MEM_ACQUIRE_START_NS,
+    S3_TELEMETRY_MEM_ACQUIRE_END_NS,
+    S3_TELEMETRY_MEM_ACQUIRE_DURATION_NS,
+    S3_TELEMETRY_DELIVER_START_NS,
+    S3_TELEMETRY_DELIVER_END_NS,
+    S3_TELEMETRY_DELIVER_DURATION_NS,
+    S3_TELEMETRY_RETRY_DELAY_START_NS,
+    S3_TELEMETRY_RETRY_DELAY_END_NS,
+    S3_TELEMETRY_RETRY_DELAY_DURATION_NS,
+    S3_TELEMETRY_SERVICE_CALL_DURATION_NS,
+    S3_TELEMETRY_RESPONSE_STATUS,
+    S3_TELEMETRY_REQUEST_TYPE,
+    S3_TELEMETRY_CONNECTION_ID,
+    S3_TELEMETRY_REQUEST_PTR,
+    S3_TELEMETRY_THREAD_ID,
+    S3_TELEMETRY_STREAM_ID,
+    S3_TELEMETRY_ERROR_CODE,
+    S3_TELEMETRY_RETRY_ATTEMPT,
+    S3_TELEMETRY_RECORD_VALUES,
 };
 
+/* A telemetry batch is delivered once its oldest record is this old, even if it is not full */
+static const uint64_t s_telemetry_batch_max_age_ns = 1000000000;
+
 static void s_on_s3_client_shutdown_complete_callback(void *user_data);
 static void s_on_s3_meta_request_shutdown_complete_callback(void *user_data);
+static void s_flush_coalesced_callbacks(
+    struct aws_s3_meta_request *meta_request,
+    struct s3_client_make_meta_request_callback_data *callback_data);
 
 int aws_s3_tcp_keep_alive_options_from_java(
     JNIEnv *env,
@@ -623,7 +691,13 @@ static int s_on_s3_meta_request_body_callback(
         return AWS_OP_ERR;
     }
 
-    jobject jni_payload = aws_jni_byte_array_from_cursor(env, body);
+    jobject jni_payload = NULL;
+    if (callback_data->direct_response_body) {
+        /* Zero-copy: Java views the part buffer directly, and must not touch it after the callback returns */
+        jni_payload = aws_jni_direct_byte_buffer_from_raw_ptr(env, body->ptr, body->len);
+    } else {
+        jni_payload = aws_jni_byte_array_from_cursor(env, body);
+    }
     if (jni_payload == NULL) {
         /* JVM is out of memory, but native code can still have memory available, handle it and don't crash. */
         aws_jni_check_and_clear_exception(env);
@@ -638,7 +712,9 @@ static int s_on_s3_meta_request_body_callback(
         body_response_result = (*env)->CallIntMethod(
             env,
             callback_data->java_s3_meta_request_response_handler_native_adapter,
-            s3_meta_request_response_handler_native_adapter_properties.onResponseBody,
+            callback_data->direct_response_body
+                ? s3_meta_request_response_handler_native_adapter_properties.onResponseBodyDirect
+                : s3_meta_request_response_handler_native_adapter_properties.onResponseBody,
             jni_payload,
             range_start,
             range_end);
@@ -766,6 +842,8 @@ static void s_on_s3_meta_request_finish_callback(
     struct s3_client_make_meta_request_callback_data *callback_data =
         (struct s3_client_make_meta_request_callback_data *)user_data;
 
+    s_flush_coalesced_callbacks(meta_request, callback_data);
+
     /********** JNI ENV ACQUIRE **********/
     struct aws_jvm_env_context jvm_env_context = aws_jni_acquire_thread_env(callback_data->jvm);
     JNIEnv *env = jvm_env_context.env;
@@ -861,15 +939,10 @@ static void s_on_s3_meta_request_finish_callback(
     /********** JNI ENV RELEASE **********/
 }
 
-static void s_on_s3_meta_request_progress_callback(
+static void s_deliver_progress(
     struct aws_s3_meta_request *meta_request,
-    const struct aws_s3_meta_request_progress *progress,
-    void *user_data) {
-
-    (void)meta_request;
-
-    struct s3_client_make_meta_request_callback_data *callback_data =
-        (struct s3_client_make_meta_request_callback_data *)user_data;
+    struct s3_client_make_meta_request_callback_data *callback_data,
+    const struct aws_s3_meta_request_progress *progress) {
 
     /********** JNI ENV ACQUIRE **********/
     struct aws_jvm_env_context jvm_env_context = aws_jni_acquire_thread_env(callback_data->jvm);
@@ -921,6 +994,280 @@ done:
     /********** JNI ENV RELEASE **********/
 }
 
+static void s_on_s3_meta_request_progress_callback(
+    struct aws_s3_meta_request *meta_request,
+    const struct aws_s3_meta_request_progress *progress,
+    void *user_data) {
+
+    struct s3_client_make_meta_request_callback_data *callback_data =
+        (struct s3_client_make_meta_request_callback_data *)user_data;
+
+    if (callback_data->progress_interval_ns == 0 && callback_data->progress_interval_bytes == 0) {
+        s_deliver_progress(meta_request, callback_data, progress);
+        return;
+    }
+
+    uint64_t now_ns = 0;
+    aws_high_res_clock_get_ticks(&now_ns);
+
+    struct aws_s3_meta_request_progress coalesced;
+    AWS_ZERO_STRUCT(coalesced);
+    bool deliver = false;
+
+    aws_mutex_lock(&callback_data->coalesce_lock);
+    callback_data->pending_progress.bytes_transferred += progress->bytes_transferred;
+    callback_data->pending_progress.content_length = progress->content_length;
+    if ((callback_data->progress_interval_bytes != 0 &&
+         callback_data->pending_progress.bytes_transferred >= callback_data->progress_interval_bytes) ||
+        (callback_data->progress_interval_ns != 0 &&
+         now_ns - callback_data->last_progress_ns >= callback_data->progress_interval_ns)) {
+        coalesced = callback_data->pending_progress;
+        callback_data->pending_progress.bytes_transferred = 0;
+        callback_data->last_progress_ns = now_ns;
+        deliver = true;
+    }
+    aws_mutex_unlock(&callback_data->coalesce_lock);
+
+    if (deliver) {
+        s_deliver_progress(meta_request, callback_data, &coalesced);
+    }
+}
+
+static void s_deliver_telemetry_batch(
+    struct aws_s3_meta_request *meta_request,
+    struct s3_client_make_meta_request_callback_data *callback_data,
+    const struct aws_byte_buf *values,
+    const struct aws_byte_buf *strings,
+    size_t count) {
+
+    /********** JNI ENV ACQUIRE **********/
+    struct aws_jvm_env_context jvm_env_context = aws_jni_acquire_thread_env(callback_data->jvm);
+    JNIEnv *env = jvm_env_context.env;
+    if (env == NULL) {
+        /* If we can't get an environment, then the JVM is probably shutting down.  Don't crash. */
+        return;
+    }
+
+    jlongArray jni_values = (*env)->NewLongArray(env, (jsize)(count * S3_TELEMETRY_RECORD_VALUES));
+    jbyteArray jni_strings = NULL;
+    if (jni_values == NULL) {
+        aws_jni_check_and_clear_exception(env);
+        goto done;
+    }
+    (*env)->SetLongArrayRegion(
+        env, jni_values, 0, (jsize)(count * S3_TELEMETRY_RECORD_VALUES), (const jlong *)values->buffer);
+
+    struct aws_byte_cursor strings_cursor = aws_byte_cursor_from_buf(strings);
+    jni_strings = aws_jni_byte_array_from_cursor(env, &strings_cursor);
+    if (jni_strings == NULL) {
+        aws_jni_check_and_clear_exception(env);
+        goto done;
+    }
+
+    if (callback_data->java_s3_meta_request_response_handler_native_adapter != NULL) {
+        (*env)->CallVoidMethod(
+            env,
+            callback_data->java_s3_meta_request_response_handler_native_adapter,
+            s3_meta_request_response_handler_native_adapter_properties.onTelemetryBatch,
+            jni_values,
+            jni_strings,
+            (jint)count);
+
+        if (aws_jni_check_and_clear_exception(env)) {
+            AWS_LOGF_ERROR(
+                AWS_LS_S3_META_REQUEST,
+                "id=%p: Ignored Exception from S3MetaRequest.onTelemetryBatch callback",
+                (void *)meta_request);
+        }
+    }
+
+done:
+    if (jni_values) {
+        (*env)->DeleteLocalRef(env, jni_values);
+    }
+    if (jni_strings) {
+        (*env)->DeleteLocalRef(env, jni_strings);
+    }
+
+    aws_jni_release_thread_env(callback_data->jvm, &jvm_env_context);
+    /********** JNI ENV RELEASE **********/
+}
+
+/* Appends a big-endian 32-bit length (-1 for none) and the UTF-8 bytes of a string */
+static int s_append_telemetry_string(struct aws_byte_buf *strings, int get_result, const struct aws_string *value) {
+    bool available = get_result == AWS_OP_SUCCESS && value != NULL;
+    if (aws_byte_buf_reserve_relative(strings, sizeof(uint32_t) + (available ? value->len : 0))) {
+        return AWS_OP_ERR;
+    }
+    if (!available) {
+        aws_byte_buf_write_be32(strings, UINT32_MAX);
+        return AWS_OP_SUCCESS;
+    }
+    aws_byte_buf_write_be32(strings, (uint32_t)value->len);
+    aws_byte_buf_write_from_whole_string(strings, value);
+    return AWS_OP_SUCCESS;
+}
+
+/* Appends the metrics of one request to the pending batch. Unavailable values are -1, like the Java defaults. */
+static int s_append_telemetry_record(
+    struct s3_client_make_meta_request_callback_data *callback_data,
+    struct aws_s3_request_metrics *metrics) {
+
+    int64_t record[S3_TELEMETRY_RECORD_VALUES];
+    for (size_t i = 0; i < S3_TELEMETRY_RECORD_VALUES; ++i) {
+        record[i] = -1;
+    }
+
+    uint64_t timestamp_value = 0;
+    aws_s3_request_metrics_get_s3_request_first_attempt_start_timestamp_ns(metrics, &timestamp_value);
+    record[S3_TELEMETRY_FIRST_ATTEMPT_START_NS] = (int64_t)timestamp_value;
+    if (aws_s3_request_metrics_get_s3_request_last_attempt_end_timestamp_ns(metrics, &timestamp_value) ==
+        AWS_OP_SUCCESS) {
+        record[S3_TELEMETRY_LAST_ATTEMPT_END_NS] = (int64_t)timestamp_value;
+    }
+    aws_s3_request_metrics_get_start_timestamp_ns(metrics, &timestamp_value);
+    record[S3_TELEMETRY_START_NS] = (int64_t)timestamp_value;
+    aws_s3_request_metrics_get_end_timestamp_ns(metrics, &timestamp_value);
+    record[S3_TELEMETRY_END_NS] = (int64_t)timestamp_value;
+    aws_s3_request_metrics_get_total_duration_ns(metrics, &timestamp_value);
+    record[S3_TELEMETRY_TOTAL_DURATION_NS] = (int64_t)timestamp_value;
+
+#define S3_TELEMETRY_OPTIONAL(getter, index)                                                                           \
+    if (getter(metrics, &timestamp_value) == AWS_OP_SUCCESS) {                                                         \
+        record[index] = (int64_t)timestamp_value;                                                                      \
+    }
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_send_start_timestamp_ns, S3_TELEMETRY_SEND_START_NS)
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_send_end_timestamp_ns, S3_TELEMETRY_SEND_END_NS)
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_sending_duration_ns, S3_TELEMETRY_SENDING_DURATION_NS)
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_receive_start_timestamp_ns, S3_TELEMETRY_RECEIVE_START_NS)
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_receive_end_timestamp_ns, S3_TELEMETRY_RECEIVE_END_NS)
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_receiving_duration_ns, S3_TELEMETRY_RECEIVING_DURATION_NS)
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_sign_start_timestamp_ns, S3_TELEMETRY_SIGN_START_NS)
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_sign_end_timestamp_ns, S3_TELEMETRY_SIGN_END_NS)
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_signing_duration_ns, S3_TELEMETRY_SIGNING_DURATION_NS)
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_mem_acquire_start_timestamp_ns, S3_TELEMETRY_MEM_ACQUIRE_START_NS)
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_mem_acquire_end_timestamp_ns, S3_TELEMETRY_MEM_ACQUIRE_END_NS)
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_mem_acquire_duration_ns, S3_TELEMETRY_MEM_ACQUIRE_DURATION_NS)
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_delivery_start_timestamp_ns, S3_TELEMETRY_DELIVER_START_NS)
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_delivery_end_timestamp_ns, S3_TELEMETRY_DELIVER_END_NS)
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_delivery_duration_ns, S3_TELEMETRY_DELIVER_DURATION_NS)
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_retry_delay_start_timestamp_ns, S3_TELEMETRY_RETRY_DELAY_START_NS)
+    S3_TELEMETRY_OPTIONAL(aws_s3_request_metrics_get_retry_delay_end_timestamp_ns, S3_TELEMETRY_RETRY_DELAY_END_NS)
+    S3_TELEMETRY_OPTIONAL(
+        aws_s3_request_metrics_get_retry_delay_duration_ns, S3_TELEMETRY_RETRY_DELAY_DURATION_NS)
+    S3_TELEMETRY_OPTIONAL(
+        aws_s3_request_metrics_get_service_call_duration_ns, S3_TELEMETRY_SERVICE_CALL_DURATION_NS)
+#undef S3_TELEMETRY_OPTIONAL
+
+    int response_status = 0;
+    if (aws_s3_request_metrics_get_response_status_code(metrics, &response_status) == AWS_OP_SUCCESS) {
+        record[S3_TELEMETRY_RESPONSE_STATUS] = response_status;
+    }
+    enum aws_s3_request_type request_type;
+    aws_s3_request_metrics_get_request_type(metrics, &request_type);
+    record[S3_TELEMETRY_REQUEST_TYPE] = request_type;
+    size_t connection_id = 0;
+    if (aws_s3_request_metrics_get_connection_id(metrics, &connection_id) == AWS_OP_SUCCESS) {
+        record[S3_TELEMETRY_CONNECTION_ID] = (int64_t)connection_id;
+    }
+    size_t request_ptr = 0;
+    if (aws_s3_request_metrics_get_request_ptr(metrics, &request_ptr) == AWS_OP_SUCCESS) {
+        record[S3_TELEMETRY_REQUEST_PTR] = (int64_t)request_ptr;
+    }
+    aws_thread_id_t thread_id;
+    if (aws_s3_request_metrics_get_thread_id(metrics, &thread_id) == AWS_OP_SUCCESS) {
+        record[S3_TELEMETRY_THREAD_ID] = (int64_t)thread_id;
+    }
+    uint32_t stream_id = 0;
+    if (aws_s3_request_metrics_get_request_stream_id(metrics, &stream_id) == AWS_OP_SUCCESS) {
+        record[S3_TELEMETRY_STREAM_ID] = stream_id;
+    }
+    record[S3_TELEMETRY_ERROR_CODE] = aws_s3_request_metrics_get_error_code(metrics);
+    record[S3_TELEMETRY_RETRY_ATTEMPT] = aws_s3_request_metrics_get_retry_attempt(metrics);
+
+    struct aws_byte_cursor record_cursor = {.ptr = (uint8_t *)record, .len = sizeof(record)};
+    if (aws_byte_buf_append_dynamic(&callback_data->telemetry_values, &record_cursor)) {
+        return AWS_OP_ERR;
+    }
+
+    /* Same order as S3RequestMetrics.fromRecord */
+    struct aws_byte_buf *strings = &callback_data->telemetry_strings;
+    const struct aws_string *value = NULL;
+    int result = aws_s3_request_metrics_get_request_id(metrics, &value);
+    if (s_append_telemetry_string(strings, result, value)) {
+        return AWS_OP_ERR;
+    }
+    value = NULL;
+    result = aws_s3_request_metrics_get_extended_request_id(metrics, &value);
+    if (s_append_telemetry_string(strings, result, value)) {
+        return AWS_OP_ERR;
+    }
+    value = NULL;
+    result = aws_s3_request_metrics_get_operation_name(metrics, &value);
+    if (s_append_telemetry_string(strings, result, value)) {
+        return AWS_OP_ERR;
+    }
+    value = NULL;
+    result = aws_s3_request_metrics_get_request_path_query(metrics, &value);
+    if (s_append_telemetry_string(strings, result, value)) {
+        return AWS_OP_ERR;
+    }
+    value = NULL;
+    result = aws_s3_request_metrics_get_host_address(metrics, &value);
+    if (s_append_telemetry_string(strings, result, value)) {
+        return AWS_OP_ERR;
+    }
+    value = NULL;
+    result = aws_s3_request_metrics_get_ip_address(metrics, &value);
+    return s_append_telemetry_string(strings, result, value);
+}
+
+/* Takes the pending telemetry batch, if any, leaving an empty one in its place. Call with coalesce_lock held. */
+static size_t s_take_telemetry_batch(
+    struct s3_client_make_meta_request_callback_data *callback_data,
+    struct aws_byte_buf *out_values,
+    struct aws_byte_buf *out_strings) {
+
+    size_t count = callback_data->telemetry_count;
+    *out_values = callback_data->telemetry_values;
+    *out_strings = callback_data->telemetry_strings;
+    aws_byte_buf_init(&callback_data->telemetry_values, out_values->allocator, out_values->capacity);
+    aws_byte_buf_init(&callback_data->telemetry_strings, out_strings->allocator, out_strings->capacity);
+    callback_data->telemetry_count = 0;
+    return count;
+}
+
+/* Delivers progress and telemetry still held back by coalescing, before the meta request reports it finished */
+static void s_flush_coalesced_callbacks(
+    struct aws_s3_meta_request *meta_request,
+    struct s3_client_make_meta_request_callback_data *callback_data) {
+
+    struct aws_s3_meta_request_progress pending_progress;
+    AWS_ZERO_STRUCT(pending_progress);
+    struct aws_byte_buf values;
+    AWS_ZERO_STRUCT(values);
+    struct aws_byte_buf strings;
+    AWS_ZERO_STRUCT(strings);
+    size_t telemetry_count = 0;
+
+    aws_mutex_lock(&callback_data->coalesce_lock);
+    pending_progress = callback_data->pending_progress;
+    callback_data->pending_progress.bytes_transferred = 0;
+    if (callback_data->telemetry_count > 0) {
+        telemetry_count = s_take_telemetry_batch(callback_data, &values, &strings);
+    }
+    aws_mutex_unlock(&callback_data->coalesce_lock);
+
+    if (pending_progress.bytes_transferred > 0) {
+        s_deliver_progress(meta_request, callback_data, &pending_progress);
+    }
+    if (telemetry_count > 0) {
+        s_deliver_telemetry_batch(meta_request, callback_data, &values, &strings, telemetry_count);
+    }
+    aws_byte_buf_clean_up(&values);
+    aws_byte_buf_clean_up(&strings);
+}
+
 static void s_on_s3_meta_request_telemetry_callback(
     struct aws_s3_meta_request *meta_request,
     struct aws_s3_request_metrics *metrics,
@@ -931,6 +1278,45 @@ static void s_on_s3_meta_request_telemetry_callback(
     struct s3_client_make_meta_request_callback_data *callback_data =
         (struct s3_client_make_meta_request_callback_data *)user_data;
 
+    if (callback_data->telemetry_batch_size > 1) {
+        uint64_t now_ns = 0;
+        aws_high_res_clock_get_ticks(&now_ns);
+
+        struct aws_byte_buf values;
+        AWS_ZERO_STRUCT(values);
+        struct aws_byte_buf strings;
+        AWS_ZERO_STRUCT(strings);
+        size_t count = 0;
+
+        aws_mutex_lock(&callback_data->coalesce_lock);
+        size_t values_len = callback_data->telemetry_values.len;
+        size_t strings_len = callback_data->telemetry_strings.len;
+        if (s_append_telemetry_record(callback_data, metrics) == AWS_OP_SUCCESS) {
+            if (callback_data->telemetry_count++ == 0) {
+                callback_data->telemetry_batch_start_ns = now_ns;
+            }
+        } else {
+            /* Drop the partial record, so that the batch stays aligned */
+            callback_data->telemetry_values.len = values_len;
+            callback_data->telemetry_strings.len = strings_len;
+            AWS_LOGF_ERROR(
+                AWS_LS_S3_META_REQUEST, "id=%p: Dropped telemetry of a request, out of memory", (void *)meta_request);
+        }
+        if (callback_data->telemetry_count >= callback_data->telemetry_batch_size ||
+            (callback_data->telemetry_count > 0 &&
+             now_ns - callback_data->telemetry_batch_start_ns >= s_telemetry_batch_max_age_ns)) {
+            count = s_take_telemetry_batch(callback_data, &values, &strings);
+        }
+        aws_mutex_unlock(&callback_data->coalesce_lock);
+
+        if (count > 0) {
+            s_deliver_telemetry_batch(meta_request, callback_data, &values, &strings, count);
+        }
+        aws_byte_buf_clean_up(&values);
+        aws_byte_buf_clean_up(&strings);
+        return;
+    }
+
     /********** JNI ENV ACQUIRE **********/
     struct aws_jvm_env_context jvm_env_context = aws_jni_acquire_thread_env(callback_data->jvm);
     JNIEnv *env = jvm_env_context.env;
@@ -1204,6 +1590,9 @@ static void s_s3_meta_request_callback_cleanup(
         (*env)->DeleteGlobalRef(env, callback_data->java_s3_meta_request_response_handler_native_adapter);
         (*env)->DeleteGlobalRef(env, callback_data->java_exception);
         aws_signing_config_data_clean_up(&callback_data->signing_config_data, env);
+        aws_byte_buf_clean_up(&callback_data->telemetry_values);
+        aws_byte_buf_clean_up(&callback_data->telemetry_strings);
+        aws_mutex_clean_up(&callback_data->coalesce_lock);
         aws_mem_release(aws_jni_get_allocator(), callback_data);
     }
 }
@@ -1410,6 +1799,144 @@ static void s_on_s3_meta_request_error_resume_token_callback(
     /********** JNI ENV RELEASE **********/
 }
 
+/*
+ * Request body read natively from a region of a file, for uploads of a slice of a larger file.
+ * The native client reads request bodies in order, so reads go through one FILE and only seeks reposition it.
+ */
+struct s3_file_region_stream {
+    struct aws_input_stream base;
+    struct aws_allocator *allocator;
+    FILE *file;
+    uint64_t offset;
+    uint64_t length;
+    uint64_t position;
+    /* Drop pages from the page cache once they are read, the nearest portable thing to O_DIRECT for a stream */
+    bool drop_cache;
+    bool is_valid;
+};
+
+static int s_file_region_stream_seek(struct aws_input_stream *stream, int64_t offset, enum aws_stream_seek_basis basis) {
+    struct s3_file_region_stream *impl = AWS_CONTAINER_OF(stream, struct s3_file_region_stream, base);
+
+    int64_t base = basis == AWS_SSB_BEGIN ? 0 : (int64_t)impl->length;
+    if (offset < -base || (uint64_t)(base + offset) > impl->length) {
+        return aws_raise_error(AWS_IO_STREAM_INVALID_SEEK_POSITION);
+    }
+    uint64_t position = (uint64_t)(base + offset);
+    if (aws_fseek(impl->file, (int64_t)(impl->offset + position), SEEK_SET)) {
+        impl->is_valid = false;
+        return AWS_OP_ERR;
+    }
+    impl->position = position;
+    return AWS_OP_SUCCESS;
+}
+
+static int s_file_region_stream_read(struct aws_input_stream *stream, struct aws_byte_buf *dest) {
+    struct s3_file_region_stream *impl = AWS_CONTAINER_OF(stream, struct s3_file_region_stream, base);
+
+    size_t amt = dest->capacity - dest->len;
+    if (impl->length - impl->position < amt) {
+        amt = (size_t)(impl->length - impl->position);
+    }
+    if (amt == 0) {
+        return AWS_OP_SUCCESS;
+    }
+
+    size_t amt_read = fread(dest->buffer + dest->len, 1, amt, impl->file);
+    if (amt_read < amt && (ferror(impl->file) || feof(impl->file))) {
+        /* Either an I/O error, or the file got shorter than the region since the stream was created */
+        impl->is_valid = false;
+        return aws_raise_error(AWS_IO_STREAM_READ_FAILED);
+    }
+
+#if defined(POSIX_FADV_DONTNEED)
+    if (impl->drop_cache) {
+        posix_fadvise(fileno(impl->file), (off_t)(impl->offset + impl->position), (off_t)amt_read, POSIX_FADV_DONTNEED);
+    }
+#endif
+
+    dest->len += amt_read;
+    impl->position += amt_read;
+    return AWS_OP_SUCCESS;
+}
+
+static int s_file_region_stream_get_status(struct aws_input_stream *stream, struct aws_stream_status *status) {
+    struct s3_file_region_stream *impl = AWS_CONTAINER_OF(stream, struct s3_file_region_stream, base);
+
+    status->is_end_of_stream = impl->position == impl->length;
+    status->is_valid = impl->is_valid;
+    return AWS_OP_SUCCESS;
+}
+
+static int s_file_region_stream_get_length(struct aws_input_stream *stream, int64_t *length) {
+    struct s3_file_region_stream *impl = AWS_CONTAINER_OF(stream, struct s3_file_region_stream, base);
+
+    *length = (int64_t)impl->length;
+    return AWS_OP_SUCCESS;
+}
+
+static void s_file_region_stream_destroy(struct s3_file_region_stream *impl) {
+    if (impl->file != NULL) {
+        fclose(impl->file);
+    }
+    aws_mem_release(impl->allocator, impl);
+}
+
+static struct aws_input_stream_vtable s_file_region_stream_vtable = {
+    .seek = s_file_region_stream_seek,
+    .read = s_file_region_stream_read,
+    .get_status = s_file_region_stream_get_status,
+    .get_length = s_file_region_stream_get_length,
+};
+
+static struct aws_input_stream *s_file_region_stream_new(
+    struct aws_allocator *allocator,
+    struct aws_byte_cursor path,
+    uint64_t offset,
+    uint64_t length,
+    bool drop_cache) {
+
+    struct s3_file_region_stream *impl = aws_mem_calloc(allocator, 1, sizeof(struct s3_file_region_stream));
+    impl->allocator = allocator;
+    impl->base.vtable = &s_file_region_stream_vtable;
+    aws_ref_count_init(&impl->base.ref_count, impl, (aws_simple_completion_callback *)s_file_region_stream_destroy);
+    impl->offset = offset;
+    impl->length = length;
+    impl->drop_cache = drop_cache;
+    impl->is_valid = true;
+
+    struct aws_string *path_str = aws_string_new_from_cursor(allocator, &path);
+    struct aws_string *mode = aws_string_new_from_c_str(allocator, "rb");
+    impl->file = aws_fopen_safe(path_str, mode);
+    aws_string_destroy(mode);
+    aws_string_destroy(path_str);
+    if (impl->file == NULL) {
+        goto on_error;
+    }
+
+    int64_t file_length = 0;
+    if (aws_file_get_length(impl->file, &file_length)) {
+        goto on_error;
+    }
+    if (offset > (uint64_t)file_length || length > (uint64_t)file_length - offset) {
+        aws_raise_error(AWS_ERROR_INVALID_ARGUMENT);
+        goto on_error;
+    }
+    if (aws_fseek(impl->file, (int64_t)offset, SEEK_SET)) {
+        goto on_error;
+    }
+
+#if defined(POSIX_FADV_SEQUENTIAL)
+    posix_fadvise(fileno(impl->file), (off_t)offset, (off_t)length, POSIX_FADV_SEQUENTIAL);
+#endif
+
+    return &impl->base;
+
+on_error:
+    aws_input_stream_release(&impl->base);
+    return NULL;
+}
+
 JNIEXPORT jlong JNICALL Java_software_amazon_awssdk_crt_s3_S3Client_s3ClientMakeMetaRequest(
     JNIEnv *env,
     jclass jni_class,
@@ -1425,6 +1952,8 @@ JNIEXPORT jlong JNICALL Java_software_amazon_awssdk_crt_s3_S3Client_s3ClientMake
     jbyteArray jni_marshalled_message_data,
     jobject jni_http_request_body_stream,
     jbyteArray jni_request_filepath,
+    jlong jni_request_file_offset,
+    jlong jni_request_file_length,
     jobject java_signing_config,
     jobject java_response_handler_jobject,
     jbyteArray jni_endpoint,
@@ -1437,7 +1966,13 @@ JNIEXPORT jlong JNICALL Java_software_amazon_awssdk_crt_s3_S3Client_s3ClientMake
     jboolean fio_options_set,
     jboolean should_stream,
     jdouble disk_throughput_gbps,
-    jboolean direct_io) {
+    jboolean direct_io,
+    jboolean jni_direct_response_body,
+    jlong jni_part_size,
+    jint jni_max_active_connections,
+    jlong jni_progress_interval_ms,
+    jlong jni_progress_interval_bytes,
+    jint jni_telemetry_batch_size) {
     (void)jni_class;
     aws_cache_jni_ids(env);
 
@@ -1447,6 +1982,7 @@ JNIEXPORT jlong JNICALL Java_software_amazon_awssdk_crt_s3_S3Client_s3ClientMake
     AWS_ZERO_STRUCT(operation_name);
     struct aws_byte_cursor request_filepath;
     AWS_ZERO_STRUCT(request_filepath);
+    bool send_request_filepath = true;
     struct aws_byte_cursor response_filepath;
     AWS_ZERO_STRUCT(response_filepath);
     struct aws_s3_meta_request_resume_token *resume_token =
@@ -1461,6 +1997,7 @@ JNIEXPORT jlong JNICALL Java_software_amazon_awssdk_crt_s3_S3Client_s3ClientMake
     struct s3_client_make_meta_request_callback_data *callback_data =
         aws_mem_calloc(allocator, 1, sizeof(struct s3_client_make_meta_request_callback_data));
     AWS_FATAL_ASSERT(callback_data);
+    AWS_FATAL_ASSERT(aws_mutex_init(&callback_data->coalesce_lock) == AWS_OP_SUCCESS);
     struct aws_signing_config_aws signing_config;
     AWS_ZERO_STRUCT(signing_config);
     if (java_signing_config != NULL) {
@@ -1480,6 +2017,19 @@ JNIEXPORT jlong JNICALL Java_software_amazon_awssdk_crt_s3_S3Client_s3ClientMake
         (*env)->NewGlobalRef(env, java_response_handler_jobject);
     AWS_FATAL_ASSERT(callback_data->java_s3_meta_request_response_handler_native_adapter != NULL);
 
+    callback_data->direct_response_body = jni_direct_response_body;
+    callback_data->progress_interval_ns = aws_timestamp_convert(
+        (uint64_t)jni_progress_interval_ms, AWS_TIMESTAMP_MILLIS, AWS_TIMESTAMP_NANOS, NULL);
+    callback_data->progress_interval_bytes = (uint64_t)jni_progress_interval_bytes;
+    callback_data->telemetry_batch_size = (size_t)jni_telemetry_batch_size;
+    if (callback_data->telemetry_batch_size > 1) {
+        aws_byte_buf_init(
+            &callback_data->telemetry_values,
+            allocator,
+            callback_data->telemetry_batch_size * S3_TELEMETRY_RECORD_VALUES * sizeof(int64_t));
+        aws_byte_buf_init(&callback_data->telemetry_strings, allocator, callback_data->telemetry_batch_size * 256);
+    }
+
     request_message = aws_http_message_new_request(allocator);
     AWS_FATAL_ASSERT(request_message);
 
@@ -1507,6 +2057,31 @@ JNIEXPORT jlong JNICALL Java_software_amazon_awssdk_crt_s3_S3Client_s3ClientMake
             aws_jni_throw_illegal_argument_exception(env, "Request file path cannot be empty");
             goto done;
         }
+
+        if (jni_request_file_length >= 0) {
+            /* Only a region of the file is sent: read it through a native body stream instead of send_filepath */
+            struct aws_input_stream *region_stream = s_file_region_stream_new(
+                allocator,
+                request_filepath,
+                (uint64_t)jni_request_file_offset,
+                (uint64_t)jni_request_file_length,
+                fio_options_set && direct_io);
+            if (region_stream == NULL) {
+                aws_jni_throw_runtime_exception(
+                    env, "S3Client.aws_s3_client_make_meta_request: failed to open request file region");
+                goto done;
+            }
+            aws_http_message_set_body_stream(request_message, region_stream);
+            aws_input_stream_release(region_stream);
+
+            char content_length[32];
+            snprintf(content_length, sizeof(content_length), "%" PRIu64, (uint64_t)jni_request_file_length);
+            aws_http_headers_set(
+                aws_http_message_get_headers(request_message),
+                aws_byte_cursor_from_c_str("Content-Length"),
+                aws_byte_cursor_from_c_str(content_length));
+            send_request_filepath = false;
+        }
     }
 
     if (jni_response_filepath) {
@@ -1562,12 +2137,18 @@ JNIEXPORT jlong JNICALL Java_software_amazon_awssdk_crt_s3_S3Client_s3ClientMake
         .direct_io = direct_io,
     };
 
+    struct aws_byte_cursor send_filepath;
+    AWS_ZERO_STRUCT(send_filepath);
+    if (send_request_filepath) {
+        send_filepath = request_filepath;
+    }
+
     struct aws_s3_meta_request_options meta_request_options = {
         .type = meta_request_type,
         .operation_name = operation_name,
         .checksum_config = &checksum_config,
         .message = request_message,
-        .send_filepath = request_filepath,
+        .send_filepath = send_filepath,
         .user_data = callback_data,
         .signing_config = java_signing_config ? &signing_config : NULL,
         .headers_callback = s_on_s3_meta_request_headers_callback,
@@ -1586,6 +2167,9 @@ JNIEXPORT jlong JNICALL Java_software_amazon_awssdk_crt_s3_S3Client_s3ClientMake
         .recv_file_delete_on_failure = jni_response_file_delete_on_failure,
         /* If fio options not set, let native code to decide the default instead */
         .fio_opts = fio_options_set ? &fio_opts : NULL,
+        /* 0 for either means the client's value is used */
+        .part_size = (uint64_t)jni_part_size,
+        .max_active_connections_override = (uint32_t)jni_max_active_connections,
     };
 
     meta_request = aws_s3_client_make_meta_request(client, &meta_request_options);
@@ -1840,6 +2424,62 @@ JNIEXPORT void JNICALL Java_software_amazon_awssdk_crt_s3_S3MetaRequest_s3MetaRe
     aws_s3_meta_request_increment_read_window(meta_request, (uint64_t)increment);
 }
 
+JNIEXPORT jobject JNICALL Java_software_amazon_awssdk_crt_s3_S3ResponseBodyLease_s3ResponseBodyLeaseRetain(
+    JNIEnv *env,
+    jclass jni_class,
+    jobject jni_part_buffer,
+    jlongArray jni_address_out) {
+
+    (void)jni_class;
+    aws_cache_jni_ids(env);
+
+    struct aws_byte_cursor part_cursor = aws_jni_byte_cursor_from_direct_byte_buffer(env, jni_part_buffer);
+    if ((*env)->ExceptionCheck(env)) {
+        return NULL;
+    }
+
+    /* The part buffer is reused by the meta request once the body callback returns,
+     * so move the data into memory owned by the lease until it is released.
+     * Always allocate, so the retained ByteBuffer never views a NULL address.
+     * Java counts the copy against the client's memory limit, and frees it by address. */
+    uint8_t *retained_data = aws_mem_acquire(aws_jni_get_allocator(), part_cursor.len > 0 ? part_cursor.len : 1);
+    if (part_cursor.len > 0) {
+        memcpy(retained_data, part_cursor.ptr, part_cursor.len);
+    }
+
+    jobject jni_retained_buffer = aws_jni_direct_byte_buffer_from_raw_ptr(env, retained_data, part_cursor.len);
+    if (jni_retained_buffer == NULL) {
+        aws_mem_release(aws_jni_get_allocator(), retained_data);
+        aws_jni_throw_out_of_memory_exception(env, "S3ResponseBodyLease.retain: Failed to create ByteBuffer");
+        return NULL;
+    }
+
+    jlong address = (jlong)(intptr_t)retained_data;
+    (*env)->SetLongArrayRegion(env, jni_address_out, 0, 1, &address);
+    if ((*env)->ExceptionCheck(env)) {
+        aws_mem_release(aws_jni_get_allocator(), retained_data);
+        return NULL;
+    }
+
+    return jni_retained_buffer;
+}
+
+JNIEXPORT void JNICALL Java_software_amazon_awssdk_crt_s3_S3ResponseBodyLease_s3ResponseBodyLeaseRelease(
+    JNIEnv *env,
+    jclass jni_class,
+    jlong jni_address) {
+
+    (void)jni_class;
+    aws_cache_jni_ids(env);
+
+    void *retained_data = (void *)(intptr_t)jni_address;
+    if (retained_data == NULL) {
+        return;
+    }
+
+    aws_mem_release(aws_jni_get_allocator(), retained_data);
+}
+
 #if UINTPTR_MAX == 0xffffffff
 #    if defined(_MSC_VER)
 #        pragma warning(pop)
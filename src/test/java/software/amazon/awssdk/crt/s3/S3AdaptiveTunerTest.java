@@ -0,0 +1,147 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.s3;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.test.CrtTestFixture;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class S3AdaptiveTunerTest extends CrtTestFixture {
+    private static final long MB = 1024 * 1024;
+    private static final long MS = 1_000_000;
+
+    private final AtomicLong clock = new AtomicLong(0);
+
+    public S3AdaptiveTunerTest() {
+    }
+
+    /* 10 Gbps needs 20 connections at the estimated 0.5 Gbps each */
+    private S3AdaptiveTuner createTuner() {
+        return new S3AdaptiveTuner(10.0, 2048 * MB, 8 * MB, 0, clock::get);
+    }
+
+    private static S3RequestMetrics metrics(int responseStatus, int errorCode, long firstByteNs, long lastByteNs) {
+        long[] values = new long[S3RequestMetricsBatch.LONGS_PER_RECORD];
+        Arrays.fill(values, -1);
+        values[2] = 0; /* start */
+        values[5] = 0; /* send start */
+        values[8] = firstByteNs; /* receive start */
+        values[9] = lastByteNs; /* receive end */
+        values[24] = responseStatus;
+        values[30] = errorCode;
+        values[31] = 0; /* retry attempt */
+        return S3RequestMetrics.fromRecord(values, 0, new String[S3RequestMetricsBatch.STRINGS_PER_RECORD], 0);
+    }
+
+    private static S3RequestMetrics succeeded(long firstByteNs, long lastByteNs) {
+        return metrics(200, 0, firstByteNs, lastByteNs);
+    }
+
+    /* Close the current window with little throughput, so the tuner wants to grow */
+    private void endWindow(S3AdaptiveTuner tuner) {
+        clock.addAndGet(1000 * MS);
+        tuner.recordProgress(MB);
+    }
+
+    @Test
+    public void testGrowsConcurrencyBelowTarget() {
+        S3AdaptiveTuner tuner = createTuner();
+        assertEquals(20, tuner.getMaxActiveConnections());
+        assertEquals(8 * MB, tuner.getPartSize());
+
+        for (int i = 0; i < 10; i++) {
+            tuner.recordRequest(succeeded(5 * MS, 100 * MS));
+        }
+        endWindow(tuner);
+        assertEquals(22, tuner.getMaxActiveConnections());
+        assertEquals(8 * MB, tuner.getPartSize());
+        assertTrue(tuner.getAchievedThroughputGbps() < 0.01);
+    }
+
+    @Test
+    public void testGrowsPartSizeWhenLatencyDominates() {
+        S3AdaptiveTuner tuner = createTuner();
+        for (int i = 0; i < 10; i++) {
+            tuner.recordRequest(succeeded(50 * MS, 100 * MS));
+        }
+        endWindow(tuner);
+        assertEquals(20, tuner.getMaxActiveConnections());
+        assertEquals(16 * MB, tuner.getPartSize());
+    }
+
+    @Test
+    public void testShrinksOnThrottling() {
+        S3AdaptiveTuner tuner = createTuner();
+        for (int i = 0; i < 9; i++) {
+            tuner.recordRequest(succeeded(5 * MS, 100 * MS));
+        }
+        tuner.recordRequest(metrics(503, 0, 5 * MS, 6 * MS));
+        endWindow(tuner);
+        assertEquals(15, tuner.getMaxActiveConnections());
+        assertEquals(16 * MB, tuner.getPartSize());
+
+        /* SlowDown reported only through the error code, as S3 can send it with a 200 status */
+        for (int i = 0; i < 9; i++) {
+            tuner.recordRequest(succeeded(5 * MS, 100 * MS));
+        }
+        tuner.recordRequest(metrics(200, 14342, -1, -1));
+        endWindow(tuner);
+        assertEquals(11, tuner.getMaxActiveConnections());
+        assertEquals(32 * MB, tuner.getPartSize());
+    }
+
+    @Test
+    public void testOtherErrorsAreNotThrottling() {
+        S3AdaptiveTuner tuner = createTuner();
+        assertFalse(S3AdaptiveTuner.isThrottled(metrics(404, 14343, 5 * MS, 6 * MS)));
+        assertFalse(S3AdaptiveTuner.isThrottled(metrics(-1, 14347, -1, -1)));
+        assertTrue(S3AdaptiveTuner.isThrottled(metrics(500, 14341, 5 * MS, 6 * MS)));
+
+        for (int i = 0; i < 10; i++) {
+            tuner.recordRequest(succeeded(5 * MS, 100 * MS));
+            /* Missing objects and cancelled requests */
+            tuner.recordRequest(metrics(404, 14343, 5 * MS, 6 * MS));
+            tuner.recordRequest(metrics(-1, 14347, -1, -1));
+        }
+        endWindow(tuner);
+        assertEquals(22, tuner.getMaxActiveConnections());
+        assertEquals(8 * MB, tuner.getPartSize());
+    }
+
+    @Test
+    public void testWaitsForEnoughRequests() {
+        S3AdaptiveTuner tuner = createTuner();
+        tuner.recordRequest(metrics(503, 0, 5 * MS, 6 * MS));
+        endWindow(tuner);
+        assertEquals(20, tuner.getMaxActiveConnections());
+
+        /* Failures other than throttling do not make up a window either */
+        for (int i = 0; i < 10; i++) {
+            tuner.recordRequest(metrics(404, 14343, 5 * MS, 6 * MS));
+        }
+        endWindow(tuner);
+        assertEquals(20, tuner.getMaxActiveConnections());
+    }
+
+    @Test
+    public void testTradesPartSizeForConcurrencyAtMemoryLimit() {
+        /* 256 MB fits 32 parts of 8 MB, and the 100 Gbps target wants more connections than that */
+        S3AdaptiveTuner tuner = new S3AdaptiveTuner(100.0, 256 * MB, 8 * MB, 0, clock::get);
+        assertEquals(32, tuner.getMaxActiveConnections());
+        for (int i = 0; i < 10; i++) {
+            tuner.recordRequest(succeeded(1 * MS, 100 * MS));
+        }
+        endWindow(tuner);
+        assertEquals(5 * MB, tuner.getPartSize());
+        assertEquals(51, tuner.getMaxActiveConnections());
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.s3;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.http.HttpHeader;
+import software.amazon.awssdk.crt.test.CrtTestFixture;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * Runs copy batches against a meta request factory that records the options of each started copy instead of
+ * sending anything, and finishes copies by calling their response handler the way the native client would.
+ */
+public class S3BatchCopyTest extends CrtTestFixture {
+    /* AWS_ERROR_S3_INVALID_RESPONSE_STATUS, the error of a copy whose source does not exist */
+    private static final int INVALID_RESPONSE_STATUS = 14343;
+
+    public S3BatchCopyTest() {
+    }
+
+    private static class RecordingFactory implements Function<S3MetaRequestOptions, S3MetaRequest> {
+        final List<S3MetaRequestOptions> started = new ArrayList<>();
+
+        @Override
+        public synchronized S3MetaRequest apply(S3MetaRequestOptions options) {
+            started.add(options);
+            /* Never acquires a native handle, closing it when the copy finishes is a no-op */
+            return new S3MetaRequest();
+        }
+
+        synchronized S3MetaRequestOptions startedWithPath(String encodedPath) {
+            for (S3MetaRequestOptions options : started) {
+                if (options.getHttpRequest().getEncodedPath().equals(encodedPath)) {
+                    return options;
+                }
+            }
+            return null;
+        }
+
+        void finish(String encodedPath, int errorCode, int responseStatus) {
+            startedWithPath(encodedPath).getResponseHandler().onFinished(new S3FinishedResponseContext(errorCode,
+                    responseStatus, null, null, ChecksumAlgorithm.NONE, false, null, null));
+        }
+    }
+
+    private static class RecordingListener implements S3CopyObjectListener {
+        final List<Object> copied = new ArrayList<>();
+        final Map<Object, Throwable> failed = new HashMap<>();
+
+        @Override
+        public synchronized void onCopied(S3CopyObjectRequest request) {
+            copied.add(request.getContext());
+        }
+
+        @Override
+        public synchronized void onFailure(S3CopyObjectRequest request, Throwable cause) {
+            failed.put(request.getContext(), cause);
+        }
+    }
+
+    private static S3CopyObjectRequest copy(String sourceKey, String destinationKey) {
+        return new S3CopyObjectRequest().withSourceBucket("source-bucket").withSourceKey(sourceKey)
+                .withDestinationHost("destination.s3.amazonaws.com").withDestinationKey(destinationKey)
+                .withContext(destinationKey);
+    }
+
+    private static String header(S3MetaRequestOptions options, String name) {
+        for (HttpHeader header : options.getHttpRequest().getHeaders()) {
+            if (header.getName().equals(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testCopyRequestEncoding() throws Exception {
+        RecordingFactory factory = new RecordingFactory();
+        CompletableFuture<S3TransferBatchResult> future = S3BatchCopy.run(factory, Arrays.asList(
+                copy("dir/a b.txt", "copies/a b.txt"),
+                copy("c+d.txt", "copies/c+d.txt"),
+                copy("caf\u00e9/\u65e5.txt", "copies/caf\u00e9.txt")), new RecordingListener(), 3);
+        assertEquals(3, factory.started.size());
+
+        /* The copy source is "bucket/key", with the key escaped the same way as a request path */
+        Map<String, String> copySources = new HashMap<>();
+        copySources.put("/copies/a%20b.txt", "source-bucket/dir/a%20b.txt");
+        copySources.put("/copies/c%2Bd.txt", "source-bucket/c%2Bd.txt");
+        copySources.put("/copies/caf%C3%A9.txt", "source-bucket/caf%C3%A9/%E6%97%A5.txt");
+        for (Map.Entry<String, String> expected : copySources.entrySet()) {
+            S3MetaRequestOptions options = factory.startedWithPath(expected.getKey());
+            assertNotNull(expected.getKey(), options);
+            assertEquals(S3MetaRequestOptions.MetaRequestType.COPY_OBJECT, options.getMetaRequestType());
+            assertEquals("PUT", options.getHttpRequest().getMethod());
+            assertEquals("destination.s3.amazonaws.com", header(options, "Host"));
+            assertEquals(expected.getValue(), header(options, "x-amz-copy-source"));
+        }
+
+        for (String path : copySources.keySet()) {
+            factory.finish(path, 0, 200);
+        }
+        assertEquals(3, future.get().getSucceededCount());
+    }
+
+    @Test
+    public void testFailedCopyIsReportedPerObject() throws Exception {
+        RecordingFactory factory = new RecordingFactory();
+        RecordingListener listener = new RecordingListener();
+        CompletableFuture<S3TransferBatchResult> future = S3BatchCopy.run(factory, Arrays.asList(
+                copy("one", "copied-one"), copy("missing", "copied-missing"), copy("two", "copied-two")),
+                listener, 2);
+
+        /* At most two copies in flight, the third starts once one of them finishes */
+        assertEquals(2, factory.started.size());
+        factory.finish(factory.started.get(0).getHttpRequest().getEncodedPath(), 0, 200);
+        assertEquals(3, factory.started.size());
+
+        factory.finish("/copied-missing", INVALID_RESPONSE_STATUS, 404);
+        for (S3MetaRequestOptions options : new ArrayList<>(factory.started.subList(1, 3))) {
+            if (!options.getHttpRequest().getEncodedPath().equals("/copied-missing")) {
+                factory.finish(options.getHttpRequest().getEncodedPath(), 0, 200);
+            }
+        }
+
+        /* One failed copy does not stop the rest, and is reported under its destination key */
+        S3TransferBatchResult result = future.get();
+        assertFalse(result.isSuccessful());
+        assertEquals(2, result.getSucceededCount());
+        assertEquals(Collections.singleton("copied-missing"), result.getFailures().keySet());
+        assertEquals(2, listener.copied.size());
+        assertTrue(listener.copied.containsAll(Arrays.asList("copied-one", "copied-two")));
+        assertEquals(1, listener.failed.size());
+        assertSame(result.getFailures().get("copied-missing").getClass(),
+                listener.failed.get("copied-missing").getClass());
+    }
+
+    @Test
+    public void testInvalidRequests() {
+        RecordingFactory factory = new RecordingFactory();
+        assertThrows(IllegalArgumentException.class, () -> S3BatchCopy.run(factory,
+                Collections.singletonList(copy("key", "copy")), null, 1));
+        assertThrows(IllegalArgumentException.class, () -> S3BatchCopy.run(factory,
+                Collections.singletonList(copy(null, "copy")), new RecordingListener(), 1));
+        assertEquals(0, factory.started.size());
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.s3;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.test.CrtTestFixture;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class S3BlockCacheTest extends CrtTestFixture {
+    private static final int BLOCK_SIZE = 16;
+
+    public S3BlockCacheTest() {
+    }
+
+    private static S3BlockCache.BlockKey blockKey(long blockIndex) {
+        return new S3BlockCache.BlockKey("bucket.s3.amazonaws.com", "key", "etag", blockIndex);
+    }
+
+    private static ByteBuffer block(int fill, int length) {
+        ByteBuffer data = ByteBuffer.allocate(length);
+        for (int i = 0; i < length; i++) {
+            data.put(i, (byte) fill);
+        }
+        return data;
+    }
+
+    /* Look a block up, check its data and unpin it right away. Returns false on a miss */
+    private static boolean hit(S3BlockCache cache, long blockIndex) {
+        S3BlockCache.PinnedBlock pinned = cache.get(blockKey(blockIndex));
+        if (pinned == null) {
+            return false;
+        }
+        assertEquals((byte) blockIndex, pinned.data.get(0));
+        cache.unpin(pinned);
+        return true;
+    }
+
+    @Test
+    public void testBlockKeyIdentity() {
+        S3BlockCache.BlockKey key = new S3BlockCache.BlockKey("host", "key", "etag", 3);
+        S3BlockCache.BlockKey same = new S3BlockCache.BlockKey("host", "key", "etag", 3);
+        assertEquals(key, same);
+        assertEquals(key.hashCode(), same.hashCode());
+        assertNotEquals(key, new S3BlockCache.BlockKey("other", "key", "etag", 3));
+        assertNotEquals(key, new S3BlockCache.BlockKey("host", "other", "etag", 3));
+        assertNotEquals(key, new S3BlockCache.BlockKey("host", "key", "other", 3));
+        assertNotEquals(key, new S3BlockCache.BlockKey("host", "key", "etag", 4));
+
+        /* A block of an overwritten object is never served for the new version */
+        S3BlockCache cache = new S3BlockCache(BLOCK_SIZE, 4 * BLOCK_SIZE);
+        cache.put(key, block(1, BLOCK_SIZE));
+        assertNull(cache.get(new S3BlockCache.BlockKey("host", "key", "etag2", 3)));
+        S3BlockCache.PinnedBlock pinned = cache.get(same);
+        assertNotNull(pinned);
+        cache.unpin(pinned);
+    }
+
+    @Test
+    public void testHitIsReadOnlyViewOfSlot() {
+        S3BlockCache cache = new S3BlockCache(BLOCK_SIZE, 2 * BLOCK_SIZE);
+        /* The last block of an object is shorter than the block size */
+        cache.put(blockKey(7), block(7, 5));
+        S3BlockCache.PinnedBlock pinned = cache.get(blockKey(7));
+        assertTrue(pinned.data.isReadOnly());
+        assertTrue(pinned.data.isDirect());
+        assertEquals(0, pinned.data.position());
+        assertEquals(5, pinned.data.capacity());
+        assertEquals(5, pinned.data.limit());
+        assertEquals(1, cache.getHitCount());
+        cache.unpin(pinned);
+        cache.unpin(pinned);
+
+        assertNull(cache.get(blockKey(8)));
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testClockEviction() {
+        S3BlockCache cache = new S3BlockCache(BLOCK_SIZE, 3 * BLOCK_SIZE);
+        for (int i = 0; i < 3; i++) {
+            cache.put(blockKey(i), block(i, BLOCK_SIZE));
+        }
+        assertTrue(hit(cache, 0));
+
+        /* Block 0 was read, so it gets a second chance and block 1 goes instead */
+        cache.put(blockKey(3), block(3, BLOCK_SIZE));
+        assertEquals(1, cache.getEvictionCount());
+        assertTrue(hit(cache, 0));
+        assertTrue(!hit(cache, 1));
+        assertTrue(hit(cache, 3));
+
+        /* The hand moved past block 1's slot, and block 2 has not been read since */
+        cache.put(blockKey(4), block(4, BLOCK_SIZE));
+        assertEquals(2, cache.getEvictionCount());
+        assertTrue(!hit(cache, 2));
+        assertTrue(hit(cache, 0));
+        assertTrue(hit(cache, 3));
+        assertTrue(hit(cache, 4));
+    }
+
+    @Test
+    public void testPinnedBlocksAreNotEvicted() {
+        S3BlockCache cache = new S3BlockCache(BLOCK_SIZE, 2 * BLOCK_SIZE);
+        cache.put(blockKey(0), block(0, BLOCK_SIZE));
+        cache.put(blockKey(1), block(1, BLOCK_SIZE));
+        S3BlockCache.PinnedBlock pinned0 = cache.get(blockKey(0));
+        S3BlockCache.PinnedBlock pinned1 = cache.get(blockKey(1));
+
+        /* Every slot is pinned, so the new block is not cached and the pinned data is intact */
+        cache.put(blockKey(2), block(2, BLOCK_SIZE));
+        assertEquals(0, cache.getEvictionCount());
+        assertTrue(!hit(cache, 2));
+        assertEquals(0, pinned0.data.get(BLOCK_SIZE - 1));
+        assertEquals(1, pinned1.data.get(BLOCK_SIZE - 1));
+
+        cache.unpin(pinned1);
+        cache.put(blockKey(2), block(2, BLOCK_SIZE));
+        assertEquals(1, cache.getEvictionCount());
+        assertTrue(!hit(cache, 1));
+        assertTrue(hit(cache, 2));
+        assertEquals(0, pinned0.data.get(BLOCK_SIZE - 1));
+        cache.unpin(pinned0);
+    }
+
+    @Test
+    public void testClearKeepsPinnedSlots() {
+        S3BlockCache cache = new S3BlockCache(BLOCK_SIZE, 2 * BLOCK_SIZE);
+        cache.put(blockKey(0), block(0, BLOCK_SIZE));
+        cache.put(blockKey(1), block(1, BLOCK_SIZE));
+        S3BlockCache.PinnedBlock pinned = cache.get(blockKey(0));
+        cache.clear();
+        assertTrue(!hit(cache, 0));
+        assertTrue(!hit(cache, 1));
+
+        /* Only the unpinned slot can be reused, so the second block replaces the first */
+        cache.put(blockKey(2), block(2, BLOCK_SIZE));
+        cache.put(blockKey(3), block(3, BLOCK_SIZE));
+        assertEquals(0, pinned.data.get(0));
+        assertTrue(hit(cache, 2) != hit(cache, 3));
+
+        cache.unpin(pinned);
+        cache.put(blockKey(4), block(4, BLOCK_SIZE));
+        assertTrue(hit(cache, 4));
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.s3;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.test.CrtTestFixture;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+/*
+ * Parses ListObjectsV2 response bodies as S3 sends them for encoding-type=url.
+ */
+public class S3ListObjectsPageParserTest extends CrtTestFixture {
+
+    private static final String HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">"
+            + "<Name>bucket</Name><KeyCount>1</KeyCount><MaxKeys>1000</MaxKeys><EncodingType>url</EncodingType>";
+    private static final String FOOTER = "</ListBucketResult>";
+
+    public S3ListObjectsPageParserTest() {
+    }
+
+    private static String contents(String key, String eTag, long size) {
+        return "<Contents><Key>" + key + "</Key><LastModified>2009-10-12T17:50:30.000Z</LastModified>"
+                + "<ETag>" + eTag + "</ETag><Size>" + size + "</Size><StorageClass>STANDARD</StorageClass></Contents>";
+    }
+
+    private static S3ListObjectsPageParser.Page parse(String body) {
+        byte[] data = body.getBytes(StandardCharsets.UTF_8);
+        /* The lister's buffer is usually larger than the body */
+        return S3ListObjectsPageParser.parse(Arrays.copyOf(data, data.length + 17), data.length, "p/");
+    }
+
+    @Test
+    public void testEscapedKeys() {
+        S3ListObjectsPageParser.Page page = parse(HEADER + "<Prefix>p%2F</Prefix><IsTruncated>false</IsTruncated>"
+                + contents("p%2Fa%26b+c%3Cd%25.txt", "&quot;1&quot;", 1)
+                + contents("p%2Fx&amp;y%2B&#x41;&#66;", "&quot;2&quot;", 2)
+                + "<CommonPrefixes><Prefix>p%2Fsub+dir%2F</Prefix></CommonPrefixes>"
+                + FOOTER);
+
+        assertEquals(2, page.batch.size());
+        assertEquals("p/", page.batch.getPartitionPrefix());
+        assertEquals("p/a&b c<d%.txt", page.batch.getKey(0));
+        assertEquals("p/x&y+AB", page.batch.getKey(1));
+        assertEquals(Collections.singletonList("p/sub dir/"), page.commonPrefixes);
+        assertNull(page.nextContinuationToken);
+    }
+
+    @Test
+    public void testQuotedETags() {
+        S3ListObjectsPageParser.Page page = parse(HEADER + "<Prefix>p%2F</Prefix><IsTruncated>false</IsTruncated>"
+                + contents("p%2Fsingle", "&quot;9b2cf535f27731c974343645a3985328&quot;", 1024)
+                + contents("p%2Fmultipart", "&quot;d41d8cd98f00b204e9800998ecf8427e-12&quot;", 100L << 30)
+                + "<Contents><Key>p%2Fno-etag</Key><Size>0</Size></Contents>"
+                + FOOTER);
+
+        assertEquals(3, page.batch.size());
+        assertEquals("9b2cf535f27731c974343645a3985328", page.batch.getETag(0));
+        assertEquals(1024, page.batch.getSize(0));
+        assertEquals(1255369830000L, page.batch.getLastModifiedMillis(0));
+        assertEquals("d41d8cd98f00b204e9800998ecf8427e-12", page.batch.getETag(1));
+        assertEquals(100L << 30, page.batch.getSize(1));
+        /* Decoding an ETag uses the key buffer as scratch space, the keys must be intact */
+        assertEquals("p/single", page.batch.getKey(0));
+        assertEquals("p/multipart", page.batch.getKey(1));
+        assertNull(page.batch.getETag(2));
+        assertEquals(-1, page.batch.getLastModifiedMillis(2));
+    }
+
+    @Test
+    public void testEmptyPrefix() {
+        S3ListObjectsPageParser.Page selfClosing = parse(HEADER + "<Prefix/><IsTruncated>false</IsTruncated>"
+                + contents("a", "&quot;1&quot;", 1) + FOOTER);
+        assertEquals(1, selfClosing.batch.size());
+        assertEquals("a", selfClosing.batch.getKey(0));
+
+        S3ListObjectsPageParser.Page emptyPage = parse(HEADER + "<Prefix></Prefix><KeyCount>0</KeyCount>"
+                + "<IsTruncated>false</IsTruncated>" + FOOTER);
+        assertEquals(0, emptyPage.batch.size());
+        assertEquals(0, emptyPage.commonPrefixes.size());
+        assertNull(emptyPage.nextContinuationToken);
+    }
+
+    @Test
+    public void testContinuationToken() {
+        S3ListObjectsPageParser.Page truncated = parse(HEADER + "<Prefix>p%2F</Prefix><IsTruncated>true</IsTruncated>"
+                + contents("p%2Fa", "&quot;1&quot;", 1)
+                + "<NextContinuationToken>1ueGcxLPRx1Tr/XYExHnhbYLgveDs2J/wm36Hy4vbOwM=</NextContinuationToken>"
+                + FOOTER);
+        assertEquals("1ueGcxLPRx1Tr/XYExHnhbYLgveDs2J/wm36Hy4vbOwM=", truncated.nextContinuationToken);
+
+        /* A token on the last page is not followed */
+        S3ListObjectsPageParser.Page last = parse(HEADER + "<IsTruncated>false</IsTruncated>"
+                + "<NextContinuationToken>stale</NextContinuationToken>" + FOOTER);
+        assertNull(last.nextContinuationToken);
+    }
+
+    @Test
+    public void testTruncatedPageWithoutToken() {
+        assertThrows(IllegalStateException.class, () -> parse(HEADER + "<IsTruncated>true</IsTruncated>"
+                + contents("p%2Fa", "&quot;1&quot;", 1) + FOOTER));
+        assertThrows(IllegalStateException.class, () -> parse(HEADER + "<IsTruncated>true</IsTruncated>"
+                + "<NextContinuationToken></NextContinuationToken>" + FOOTER));
+        /* A body cut off inside a record */
+        assertThrows(IllegalStateException.class, () -> parse(HEADER + "<IsTruncated>false</IsTruncated>"
+                + "<Contents><Key>p%2Fa</Key><Size>1</Size>"));
+    }
+
+    @Test
+    public void testMultiByteKeys() {
+        String urlEncoded = "p%2F%E6%97%A5%E6%9C%AC%2F%C3%A9t%C3%A9+%F0%9F%98%80.txt";
+        String expected = "p/\u65e5\u672c/\u00e9t\u00e9 \ud83d\ude00.txt";
+        S3ListObjectsPageParser.Page page = parse(HEADER + "<Prefix>p%2F</Prefix><IsTruncated>false</IsTruncated>"
+                + contents(urlEncoded, "&quot;1&quot;", 1)
+                + contents("p%2F&#x1F600;", "&quot;2&quot;", 2)
+                + FOOTER);
+
+        assertEquals(2, page.batch.size());
+        assertEquals(expected, page.batch.getKey(0));
+        byte[] utf8 = expected.getBytes(StandardCharsets.UTF_8);
+        assertEquals(utf8.length, page.batch.getKeyLength(0));
+        byte[] copied = new byte[utf8.length + 2];
+        assertEquals(utf8.length, page.batch.copyKey(0, copied, 2));
+        assertArrayEquals(utf8, Arrays.copyOfRange(copied, 2, copied.length));
+        assertEquals("p/\ud83d\ude00", page.batch.getKey(1));
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.s3;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.http.HttpHeader;
+import software.amazon.awssdk.crt.test.CrtTestFixture;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class S3MappedFileSinkTest extends CrtTestFixture {
+    public S3MappedFileSinkTest() {
+    }
+
+    private static byte[] pattern(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        return data;
+    }
+
+    @Test
+    public void testUnmap() throws Exception {
+        skipIfAndroid();
+        Path file = Files.createTempFile("mapped_sink", ".bin");
+        try {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, 4096);
+                mapping.put(0, (byte) 7);
+                assertTrue(S3MappedFileSink.unmap(mapping));
+            }
+            assertEquals(4096, Files.size(file));
+            assertEquals(7, Files.readAllBytes(file)[0]);
+            /* Once unmapped, the file can be truncated and deleted even where mappings pin it */
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(1);
+            }
+            assertEquals(1, Files.size(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testCloseUnmapsAndTruncates() throws Exception {
+        skipIfAndroid();
+        Path file = Files.createTempFile("mapped_sink", ".bin");
+        try {
+            byte[] data = pattern(3000);
+            /* The hint is too large, the response headers correct it once the mapping exists */
+            S3MappedFileSink sink = S3MappedFileSink.open(file, Long.valueOf(4096), false, null);
+            assertEquals(1000, sink.onResponseBody(ByteBuffer.wrap(data, 0, 1000), 0, 1000));
+            sink.onResponseHeaders(206, new HttpHeader[] { new HttpHeader("Content-Range", "bytes 1000-2999/3000") });
+            ByteBuffer direct = ByteBuffer.allocateDirect(2000);
+            direct.put(data, 1000, 2000).flip();
+            assertEquals(2000, sink.onResponseBody(direct, 1000, 3000));
+            assertEquals(3000, sink.getBytesWritten());
+
+            sink.close();
+            assertArrayEquals(data, Files.readAllBytes(file));
+
+            /* The regions are gone: late data fails the meta request instead of touching unmapped memory */
+            assertThrows(UncheckedIOException.class, () -> sink.onResponseBody(ByteBuffer.wrap(data), 0, 3000));
+            sink.close();
+            Files.delete(file);
+            assertFalse(Files.exists(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testRemapKeepsWrittenData() throws Exception {
+        skipIfAndroid();
+        Path file = Files.createTempFile("mapped_sink", ".bin");
+        try {
+            byte[] data = pattern(3000);
+            /* The hint is too small, so the region is mapped again, larger, for the second chunk */
+            S3MappedFileSink sink = S3MappedFileSink.open(file, Long.valueOf(1000), false, null);
+            sink.onResponseBody(ByteBuffer.wrap(data, 0, 1000), 0, 1000);
+            sink.onResponseBody(ByteBuffer.wrap(data, 1000, 2000), 1000, 3000);
+            sink.close();
+            assertArrayEquals(data, Files.readAllBytes(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testMemoryMappedHasNoNativeValue() {
+        assertThrows(IllegalStateException.class,
+                () -> S3MetaRequestOptions.ResponseFileOption.MEMORY_MAPPED.getNativeValue());
+        assertEquals(S3MetaRequestOptions.ResponseFileOption.CREATE_OR_REPLACE,
+                S3MetaRequestOptions.ResponseFileOption.getEnumValueFromInteger(0));
+    }
+}
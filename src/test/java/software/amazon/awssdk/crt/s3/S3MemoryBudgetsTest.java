@@ -0,0 +1,117 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.s3;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.test.CrtTestFixture;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class S3MemoryBudgetsTest extends CrtTestFixture {
+    private static final long MB = 1024 * 1024;
+    private static final long PART_SIZE = 8 * MB;
+
+    public S3MemoryBudgetsTest() {
+    }
+
+    private static S3MemoryBudgets createBudgets() {
+        return new S3MemoryBudgets(256 * MB, Arrays.asList(
+                new S3MemoryBudgetGroup("small", 32 * MB, 64 * MB),
+                new S3MemoryBudgetGroup("bulk", 0, 192 * MB)));
+    }
+
+    @Test
+    public void testEachMetaRequestTakesHalfOfWhatIsLeft() {
+        S3MemoryBudgets budgets = createBudgets();
+        assertEquals(4, budgets.acquire("small", PART_SIZE, 20).getConnections());
+        S3MemoryBudgets.Lease second = budgets.acquire("small", PART_SIZE, 20);
+        assertEquals(2, second.getConnections());
+        assertEquals(1, budgets.acquire("small", PART_SIZE, 20).getConnections());
+        assertEquals(1, budgets.acquire("small", PART_SIZE, 20).getConnections());
+
+        /* The group is at its max, and has meta requests in flight that will return memory */
+        assertThrows(IllegalStateException.class, () -> budgets.acquire("small", PART_SIZE, 20));
+
+        budgets.release(second);
+        assertEquals(1, budgets.acquire("small", PART_SIZE, 20).getConnections());
+        assertEquals(1, budgets.acquire("small", PART_SIZE, 20).getConnections());
+        assertThrows(IllegalStateException.class, () -> budgets.acquire("small", PART_SIZE, 20));
+    }
+
+    @Test
+    public void testConnectionsWithoutBudgetAreKept() {
+        S3MemoryBudgets budgets = createBudgets();
+        assertEquals(2, budgets.acquire("small", PART_SIZE, 2).getConnections());
+        assertEquals(3, budgets.acquire("small", PART_SIZE, 3).getConnections());
+    }
+
+    @Test
+    public void testBorrowingDoesNotTouchGuarantees() {
+        S3MemoryBudgets budgets = createBudgets();
+        int[] expected = { 12, 6, 3, 2, 1 };
+        for (int connections : expected) {
+            assertEquals(connections, budgets.acquire("bulk", PART_SIZE, 20).getConnections());
+        }
+        assertThrows(IllegalStateException.class, () -> budgets.acquire("bulk", PART_SIZE, 20));
+
+        /* The bytes guaranteed to "small" were never lent to "bulk" */
+        assertEquals(4, budgets.acquire("small", PART_SIZE, 20).getConnections());
+    }
+
+    @Test
+    public void testFirstMetaRequestAndUngroupedAlwaysProgress() {
+        S3MemoryBudgets budgets = new S3MemoryBudgets(64 * MB, Collections.singletonList(
+                new S3MemoryBudgetGroup("borrower", 0, 64 * MB)));
+        int[] expected = { 4, 2, 1, 1, 1, 1 };
+        for (int connections : expected) {
+            assertEquals(connections, budgets.acquire(null, PART_SIZE, 20).getConnections());
+        }
+
+        /* Nothing of the group is in flight to return memory, so it gets a connection over budget */
+        assertEquals(1, budgets.acquire("borrower", PART_SIZE, 20).getConnections());
+        assertThrows(IllegalStateException.class, () -> budgets.acquire("borrower", PART_SIZE, 20));
+        assertThrows(IllegalArgumentException.class, () -> budgets.acquire("unknown", PART_SIZE, 20));
+    }
+
+    @Test
+    public void testConcurrentAcquireAndRelease() throws Exception {
+        S3MemoryBudgets budgets = createBudgets();
+        AtomicLong refused = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final String group = t % 2 == 0 ? "small" : "bulk";
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    try {
+                        S3MemoryBudgets.Lease lease = budgets.acquire(group, PART_SIZE, 20);
+                        assertTrue(lease.getConnections() >= 1);
+                        budgets.release(lease);
+                    } catch (IllegalStateException ex) {
+                        refused.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(refused.get() < 8 * 2000);
+
+        /* Every lease was returned, so the budgets are as new */
+        assertEquals(4, budgets.acquire("small", PART_SIZE, 20).getConnections());
+        assertEquals(12, budgets.acquire("bulk", PART_SIZE, 20).getConnections());
+    }
+}
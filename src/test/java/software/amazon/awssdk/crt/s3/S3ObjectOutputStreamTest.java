@@ -0,0 +1,134 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.s3;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.http.HttpRequestBodyStream;
+import software.amazon.awssdk.crt.test.CrtTestFixture;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * Drives the stream's body directly, the way the meta request pulls it, so no client is needed.
+ */
+public class S3ObjectOutputStreamTest extends CrtTestFixture {
+    private static final int PART_BUFFER_SIZE = 16;
+    private static final int PARTS = 6;
+
+    public S3ObjectOutputStreamTest() {
+    }
+
+    private static void awaitBlocked(Thread thread, AtomicInteger parts, int expectedParts) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!(parts.get() == expectedParts && thread.getState() == Thread.State.WAITING)) {
+            assertTrue("writer did not block after " + expectedParts + " parts", System.nanoTime() < deadline);
+            assertTrue(parts.get() <= expectedParts);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void testWriterBlocksUntilBuffersAreRecycled() throws Exception {
+        S3ObjectOutputStream stream = new S3ObjectOutputStream(PART_BUFFER_SIZE, 2, false);
+        HttpRequestBodyStream body = stream.new BodyStream();
+        byte[] data = new byte[PART_BUFFER_SIZE * PARTS];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        AtomicInteger partsWritten = new AtomicInteger();
+        CompletableFuture<Void> writerDone = new CompletableFuture<>();
+        Thread writer = new Thread(() -> {
+            try {
+                for (int part = 0; part < PARTS; part++) {
+                    stream.write(data, part * PART_BUFFER_SIZE, PART_BUFFER_SIZE);
+                    partsWritten.incrementAndGet();
+                }
+                stream.close();
+                writerDone.complete(null);
+            } catch (IOException ex) {
+                writerDone.completeExceptionally(ex);
+            }
+        });
+        writer.start();
+
+        /* Both buffers are filled and nothing has been read, so the third write waits */
+        awaitBlocked(writer, partsWritten, 2);
+
+        ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+        ByteBuffer read = ByteBuffer.allocate(PART_BUFFER_SIZE);
+        assertFalse(body.sendRequestBody(read));
+        uploaded.write(read.array(), 0, read.position());
+
+        /* Reading a whole part recycled its buffer, which lets exactly one more part in */
+        awaitBlocked(writer, partsWritten, 3);
+
+        boolean done = false;
+        while (!done) {
+            read.clear();
+            done = body.sendRequestBody(read);
+            uploaded.write(read.array(), 0, read.position());
+        }
+        assertArrayEquals(data, uploaded.toByteArray());
+
+        /* close() waits for the upload to finish */
+        assertFalse(writerDone.isDone());
+        stream.getFinishedFuture().complete(null);
+        writerDone.get(10, TimeUnit.SECONDS);
+        writer.join();
+    }
+
+    @Test
+    public void testBodyReadReturnsAtOnceWithoutData() throws Exception {
+        S3ObjectOutputStream stream = new S3ObjectOutputStream(PART_BUFFER_SIZE, 2, false);
+        HttpRequestBodyStream body = stream.new BodyStream();
+
+        /* No data yet: the read returns empty-handed instead of parking the event loop thread */
+        ByteBuffer read = ByteBuffer.allocate(PART_BUFFER_SIZE);
+        assertFalse(body.sendRequestBody(read));
+        assertEquals(0, read.position());
+
+        /* A filled part is read, the partial one waits for close() */
+        stream.write(new byte[PART_BUFFER_SIZE + PART_BUFFER_SIZE / 2]);
+        assertFalse(body.sendRequestBody(read));
+        assertEquals(PART_BUFFER_SIZE, read.position());
+        read.clear();
+        assertFalse(body.sendRequestBody(read));
+        assertEquals(0, read.position());
+
+        stream.getFinishedFuture().complete(null);
+        stream.close();
+        read.clear();
+        assertTrue(body.sendRequestBody(read));
+        assertEquals(PART_BUFFER_SIZE / 2, read.position());
+    }
+
+    @Test
+    public void testBodyReadNoticesEndedUpload() throws Exception {
+        S3ObjectOutputStream stream = new S3ObjectOutputStream(PART_BUFFER_SIZE, 2, true);
+        HttpRequestBodyStream body = stream.new BodyStream();
+
+        /* No data yet: the read waits, as the meta request would on its event loop thread when opted in */
+        CompletableFuture<Boolean> reader = CompletableFuture.supplyAsync(
+                () -> body.sendRequestBody(ByteBuffer.allocate(PART_BUFFER_SIZE)));
+        Thread.sleep(3 * S3ObjectOutputStream.BODY_WAIT_MILLIS);
+        assertFalse(reader.isDone());
+
+        /* Cancelling the future does not signal the read, the timed wait finds out by itself */
+        stream.getFinishedFuture().cancel(false);
+        assertTrue(reader.get(10 * S3ObjectOutputStream.BODY_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+    }
+}
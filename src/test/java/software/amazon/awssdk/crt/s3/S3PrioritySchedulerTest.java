@@ -0,0 +1,81 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.s3;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.s3.S3MetaRequestOptions.Priority;
+import software.amazon.awssdk.crt.test.CrtTestFixture;
+
+import static org.junit.Assert.assertEquals;
+
+public class S3PrioritySchedulerTest extends CrtTestFixture {
+    public S3PrioritySchedulerTest() {
+    }
+
+    @Test
+    public void testShares() {
+        S3PriorityScheduler scheduler = new S3PriorityScheduler(16, 0.25);
+        assertEquals(16, scheduler.getConnections());
+        assertEquals(4, scheduler.getBackgroundConnections());
+
+        /* At least one connection for each class, and two connections in all */
+        S3PriorityScheduler tiny = new S3PriorityScheduler(1, 0.01);
+        assertEquals(2, tiny.getConnections());
+        assertEquals(1, tiny.getBackgroundConnections());
+        assertEquals(3, new S3PriorityScheduler(4, 0.99).getBackgroundConnections());
+    }
+
+    @Test
+    public void testForegroundAloneIsUnlimited() {
+        S3PriorityScheduler scheduler = new S3PriorityScheduler(16, 0.25);
+        assertEquals(0, scheduler.admit(Priority.FOREGROUND));
+        assertEquals(0, scheduler.admit(Priority.FOREGROUND));
+        scheduler.release(Priority.FOREGROUND);
+        scheduler.release(Priority.FOREGROUND);
+        assertEquals(0, scheduler.admit(Priority.FOREGROUND));
+    }
+
+    @Test
+    public void testBackgroundStaysWithinItsShareWhenIdle() {
+        S3PriorityScheduler scheduler = new S3PriorityScheduler(16, 0.25);
+        /* No foreground work yet, but a foreground request arriving later must find its connections free */
+        assertEquals(4, scheduler.admit(Priority.BACKGROUND));
+        assertEquals(12, scheduler.admit(Priority.FOREGROUND));
+    }
+
+    @Test
+    public void testBackgroundSplitsItsShare() {
+        S3PriorityScheduler scheduler = new S3PriorityScheduler(16, 0.25);
+        assertEquals(4, scheduler.admit(Priority.BACKGROUND));
+        assertEquals(2, scheduler.admit(Priority.BACKGROUND));
+        assertEquals(1, scheduler.admit(Priority.BACKGROUND));
+        assertEquals(1, scheduler.admit(Priority.BACKGROUND));
+        assertEquals(1, scheduler.admit(Priority.BACKGROUND));
+    }
+
+    @Test
+    public void testReleaseRestoresLimits() {
+        S3PriorityScheduler scheduler = new S3PriorityScheduler(16, 0.25);
+        assertEquals(0, scheduler.admit(Priority.FOREGROUND));
+        assertEquals(4, scheduler.admit(Priority.BACKGROUND));
+        assertEquals(2, scheduler.admit(Priority.BACKGROUND));
+        assertEquals(12, scheduler.admit(Priority.FOREGROUND));
+
+        scheduler.release(Priority.BACKGROUND);
+        assertEquals(2, scheduler.admit(Priority.BACKGROUND));
+        scheduler.release(Priority.BACKGROUND);
+        scheduler.release(Priority.BACKGROUND);
+        assertEquals(4, scheduler.admit(Priority.BACKGROUND));
+        scheduler.release(Priority.BACKGROUND);
+
+        /* Once background work is done, foreground requests are unlimited again */
+        assertEquals(0, scheduler.admit(Priority.FOREGROUND));
+        scheduler.release(Priority.FOREGROUND);
+        scheduler.release(Priority.FOREGROUND);
+        scheduler.release(Priority.FOREGROUND);
+        assertEquals(4, scheduler.admit(Priority.BACKGROUND));
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.s3;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.test.CrtTestFixture;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * Drives the publisher's response handler callbacks directly, with a meta request that records what the
+ * publisher asks of it instead of calling into native code.
+ */
+public class S3ResponseBodyPublisherTest extends CrtTestFixture {
+
+    public S3ResponseBodyPublisherTest() {
+    }
+
+    private static class RecordingMetaRequest extends S3MetaRequest {
+        final List<Long> windowIncrements = new ArrayList<>();
+        boolean cancelled = false;
+
+        RecordingMetaRequest(boolean readBackpressureEnabled) {
+            super(readBackpressureEnabled);
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        synchronized boolean incrementReadWindowIfOpen(long bytes) {
+            windowIncrements.add(bytes);
+            return true;
+        }
+    }
+
+    private static class RecordingSubscriber implements S3ResponseBodyPublisher.Subscriber {
+        S3ResponseBodyPublisher.Subscription subscription;
+        final List<ByteBuffer> items = new ArrayList<>();
+        Throwable error;
+        boolean completed = false;
+
+        @Override
+        public void onSubscribe(S3ResponseBodyPublisher.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
+    @Test
+    public void testNonPositiveRequestFailsSubscriberAndCancels() {
+        S3ResponseBodyPublisher publisher = new S3ResponseBodyPublisher();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(0);
+
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        /* The meta request is cancelled as soon as it is attached */
+        try (RecordingMetaRequest metaRequest = new RecordingMetaRequest(true)) {
+            publisher.attach(metaRequest);
+            assertTrue(metaRequest.cancelled);
+        }
+    }
+
+    @Test
+    public void testDemandIncrementsWindowWithBackpressure() {
+        S3ResponseBodyPublisher publisher = new S3ResponseBodyPublisher();
+        try (RecordingMetaRequest metaRequest = new RecordingMetaRequest(true)) {
+            publisher.attach(metaRequest);
+            RecordingSubscriber subscriber = new RecordingSubscriber();
+            publisher.subscribe(subscriber);
+
+            publisher.onResponseBody(ByteBuffer.allocate(10), 0, 10);
+            publisher.onResponseBody(ByteBuffer.allocate(20), 10, 30);
+            assertTrue(metaRequest.windowIncrements.isEmpty());
+
+            subscriber.subscription.request(1);
+            assertEquals(1, subscriber.items.size());
+            assertEquals(1, metaRequest.windowIncrements.size());
+            assertEquals(10L, (long) metaRequest.windowIncrements.get(0));
+
+            subscriber.subscription.request(1);
+            assertEquals(2, subscriber.items.size());
+            assertEquals(20L, (long) metaRequest.windowIncrements.get(1));
+            assertFalse(metaRequest.cancelled);
+        }
+    }
+
+    @Test
+    public void testNoWindowIncrementsWithoutBackpressure() {
+        S3ResponseBodyPublisher publisher = new S3ResponseBodyPublisher();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        /* Data consumed before attaching is credited on attach, when backpressure is on */
+        publisher.onResponseBody(ByteBuffer.allocate(10), 0, 10);
+        try (RecordingMetaRequest metaRequest = new RecordingMetaRequest(false)) {
+            publisher.attach(metaRequest);
+            publisher.onResponseBody(ByteBuffer.allocate(20), 10, 30);
+
+            assertEquals(2, subscriber.items.size());
+            assertTrue(metaRequest.windowIncrements.isEmpty());
+        }
+    }
+}
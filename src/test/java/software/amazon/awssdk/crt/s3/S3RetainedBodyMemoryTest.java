@@ -0,0 +1,35 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.s3;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.test.CrtTestFixture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+public class S3RetainedBodyMemoryTest extends CrtTestFixture {
+
+    public S3RetainedBodyMemoryTest() {
+    }
+
+    @Test
+    public void testRetainedBytesAreBoundedByLimit() {
+        S3RetainedBodyMemory memory = new S3RetainedBodyMemory(100);
+        memory.reserve(60);
+        memory.reserve(40);
+        assertEquals(100, memory.getRetainedBytes());
+
+        /* A refused reservation takes nothing */
+        assertThrows(IllegalStateException.class, () -> memory.reserve(1));
+        assertEquals(100, memory.getRetainedBytes());
+
+        memory.unreserve(60);
+        memory.reserve(50);
+        assertEquals(90, memory.getRetainedBytes());
+        assertThrows(IllegalStateException.class, () -> memory.reserve(11));
+    }
+}
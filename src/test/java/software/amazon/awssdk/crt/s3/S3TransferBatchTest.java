@@ -0,0 +1,194 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.s3;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.http.HttpHeader;
+import software.amazon.awssdk.crt.test.CrtTestFixture;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/*
+ * Runs batches against a meta request factory that records the options of each started item instead of
+ * sending anything, and finishes items by calling their response handler the way the native client would.
+ */
+public class S3TransferBatchTest extends CrtTestFixture {
+
+    public S3TransferBatchTest() {
+    }
+
+    private static class RecordingFactory implements Function<S3MetaRequestOptions, S3MetaRequest> {
+        final List<S3MetaRequestOptions> started = new ArrayList<>();
+
+        @Override
+        public synchronized S3MetaRequest apply(S3MetaRequestOptions options) {
+            started.add(options);
+            /* Never acquires a native handle, closing it when the item finishes is a no-op */
+            return new S3MetaRequest();
+        }
+
+        synchronized List<String> startedKeys() {
+            List<String> keys = new ArrayList<>();
+            for (S3MetaRequestOptions options : started) {
+                keys.add(options.getHttpRequest().getEncodedPath().substring(1));
+            }
+            return keys;
+        }
+
+        void finish(String key) {
+            S3MetaRequestOptions options;
+            synchronized (this) {
+                options = started.get(startedKeys().indexOf(key));
+            }
+            options.getResponseHandler().onFinished(
+                    new S3FinishedResponseContext(0, 200, null, null, ChecksumAlgorithm.NONE, false, null, null));
+        }
+    }
+
+    private static S3TransferBatch.Item item(String key, long size) {
+        S3MetaRequestOptions options = new S3MetaRequestOptions()
+                .withMetaRequestType(S3MetaRequestOptions.MetaRequestType.GET_OBJECT)
+                .withHttpRequest(new software.amazon.awssdk.crt.http.HttpRequest("GET", "/" + key));
+        return new S3TransferBatch.Item(key, size, size, options);
+    }
+
+    @Test
+    public void testLargestFirstWithBackfill() throws Exception {
+        RecordingFactory factory = new RecordingFactory();
+        S3TransferBatch batch = new S3TransferBatch(factory, 2, 100, null);
+        CompletableFuture<S3TransferBatchResult> future = batch.run(Arrays.asList(
+                item("small", 5), item("large", 80), item("medium", 10), item("big", 60)));
+
+        /* "big" does not fit next to "large", so the smallest item fills the budget in */
+        assertEquals(Arrays.asList("large", "small"), factory.startedKeys());
+
+        factory.finish("small");
+        assertEquals(Arrays.asList("large", "small", "medium"), factory.startedKeys());
+
+        factory.finish("large");
+        assertEquals(Arrays.asList("large", "small", "medium", "big"), factory.startedKeys());
+
+        factory.finish("medium");
+        factory.finish("big");
+        S3TransferBatchResult result = future.get();
+        assertEquals(4, result.getSucceededCount());
+        assertTrue(result.isSuccessful());
+    }
+
+    @Test
+    public void testInFlightBytesLimit() throws Exception {
+        RecordingFactory factory = new RecordingFactory();
+        S3TransferBatch batch = new S3TransferBatch(factory, 10, 100, null);
+        List<S3TransferBatch.Item> items = Arrays.asList(
+                item("a", 40), item("b", 40), item("c", 40), item("huge", 500));
+        CompletableFuture<S3TransferBatchResult> future = batch.run(items);
+
+        /* Only an item with nothing else in flight may exceed the budget */
+        assertEquals(Collections.singletonList("huge"), factory.startedKeys());
+        factory.finish("huge");
+        assertEquals(Arrays.asList("huge", "a", "b"), factory.startedKeys());
+
+        factory.finish("a");
+        assertEquals(Arrays.asList("huge", "a", "b", "c"), factory.startedKeys());
+        factory.finish("b");
+        factory.finish("c");
+        assertEquals(4, future.get().getSucceededCount());
+
+        /* The batch hands the factory copies, and leaves the caller's options alone */
+        for (S3TransferBatch.Item item : items) {
+            assertNull(item.options.getResponseHandler());
+        }
+    }
+
+    @Test
+    public void testDownloadKeyMapping() throws Exception {
+        Path root = Files.createTempDirectory("S3TransferBatchTest");
+        try {
+            RecordingFactory factory = new RecordingFactory();
+            S3DirectoryTransfer transfer = new S3DirectoryTransfer(factory, new S3DirectoryTransferOptions()
+                    .withHost("bucket.example.com").withKeyPrefix("photos/"));
+            CompletableFuture<S3TransferBatchResult> future = transfer.downloadObjects(root,
+                    Arrays.asList("photos/2024/a b.jpg", "other/c.jpg"));
+
+            Map<String, Path> files = new HashMap<>();
+            for (S3MetaRequestOptions options : factory.started) {
+                files.put(options.getHttpRequest().getEncodedPath(), options.getResponseFilePath());
+            }
+            assertEquals(root.resolve("2024").resolve("a b.jpg"), files.get("/photos/2024/a%20b.jpg"));
+            assertEquals(root.resolve("other").resolve("c.jpg"), files.get("/other/c.jpg"));
+            assertTrue(Files.isDirectory(root.resolve("2024")));
+
+            factory.finish("photos/2024/a%20b.jpg");
+            factory.finish("other/c.jpg");
+            assertEquals(2, future.get().getSucceededCount());
+
+            try {
+                transfer.downloadObjects(root, Collections.singletonList("photos/../../escape"));
+                fail("a key outside of the directory must be rejected");
+            } catch (IllegalArgumentException expected) {
+            }
+        } finally {
+            deleteTree(root);
+        }
+    }
+
+    @Test
+    public void testUploadKeyMapping() throws Exception {
+        Path root = Files.createTempDirectory("S3TransferBatchTest");
+        try {
+            Files.write(root.resolve("a.txt"), new byte[3]);
+            Files.createDirectories(root.resolve("sub"));
+            Files.write(root.resolve("sub").resolve("b.txt"), new byte[5]);
+
+            RecordingFactory factory = new RecordingFactory();
+            S3DirectoryTransfer transfer = new S3DirectoryTransfer(factory, new S3DirectoryTransferOptions()
+                    .withHost("bucket.example.com").withKeyPrefix("backup/"));
+            CompletableFuture<S3TransferBatchResult> future = transfer.uploadDirectory(root);
+
+            Map<String, String> contentLengths = new HashMap<>();
+            for (S3MetaRequestOptions options : factory.started) {
+                for (HttpHeader header : options.getHttpRequest().getHeaders()) {
+                    if (header.getName().equals("Content-Length")) {
+                        contentLengths.put(options.getHttpRequest().getEncodedPath(), header.getValue());
+                    }
+                }
+            }
+            assertEquals(2, contentLengths.size());
+            assertEquals("3", contentLengths.get("/backup/a.txt"));
+            assertEquals("5", contentLengths.get("/backup/sub/b.txt"));
+
+            factory.finish("backup/a.txt");
+            factory.finish("backup/sub/b.txt");
+            assertEquals(2, future.get().getSucceededCount());
+        } finally {
+            deleteTree(root);
+        }
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
@@ -213,4 +213,133 @@ public class CrcTest extends CrtTestFixture {
         long expected = 0xB9D9D4A8492CBD7FL;
         assertEquals(expected, crc64.getValue());
     }
+
+    private static byte[] randomBytes(int length) {
+        byte[] data = new byte[length];
+        new java.util.Random(42).nextBytes(data);
+        return data;
+    }
+
+    @Test
+    public void testCrcCombine() {
+        byte[] data = randomBytes(100000);
+        int[] splits = { 0, 1, 4095, 50000, 99999, 100000 };
+        for (int split : splits) {
+            int lengthB = data.length - split;
+
+            software.amazon.awssdk.crt.checksums.CRC32 crc32 = new software.amazon.awssdk.crt.checksums.CRC32();
+            crc32.update(data, 0, split);
+            long crc32A = crc32.getValue();
+            crc32.reset();
+            crc32.update(data, split, lengthB);
+            java.util.zip.CRC32 crc32Whole = new java.util.zip.CRC32();
+            crc32Whole.update(data);
+            assertEquals(crc32Whole.getValue(),
+                    software.amazon.awssdk.crt.checksums.CRC32.combine(crc32A, crc32.getValue(), lengthB));
+
+            software.amazon.awssdk.crt.checksums.CRC32C crc32c = new software.amazon.awssdk.crt.checksums.CRC32C();
+            crc32c.update(data);
+            long crc32cWhole = crc32c.getValue();
+            crc32c.reset();
+            crc32c.update(data, 0, split);
+            long crc32cA = crc32c.getValue();
+            crc32c.reset();
+            crc32c.update(data, split, lengthB);
+            assertEquals(crc32cWhole,
+                    software.amazon.awssdk.crt.checksums.CRC32C.combine(crc32cA, crc32c.getValue(), lengthB));
+
+            software.amazon.awssdk.crt.checksums.CRC64NVME crc64 = new software.amazon.awssdk.crt.checksums.CRC64NVME();
+            crc64.update(data);
+            long crc64Whole = crc64.getValue();
+            crc64.reset();
+            crc64.update(data, 0, split);
+            long crc64A = crc64.getValue();
+            crc64.reset();
+            crc64.update(data, split, lengthB);
+            assertEquals(crc64Whole,
+                    software.amazon.awssdk.crt.checksums.CRC64NVME.combine(crc64A, crc64.getValue(), lengthB));
+        }
+    }
+
+    @Test
+    public void testParallelChecksum() throws Exception {
+        byte[] data = randomBytes(3 * 1024 * 1024 + 123);
+        java.nio.file.Path file = java.nio.file.Files.createTempFile("parallel_checksum", ".bin");
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+        try {
+            java.nio.file.Files.write(file, data);
+            java.nio.ByteBuffer direct = java.nio.ByteBuffer.allocateDirect(data.length);
+            direct.put(data).flip();
+
+            for (software.amazon.awssdk.crt.checksums.ParallelChecksum.Algorithm algorithm
+                    : software.amazon.awssdk.crt.checksums.ParallelChecksum.Algorithm.values()) {
+                java.util.zip.Checksum sequential;
+                switch (algorithm) {
+                    case CRC32:
+                        sequential = new software.amazon.awssdk.crt.checksums.CRC32();
+                        break;
+                    case CRC32C:
+                        sequential = new software.amazon.awssdk.crt.checksums.CRC32C();
+                        break;
+                    default:
+                        sequential = new software.amazon.awssdk.crt.checksums.CRC64NVME();
+                }
+                sequential.update(data, 0, data.length);
+                long expected = sequential.getValue();
+
+                assertEquals(expected, software.amazon.awssdk.crt.checksums.ParallelChecksum.compute(algorithm,
+                        java.nio.ByteBuffer.wrap(data), pool, 64 * 1024));
+                assertEquals(expected, software.amazon.awssdk.crt.checksums.ParallelChecksum.compute(algorithm,
+                        direct, pool, 100 * 1000));
+                assertEquals(0, direct.position());
+                assertEquals(expected, software.amazon.awssdk.crt.checksums.ParallelChecksum.compute(algorithm,
+                        file, pool));
+                try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(file)) {
+                    assertEquals(expected, software.amazon.awssdk.crt.checksums.ParallelChecksum.compute(algorithm,
+                            channel, 0, data.length, null, 256 * 1024));
+                }
+            }
+        } finally {
+            pool.shutdown();
+            java.nio.file.Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testUpdateByteBuffer() {
+        byte[] data = randomBytes(256 * 1024 + 7);
+        java.nio.ByteBuffer direct = java.nio.ByteBuffer.allocateDirect(data.length + 10);
+        direct.position(10);
+        direct.put(data);
+        direct.position(10);
+        java.nio.ByteBuffer heap = java.nio.ByteBuffer.wrap(data);
+        java.nio.ByteBuffer readOnly = java.nio.ByteBuffer.wrap(data).asReadOnlyBuffer();
+
+        java.util.zip.CRC32 crc32j = new java.util.zip.CRC32();
+        crc32j.update(data, 0, data.length);
+        software.amazon.awssdk.crt.checksums.CRC32C crc32cArray = new software.amazon.awssdk.crt.checksums.CRC32C();
+        crc32cArray.update(data, 0, data.length);
+        software.amazon.awssdk.crt.checksums.CRC64NVME crc64Array = new software.amazon.awssdk.crt.checksums.CRC64NVME();
+        crc64Array.update(data, 0, data.length);
+
+        for (java.nio.ByteBuffer buffer : new java.nio.ByteBuffer[] { direct, heap, readOnly }) {
+            int position = buffer.position();
+            software.amazon.awssdk.crt.checksums.CRC32 crc32 = new software.amazon.awssdk.crt.checksums.CRC32();
+            crc32.update(buffer);
+            assertEquals(crc32j.getValue(), crc32.getValue());
+            assertEquals(buffer.limit(), buffer.position());
+
+            buffer.position(position);
+            software.amazon.awssdk.crt.checksums.CRC32C crc32c = new software.amazon.awssdk.crt.checksums.CRC32C();
+            crc32c.update(buffer);
+            assertEquals(crc32cArray.getValue(), crc32c.getValue());
+
+            buffer.position(position);
+            software.amazon.awssdk.crt.checksums.CRC64NVME crc64 = new software.amazon.awssdk.crt.checksums.CRC64NVME();
+            crc64.update(buffer);
+            assertEquals(crc64Array.getValue(), crc64.getValue());
+            crc64.update(buffer);
+            assertEquals(crc64Array.getValue(), crc64.getValue());
+        }
+    }
 }
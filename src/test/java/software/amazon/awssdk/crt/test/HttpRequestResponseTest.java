@@ -10,6 +10,8 @@ import static software.amazon.awssdk.crt.utils.ByteBufferUtils.transferData;
 import org.junit.Assert;
 import org.junit.Test;
 import software.amazon.awssdk.crt.CrtResource;
+import software.amazon.awssdk.crt.http.ByteBufferListRequestBodyStream;
+import software.amazon.awssdk.crt.http.FileChannelRequestBodyStream;
 import software.amazon.awssdk.crt.http.HttpClientConnection;
 import software.amazon.awssdk.crt.http.HttpClientConnectionManager;
 import software.amazon.awssdk.crt.http.HttpVersion;
@@ -21,6 +23,11 @@ import software.amazon.awssdk.crt.http.HttpStream;
 
 import java.net.URI;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -210,6 +217,59 @@ public class HttpRequestResponseTest extends HttpRequestResponseFixture {
         testHttpUpload(true);
     }
 
+    @Test
+    public void testHttpUploadFromFileChannelWithStagedFills() throws Exception {
+        skipIfAndroid();
+        skipIfLocalhostUnavailable();
+        byte[] bodyBytes = TEST_DOC_LINE.getBytes(UTF8);
+        Path bodyPath = Files.createTempFile("testHttpUploadFromFileChannel", ".txt");
+        Files.write(bodyPath, bodyBytes);
+        try (FileChannel channel = FileChannel.open(bodyPath)) {
+            /* A fill size smaller than the body makes native serve reads from its staging buffer across refills */
+            FileChannelRequestBodyStream bodyStream = new FileChannelRequestBodyStream(channel, 0, bodyBytes.length, 64);
+            URI uri = new URI(HOST);
+            HttpHeader[] requestHeaders = new HttpHeader[] { new HttpHeader("Host", uri.getHost()),
+                    new HttpHeader("Content-Length", Integer.toString(bodyBytes.length)) };
+            HttpRequest request = new HttpRequest("PUT", "/put", requestHeaders, bodyStream);
+
+            TestHttpResponse response = getResponse(uri, request, null, HttpVersion.HTTP_1_1);
+            Assert.assertEquals(200, response.statusCode);
+            Assert.assertTrue(response.getBody().contains(TEST_DOC_LINE));
+        } finally {
+            Files.deleteIfExists(bodyPath);
+        }
+    }
+
+    @Test
+    public void testHttpUploadFromByteBufferList() throws Exception {
+        skipIfAndroid();
+        skipIfLocalhostUnavailable();
+        byte[] bodyBytes = TEST_DOC_LINE.getBytes(UTF8);
+        for (boolean direct : new boolean[] { true, false }) {
+            /* Direct buffers are gathered by native, heap buffers are copied out by sendRequestBody() */
+            List<ByteBuffer> buffers = new ArrayList<>();
+            for (int offset = 0; offset < bodyBytes.length; offset += 7) {
+                int length = Math.min(7, bodyBytes.length - offset);
+                ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length);
+                buffer.put(bodyBytes, offset, length);
+                buffer.flip();
+                buffers.add(buffer);
+            }
+            ByteBufferListRequestBodyStream bodyStream = new ByteBufferListRequestBodyStream(buffers);
+            Assert.assertEquals(direct, bodyStream.getGatherBuffers() != null);
+            URI uri = new URI(HOST);
+            HttpHeader[] requestHeaders = new HttpHeader[] { new HttpHeader("Host", uri.getHost()),
+                    new HttpHeader("Content-Length", Integer.toString(bodyBytes.length)) };
+            HttpRequest request = new HttpRequest("PUT", "/put", requestHeaders, bodyStream);
+
+            TestHttpResponse response = getResponse(uri, request, null, HttpVersion.HTTP_1_1);
+            Assert.assertEquals(200, response.statusCode);
+            Assert.assertTrue(response.getBody().contains(TEST_DOC_LINE));
+            /* The stream reads through views, so the caller's buffers are left as they were */
+            Assert.assertEquals(0, buffers.get(0).position());
+        }
+    }
+
     private void doHttpRequestUnActivatedTest() {
         try {
             URI uri = new URI(HOST);
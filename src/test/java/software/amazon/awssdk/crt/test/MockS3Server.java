@@ -0,0 +1,546 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+package software.amazon.awssdk.crt.test;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process HTTP server that speaks enough of the S3 protocol for the S3Client:
+ * GetObject (with ranges and If-Match), HeadObject, PutObject, ListObjectsV2 and the multipart upload operations,
+ * including the ListParts request of a resumed upload.
+ * <p>
+ * Objects hold no data. Their content is a fixed byte pattern generated as it is sent, so that objects of
+ * any size cost no memory, and uploaded data is read and dropped, keeping only the object's size.
+ * Authentication is not checked, so any static credentials work.
+ * <p>
+ * Latency, bandwidth and error rate can be changed at any time, and apply to requests that start after the change.
+ */
+public final class MockS3Server implements AutoCloseable {
+
+    /* Period of the content pattern, prime so that part boundaries don't line up with it */
+    private static final int PATTERN_PERIOD = 251;
+    private static final int WRITE_CHUNK_SIZE = 256 * 1024;
+    private static final byte[] PATTERN = new byte[WRITE_CHUNK_SIZE + PATTERN_PERIOD];
+    static {
+        for (int i = 0; i < PATTERN.length; i++) {
+            PATTERN[i] = (byte) (i % PATTERN_PERIOD);
+        }
+    }
+
+    private final Map<String, Long> objects = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, Long>> uploads = new ConcurrentHashMap<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong injectedErrorCount = new AtomicLong();
+
+    private volatile int latencyMillis;
+    private volatile long bandwidthBytesPerSecond;
+    private volatile double errorRate;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Delay before the server answers each request.
+     *
+     * @param latencyMillis delay in milliseconds, 0 for none
+     * @return this
+     */
+    public MockS3Server withLatencyMillis(int latencyMillis) {
+        if (latencyMillis < 0) {
+            throw new IllegalArgumentException("MockS3Server: latency must not be negative.");
+        }
+        this.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    /**
+     * Rate at which each request's body is sent or received, like the per-connection bandwidth of S3.
+     *
+     * @param bandwidthBytesPerSecond bytes per second per request, 0 for no limit
+     * @return this
+     */
+    public MockS3Server withBandwidthBytesPerSecond(long bandwidthBytesPerSecond) {
+        if (bandwidthBytesPerSecond < 0) {
+            throw new IllegalArgumentException("MockS3Server: bandwidth must not be negative.");
+        }
+        this.bandwidthBytesPerSecond = bandwidthBytesPerSecond;
+        return this;
+    }
+
+    /**
+     * Share of requests answered with 503 SlowDown, which the S3Client retries.
+     *
+     * @param errorRate share of requests that fail, between 0 and 1
+     * @return this
+     */
+    public MockS3Server withErrorRate(double errorRate) {
+        if (!(errorRate >= 0 && errorRate <= 1)) {
+            throw new IllegalArgumentException("MockS3Server: error rate must be between 0 and 1.");
+        }
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * Start serving on an ephemeral port of the loopback interface.
+     *
+     * @return this
+     * @throws IOException if the server cannot bind
+     */
+    public MockS3Server start() throws IOException {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "MockS3Server-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        return this;
+    }
+
+    /**
+     * @return endpoint to pass to S3MetaRequestOptions.withEndpoint
+     */
+    public URI getEndpoint() {
+        return URI.create("http://" + getHost());
+    }
+
+    /**
+     * @return value for the Host header of requests to this server
+     */
+    public String getHost() {
+        InetSocketAddress address = server.getAddress();
+        return address.getAddress().getHostAddress() + ":" + address.getPort();
+    }
+
+    /**
+     * Create or replace an object.
+     *
+     * @param path path of the object, as in the request, for example "/bucket/key"
+     * @param size size of the object in bytes
+     */
+    public void putObject(String path, long size) {
+        objects.put(path, size);
+    }
+
+    /**
+     * @param path path of the object
+     * @return size of the object, or -1 if it does not exist
+     */
+    public long getObjectSize(String path) {
+        Long size = objects.get(path);
+        return size != null ? size : -1;
+    }
+
+    /**
+     * @return number of requests received, including failed ones
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return number of requests failed on purpose
+     */
+    public long getInjectedErrorCount() {
+        return injectedErrorCount.get();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requestCount.incrementAndGet();
+            int latency = latencyMillis;
+            if (latency > 0) {
+                Thread.sleep(latency);
+            }
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                injectedErrorCount.incrementAndGet();
+                drain(exchange);
+                sendError(exchange, 503, "SlowDown", "Please reduce your request rate.");
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String uploadId = query.get("uploadId");
+            switch (exchange.getRequestMethod()) {
+                case "GET":
+                case "HEAD":
+                    if (query.containsKey("list-type")) {
+                        listObjects(exchange, path, query);
+                    } else if (uploadId != null) {
+                        listParts(exchange, path, uploadId);
+                    } else {
+                        getObject(exchange, path);
+                    }
+                    break;
+                case "PUT":
+                    if (uploadId != null) {
+                        uploadPart(exchange, uploadId, query.get("partNumber"));
+                    } else {
+                        long size = drain(exchange);
+                        objects.put(path, size);
+                        exchange.getResponseHeaders().set("ETag", etag(path, size));
+                        exchange.sendResponseHeaders(200, -1);
+                    }
+                    break;
+                case "POST":
+                    if (query.containsKey("uploads")) {
+                        createMultipartUpload(exchange, path);
+                    } else if (uploadId != null) {
+                        completeMultipartUpload(exchange, path, uploadId);
+                    } else {
+                        sendError(exchange, 400, "InvalidRequest", "Unsupported POST.");
+                    }
+                    break;
+                case "DELETE":
+                    if (uploadId != null) {
+                        uploads.remove(uploadId);
+                    } else {
+                        objects.remove(path);
+                    }
+                    exchange.sendResponseHeaders(204, -1);
+                    break;
+                default:
+                    sendError(exchange, 405, "MethodNotAllowed", "Unsupported method.");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void getObject(HttpExchange exchange, String path) throws IOException, InterruptedException {
+        Long size = objects.get(path);
+        if (size == null) {
+            sendError(exchange, 404, "NoSuchKey", "The specified key does not exist.");
+            return;
+        }
+        String ifMatch = exchange.getRequestHeaders().getFirst("If-Match");
+        if (ifMatch != null && !ifMatch.equals(etag(path, size))) {
+            sendError(exchange, 412, "PreconditionFailed", "At least one of the pre-conditions you specified did not hold");
+            return;
+        }
+        long start = 0;
+        long end = size - 1;
+        int status = 200;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if (range != null && range.startsWith("bytes=")) {
+            String[] bounds = range.substring("bytes=".length()).split("-", 2);
+            if (bounds[0].isEmpty()) {
+                start = Math.max(0, size - Long.parseLong(bounds[1]));
+            } else {
+                start = Long.parseLong(bounds[0]);
+                if (!bounds[1].isEmpty()) {
+                    end = Math.min(end, Long.parseLong(bounds[1]));
+                }
+            }
+            if (start >= size || start > end) {
+                exchange.getResponseHeaders().set("Content-Range", "bytes */" + size);
+                sendError(exchange, 416, "InvalidRange", "The requested range is not satisfiable.");
+                return;
+            }
+            status = 206;
+            exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + size);
+        }
+
+        long length = end - start + 1;
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("ETag", etag(path, size));
+        headers.set("Accept-Ranges", "bytes");
+        headers.set("Content-Type", "binary/octet-stream");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            headers.set("Content-Length", Long.toString(length));
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, length > 0 ? length : -1);
+        OutputStream body = exchange.getResponseBody();
+        long bandwidth = bandwidthBytesPerSecond;
+        long startNanos = System.nanoTime();
+        long sent = 0;
+        while (sent < length) {
+            int chunk = (int) Math.min(WRITE_CHUNK_SIZE, length - sent);
+            body.write(PATTERN, (int) ((start + sent) % PATTERN_PERIOD), chunk);
+            sent += chunk;
+            pace(bandwidth, startNanos, sent);
+        }
+    }
+
+    /*
+     * ListObjectsV2 of the objects below a path, "/" for virtual-hosted requests or "/bucket" for path-style ones.
+     * The continuation token is the last key or common prefix returned, which is enough for tests.
+     */
+    private void listObjects(HttpExchange exchange, String path, Map<String, String> query) throws IOException {
+        String base = path.endsWith("/") ? path : path + "/";
+        String prefix = decodeParam(query.get("prefix"));
+        String delimiter = query.containsKey("delimiter") ? decodeParam(query.get("delimiter")) : null;
+        String token = query.containsKey("continuation-token") ? decodeParam(query.get("continuation-token")) : null;
+        int maxKeys = query.containsKey("max-keys") ? Integer.parseInt(query.get("max-keys")) : 1000;
+        boolean urlEncoded = "url".equals(query.get("encoding-type"));
+
+        TreeMap<String, Long> keys = new TreeMap<>();
+        for (Map.Entry<String, Long> object : objects.entrySet()) {
+            if (object.getKey().startsWith(base)) {
+                String key = object.getKey().substring(base.length());
+                if (key.startsWith(prefix)) {
+                    keys.put(key, object.getValue());
+                }
+            }
+        }
+        /* Keys and common prefixes after the token, in order. Common prefixes have a null size */
+        List<String> names = new ArrayList<>();
+        List<Long> sizes = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : keys.entrySet()) {
+            String name = entry.getKey();
+            Long size = entry.getValue();
+            int split = delimiter != null ? name.indexOf(delimiter, prefix.length()) : -1;
+            if (split >= 0) {
+                name = name.substring(0, split + delimiter.length());
+                size = null;
+                if (!names.isEmpty() && names.get(names.size() - 1).equals(name)) {
+                    continue;
+                }
+            }
+            if (token == null || name.compareTo(token) > 0) {
+                names.add(name);
+                sizes.add(size);
+            }
+        }
+
+        boolean truncated = names.size() > maxKeys;
+        int count = Math.min(names.size(), maxKeys);
+        StringBuilder xml = new StringBuilder("<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">")
+                .append("<Name>").append(bucket(path)).append("</Name>")
+                .append("<Prefix>").append(encodeName(prefix, urlEncoded)).append("</Prefix>")
+                .append("<KeyCount>").append(count).append("</KeyCount>")
+                .append("<MaxKeys>").append(maxKeys).append("</MaxKeys>");
+        if (delimiter != null) {
+            xml.append("<Delimiter>").append(encodeName(delimiter, urlEncoded)).append("</Delimiter>");
+        }
+        if (urlEncoded) {
+            xml.append("<EncodingType>url</EncodingType>");
+        }
+        xml.append("<IsTruncated>").append(truncated).append("</IsTruncated>");
+        for (int i = 0; i < count; i++) {
+            Long size = sizes.get(i);
+            if (size != null) {
+                xml.append("<Contents><Key>").append(encodeName(names.get(i), urlEncoded)).append("</Key>")
+                        .append("<LastModified>2009-10-12T17:50:30.000Z</LastModified>")
+                        .append("<ETag>").append(etag(base + names.get(i), size).replace("\"", "&quot;")).append("</ETag>")
+                        .append("<Size>").append(size).append("</Size>")
+                        .append("<StorageClass>STANDARD</StorageClass></Contents>");
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (sizes.get(i) == null) {
+                xml.append("<CommonPrefixes><Prefix>").append(encodeName(names.get(i), urlEncoded))
+                        .append("</Prefix></CommonPrefixes>");
+            }
+        }
+        if (truncated) {
+            xml.append("<NextContinuationToken>").append(escapeXml(names.get(count - 1)))
+                    .append("</NextContinuationToken>");
+        }
+        sendXml(exchange, xml.append("</ListBucketResult>").toString());
+    }
+
+    private void createMultipartUpload(HttpExchange exchange, String path) throws IOException, InterruptedException {
+        drain(exchange);
+        String uploadId = UUID.randomUUID().toString();
+        uploads.put(uploadId, new ConcurrentHashMap<>());
+        sendXml(exchange, "<InitiateMultipartUploadResult>"
+                + "<Bucket>" + bucket(path) + "</Bucket>"
+                + "<Key>" + key(path) + "</Key>"
+                + "<UploadId>" + uploadId + "</UploadId>"
+                + "</InitiateMultipartUploadResult>");
+    }
+
+    private void uploadPart(HttpExchange exchange, String uploadId, String partNumber)
+            throws IOException, InterruptedException {
+        Map<Integer, Long> parts = uploads.get(uploadId);
+        if (parts == null || partNumber == null) {
+            drain(exchange);
+            sendError(exchange, 404, "NoSuchUpload", "The specified upload does not exist.");
+            return;
+        }
+        long size = drain(exchange);
+        parts.put(Integer.parseInt(partNumber), size);
+        exchange.getResponseHeaders().set("ETag", etag(uploadId + partNumber, size));
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    /* Every part of the upload in one page, as a resumed upload asks for them */
+    private void listParts(HttpExchange exchange, String path, String uploadId) throws IOException {
+        Map<Integer, Long> parts = uploads.get(uploadId);
+        if (parts == null) {
+            sendError(exchange, 404, "NoSuchUpload", "The specified upload does not exist.");
+            return;
+        }
+        StringBuilder xml = new StringBuilder("<ListPartsResult>")
+                .append("<Bucket>").append(bucket(path)).append("</Bucket>")
+                .append("<Key>").append(escapeXml(key(path))).append("</Key>")
+                .append("<UploadId>").append(uploadId).append("</UploadId>")
+                .append("<MaxParts>1000</MaxParts><IsTruncated>false</IsTruncated>");
+        for (Map.Entry<Integer, Long> part : new TreeMap<>(parts).entrySet()) {
+            xml.append("<Part><PartNumber>").append(part.getKey()).append("</PartNumber>")
+                    .append("<LastModified>2009-10-12T17:50:30.000Z</LastModified>")
+                    .append("<ETag>").append(etag(uploadId + part.getKey(), part.getValue()).replace("\"", "&quot;"))
+                    .append("</ETag>")
+                    .append("<Size>").append(part.getValue()).append("</Size></Part>");
+        }
+        sendXml(exchange, xml.append("</ListPartsResult>").toString());
+    }
+
+    private void completeMultipartUpload(HttpExchange exchange, String path, String uploadId)
+            throws IOException, InterruptedException {
+        drain(exchange);
+        Map<Integer, Long> parts = uploads.remove(uploadId);
+        if (parts == null) {
+            sendError(exchange, 404, "NoSuchUpload", "The specified upload does not exist.");
+            return;
+        }
+        long size = 0;
+        for (long partSize : parts.values()) {
+            size += partSize;
+        }
+        objects.put(path, size);
+        sendXml(exchange, "<CompleteMultipartUploadResult>"
+                + "<Location>" + getEndpoint() + path + "</Location>"
+                + "<Bucket>" + bucket(path) + "</Bucket>"
+                + "<Key>" + key(path) + "</Key>"
+                + "<ETag>" + etag(path, size) + "</ETag>"
+                + "</CompleteMultipartUploadResult>");
+    }
+
+    /* Reads and drops the request body at the configured bandwidth, returning the size of the payload */
+    private long drain(HttpExchange exchange) throws IOException, InterruptedException {
+        InputStream body = exchange.getRequestBody();
+        byte[] buffer = new byte[WRITE_CHUNK_SIZE];
+        long bandwidth = bandwidthBytesPerSecond;
+        long startNanos = System.nanoTime();
+        long received = 0;
+        int read;
+        while ((read = body.read(buffer)) > 0) {
+            received += read;
+            pace(bandwidth, startNanos, received);
+        }
+        /* aws-chunked bodies carry the payload size in a header, as the body also holds chunk framing */
+        String decodedLength = exchange.getRequestHeaders().getFirst("x-amz-decoded-content-length");
+        return decodedLength != null ? Long.parseLong(decodedLength) : received;
+    }
+
+    /* Sleeps until transferring this many bytes since startNanos is no faster than the bandwidth */
+    private static void pace(long bandwidth, long startNanos, long bytes) throws InterruptedException {
+        if (bandwidth <= 0) {
+            return;
+        }
+        long dueNanos = startNanos + (long) (bytes * 1e9 / bandwidth);
+        long aheadNanos = dueNanos - System.nanoTime();
+        if (aheadNanos > 0) {
+            Thread.sleep(aheadNanos / 1000000, (int) (aheadNanos % 1000000));
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String code, String message) throws IOException {
+        sendBody(exchange, status, "<Error><Code>" + code + "</Code><Message>" + message + "</Message></Error>");
+    }
+
+    private static void sendXml(HttpExchange exchange, String xml) throws IOException {
+        sendBody(exchange, 200, xml);
+    }
+
+    private static void sendBody(HttpExchange exchange, int status, String xml) throws IOException {
+        byte[] body = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + xml).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals < 0) {
+                query.put(pair, "");
+            } else {
+                query.put(pair.substring(0, equals), pair.substring(equals + 1));
+            }
+        }
+        return query;
+    }
+
+    private static String decodeParam(String value) throws UnsupportedEncodingException {
+        return value != null ? URLDecoder.decode(value, "UTF-8") : "";
+    }
+
+    /* Like S3, encoding-type=url encodes spaces as '+' */
+    private static String encodeName(String name, boolean urlEncoded) throws UnsupportedEncodingException {
+        return urlEncoded ? URLEncoder.encode(name, "UTF-8") : escapeXml(name);
+    }
+
+    private static String escapeXml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private static String etag(String path, long size) {
+        return "\"" + Integer.toHexString(path.hashCode()) + Long.toHexString(size) + "\"";
+    }
+
+    private static String bucket(String path) {
+        int slash = path.indexOf('/', 1);
+        return slash > 0 ? path.substring(1, slash) : path.substring(1);
+    }
+
+    private static String key(String path) {
+        int slash = path.indexOf('/', 1);
+        return slash > 0 ? path.substring(slash + 1) : "";
+    }
+}
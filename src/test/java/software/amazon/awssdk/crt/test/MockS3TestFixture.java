@@ -0,0 +1,67 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.test;
+
+import org.junit.After;
+import software.amazon.awssdk.crt.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.crt.auth.signing.AwsSigningConfig;
+import software.amazon.awssdk.crt.io.ClientBootstrap;
+import software.amazon.awssdk.crt.io.EventLoopGroup;
+import software.amazon.awssdk.crt.io.HostResolver;
+import software.amazon.awssdk.crt.s3.S3Client;
+import software.amazon.awssdk.crt.s3.S3ClientOptions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Runs S3Client tests against a {@link MockS3Server} on the loopback interface, so they need neither network
+ * access nor AWS credentials. Requests must be sent with the server's endpoint, as it only speaks plain HTTP.
+ */
+public class MockS3TestFixture extends CrtTestFixture {
+
+    protected static final String MOCK_REGION = "us-east-1";
+
+    protected MockS3Server mockServer;
+
+    /**
+     * Start the mock server, which is closed after the test.
+     *
+     * @return the server
+     */
+    protected MockS3Server startMockS3Server() throws IOException {
+        skipIfAndroid();
+        mockServer = new MockS3Server().start();
+        return mockServer;
+    }
+
+    /**
+     * @param options client options, completed with the region, bootstrap and static credentials
+     * @return client for the mock server
+     */
+    protected S3Client createMockS3Client(S3ClientOptions options) {
+        try (EventLoopGroup elg = new EventLoopGroup(0, 1);
+                HostResolver hostResolver = new HostResolver(elg);
+                ClientBootstrap clientBootstrap = new ClientBootstrap(elg, hostResolver);
+                StaticCredentialsProvider credentialsProvider = new StaticCredentialsProvider.StaticCredentialsProviderBuilder()
+                        .withAccessKeyId("AKIDEXAMPLE".getBytes(StandardCharsets.UTF_8))
+                        .withSecretAccessKey("wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY".getBytes(StandardCharsets.UTF_8))
+                        .build();
+                AwsSigningConfig signingConfig = AwsSigningConfig.getDefaultS3SigningConfig(MOCK_REGION,
+                        credentialsProvider)) {
+            return new S3Client(options.withRegion(MOCK_REGION).withClientBootstrap(clientBootstrap)
+                    .withSigningConfig(signingConfig));
+        }
+    }
+
+    @After
+    public void closeMockS3Server() {
+        if (mockServer != null) {
+            mockServer.close();
+            mockServer = null;
+        }
+    }
+}
@@ -43,6 +43,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -385,6 +386,111 @@ public class S3ClientTest extends CrtTestFixture {
         }
     }
 
+    @Test
+    public void testS3GetWithDirectResponseBody() {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION);
+        try (S3Client client = createS3Client(clientOptions)) {
+            CompletableFuture<Integer> onFinishedFuture = new CompletableFuture<>();
+            AtomicLong bytesReceived = new AtomicLong(0);
+            S3MetaRequestResponseHandler responseHandler = new S3MetaRequestResponseHandler() {
+
+                @Override
+                public int onResponseBody(ByteBuffer bodyBytesIn, long objectRangeStart, long objectRangeEnd) {
+                    Assert.assertTrue(bodyBytesIn.isDirect());
+                    Assert.assertTrue(bodyBytesIn.isReadOnly());
+                    Assert.assertEquals(objectRangeEnd - objectRangeStart, bodyBytesIn.remaining());
+                    bytesReceived.addAndGet(bodyBytesIn.remaining());
+                    return 0;
+                }
+
+                @Override
+                public void onFinished(S3FinishedResponseContext context) {
+                    if (context.getErrorCode() != 0) {
+                        onFinishedFuture.completeExceptionally(makeExceptionFromFinishedResponseContext(context));
+                        return;
+                    }
+                    onFinishedFuture.complete(Integer.valueOf(context.getErrorCode()));
+                }
+            };
+
+            HttpHeader[] headers = { new HttpHeader("Host", ENDPOINT) };
+            HttpRequest httpRequest = new HttpRequest("GET", PRE_EXIST_1MB_PATH, headers, null);
+
+            S3MetaRequestOptions metaRequestOptions = new S3MetaRequestOptions()
+                    .withMetaRequestType(MetaRequestType.GET_OBJECT).withHttpRequest(httpRequest)
+                    .withDirectResponseBody(true)
+                    .withResponseHandler(responseHandler);
+
+            try (S3MetaRequest metaRequest = client.makeMetaRequest(metaRequestOptions)) {
+                Assert.assertEquals(Integer.valueOf(0), onFinishedFuture.get());
+            }
+            Assert.assertEquals(1 * 1024 * 1024, bytesReceived.get());
+        } catch (InterruptedException | ExecutionException ex) {
+            Assert.fail(ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testS3GetWithRetainedResponseBodyLeases() {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION);
+        ExecutorService workers = Executors.newSingleThreadExecutor();
+        try (S3Client client = createS3Client(clientOptions)) {
+            CompletableFuture<Integer> onFinishedFuture = new CompletableFuture<>();
+            List<Future<Long>> consumed = new ArrayList<>();
+            S3MetaRequestResponseHandler responseHandler = new S3MetaRequestResponseHandler() {
+
+                @Override
+                public int onResponseBody(S3ResponseBodyLease lease) {
+                    S3ResponseBodyLease retained = lease.retain();
+                    consumed.add(workers.submit(() -> {
+                        try {
+                            return (long) retained.getBody().remaining();
+                        } finally {
+                            retained.release();
+                        }
+                    }));
+                    return 0;
+                }
+
+                @Override
+                public void onFinished(S3FinishedResponseContext context) {
+                    if (context.getErrorCode() != 0) {
+                        onFinishedFuture.completeExceptionally(makeExceptionFromFinishedResponseContext(context));
+                        return;
+                    }
+                    onFinishedFuture.complete(Integer.valueOf(context.getErrorCode()));
+                }
+            };
+
+            HttpHeader[] headers = { new HttpHeader("Host", ENDPOINT) };
+            HttpRequest httpRequest = new HttpRequest("GET", PRE_EXIST_1MB_PATH, headers, null);
+
+            S3MetaRequestOptions metaRequestOptions = new S3MetaRequestOptions()
+                    .withMetaRequestType(MetaRequestType.GET_OBJECT).withHttpRequest(httpRequest)
+                    .withDirectResponseBody(true)
+                    .withResponseHandler(responseHandler);
+
+            try (S3MetaRequest metaRequest = client.makeMetaRequest(metaRequestOptions)) {
+                Assert.assertEquals(Integer.valueOf(0), onFinishedFuture.get());
+            }
+            long bytesConsumed = 0;
+            for (Future<Long> future : consumed) {
+                bytesConsumed += future.get();
+            }
+            Assert.assertEquals(1 * 1024 * 1024, bytesConsumed);
+        } catch (InterruptedException | ExecutionException ex) {
+            Assert.fail(ex.getMessage());
+        } finally {
+            workers.shutdown();
+        }
+    }
+
     @Test
     public void testS3GetWithResponseFilePath() {
         skipIfAndroid();
@@ -424,6 +530,243 @@ public class S3ClientTest extends CrtTestFixture {
         }
     }
 
+    @Test
+    public void testS3GetWithResponseFilePathDirectIo() throws Exception {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+        /* An unaligned part size, which the client rounds up so that direct I/O can be used */
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION).withPartSize(5 * 1024 * 1024 + 1);
+        Path responsePath = Files.createTempFile("testS3GetFilePathDirectIo", ".txt");
+        try (S3Client client = createS3Client(clientOptions)) {
+            CompletableFuture<Integer> onFinishedFuture = new CompletableFuture<>();
+            S3MetaRequestResponseHandler responseHandler = new S3MetaRequestResponseHandler() {
+                @Override
+                public void onFinished(S3FinishedResponseContext context) {
+                    if (context.getErrorCode() != 0) {
+                        onFinishedFuture.completeExceptionally(makeExceptionFromFinishedResponseContext(context));
+                        return;
+                    }
+                    onFinishedFuture.complete(Integer.valueOf(context.getErrorCode()));
+                }
+            };
+
+            HttpHeader[] headers = { new HttpHeader("Host", ENDPOINT) };
+            HttpRequest httpRequest = new HttpRequest("GET", PRE_EXIST_10MB_PATH, headers, null);
+
+            S3MetaRequestOptions metaRequestOptions = new S3MetaRequestOptions()
+                    .withMetaRequestType(MetaRequestType.GET_OBJECT).withHttpRequest(httpRequest)
+                    .withResponseFilePath(responsePath)
+                    .withFileIoOptions(new FileIoOptions(false, 1.0, true))
+                    .withResponseHandler(responseHandler);
+
+            try (S3MetaRequest metaRequest = client.makeMetaRequest(metaRequestOptions)) {
+                Assert.assertEquals(Integer.valueOf(0), onFinishedFuture.get());
+            }
+            Assert.assertEquals(10 * 1024 * 1024, Files.size(responsePath));
+        } finally {
+            Files.deleteIfExists(responsePath);
+        }
+    }
+
+    @Test
+    public void testS3GetWithMemoryMappedResponseFile() {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION);
+        try (S3Client client = createS3Client(clientOptions)) {
+            CompletableFuture<Integer> onFinishedFuture = new CompletableFuture<>();
+            Path responsePath = Files.createTempFile("testS3GetMemoryMapped", ".txt");
+            S3MetaRequestResponseHandler responseHandler = new S3MetaRequestResponseHandler() {
+                @Override
+                public void onFinished(S3FinishedResponseContext context) {
+                    if (context.getErrorCode() != 0) {
+                        onFinishedFuture.completeExceptionally(makeExceptionFromFinishedResponseContext(context));
+                        return;
+                    }
+                    onFinishedFuture.complete(Integer.valueOf(context.getErrorCode()));
+                }
+            };
+
+            HttpHeader[] headers = { new HttpHeader("Host", ENDPOINT) };
+            HttpRequest httpRequest = new HttpRequest("GET", PRE_EXIST_1MB_PATH, headers, null);
+
+            S3MetaRequestOptions metaRequestOptions = new S3MetaRequestOptions()
+                    .withMetaRequestType(MetaRequestType.GET_OBJECT).withHttpRequest(httpRequest)
+                    .withResponseFilePath(responsePath)
+                    .withResponseFileOption(S3MetaRequestOptions.ResponseFileOption.MEMORY_MAPPED)
+                    .withResponseHandler(responseHandler);
+
+            try (S3MetaRequest metaRequest = client.makeMetaRequest(metaRequestOptions)) {
+                Assert.assertEquals(Integer.valueOf(0), onFinishedFuture.get());
+            }
+            Assert.assertEquals(1 * 1024 * 1024, Files.size(responsePath));
+            Files.deleteIfExists(responsePath);
+
+            /* The mapping needs a file */
+            metaRequestOptions.withResponseFilePath(null);
+            Assert.assertThrows(IllegalArgumentException.class, () -> client.makeMetaRequest(metaRequestOptions));
+        } catch (Exception ex) {
+            Assert.fail(ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testS3GetObjectsBatch() throws Exception {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION);
+        try (S3Client client = createS3Client(clientOptions)) {
+            List<S3GetObjectRequest> requests = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                requests.add(new S3GetObjectRequest().withHost(ENDPOINT).withKey(PRE_EXIST_1MB_PATH.substring(1))
+                        .withObjectSizeHint(i % 2 == 0 ? Long.valueOf(1024 * 1024) : null).withContext(i));
+            }
+            String missingKey = "get_objects_batch_missing_" + UUID.randomUUID();
+            requests.add(new S3GetObjectRequest().withHost(ENDPOINT).withKey(missingKey));
+
+            ConcurrentHashMap<Object, Integer> received = new ConcurrentHashMap<>();
+            AtomicInteger sinkFailures = new AtomicInteger(0);
+            S3ObjectSink sink = new S3ObjectSink() {
+                @Override
+                public void onObject(S3GetObjectRequest request, ByteBuffer body) {
+                    received.put(request.getContext(), body.remaining());
+                }
+
+                @Override
+                public void onFailure(S3GetObjectRequest request, Throwable cause) {
+                    sinkFailures.incrementAndGet();
+                }
+            };
+
+            S3TransferBatchResult result = client.getObjects(requests, sink, 4, 8 * 1024 * 1024)
+                    .get(120, TimeUnit.SECONDS);
+            Assert.assertEquals(10, result.getSucceededCount());
+            Assert.assertEquals(1, result.getFailures().size());
+            Assert.assertTrue(result.getFailures().containsKey(missingKey));
+            Assert.assertEquals(1, sinkFailures.get());
+            Assert.assertEquals(10, received.size());
+            for (Integer size : received.values()) {
+                Assert.assertEquals(Integer.valueOf(1024 * 1024), size);
+            }
+        }
+    }
+
+    @Test
+    public void testS3SeekableByteChannel() throws Exception {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION);
+        try (S3Client client = createS3Client(clientOptions)) {
+            S3SeekableByteChannelOptions channelOptions = new S3SeekableByteChannelOptions()
+                    .withHost(ENDPOINT)
+                    .withKey(PRE_EXIST_1MB_PATH.substring(1))
+                    .withBlockSize(64 * 1024)
+                    .withMaxReadAheadBlocks(4)
+                    .withMaxCachedBlocks(8);
+            byte[] sequential = new byte[1024 * 1024];
+            try (S3SeekableByteChannel channel = S3SeekableByteChannel.open(client, channelOptions)) {
+                Assert.assertEquals(1024 * 1024, channel.size());
+
+                /* Footer-style random read, then sequential reads through the whole object */
+                ByteBuffer tail = ByteBuffer.allocate(8);
+                channel.position(channel.size() - 8);
+                Assert.assertEquals(8, channel.read(tail));
+                Assert.assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+
+                channel.position(0);
+                ByteBuffer dst = ByteBuffer.wrap(sequential);
+                while (dst.hasRemaining()) {
+                    ByteBuffer chunk = dst.slice();
+                    chunk.limit(Math.min(chunk.remaining(), 10000));
+                    int read = channel.read(chunk);
+                    Assert.assertTrue(read > 0);
+                    dst.position(dst.position() + read);
+                }
+                Assert.assertArrayEquals(Arrays.copyOfRange(sequential, sequential.length - 8, sequential.length),
+                        tail.array());
+            }
+        }
+    }
+
+    @Test
+    public void testS3SeekableByteChannelWithBlockCache() throws Exception {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+        S3BlockCache blockCache = new S3BlockCache(64 * 1024, 4 * 1024 * 1024);
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION).withBlockCache(blockCache);
+        try (S3Client client = createS3Client(clientOptions)) {
+            S3SeekableByteChannelOptions channelOptions = new S3SeekableByteChannelOptions()
+                    .withHost(ENDPOINT)
+                    .withKey(PRE_EXIST_1MB_PATH.substring(1));
+            byte[][] reads = new byte[2][];
+            for (int i = 0; i < reads.length; i++) {
+                try (S3SeekableByteChannel channel = S3SeekableByteChannel.open(client, channelOptions)) {
+                    ByteBuffer dst = ByteBuffer.allocate(100 * 1024);
+                    channel.position(300 * 1024);
+                    while (dst.hasRemaining() && channel.read(dst) > 0) {
+                    }
+                    reads[i] = dst.array();
+                }
+            }
+            Assert.assertArrayEquals(reads[0], reads[1]);
+            /* The second channel finds all three blocks of the range in the cache */
+            Assert.assertEquals(3, blockCache.getHitCount());
+        }
+    }
+
+    @Test
+    public void testS3GetWithObjectMetadataCache() throws Exception {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+        S3ObjectMetadataCache metadataCache = new S3ObjectMetadataCache(16, 60000);
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION)
+                .withObjectMetadataCache(metadataCache);
+        try (S3Client client = createS3Client(clientOptions)) {
+            for (int i = 0; i < 2; i++) {
+                CompletableFuture<Integer> onFinishedFuture = new CompletableFuture<>();
+                AtomicLong bodyBytes = new AtomicLong(0);
+                S3MetaRequestResponseHandler responseHandler = new S3MetaRequestResponseHandler() {
+                    @Override
+                    public int onResponseBody(ByteBuffer bodyBytesIn, long objectRangeStart, long objectRangeEnd) {
+                        bodyBytes.addAndGet(bodyBytesIn.remaining());
+                        return 0;
+                    }
+
+                    @Override
+                    public void onFinished(S3FinishedResponseContext context) {
+                        if (context.getErrorCode() != 0) {
+                            onFinishedFuture.completeExceptionally(makeExceptionFromFinishedResponseContext(context));
+                            return;
+                        }
+                        onFinishedFuture.complete(Integer.valueOf(context.getErrorCode()));
+                    }
+                };
+
+                HttpHeader[] headers = { new HttpHeader("Host", ENDPOINT) };
+                HttpRequest httpRequest = new HttpRequest("GET", PRE_EXIST_1MB_PATH, headers, null);
+                S3MetaRequestOptions metaRequestOptions = new S3MetaRequestOptions()
+                        .withMetaRequestType(MetaRequestType.GET_OBJECT).withHttpRequest(httpRequest)
+                        .withResponseHandler(responseHandler);
+                try (S3MetaRequest metaRequest = client.makeMetaRequest(metaRequestOptions)) {
+                    Assert.assertEquals(Integer.valueOf(0), onFinishedFuture.get());
+                }
+                Assert.assertEquals(1024 * 1024, bodyBytes.get());
+            }
+            /* The first download missed and recorded the object, the second took its size hint from the cache */
+            Assert.assertEquals(1, metadataCache.getMissCount());
+            Assert.assertEquals(1, metadataCache.getHitCount());
+            S3ObjectMetadataCache.ObjectMetadata metadata = metadataCache.get(ENDPOINT, PRE_EXIST_1MB_PATH);
+            Assert.assertEquals(1024 * 1024, metadata.getSize());
+            Assert.assertNotNull(metadata.getETag());
+        }
+    }
+
     @Test
     public void testS3GetWithSizeHint() {
         skipIfAndroid();
@@ -642,6 +985,65 @@ public class S3ClientTest extends CrtTestFixture {
         }
     }
 
+    @Test
+    public void testS3GetWithResponseBodyPublisher() {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+        final long fileSize = 1 * 1024 * 1024;
+        S3ClientOptions clientOptions = new S3ClientOptions()
+                .withRegion(REGION)
+                .withReadBackpressureEnabled(true)
+                .withInitialReadWindowSize(fileSize / 4)
+                .withPartSize(fileSize / 4);
+
+        try (S3Client client = createS3Client(clientOptions)) {
+            CompletableFuture<Long> onCompleteFuture = new CompletableFuture<>();
+            AtomicLong bytesReceived = new AtomicLong(0);
+            S3ResponseBodyPublisher publisher = new S3ResponseBodyPublisher();
+
+            HttpHeader[] headers = { new HttpHeader("Host", ENDPOINT) };
+            HttpRequest httpRequest = new HttpRequest("GET", PRE_EXIST_1MB_PATH, headers, null);
+
+            S3MetaRequestOptions metaRequestOptions = new S3MetaRequestOptions()
+                    .withMetaRequestType(MetaRequestType.GET_OBJECT)
+                    .withHttpRequest(httpRequest)
+                    .withResponseHandler(publisher);
+
+            try (S3MetaRequest metaRequest = client.makeMetaRequest(metaRequestOptions)) {
+                publisher.attach(metaRequest);
+                publisher.subscribe(new S3ResponseBodyPublisher.Subscriber() {
+                    private S3ResponseBodyPublisher.Subscription subscription;
+
+                    @Override
+                    public void onSubscribe(S3ResponseBodyPublisher.Subscription subscription) {
+                        this.subscription = subscription;
+                        subscription.request(1);
+                    }
+
+                    @Override
+                    public void onNext(ByteBuffer item) {
+                        bytesReceived.addAndGet(item.remaining());
+                        subscription.request(1);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        onCompleteFuture.completeExceptionally(throwable);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        onCompleteFuture.complete(bytesReceived.get());
+                    }
+                });
+                Assert.assertEquals(Long.valueOf(fileSize), onCompleteFuture.get());
+            }
+        } catch (InterruptedException | ExecutionException ex) {
+            Assert.fail(ex.getMessage());
+        }
+    }
+
     /**
      * Test read-backpressure by repeatedly:
      * - letting the download stall
@@ -1090,6 +1492,66 @@ public class S3ClientTest extends CrtTestFixture {
         testS3PutHelper(false, true, "/put_object_test_10MB@$%.txt", true, 10 * 1024 * 1024, false);
     }
 
+    // Test that we can upload a region from the middle of a file, read natively
+    @Test
+    public void testS3PutFileRegion() throws Exception {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+
+        int partSize = 5 * 1024 * 1024;
+        int regionOffset = 3 * 1024 * 1024 + 17;
+        int regionLength = 11 * 1024 * 1024;
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION).withPartSize(partSize);
+        Path uploadFilePath = Files.createTempFile("testS3PutFileRegion", ".txt");
+        try (S3Client client = createS3Client(clientOptions)) {
+            Files.write(uploadFilePath, createTestPayload(regionOffset + regionLength + 1024 * 1024));
+            CompletableFuture<Integer> onFinishedFuture = new CompletableFuture<>();
+            AtomicLong progressBytes = new AtomicLong(0);
+            S3MetaRequestResponseHandler responseHandler = new S3MetaRequestResponseHandler() {
+                @Override
+                public void onProgress(final S3MetaRequestProgress progress) {
+                    progressBytes.addAndGet(progress.getBytesTransferred());
+                }
+
+                @Override
+                public void onFinished(S3FinishedResponseContext context) {
+                    if (context.getErrorCode() != 0) {
+                        onFinishedFuture.completeExceptionally(makeExceptionFromFinishedResponseContext(context));
+                        return;
+                    }
+                    onFinishedFuture.complete(Integer.valueOf(context.getErrorCode()));
+                }
+            };
+
+            /* No Content-Length header, native sets it to the length of the region */
+            HttpHeader[] headers = { new HttpHeader("Host", ENDPOINT) };
+            HttpRequest httpRequest = new HttpRequest("PUT", uploadObjectPathInit("/put_object_test_file_region.txt"),
+                    headers, null);
+            S3MetaRequestOptions metaRequestOptions = new S3MetaRequestOptions()
+                    .withMetaRequestType(MetaRequestType.PUT_OBJECT)
+                    .withHttpRequest(httpRequest)
+                    .withRequestFilePath(uploadFilePath)
+                    .withRequestFileRegion(regionOffset, regionLength)
+                    .withResponseHandler(responseHandler);
+            try (S3MetaRequest metaRequest = client.makeMetaRequest(metaRequestOptions)) {
+                Assert.assertEquals(Integer.valueOf(0), onFinishedFuture.get());
+            }
+            Assert.assertEquals(regionLength, progressBytes.get());
+
+            /* A region past the end of the file is refused when the meta request is made */
+            S3MetaRequestOptions outOfRangeOptions = new S3MetaRequestOptions()
+                    .withMetaRequestType(MetaRequestType.PUT_OBJECT)
+                    .withHttpRequest(httpRequest)
+                    .withRequestFilePath(uploadFilePath)
+                    .withRequestFileRegion(regionOffset, 1024L * 1024 * 1024)
+                    .withResponseHandler(responseHandler);
+            assertThrows(CrtRuntimeException.class, () -> client.makeMetaRequest(outOfRangeOptions));
+        } finally {
+            Files.deleteIfExists(uploadFilePath);
+        }
+    }
+
     // Test that passing a nonexistent file path will cause an error
     @Test
     public void testS3PutNonexistentFilePath() throws IOException {
@@ -1126,6 +1588,88 @@ public class S3ClientTest extends CrtTestFixture {
         }
     }
 
+    @Test
+    public void testS3PutWithObjectOutputStream() throws Exception {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+        int partSize = 5 * 1024 * 1024;
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION).withPartSize(partSize);
+        try (S3Client client = createS3Client(clientOptions)) {
+            AtomicLong progressBytes = new AtomicLong(0);
+            S3MetaRequestResponseHandler responseHandler = new S3MetaRequestResponseHandler() {
+                @Override
+                public void onProgress(final S3MetaRequestProgress progress) {
+                    progressBytes.addAndGet(progress.getBytesTransferred());
+                }
+            };
+            HttpHeader[] headers = { new HttpHeader("Host", ENDPOINT) };
+            HttpRequest httpRequest = new HttpRequest("PUT",
+                    Uri.encodeUriPath(uploadObjectPathInit("/put_object_output_stream_" + UUID.randomUUID())),
+                    headers, null);
+            S3MetaRequestOptions metaRequestOptions = new S3MetaRequestOptions()
+                    .withMetaRequestType(MetaRequestType.PUT_OBJECT)
+                    .withHttpRequest(httpRequest)
+                    .withResponseHandler(responseHandler);
+
+            byte[] chunk = createTestPayload(100 * 1024);
+            long written = 0;
+            try (S3ObjectOutputStream out = S3ObjectOutputStream.open(client, metaRequestOptions, partSize, 2)) {
+                /* Several times the in-flight buffer budget, written in odd-sized pieces */
+                for (int i = 0; i < 130; i++) {
+                    out.write(chunk, 0, chunk.length - i);
+                    written += chunk.length - i;
+                }
+            }
+            Assert.assertEquals(written, progressBytes.get());
+        }
+    }
+
+    @Test
+    public void testS3DirectoryTransferRoundTrip() throws Exception {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+
+        Path uploadDir = Files.createTempDirectory("s3_directory_upload");
+        Path downloadDir = Files.createTempDirectory("s3_directory_download");
+        List<String> keys = new ArrayList<>();
+        String keyPrefix = uploadObjectPathInit("/directory_transfer_" + UUID.randomUUID() + "/").substring(1);
+        byte[][] contents = { new byte[5 * 1024 * 1024], new byte[1], new byte[1024], new byte[0] };
+        String[] names = { "large.bin", "a/small.bin", "a/b/medium.bin", "empty.bin" };
+        for (int i = 0; i < names.length; i++) {
+            Arrays.fill(contents[i], (byte) ('a' + i));
+            Path file = uploadDir.resolve(names[i]);
+            Files.createDirectories(file.getParent());
+            Files.write(file, contents[i]);
+            keys.add(keyPrefix + names[i]);
+        }
+
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION);
+        try (S3Client client = createS3Client(clientOptions)) {
+            AtomicLong progressBytes = new AtomicLong(0);
+            S3DirectoryTransferOptions options = new S3DirectoryTransferOptions()
+                    .withHost(ENDPOINT)
+                    .withKeyPrefix(keyPrefix)
+                    .withMaxConcurrentTransfers(2)
+                    .withMaxInFlightBytes(8 * 1024 * 1024)
+                    .withProgressListener(progress -> progressBytes.addAndGet(progress.getBytesTransferred()));
+            S3DirectoryTransfer transfer = new S3DirectoryTransfer(client, options);
+
+            S3TransferBatchResult uploadResult = transfer.uploadDirectory(uploadDir).get(120, TimeUnit.SECONDS);
+            Assert.assertTrue(uploadResult.getFailures().toString(), uploadResult.isSuccessful());
+            Assert.assertEquals(names.length, uploadResult.getSucceededCount());
+            Assert.assertEquals(5 * 1024 * 1024 + 1 + 1024, progressBytes.get());
+
+            S3TransferBatchResult downloadResult = transfer.downloadObjects(downloadDir, keys).get(120,
+                    TimeUnit.SECONDS);
+            Assert.assertTrue(downloadResult.getFailures().toString(), downloadResult.isSuccessful());
+            for (int i = 0; i < names.length; i++) {
+                Assert.assertArrayEquals(contents[i], Files.readAllBytes(downloadDir.resolve(names[i])));
+            }
+        }
+    }
+
     private S3MetaRequestResponseHandler createTestPutPauseResumeHandler(CompletableFuture<Integer> onFinishedFuture,
             CompletableFuture<Void> onProgressFuture) {
         return new S3MetaRequestResponseHandler() {
@@ -1935,6 +2479,58 @@ public class S3ClientTest extends CrtTestFixture {
         }
     }
 
+    @Test
+    public void testS3ListObjectsPartitioned() throws Exception {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION);
+        try (S3Client client = createS3Client(clientOptions)) {
+            /* Small pages so that partitions take several continuation requests */
+            S3ListObjectsOptions sequentialOptions = new S3ListObjectsOptions().withHost(ENDPOINT)
+                    .withPrefix("pre-").withPartitionDepth(0).withMaxKeysPerPage(2);
+            S3ListObjectsOptions partitionedOptions = new S3ListObjectsOptions().withHost(ENDPOINT)
+                    .withPrefix("pre-").withDelimiter("-").withPartitionDepth(2).withMaxKeysPerPage(2)
+                    .withMaxConcurrentRequests(4);
+
+            ConcurrentHashMap<String, Long> sequentialKeys = new ConcurrentHashMap<>();
+            ConcurrentHashMap<String, Long> partitionedKeys = new ConcurrentHashMap<>();
+            AtomicInteger partitions = new AtomicInteger(0);
+            AtomicInteger misplacedKeys = new AtomicInteger(0);
+            long sequentialCount = client.listObjects(sequentialOptions, batch -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    sequentialKeys.put(batch.getKey(i), batch.getSize(i));
+                }
+            }).get(60, TimeUnit.SECONDS);
+            long partitionedCount = client.listObjects(partitionedOptions, new S3ListObjectsListener() {
+                @Override
+                public void onBatch(S3ListObjectsBatch batch) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        String key = batch.getKey(i);
+                        /* Every key is reported once, by the partition it falls in */
+                        if (!key.startsWith(batch.getPartitionPrefix())
+                                || partitionedKeys.put(key, batch.getSize(i)) != null) {
+                            misplacedKeys.incrementAndGet();
+                        }
+                    }
+                }
+
+                @Override
+                public void onPartition(String prefix) {
+                    partitions.incrementAndGet();
+                }
+            }).get(60, TimeUnit.SECONDS);
+
+            Assert.assertTrue(partitions.get() > 0);
+            Assert.assertEquals(0, misplacedKeys.get());
+            Assert.assertEquals(sequentialCount, sequentialKeys.size());
+            Assert.assertEquals(sequentialCount, partitionedCount);
+            Assert.assertEquals(sequentialKeys, partitionedKeys);
+            Assert.assertEquals(Long.valueOf(1024 * 1024), partitionedKeys.get(PRE_EXIST_1MB_PATH.substring(1)));
+        }
+    }
+
     // Helper class to capture telemetry data for validation
     private static class CapturedMetrics {
         public long apiCallDurationNs;
@@ -2108,6 +2704,283 @@ public class S3ClientTest extends CrtTestFixture {
         }
     }
 
+    @Test
+    public void testS3GetWithCoalescedCallbacks() throws Exception {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION)
+                .withPartSize(1024 * 1024);
+        try (S3Client client = createS3Client(clientOptions)) {
+            CompletableFuture<Integer> onFinishedFuture = new CompletableFuture<>();
+            AtomicInteger progressCallbackCount = new AtomicInteger(0);
+            AtomicLong progressBytes = new AtomicLong(0);
+            AtomicInteger batchCallbackCount = new AtomicInteger(0);
+            AtomicInteger batchedRequestCount = new AtomicInteger(0);
+            S3MetaRequestResponseHandler responseHandler = new S3MetaRequestResponseHandler() {
+                @Override
+                public void onFinished(S3FinishedResponseContext context) {
+                    if (context.getErrorCode() != 0) {
+                        onFinishedFuture.completeExceptionally(makeExceptionFromFinishedResponseContext(context));
+                        return;
+                    }
+                    onFinishedFuture.complete(Integer.valueOf(context.getErrorCode()));
+                }
+
+                @Override
+                public void onProgress(S3MetaRequestProgress progress) {
+                    progressCallbackCount.incrementAndGet();
+                    progressBytes.addAndGet(progress.getBytesTransferred());
+                }
+
+                @Override
+                public void onTelemetryBatch(S3RequestMetricsBatch batch) {
+                    batchCallbackCount.incrementAndGet();
+                    batchedRequestCount.addAndGet(batch.size());
+                    for (int i = 0; i < batch.size(); i++) {
+                        Assert.assertEquals(batch.getErrorCode(i), batch.get(i).getErrorCode());
+                        Assert.assertNotNull(batch.get(i).getOperationName());
+                    }
+                }
+            };
+
+            HttpHeader[] headers = { new HttpHeader("Host", ENDPOINT) };
+            HttpRequest httpRequest = new HttpRequest("GET", PRE_EXIST_10MB_PATH, headers, null);
+            S3MetaRequestOptions metaRequestOptions = new S3MetaRequestOptions()
+                    .withMetaRequestType(MetaRequestType.GET_OBJECT)
+                    .withHttpRequest(httpRequest)
+                    .withResponseHandler(responseHandler)
+                    .withProgressIntervalBytes(1024L * 1024 * 1024)
+                    .withTelemetryBatchSize(1000);
+
+            try (S3MetaRequest metaRequest = client.makeMetaRequest(metaRequestOptions)) {
+                Assert.assertEquals(Integer.valueOf(0), onFinishedFuture.get());
+            }
+            /* Progress of all ten parts is held back until it is flushed before onFinished */
+            Assert.assertEquals(1, progressCallbackCount.get());
+            Assert.assertEquals(10L * 1024 * 1024, progressBytes.get());
+            /* Batches are also delivered once a second, so a slow download may take more than one */
+            Assert.assertTrue(batchCallbackCount.get() >= 1);
+            Assert.assertTrue(batchedRequestCount.get() >= 10);
+            Assert.assertTrue(batchCallbackCount.get() < batchedRequestCount.get());
+        }
+    }
+
+    @Test
+    public void testS3GetWithTelemetryAggregator() throws Exception {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+
+        S3TelemetryAggregator aggregator = new S3TelemetryAggregator();
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION)
+                .withTelemetryAggregator(aggregator);
+        try (S3Client client = createS3Client(clientOptions)) {
+            CompletableFuture<Integer> onFinishedFuture = new CompletableFuture<>();
+            AtomicInteger telemetryCallbackCount = new AtomicInteger(0);
+            S3MetaRequestResponseHandler responseHandler = new S3MetaRequestResponseHandler() {
+                @Override
+                public void onFinished(S3FinishedResponseContext context) {
+                    if (context.getErrorCode() != 0) {
+                        onFinishedFuture.completeExceptionally(makeExceptionFromFinishedResponseContext(context));
+                        return;
+                    }
+                    onFinishedFuture.complete(Integer.valueOf(context.getErrorCode()));
+                }
+
+                @Override
+                public void onTelemetry(S3RequestMetrics metrics) {
+                    telemetryCallbackCount.incrementAndGet();
+                }
+            };
+
+            HttpHeader[] headers = { new HttpHeader("Host", ENDPOINT) };
+            HttpRequest httpRequest = new HttpRequest("GET", PRE_EXIST_1MB_PATH, headers, null);
+            S3MetaRequestOptions metaRequestOptions = new S3MetaRequestOptions()
+                    .withMetaRequestType(MetaRequestType.GET_OBJECT)
+                    .withHttpRequest(httpRequest)
+                    .withResponseHandler(responseHandler);
+
+            try (S3MetaRequest metaRequest = client.makeMetaRequest(metaRequestOptions)) {
+                Assert.assertEquals(Integer.valueOf(0), onFinishedFuture.get());
+            }
+
+            long getObjectRequests = 0;
+            for (S3TelemetryAggregator.Snapshot snapshot : aggregator.snapshot()) {
+                if ("GetObject".equals(snapshot.getOperationName())) {
+                    getObjectRequests += snapshot.getRequestCount();
+                    Assert.assertEquals(snapshot.getRequestCount(), snapshot.getTimeToLastByte().getCount());
+                    Assert.assertTrue(snapshot.getTimeToFirstByte().getValueAtPercentile(50)
+                            <= snapshot.getTimeToLastByte().getMax());
+                }
+            }
+            Assert.assertTrue(getObjectRequests > 0);
+            /* The handler still receives every request's metrics */
+            Assert.assertTrue(telemetryCallbackCount.get() >= getObjectRequests);
+        }
+    }
+
+    @Test
+    public void testS3GetWithPriorityScheduling() throws Exception {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION)
+                .withMaxConnections(16)
+                .withBackgroundConnectionShare(0.25);
+        try (S3Client client = createS3Client(clientOptions)) {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            List<S3MetaRequest> metaRequests = new ArrayList<>();
+            try {
+                for (int i = 0; i < 6; i++) {
+                    CompletableFuture<Integer> onFinishedFuture = new CompletableFuture<>();
+                    S3MetaRequestResponseHandler responseHandler = new S3MetaRequestResponseHandler() {
+                        @Override
+                        public void onFinished(S3FinishedResponseContext context) {
+                            if (context.getErrorCode() != 0) {
+                                onFinishedFuture.completeExceptionally(
+                                        makeExceptionFromFinishedResponseContext(context));
+                                return;
+                            }
+                            onFinishedFuture.complete(Integer.valueOf(context.getErrorCode()));
+                        }
+                    };
+                    HttpHeader[] headers = { new HttpHeader("Host", ENDPOINT) };
+                    HttpRequest httpRequest = new HttpRequest("GET", PRE_EXIST_1MB_PATH, headers, null);
+                    S3MetaRequestOptions metaRequestOptions = new S3MetaRequestOptions()
+                            .withMetaRequestType(MetaRequestType.GET_OBJECT)
+                            .withHttpRequest(httpRequest)
+                            .withResponseHandler(responseHandler)
+                            .withPriority(i % 3 == 0 ? S3MetaRequestOptions.Priority.FOREGROUND
+                                    : S3MetaRequestOptions.Priority.BACKGROUND);
+                    futures.add(onFinishedFuture);
+                    metaRequests.add(client.makeMetaRequest(metaRequestOptions));
+                }
+                for (CompletableFuture<Integer> future : futures) {
+                    Assert.assertEquals(Integer.valueOf(0), future.get(60, TimeUnit.SECONDS));
+                }
+            } finally {
+                for (S3MetaRequest metaRequest : metaRequests) {
+                    metaRequest.close();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testS3GetWithMemoryBudgetGroups() throws Exception {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+
+        long mib = 1024L * 1024;
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION)
+                .withPartSize(8 * mib)
+                .withMemoryLimitInBytes(256 * mib)
+                .withMemoryBudgetGroup(new S3MemoryBudgetGroup("small", 32 * mib, 64 * mib))
+                .withMemoryBudgetGroup(new S3MemoryBudgetGroup("bulk", 0, 192 * mib));
+        try (S3Client client = createS3Client(clientOptions)) {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            List<S3MetaRequest> metaRequests = new ArrayList<>();
+            try {
+                for (int i = 0; i < 6; i++) {
+                    CompletableFuture<Integer> onFinishedFuture = new CompletableFuture<>();
+                    S3MetaRequestResponseHandler responseHandler = new S3MetaRequestResponseHandler() {
+                        @Override
+                        public void onFinished(S3FinishedResponseContext context) {
+                            if (context.getErrorCode() != 0) {
+                                onFinishedFuture.completeExceptionally(
+                                        makeExceptionFromFinishedResponseContext(context));
+                                return;
+                            }
+                            onFinishedFuture.complete(Integer.valueOf(context.getErrorCode()));
+                        }
+                    };
+                    HttpHeader[] headers = { new HttpHeader("Host", ENDPOINT) };
+                    HttpRequest httpRequest = new HttpRequest("GET", PRE_EXIST_1MB_PATH, headers, null);
+                    S3MetaRequestOptions metaRequestOptions = new S3MetaRequestOptions()
+                            .withMetaRequestType(MetaRequestType.GET_OBJECT)
+                            .withHttpRequest(httpRequest)
+                            .withResponseHandler(responseHandler)
+                            .withMemoryBudgetGroup(i % 3 == 0 ? "small" : (i % 3 == 1 ? "bulk" : null));
+                    futures.add(onFinishedFuture);
+                    metaRequests.add(client.makeMetaRequest(metaRequestOptions));
+                }
+                for (CompletableFuture<Integer> future : futures) {
+                    Assert.assertEquals(Integer.valueOf(0), future.get(60, TimeUnit.SECONDS));
+                }
+            } finally {
+                for (S3MetaRequest metaRequest : metaRequests) {
+                    metaRequest.close();
+                }
+            }
+
+            HttpHeader[] headers = { new HttpHeader("Host", ENDPOINT) };
+            S3MetaRequestOptions unknownGroupOptions = new S3MetaRequestOptions()
+                    .withMetaRequestType(MetaRequestType.GET_OBJECT)
+                    .withHttpRequest(new HttpRequest("GET", PRE_EXIST_1MB_PATH, headers, null))
+                    .withResponseHandler(new S3MetaRequestResponseHandler() {
+                    })
+                    .withMemoryBudgetGroup("unknown");
+            assertThrows(IllegalArgumentException.class, () -> client.makeMetaRequest(unknownGroupOptions));
+
+            /* The group is checked before the response file is mapped, so a rejected download leaves no file */
+            Path mappedFile = Files.createTempDirectory("memory_budget").resolve("mapped");
+            unknownGroupOptions.withResponseFilePath(mappedFile)
+                    .withResponseFileOption(S3MetaRequestOptions.ResponseFileOption.MEMORY_MAPPED);
+            assertThrows(IllegalArgumentException.class, () -> client.makeMetaRequest(unknownGroupOptions));
+            Assert.assertFalse(Files.exists(mappedFile));
+            Files.delete(mappedFile.getParent());
+        }
+    }
+
+    @Test
+    public void testS3GetWithAdaptiveTuning() throws Exception {
+        skipIfAndroid();
+        skipIfNetworkUnavailable();
+        Assume.assumeTrue(hasAwsCredentials());
+
+        long memoryLimit = 1024L * 1024 * 1024;
+        S3ClientOptions clientOptions = new S3ClientOptions().withRegion(REGION)
+                .withAdaptiveTuning(true)
+                .withThroughputTargetGbps(100)
+                .withMemoryLimitInBytes(memoryLimit);
+        try (S3Client client = createS3Client(clientOptions)) {
+            S3AdaptiveTuner tuner = client.getAdaptiveTuner();
+            assertNotNull(tuner);
+            for (int i = 0; i < 8; i++) {
+                CompletableFuture<Integer> onFinishedFuture = new CompletableFuture<>();
+                S3MetaRequestResponseHandler responseHandler = new S3MetaRequestResponseHandler() {
+                    @Override
+                    public void onFinished(S3FinishedResponseContext context) {
+                        if (context.getErrorCode() != 0) {
+                            onFinishedFuture.completeExceptionally(makeExceptionFromFinishedResponseContext(context));
+                            return;
+                        }
+                        onFinishedFuture.complete(Integer.valueOf(context.getErrorCode()));
+                    }
+                };
+                HttpHeader[] headers = { new HttpHeader("Host", ENDPOINT) };
+                HttpRequest httpRequest = new HttpRequest("GET", PRE_EXIST_1MB_PATH, headers, null);
+                S3MetaRequestOptions metaRequestOptions = new S3MetaRequestOptions()
+                        .withMetaRequestType(MetaRequestType.GET_OBJECT)
+                        .withHttpRequest(httpRequest)
+                        .withResponseHandler(responseHandler);
+                if (i % 2 == 1) {
+                    /* Explicit values take precedence over the tuner's */
+                    metaRequestOptions.withPartSize(256 * 1024).withMaxActiveConnections(2);
+                }
+                try (S3MetaRequest metaRequest = client.makeMetaRequest(metaRequestOptions)) {
+                    Assert.assertEquals(Integer.valueOf(0), onFinishedFuture.get());
+                }
+                Assert.assertTrue(tuner.getMaxActiveConnections() > 0);
+                Assert.assertTrue(tuner.getPartSize() * tuner.getMaxActiveConnections() <= memoryLimit);
+            }
+        }
+    }
+
     static class TransferStats {
         static final double GBPS = 1000 * 1000 * 1000;
 
@@ -0,0 +1,74 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.test;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.s3.S3LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class S3LatencyHistogramTest extends CrtTestFixture {
+    public S3LatencyHistogramTest() {
+    }
+
+    @Test
+    public void testPercentilesWithinBucketPrecision() {
+        S3LatencyHistogram histogram = new S3LatencyHistogram();
+        for (long i = 1; i <= 100000; i++) {
+            histogram.record(i * 1000);
+        }
+        S3LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100000, snapshot.getCount());
+        assertEquals(100000L * 1000, snapshot.getMax());
+        assertEquals(50000.5 * 1000, snapshot.getMean(), 0.001);
+
+        double[] percentiles = { 1, 50, 90, 99, 99.9 };
+        for (double percentile : percentiles) {
+            double expected = percentile * 1000 * 1000;
+            long actual = snapshot.getValueAtPercentile(percentile);
+            assertTrue("p" + percentile + " = " + actual, actual >= expected && actual <= expected * 1.125);
+        }
+        assertEquals(snapshot.getMax(), snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testEmptyAndEdgeValues() {
+        S3LatencyHistogram histogram = new S3LatencyHistogram();
+        assertEquals(0, histogram.snapshot().getValueAtPercentile(99));
+
+        histogram.record(-5);
+        histogram.record(0);
+        histogram.record(Long.MAX_VALUE);
+        S3LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        S3LatencyHistogram histogram = new S3LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 50000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(200000, histogram.snapshot().getCount());
+        assertEquals(49999, histogram.snapshot().getMax());
+    }
+}
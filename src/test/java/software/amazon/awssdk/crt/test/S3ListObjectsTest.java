@@ -0,0 +1,98 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.test;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.s3.S3Client;
+import software.amazon.awssdk.crt.s3.S3ClientOptions;
+import software.amazon.awssdk.crt.s3.S3ListObjectsBatch;
+import software.amazon.awssdk.crt.s3.S3ListObjectsListener;
+import software.amazon.awssdk.crt.s3.S3ListObjectsOptions;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class S3ListObjectsTest extends MockS3TestFixture {
+    public S3ListObjectsTest() {
+    }
+
+    private static final List<String> KEYS = Arrays.asList("data/top", "data/a/1", "data/a/2", "data/a/x/3",
+            "data/a/x/4", "data/b/5", "data/c/d/6", "data/c/d/e/7", "other/8");
+
+    /* Keys reported by one listing, with the partition each was reported in */
+    private static class Listing implements S3ListObjectsListener {
+        final Map<String, String> partitionOfKey = new ConcurrentHashMap<>();
+        final Set<String> partitions = new TreeSet<>();
+        int duplicates = 0;
+
+        @Override
+        public synchronized void onBatch(S3ListObjectsBatch batch) {
+            for (int i = 0; i < batch.size(); i++) {
+                assertEquals(1, batch.getSize(i));
+                if (partitionOfKey.put(batch.getKey(i), batch.getPartitionPrefix()) != null) {
+                    duplicates++;
+                }
+            }
+        }
+
+        @Override
+        public synchronized void onPartition(String prefix) {
+            partitions.add(prefix);
+        }
+    }
+
+    private Listing list(S3Client client, int partitionDepth) throws Exception {
+        Listing listing = new Listing();
+        /* One key per page, so that every partition takes continuation requests */
+        S3ListObjectsOptions options = new S3ListObjectsOptions().withHost(mockServer.getHost())
+                .withEndpoint(mockServer.getEndpoint()).withPrefix("data/").withPartitionDepth(partitionDepth)
+                .withMaxKeysPerPage(1).withMaxConcurrentRequests(3);
+        long count = client.listObjects(options, listing).get(60, TimeUnit.SECONDS);
+        assertEquals(0, listing.duplicates);
+        assertEquals(count, listing.partitionOfKey.size());
+        return listing;
+    }
+
+    @Test
+    public void testListObjectsPartitionDepth() throws Exception {
+        startMockS3Server();
+        for (String key : KEYS) {
+            mockServer.putObject("/" + key, 1);
+        }
+        Set<String> expectedKeys = new TreeSet<>(KEYS);
+        expectedKeys.remove("other/8");
+
+        try (S3Client client = createMockS3Client(new S3ClientOptions())) {
+            Map<Integer, Set<String>> partitionsAtDepth = new HashMap<>();
+            partitionsAtDepth.put(0, new TreeSet<>());
+            partitionsAtDepth.put(1, new TreeSet<>(Arrays.asList("data/a/", "data/b/", "data/c/")));
+            partitionsAtDepth.put(2, new TreeSet<>(Arrays.asList("data/a/", "data/b/", "data/c/", "data/a/x/",
+                    "data/c/d/")));
+            for (Map.Entry<Integer, Set<String>> depth : partitionsAtDepth.entrySet()) {
+                Listing listing = list(client, depth.getKey());
+                /* Every key is listed exactly once at any depth, by the deepest partition it falls in */
+                assertEquals(expectedKeys, new TreeSet<>(listing.partitionOfKey.keySet()));
+                assertEquals(depth.getValue(), listing.partitions);
+                for (Map.Entry<String, String> key : listing.partitionOfKey.entrySet()) {
+                    String partition = key.getValue();
+                    assertTrue(key.getKey().startsWith(partition));
+                    for (String other : listing.partitions) {
+                        assertTrue(other.length() <= partition.length() || !key.getKey().startsWith(other));
+                    }
+                }
+            }
+        }
+    }
+}
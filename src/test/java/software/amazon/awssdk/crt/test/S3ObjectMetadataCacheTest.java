@@ -0,0 +1,60 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.test;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.s3.S3ObjectMetadataCache;
+import software.amazon.awssdk.crt.s3.S3ObjectMetadataCache.ObjectMetadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class S3ObjectMetadataCacheTest extends CrtTestFixture {
+    private static final String HOST = "bucket.s3.us-west-2.amazonaws.com";
+
+    public S3ObjectMetadataCacheTest() {
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        S3ObjectMetadataCache cache = new S3ObjectMetadataCache(2, 60000);
+        cache.put(HOST, "/a", new ObjectMetadata(1, "\"a\"", null));
+        cache.put(HOST, "/b", new ObjectMetadata(2, "\"b\"", "FULL_OBJECT"));
+        /* Reading /a makes /b the least recently used */
+        assertEquals(1, cache.get(HOST, "/a").getSize());
+        cache.put(HOST, "/c", new ObjectMetadata(3, "\"c\"", null));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get(HOST, "/b"));
+        assertNotNull(cache.get(HOST, "/a"));
+        assertEquals("\"c\"", cache.get(HOST, "/c").getETag());
+        assertEquals(3, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        /* The host is part of the identity */
+        assertNull(cache.get("other.s3.us-west-2.amazonaws.com", "/a"));
+        cache.invalidate(HOST, "/a");
+        assertNull(cache.get(HOST, "/a"));
+    }
+
+    @Test
+    public void testEntriesExpire() throws Exception {
+        S3ObjectMetadataCache cache = new S3ObjectMetadataCache(16, 20);
+        cache.put(HOST, "/a", new ObjectMetadata(1, "\"a\"", null));
+        cache.put(HOST, "/b", new ObjectMetadata(2, "\"b\"", null));
+        Thread.sleep(50);
+        assertNull(cache.get(HOST, "/a"));
+        assertEquals(1, cache.size());
+        cache.removeExpired();
+        assertEquals(0, cache.size());
+
+        /* Recording an object again restarts its time to live */
+        cache.put(HOST, "/a", new ObjectMetadata(1, "\"a2\"", null));
+        assertEquals("\"a2\"", cache.get(HOST, "/a").getETag());
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.test;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.http.HttpHeader;
+import software.amazon.awssdk.crt.http.HttpRequest;
+import software.amazon.awssdk.crt.s3.S3Client;
+import software.amazon.awssdk.crt.s3.S3ClientOptions;
+import software.amazon.awssdk.crt.s3.S3FinishedResponseContext;
+import software.amazon.awssdk.crt.s3.S3MetaRequest;
+import software.amazon.awssdk.crt.s3.S3MetaRequestOptions;
+import software.amazon.awssdk.crt.s3.S3MetaRequestOptions.MetaRequestType;
+import software.amazon.awssdk.crt.s3.S3MetaRequestResponseHandler;
+import software.amazon.awssdk.crt.s3.S3ObjectOutputStream;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+public class S3ObjectOutputStreamUploadTest extends MockS3TestFixture {
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    public S3ObjectOutputStreamUploadTest() {
+    }
+
+    @Test
+    public void testSlowWriterDoesNotStallOtherRequests() throws Exception {
+        startMockS3Server();
+        long getSize = 1024 * 1024;
+        mockServer.putObject("/bucket/fetched", getSize);
+
+        /* The mock client has a single event loop thread, which both meta requests share */
+        try (S3Client client = createMockS3Client(new S3ClientOptions().withPartSize(PART_SIZE))) {
+            HttpRequest putRequest = new HttpRequest("PUT", "/bucket/streamed",
+                    new HttpHeader[] { new HttpHeader("Host", mockServer.getHost()) }, null);
+            S3MetaRequestResponseHandler putHandler = new S3MetaRequestResponseHandler() {
+            };
+            S3MetaRequestOptions putOptions = new S3MetaRequestOptions()
+                    .withMetaRequestType(MetaRequestType.PUT_OBJECT)
+                    .withHttpRequest(putRequest)
+                    .withEndpoint(mockServer.getEndpoint())
+                    .withResponseHandler(putHandler);
+
+            long written = 0;
+            try (S3ObjectOutputStream out = S3ObjectOutputStream.open(client, putOptions, PART_SIZE, 2)) {
+                /* The stream's meta request is made from a copy of the options */
+                assertSame(putRequest, putOptions.getHttpRequest());
+                assertSame(putHandler, putOptions.getResponseHandler());
+
+                /* Nothing has been written yet, the upload pulls an empty body while the GET runs */
+                AtomicLong received = new AtomicLong();
+                CompletableFuture<S3FinishedResponseContext> getFinished = new CompletableFuture<>();
+                S3MetaRequestOptions getOptions = new S3MetaRequestOptions()
+                        .withMetaRequestType(MetaRequestType.GET_OBJECT)
+                        .withHttpRequest(new HttpRequest("GET", "/bucket/fetched",
+                                new HttpHeader[] { new HttpHeader("Host", mockServer.getHost()) }, null))
+                        .withEndpoint(mockServer.getEndpoint())
+                        .withResponseHandler(new S3MetaRequestResponseHandler() {
+                            @Override
+                            public int onResponseBody(ByteBuffer bodyBytesIn, long objectRangeStart,
+                                    long objectRangeEnd) {
+                                received.addAndGet(bodyBytesIn.remaining());
+                                return 0;
+                            }
+
+                            @Override
+                            public void onFinished(S3FinishedResponseContext context) {
+                                getFinished.complete(context);
+                            }
+                        });
+                try (S3MetaRequest getRequest = client.makeMetaRequest(getOptions)) {
+                    assertEquals(0, getFinished.get(30, TimeUnit.SECONDS).getErrorCode());
+                }
+                assertEquals(getSize, received.get());
+                assertFalse(out.getFinishedFuture().isDone());
+
+                byte[] chunk = new byte[64 * 1024];
+                for (int i = 0; i < 2 * PART_SIZE / chunk.length + 1; i++) {
+                    out.write(chunk);
+                    written += chunk.length;
+                }
+            }
+            assertEquals(written, mockServer.getObjectSize("/bucket/streamed"));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.test;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.s3.S3PositionalFileSink;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class S3PositionalFileSinkTest extends CrtTestFixture {
+    public S3PositionalFileSinkTest() {
+    }
+
+    private static byte[] makePayload(int size) {
+        byte[] payload = new byte[size];
+        for (int i = 0; i < size; i++) {
+            payload[i] = (byte) (i % 251);
+        }
+        return payload;
+    }
+
+    @Test
+    public void testOpenReplacesExistingFile() throws Exception {
+        byte[] payload = makePayload(4096);
+        Path path = Files.createTempFile("S3PositionalFileSinkTest", ".bin");
+        try {
+            /* A longer leftover from an earlier download must not survive past the new object's end */
+            Files.write(path, new byte[3 * payload.length]);
+            try (S3PositionalFileSink sink = S3PositionalFileSink.open(path, null)) {
+                for (int start = 0; start < payload.length; start += 1024) {
+                    ByteBuffer direct = ByteBuffer.allocateDirect(1024);
+                    direct.put(payload, start, 1024);
+                    direct.flip();
+                    assertEquals(1024, sink.onResponseBody(direct, start, start + 1024));
+                }
+                assertEquals(payload.length, sink.getBytesWritten());
+            }
+            assertArrayEquals(payload, Files.readAllBytes(path));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void testSharedChannelWithFileOffset() throws Exception {
+        byte[] payload = makePayload(2048);
+        Path path = Files.createTempFile("S3PositionalFileSinkTest", ".bin");
+        try {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                S3PositionalFileSink second = new S3PositionalFileSink(channel, 16, null);
+                S3PositionalFileSink first = new S3PositionalFileSink(channel, 16, null);
+                second.onResponseBody(ByteBuffer.wrap(payload, 1024, 1024), 1024, 2048);
+                first.onResponseBody(ByteBuffer.wrap(payload, 0, 1024), 0, 1024);
+            }
+            byte[] written = Files.readAllBytes(path);
+            assertEquals(16 + payload.length, written.length);
+            for (int i = 0; i < payload.length; i++) {
+                assertEquals(payload[i], written[16 + i]);
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0.
+ */
+
+package software.amazon.awssdk.crt.test;
+
+import org.junit.Test;
+import software.amazon.awssdk.crt.http.HttpHeader;
+import software.amazon.awssdk.crt.http.HttpRequest;
+import software.amazon.awssdk.crt.s3.ResumeToken;
+import software.amazon.awssdk.crt.s3.S3Client;
+import software.amazon.awssdk.crt.s3.S3ClientOptions;
+import software.amazon.awssdk.crt.s3.S3FinishedResponseContext;
+import software.amazon.awssdk.crt.s3.S3MetaRequest;
+import software.amazon.awssdk.crt.s3.S3MetaRequestOptions;
+import software.amazon.awssdk.crt.s3.S3MetaRequestOptions.MetaRequestType;
+import software.amazon.awssdk.crt.s3.S3MetaRequestProgress;
+import software.amazon.awssdk.crt.s3.S3MetaRequestResponseHandler;
+import software.amazon.awssdk.crt.s3.S3RequestMetrics;
+import software.amazon.awssdk.crt.s3.S3ResumeJournal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class S3ResumeJournalTest extends MockS3TestFixture {
+    public S3ResumeJournalTest() {
+    }
+
+    private static ResumeToken uploadToken(long numPartsCompleted) {
+        return new ResumeToken.PutResumeTokenBuilder()
+                .withPartSize(8 * 1024 * 1024)
+                .withTotalNumParts(600000)
+                .withNumPartsCompleted(numPartsCompleted)
+                .withUploadId("VXBsb2FkIElEIGZvciBlbHZpbmcncyBteS1tb3ZpZS5tMnRzIHVwbG9hZA")
+                .build();
+    }
+
+    @Test
+    public void testResumeTokenRoundTrip() {
+        ResumeToken token = uploadToken(123456);
+        byte[] data = token.toBytes();
+        ResumeToken decoded = ResumeToken.fromBytes(data);
+        assertEquals(MetaRequestType.PUT_OBJECT, decoded.getType());
+        assertEquals(token.getPartSize(), decoded.getPartSize());
+        assertEquals(token.getTotalNumParts(), decoded.getTotalNumParts());
+        assertEquals(token.getNumPartsCompleted(), decoded.getNumPartsCompleted());
+        assertEquals(token.getUploadId(), decoded.getUploadId());
+        /* Variable-length numbers keep the token close to the size of the upload id */
+        assertTrue(data.length < token.getUploadId().length() + 24);
+    }
+
+    @Test
+    public void testResumeTokenRejectsDamagedData() {
+        byte[] data = uploadToken(7).toBytes();
+        assertThrows(IllegalArgumentException.class, () -> ResumeToken.fromBytes(Arrays.copyOf(data, data.length - 1)));
+        assertThrows(IllegalArgumentException.class, () -> ResumeToken.fromBytes(new byte[0]));
+        for (int i = 0; i < data.length; i++) {
+            byte[] corrupted = data.clone();
+            corrupted[i] ^= 0x10;
+            final byte[] input = corrupted;
+            assertThrows(IllegalArgumentException.class, () -> ResumeToken.fromBytes(input));
+        }
+    }
+
+    @Test
+    public void testJournalCheckpointLoadDelete() throws Exception {
+        Path directory = Files.createTempDirectory("resume_journal");
+        Path path = directory.resolve("upload.journal");
+        try {
+            S3ResumeJournal journal = new S3ResumeJournal(path);
+            assertNull(journal.load());
+
+            journal.checkpoint(uploadToken(1));
+            journal.checkpoint(uploadToken(2));
+            ResumeToken loaded = new S3ResumeJournal(path).load();
+            assertEquals(2, loaded.getNumPartsCompleted());
+            /* Only the journal itself is left behind, not the temporary file of a checkpoint */
+            assertEquals(1, directory.toFile().list().length);
+
+            journal.delete();
+            assertFalse(Files.exists(path));
+            assertNull(journal.load());
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /*
+     * Handler of journaled transfers, reusable across attempts made with the same options.
+     * If cancelAfterProgress is set, the attempt is cancelled once some of it has been checkpointed.
+     */
+    private static final class AttemptHandler implements S3MetaRequestResponseHandler {
+        volatile CompletableFuture<S3FinishedResponseContext> finished;
+        volatile S3MetaRequest metaRequest;
+        volatile boolean cancelAfterProgress;
+        final AtomicBoolean progressed = new AtomicBoolean(false);
+        /* Completed with the journal's content after the first UploadPart of an attempt */
+        volatile CompletableFuture<ResumeToken> firstPart;
+        volatile S3ResumeJournal journal;
+        final AtomicInteger uploadedParts = new AtomicInteger(0);
+
+        void reset(S3ResumeJournal journal, boolean cancelAfterProgress) {
+            this.journal = journal;
+            this.cancelAfterProgress = cancelAfterProgress;
+            finished = new CompletableFuture<>();
+            firstPart = new CompletableFuture<>();
+            metaRequest = null;
+            progressed.set(false);
+            uploadedParts.set(0);
+        }
+
+        @Override
+        public void onProgress(S3MetaRequestProgress progress) {
+            progressed.set(true);
+            S3MetaRequest started = metaRequest;
+            if (cancelAfterProgress && started != null) {
+                started.cancel();
+            }
+        }
+
+        @Override
+        public void onTelemetry(S3RequestMetrics metrics) {
+            if (metrics.getErrorCode() == 0 && "UploadPart".equals(metrics.getOperationName())) {
+                uploadedParts.incrementAndGet();
+                try {
+                    /* The journal checkpoints each part before forwarding its telemetry */
+                    firstPart.complete(journal.load());
+                } catch (IOException ex) {
+                    firstPart.completeExceptionally(ex);
+                }
+            }
+        }
+
+        @Override
+        public void onFinished(S3FinishedResponseContext context) {
+            finished.complete(context);
+        }
+    }
+
+    /* Run one attempt of a journaled transfer, and wait for its meta request to finish */
+    private static S3FinishedResponseContext runJournaled(S3Client client, S3ResumeJournal journal,
+            S3MetaRequestOptions options, boolean cancelAfterProgress) throws Exception {
+        AttemptHandler handler = (AttemptHandler) options.getResponseHandler();
+        handler.reset(journal, cancelAfterProgress);
+        try (S3MetaRequest metaRequest = journal.makeMetaRequest(client, options)) {
+            handler.metaRequest = metaRequest;
+            if (cancelAfterProgress && handler.progressed.get()) {
+                metaRequest.cancel();
+            }
+            return handler.finished.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    private S3MetaRequestOptions downloadOptions(String path, Path file) {
+        HttpRequest request = new HttpRequest("GET", path,
+                new HttpHeader[] { new HttpHeader("Host", mockServer.getHost()) }, null);
+        return new S3MetaRequestOptions()
+                .withMetaRequestType(MetaRequestType.GET_OBJECT)
+                .withHttpRequest(request)
+                .withEndpoint(mockServer.getEndpoint())
+                .withResponseFilePath(file)
+                .withResponseHandler(new AttemptHandler());
+    }
+
+    /* Download an object through the journal, with fresh options */
+    private S3FinishedResponseContext downloadJournaled(S3Client client, S3ResumeJournal journal, String path,
+            Path file, boolean cancelAfterProgress) throws Exception {
+        return runJournaled(client, journal, downloadOptions(path, file), cancelAfterProgress);
+    }
+
+    private static long resumeOffset(ResumeToken token) {
+        return token.getObjectRangeStart() + token.getContinuesDownloadedBytes();
+    }
+
+    @Test
+    public void testDownloadResumesTwiceWithSameOptions() throws Exception {
+        startMockS3Server();
+        String objectPath = "/bucket/journaled-twice";
+        long size = 16L * 1024 * 1024;
+        mockServer.putObject(objectPath, size);
+        mockServer.withBandwidthBytesPerSecond(2L * 1024 * 1024);
+
+        Path directory = Files.createTempDirectory("resume_journal");
+        Path file = directory.resolve("download");
+        Path journalPath = directory.resolve("download.journal");
+        S3ResumeJournal journal = new S3ResumeJournal(journalPath, 0);
+        S3MetaRequestOptions options = downloadOptions(objectPath, file);
+        S3MetaRequestResponseHandler handler = options.getResponseHandler();
+        try (S3Client client = createMockS3Client(new S3ClientOptions().withPartSize(1024 * 1024))) {
+            assertNotEquals(0, runJournaled(client, journal, options, true).getErrorCode());
+            long firstOffset = resumeOffset(journal.load());
+            assertTrue(firstOffset > 0);
+
+            /* Resuming must not leave its Range header or its tracker on the caller's options */
+            assertNotEquals(0, runJournaled(client, journal, options, true).getErrorCode());
+            assertSame(handler, options.getResponseHandler());
+            assertEquals(1, options.getHttpRequest().getHeaders().size());
+            long secondOffset = resumeOffset(journal.load());
+            assertTrue(secondOffset > firstOffset);
+
+            mockServer.withBandwidthBytesPerSecond(0);
+            assertEquals(0, runJournaled(client, journal, options, false).getErrorCode());
+            assertNull(journal.load());
+            /* Every resumed range landed at its own offset: the file holds the object's content pattern */
+            byte[] data = Files.readAllBytes(file);
+            assertEquals(size, data.length);
+            for (int i = 0; i < data.length; i++) {
+                if (data[i] != (byte) (i % 251)) {
+                    fail("Unexpected byte at offset " + i);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(journalPath);
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    public void testUploadResumesFromJournal() throws Exception {
+        startMockS3Server();
+        String objectPath = "/bucket/journaled-upload";
+        long partSize = 1024 * 1024;
+        long size = 16 * partSize;
+        /* Slow enough that the upload is paused long before it completes */
+        mockServer.withBandwidthBytesPerSecond(256 * 1024);
+
+        Path directory = Files.createTempDirectory("resume_journal");
+        Path file = directory.resolve("upload");
+        Path journalPath = directory.resolve("upload.journal");
+        S3ResumeJournal journal = new S3ResumeJournal(journalPath, 0);
+        try (S3Client client = createMockS3Client(new S3ClientOptions().withPartSize(partSize))) {
+            Files.write(file, new byte[(int) size]);
+            HttpRequest request = new HttpRequest("PUT", objectPath, new HttpHeader[] {
+                    new HttpHeader("Host", mockServer.getHost()),
+                    new HttpHeader("Content-Length", Long.toString(size)) }, null);
+            S3MetaRequestOptions options = new S3MetaRequestOptions()
+                    .withMetaRequestType(MetaRequestType.PUT_OBJECT)
+                    .withHttpRequest(request)
+                    .withEndpoint(mockServer.getEndpoint())
+                    .withRequestFilePath(file)
+                    .withPartSize(partSize)
+                    .withResponseHandler(new AttemptHandler());
+            AttemptHandler handler = (AttemptHandler) options.getResponseHandler();
+
+            handler.reset(journal, false);
+            try (S3MetaRequest metaRequest = journal.makeMetaRequest(client, options)) {
+                handler.metaRequest = metaRequest;
+                /* The tracker recorded the part from the UploadPart metrics of the first attempt */
+                ResumeToken recorded = handler.firstPart.get(60, TimeUnit.SECONDS);
+                assertNotNull(recorded);
+                assertEquals(MetaRequestType.PUT_OBJECT, recorded.getType());
+                assertEquals(partSize, recorded.getPartSize());
+                assertEquals(16, recorded.getTotalNumParts());
+                assertTrue(recorded.getNumPartsCompleted() >= 1);
+                assertNotNull(recorded.getUploadId());
+                /* Pausing keeps the multipart upload, as a crash would */
+                metaRequest.pause();
+                assertNotEquals(0, handler.finished.get(60, TimeUnit.SECONDS).getErrorCode());
+            }
+            ResumeToken paused = journal.load();
+            assertNotNull(paused);
+            assertTrue(paused.getNumPartsCompleted() >= 1);
+            assertNull(options.getResumeToken());
+
+            mockServer.withBandwidthBytesPerSecond(0);
+            assertEquals(0, runJournaled(client, journal, options, false).getErrorCode());
+            /* Parts the journal had recorded were skipped */
+            assertTrue(handler.uploadedParts.get() <= 16 - paused.getNumPartsCompleted());
+            assertEquals(size, mockServer.getObjectSize(objectPath));
+            assertNull(journal.load());
+        } finally {
+            Files.deleteIfExists(journalPath);
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    public void testResumedDownloadRestartsWhenObjectChanged() throws Exception {
+        startMockS3Server();
+        String objectPath = "/bucket/journaled-download";
+        long originalSize = 16L * 1024 * 1024;
+        long replacedSize = 8L * 1024 * 1024;
+        mockServer.putObject(objectPath, originalSize);
+        /* Slow enough that the download is cancelled long before it completes */
+        mockServer.withBandwidthBytesPerSecond(2L * 1024 * 1024);
+
+        Path directory = Files.createTempDirectory("resume_journal");
+        Path file = directory.resolve("download");
+        Path journalPath = directory.resolve("download.journal");
+        S3ResumeJournal journal = new S3ResumeJournal(journalPath, 0);
+        try (S3Client client = createMockS3Client(new S3ClientOptions().withPartSize(1024 * 1024))) {
+            S3FinishedResponseContext cancelled = downloadJournaled(client, journal, objectPath, file, true);
+            assertNotEquals(0, cancelled.getErrorCode());
+            ResumeToken stale = journal.load();
+            assertNotNull(stale);
+            assertEquals(MetaRequestType.GET_OBJECT, stale.getType());
+
+            /* The ETag of the checkpoint no longer matches, so the resumed GET fails its If-Match */
+            mockServer.putObject(objectPath, replacedSize);
+            mockServer.withBandwidthBytesPerSecond(0);
+            S3FinishedResponseContext rejected = downloadJournaled(client, journal, objectPath, file, false);
+            assertEquals(412, rejected.getResponseStatus());
+            assertNull(journal.load());
+
+            /* Without a journal, the next attempt downloads the new object from the start */
+            S3FinishedResponseContext restarted = downloadJournaled(client, journal, objectPath, file, false);
+            assertEquals(0, restarted.getErrorCode());
+            assertEquals(replacedSize, Files.size(file));
+            assertNull(journal.load());
+        } finally {
+            Files.deleteIfExists(journalPath);
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+}